@@ -0,0 +1,18 @@
+#!/bin/bash
+
+# Benchmarks JMH de MoraPack con el perfilador de memoria (gc).
+#   ./ejecutar_benchmarks.sh                      -> todos los benchmarks
+#   ./ejecutar_benchmarks.sh BenchmarkGenetico    -> solo los que coinciden con el patrón
+# Los argumentos se pasan tal cual a JMH (por ejemplo -f 2 -wi 3 -rf json).
+
+DIR="$(cd "$(dirname "$0")" && pwd)"
+
+mvn -B -q -f "$DIR/pom.xml" package -DskipTests
+if [ $? -ne 0 ]; then
+    echo "❌ Error compilando los benchmarks" >&2
+    exit 1
+fi
+
+# Los cargadores usan rutas relativas a datos/
+cd "$DIR/../morapack_genetico" || exit 1
+java -jar "$DIR/target/benchmarks.jar" -prof gc "$@"
@@ -0,0 +1,48 @@
+package morapack.benchmark;
+
+import morapack.datos.CargadorPedidosMasivo;
+import morapack.datos.CargadorPedidosUltrafinal;
+import morapack.datos.CargadorVuelosCompletos;
+import morapack.modelo.Pedido;
+import morapack.modelo.Vuelo;
+import org.openjdk.jmh.annotations.*;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura y parseo de los archivos reales de vuelos y pedidos
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkCarga {
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        DatosReales.silenciarConsola();
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        DatosReales.restaurarConsola();
+    }
+
+    @Benchmark
+    public List<Vuelo> cargarVuelos() {
+        return CargadorVuelosCompletos.cargarVuelos(DatosReales.ARCHIVO_VUELOS);
+    }
+
+    @Benchmark
+    public List<Pedido> cargarPedidos() {
+        return CargadorPedidosUltrafinal.cargarPedidos(DatosReales.ARCHIVO_PEDIDOS);
+    }
+
+    @Benchmark
+    public CargadorPedidosMasivo.Resultado cargarPedidosMasivo() throws IOException {
+        return CargadorPedidosMasivo.cargar(DatosReales.ARCHIVO_PEDIDOS);
+    }
+}
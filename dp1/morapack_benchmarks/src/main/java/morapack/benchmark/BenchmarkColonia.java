@@ -0,0 +1,62 @@
+package morapack.benchmark;
+
+import morapack.colonia.Feromona;
+import morapack.colonia.componentes.UtilACO;
+import org.openjdk.jmh.annotations.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaporación de feromonas y selección por ruleta de la colonia de hormigas
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkColonia {
+
+    @Param({"30", "500"})
+    public int tamano;
+
+    private double[] probabilidades;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        probabilidades = new double[tamano];
+        for (int i = 0; i < tamano; i++) {
+            probabilidades[i] = random.nextDouble();
+        }
+        UtilACO.establecerSemilla(42);
+    }
+
+    /**
+     * Matriz de feromonas del mismo tamaño, con evaporación perezosa o recorriendo toda la matriz
+     */
+    @State(Scope.Thread)
+    public static class EstadoFeromona {
+        @Param({"true", "false"})
+        public boolean evaporacionPerezosa;
+
+        Feromona feromona;
+
+        @Setup(Level.Trial)
+        public void crear(BenchmarkColonia estado) {
+            feromona = new Feromona(estado.tamano, 1.0, 0.1);
+            feromona.setEvaporacionPerezosa(evaporacionPerezosa);
+        }
+    }
+
+    @Benchmark
+    public Feromona evaporar(EstadoFeromona estado) {
+        estado.feromona.evaporar();
+        return estado.feromona;
+    }
+
+    @Benchmark
+    public int seleccionRuleta() {
+        return UtilACO.seleccionRuleta(probabilidades);
+    }
+}
@@ -0,0 +1,108 @@
+package morapack.benchmark;
+
+import morapack.genetico.core.algoritmo.AlgoritmoGeneticoIntegrado;
+import morapack.genetico.core.algoritmo.IndividuoIntegrado;
+import morapack.modelo.Pedido;
+import morapack.modelo.Vuelo;
+import morapack.planificacion.PlanificadorAvanzadoEscalas;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fitness de IndividuoIntegrado y generaciones completas de AlgoritmoGeneticoIntegrado
+ * sobre los pedidos y vuelos reales, con semillas fijas.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkGenetico {
+
+    private static final long SEMILLA = 12345L;
+
+    private List<Pedido> pedidos;
+    private List<Vuelo> vuelos;
+    private PlanificadorAvanzadoEscalas planificador;
+    private IndividuoIntegrado evaluado;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        DatosReales.silenciarConsola();
+        pedidos = DatosReales.cargarPedidos();
+        vuelos = DatosReales.cargarVuelos();
+        planificador = new PlanificadorAvanzadoEscalas(vuelos);
+
+        evaluado = new IndividuoIntegrado(pedidos, planificador, planificador, SEMILLA);
+        evaluado.inicializarConPlanificacion();
+        evaluado.evaluarFitness();
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        DatosReales.restaurarConsola();
+    }
+
+    /**
+     * Individuo recién inicializado: su primera evaluación re-planifica todos los pedidos
+     */
+    @State(Scope.Thread)
+    public static class IndividuoNuevo {
+        IndividuoIntegrado individuo;
+
+        @Setup(Level.Invocation)
+        public void crear(BenchmarkGenetico estado) {
+            individuo = new IndividuoIntegrado(estado.pedidos, estado.planificador, estado.planificador, SEMILLA);
+            individuo.inicializarConPlanificacion();
+        }
+    }
+
+    /**
+     * Copia de un individuo ya evaluado con un gen mutado: la evaluación es incremental
+     */
+    @State(Scope.Thread)
+    public static class IndividuoMutado {
+        IndividuoIntegrado individuo;
+        int gen;
+
+        @Setup(Level.Invocation)
+        public void crear(BenchmarkGenetico estado) {
+            individuo = estado.evaluado.copiar();
+            gen = (gen + 1) % estado.pedidos.size();
+            individuo.replanificarRuta(gen);
+        }
+    }
+
+    @Benchmark
+    public double evaluarFitnessCompleto(IndividuoNuevo nuevo) {
+        nuevo.individuo.evaluarFitness();
+        return nuevo.individuo.getFitness();
+    }
+
+    @Benchmark
+    public double evaluarFitnessIncremental(IndividuoMutado mutado) {
+        mutado.individuo.evaluarFitness();
+        return mutado.individuo.getFitness();
+    }
+
+    /**
+     * Una ejecución con población de 20; la diferencia entre 0 y 1 generaciones es el costo
+     * de una generación (selección, cruce, mutación y evaluación)
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IndividuoIntegrado ejecutarGeneracion(Generaciones generaciones) {
+        AlgoritmoGeneticoIntegrado algoritmo = new AlgoritmoGeneticoIntegrado(
+            pedidos, vuelos, 20, generaciones.numero, SEMILLA);
+        return algoritmo.ejecutar();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Generaciones {
+        @Param({"0", "1"})
+        public int numero;
+    }
+}
@@ -0,0 +1,98 @@
+package morapack.benchmark;
+
+import morapack.modelo.Vuelo;
+import morapack.planificacion.PlanificadorAvanzadoEscalas;
+import morapack.planificacion.RutaCompleta;
+import org.openjdk.jmh.annotations.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PlanificadorAvanzadoEscalas.planificarRuta (Connection Scan) para tres tipos de par origen-destino.
+ * La red real es completa y la llegada más temprana a veces usa una escala aunque exista vuelo
+ * directo, así que los casos directo y con escala se buscan al preparar: el primer destino y hora
+ * desde SPIM cuya ruta tiene uno o dos vuelos. El caso inalcanzable pide más paquetes que la
+ * capacidad de cualquier vuelo, lo que obliga a recorrer las conexiones sin encontrar ruta.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPlanificacion {
+
+    private static final String SEDE = "SPIM";
+
+    @Param({"DIRECTA", "UNA_ESCALA", "INALCANZABLE"})
+    public String tipoRuta;
+
+    private PlanificadorAvanzadoEscalas planificador;
+    private String destino;
+    private int cantidad;
+    private int tiempoMinimo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        DatosReales.silenciarConsola();
+        List<Vuelo> vuelos = DatosReales.cargarVuelos();
+        planificador = new PlanificadorAvanzadoEscalas(vuelos);
+        cantidad = 1;
+        tiempoMinimo = 0;
+
+        switch (tipoRuta) {
+            case "DIRECTA":
+                buscarPar(vuelos, 1);
+                break;
+            case "UNA_ESCALA":
+                buscarPar(vuelos, 2);
+                break;
+            case "INALCANZABLE":
+                destino = "SKBO";
+                cantidad = vuelos.stream().mapToInt(Vuelo::getCapacidad).max().orElse(0) + 1;
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de ruta desconocido: " + tipoRuta);
+        }
+    }
+
+    private void buscarPar(List<Vuelo> vuelos, int numeroVuelos) {
+        Set<String> destinos = new TreeSet<>();
+        for (Vuelo vuelo : vuelos) {
+            destinos.add(vuelo.getDestino());
+        }
+        for (int minuto = 0; minuto < 24 * 60; minuto += 15) {
+            for (String candidato : destinos) {
+                if (candidato.equals(SEDE)) {
+                    continue;
+                }
+                planificador.reiniciarCapacidades();
+                RutaCompleta ruta = planificador.planificarRuta(SEDE, candidato, 1, minuto);
+                if (ruta != null && ruta.getVuelos().size() == numeroVuelos) {
+                    destino = candidato;
+                    tiempoMinimo = minuto;
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("No hay ruta de " + numeroVuelos + " vuelos desde " + SEDE);
+    }
+
+    /**
+     * Cada llamada reserva capacidad; se libera antes de la siguiente para medir siempre la misma búsqueda
+     */
+    @Setup(Level.Invocation)
+    public void liberarCapacidad() {
+        planificador.reiniciarCapacidades();
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        DatosReales.restaurarConsola();
+    }
+
+    @Benchmark
+    public RutaCompleta planificarRuta() {
+        return planificador.planificarRuta(SEDE, destino, cantidad, tiempoMinimo);
+    }
+}
@@ -0,0 +1,51 @@
+package morapack.benchmark;
+
+import morapack.datos.CargadorPedidosUltrafinal;
+import morapack.datos.CargadorVuelosCompletos;
+import morapack.modelo.Pedido;
+import morapack.modelo.Vuelo;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Archivos reales de datos/ compartidos por los benchmarks.
+ * Las rutas son relativas: JMH debe lanzarse desde morapack_genetico (ver ejecutar_benchmarks.sh).
+ */
+final class DatosReales {
+
+    static final String ARCHIVO_VUELOS = "datos/vuelos_completos.csv";
+    static final String ARCHIVO_PEDIDOS = "datos/pedidoUltrafinal.txt";
+
+    private static final PrintStream SALIDA_ORIGINAL = System.out;
+
+    private DatosReales() {
+    }
+
+    static List<Vuelo> cargarVuelos() {
+        List<Vuelo> vuelos = CargadorVuelosCompletos.cargarVuelos(ARCHIVO_VUELOS);
+        if (vuelos.isEmpty()) {
+            throw new IllegalStateException("No se encontró " + ARCHIVO_VUELOS + " (ejecutar desde morapack_genetico)");
+        }
+        return vuelos;
+    }
+
+    static List<Pedido> cargarPedidos() {
+        List<Pedido> pedidos = CargadorPedidosUltrafinal.cargarPedidos(ARCHIVO_PEDIDOS);
+        if (pedidos.isEmpty()) {
+            throw new IllegalStateException("No se encontró " + ARCHIVO_PEDIDOS + " (ejecutar desde morapack_genetico)");
+        }
+        return pedidos;
+    }
+
+    /**
+     * Descarta los mensajes de consola de los cargadores y planificadores durante la medición
+     */
+    static void silenciarConsola() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    static void restaurarConsola() {
+        System.setOut(SALIDA_ORIGINAL);
+    }
+}
@@ -0,0 +1,114 @@
+package morapack.colonia;
+
+/**
+ * Deseabilidad τ^α · η^β precalculada para una ejecución.
+ *
+ * η^β se calcula una sola vez (la heurística no cambia durante la ejecución). τ^α se guarda
+ * respecto a una escala de referencia de la Feromona: la evaporación perezosa multiplica todas
+ * las celdas por el mismo factor, así que basta un factor global (escala / referencia)^α y solo
+ * se recalculan las celdas en que se depositó. El mínimo de feromona se aplica al leer, como
+ * en Feromona.
+ *
+ * sincronizar() debe llamarse entre la actualización de feromonas y la construcción; la lectura
+ * (getDeseabilidad) no modifica nada y es segura desde varias hormigas a la vez.
+ */
+public class CacheDeseabilidad {
+    private static final double FACTOR_MINIMO = 1e-100; // Recalcular todo antes de perder precisión
+
+    private final Feromona feromona;
+    private final int tamano;
+    private final double alfa;
+    private final double beta;
+
+    private final double[] etaBeta;       // η^β por celda [origen * tamano + destino]
+    private final double[] tauAlfaEta;    // (guardado · referencia)^α · η^β
+    private final double[] guardado;      // Copia del valor guardado en la Feromona
+    private final int[] escrita;          // Iteración de evaporación de la última escritura
+
+    private double escalaReferencia;
+    private double factorAlfa;            // (escala / escalaReferencia)^α
+    private double escala;
+    private int iteracion;
+    private double minimo;
+    private double minimoAlfa;
+
+    CacheDeseabilidad(Heuristica heuristica, Feromona feromona, double alfa) {
+        this.feromona = feromona;
+        this.tamano = feromona.getTamano();
+        this.alfa = alfa;
+        this.beta = heuristica.getFactorImportancia();
+
+        int celdas = tamano * tamano;
+        this.etaBeta = new double[celdas];
+        this.tauAlfaEta = new double[celdas];
+        this.guardado = new double[celdas];
+        this.escrita = new int[celdas];
+        for (int i = 0; i < tamano; i++) {
+            for (int j = 0; j < tamano; j++) {
+                double eta = heuristica.calcularValor(i, j);
+                etaBeta[i * tamano + j] = eta > 0 ? Heuristica.potencia(eta, beta) : 0.0;
+            }
+        }
+
+        feromona.activarSeguimientoCambios();
+        sincronizar();
+    }
+
+    /**
+     * Aplica los depósitos y la evaporación ocurridos desde la última sincronización
+     */
+    public void sincronizar() {
+        escala = feromona.getEscala();
+        iteracion = feromona.getIteracionEvaporacion();
+        minimo = feromona.getFeromonaMinima();
+        minimoAlfa = Heuristica.potencia(minimo, alfa);
+
+        double factor = Heuristica.potencia(escala / escalaReferencia, alfa);
+        if (feromona.isCambiaronTodas() || !(factor >= FACTOR_MINIMO)) {
+            escalaReferencia = escala;
+            factorAlfa = 1.0;
+            for (int i = 0; i < tamano; i++) {
+                for (int j = 0; j < tamano; j++) {
+                    actualizarCelda(i, j);
+                }
+            }
+        } else {
+            factorAlfa = factor;
+            for (int k = 0; k < feromona.getNumeroCambios(); k++) {
+                int celda = feromona.getCeldaCambiada(k);
+                actualizarCelda(celda / tamano, celda % tamano);
+            }
+        }
+        feromona.limpiarCambios();
+    }
+
+    private void actualizarCelda(int i, int j) {
+        int p = i * tamano + j;
+        guardado[p] = feromona.getValorGuardado(i, j);
+        escrita[p] = feromona.getUltimaActualizacion(i, j);
+        tauAlfaEta[p] = etaBeta[p] > 0 ? Heuristica.potencia(guardado[p] * escalaReferencia, alfa) * etaBeta[p] : 0.0;
+    }
+
+    /**
+     * τ^α · η^β de la celda con los valores de la última sincronización
+     */
+    public double getDeseabilidad(int origen, int destino) {
+        int p = origen * tamano + destino;
+        if (escrita[p] < iteracion && guardado[p] * escala < minimo) {
+            return minimoAlfa * etaBeta[p];
+        }
+        return tauAlfaEta[p] * factorAlfa;
+    }
+
+    /**
+     * η^β de la celda (fijo durante la ejecución)
+     */
+    public double getHeuristicaPotenciada(int origen, int destino) {
+        return etaBeta[origen * tamano + destino];
+    }
+
+    public Feromona getFeromona() { return feromona; }
+    public int getTamano() { return tamano; }
+    public double getAlfa() { return alfa; }
+    public double getBeta() { return beta; }
+}
@@ -1,50 +1,149 @@
 package morapack.colonia;
 
+import morapack.modelo.Semillas;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * Representa una colonia de hormigas para el algoritmo ACO
  * Maneja la población de hormigas y sus interacciones
+ *
+ * La construcción puede repartirse en un pool de hilos. La hormiga k de la iteración t usa el
+ * flujo derivado de (semilla, t, k), la feromona queda en solo lectura mientras se construye y
+ * los depósitos se hacen después en orden de hormiga: el resultado es el mismo con cualquier
+ * número de hilos para una semilla y un número de hormigas dados.
+ *
+ * Las hormigas se crean una vez con la fábrica y se reutilizan en cada iteración; la mejor
+ * solución se copia en una hormiga reservada de antemano (sin crear objetos al mejorar).
  */
 public class Colonia {
     private List<Hormiga> hormigas;
     private int numeroHormigas;
-    private Hormiga mejorHormiga;
+    private Hormiga mejorHormiga;       // Copia de la mejor (null hasta la primera solución)
+    private Hormiga reservaMejor;       // Hormiga creada en inicializar donde se copia la mejor
     private double mejorCalidad;
     private int iteracionMejorEncontrada;
     
+    // Reproducibilidad y construcción paralela (pool null = secuencial)
+    private final long semilla;
+    private long construcciones;
+    private ForkJoinPool poolConstruccion;
+    private ForkJoinPool poolPropio;    // Creado por configurarConstruccionParalela(int); se cierra con cerrar()
+    
     public Colonia(int numeroHormigas) {
+        this(numeroHormigas, Semillas.semillaEjecucion());
+    }
+    
+    public Colonia(int numeroHormigas, long semilla) {
         this.numeroHormigas = numeroHormigas;
         this.hormigas = new ArrayList<>();
         this.mejorCalidad = Double.MAX_VALUE; // Asumimos minimización
         this.iteracionMejorEncontrada = 0;
+        this.semilla = semilla;
+        this.construcciones = 0;
     }
     
     /**
-     * Inicializa la colonia con hormigas del tipo especificado
+     * Inicializa la colonia con hormigas del tipo especificado (constructor sin parámetros)
      */
     public void inicializar(Class<? extends Hormiga> tipoHormiga) {
-        hormigas.clear();
-        
-        try {
-            for (int i = 0; i < numeroHormigas; i++) {
-                Hormiga hormiga = tipoHormiga.newInstance();
-                hormigas.add(hormiga);
+        inicializar(fabrica(tipoHormiga));
+    }
+    
+    /**
+     * Fábrica que usa el constructor sin parámetros del tipo (para el código que pasa una clase)
+     */
+    public static Supplier<Hormiga> fabrica(Class<? extends Hormiga> tipoHormiga) {
+        return () -> {
+            try {
+                return tipoHormiga.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException("Error al crear hormigas: " + e.getMessage(), e);
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Error al crear hormigas: " + e.getMessage());
+        };
+    }
+    
+    /**
+     * Inicializa la colonia con hormigas creadas por la fábrica (una más para guardar la mejor)
+     */
+    public void inicializar(Supplier<? extends Hormiga> fabrica) {
+        hormigas.clear();
+        for (int i = 0; i < numeroHormigas; i++) {
+            hormigas.add(fabrica.get());
         }
+        this.reservaMejor = fabrica.get();
+        this.mejorHormiga = null;
+        this.mejorCalidad = Double.MAX_VALUE;
+        this.iteracionMejorEncontrada = 0;
     }
     
     /**
      * Hace que todas las hormigas construyan sus soluciones
      */
     public void construirSoluciones(Feromona feromona, Heuristica heuristica) {
-        for (Hormiga hormiga : hormigas) {
-            hormiga.reiniciar();
-            hormiga.construirSolucion(feromona, heuristica);
-            hormiga.evaluarSolucion();
+        long semillaIteracion = Semillas.derivar(semilla, construcciones++);
+        heuristica.sincronizarCache();
+        feromona.setSoloLectura(true);
+        try {
+            if (poolConstruccion == null) {
+                for (int k = 0; k < hormigas.size(); k++) {
+                    construirHormiga(k, semillaIteracion, feromona, heuristica);
+                }
+            } else {
+                poolConstruccion.submit(() -> IntStream.range(0, hormigas.size()).parallel()
+                        .forEach(k -> construirHormiga(k, semillaIteracion, feromona, heuristica))).join();
+            }
+        } finally {
+            feromona.setSoloLectura(false);
+        }
+    }
+    
+    private void construirHormiga(int k, long semillaIteracion, Feromona feromona, Heuristica heuristica) {
+        Hormiga hormiga = hormigas.get(k);
+        hormiga.sembrarGenerador(Semillas.derivar(semillaIteracion, k));
+        hormiga.reiniciar();
+        hormiga.construirSolucion(feromona, heuristica);
+        hormiga.evaluarSolucion();
+    }
+    
+    /**
+     * Construye con el número de hilos indicado (1 o menos = secuencial). El pool es propio de
+     * la colonia: se reutiliza mientras no cambie el número de hilos y se libera con cerrar().
+     */
+    public void configurarConstruccionParalela(int numeroHilos) {
+        if (numeroHilos <= 1) {
+            cerrar();
+            return;
+        }
+        if (poolPropio == null || poolPropio.getParallelism() != numeroHilos) {
+            cerrar();
+            poolPropio = new ForkJoinPool(numeroHilos);
+        }
+        this.poolConstruccion = poolPropio;
+    }
+    
+    /**
+     * Construye en el pool indicado (null vuelve a la construcción secuencial); el pool es de
+     * quien llama, que decide cuándo cerrarlo
+     */
+    public void configurarConstruccionParalela(ForkJoinPool pool) {
+        cerrar();
+        this.poolConstruccion = pool;
+    }
+    
+    /**
+     * Cierra el pool propio de la construcción (si lo hay) y vuelve a la construcción secuencial
+     */
+    public void cerrar() {
+        if (poolPropio != null) {
+            poolPropio.shutdown();
+            if (poolConstruccion == poolPropio) {
+                poolConstruccion = null;
+            }
+            poolPropio = null;
         }
     }
     
@@ -52,32 +151,24 @@ public class Colonia {
      * Actualiza la mejor solución encontrada
      */
     public boolean actualizarMejorSolucion(int iteracion) {
-        boolean mejoraEncontrada = false;
+        Hormiga mejorIteracion = null;
         
-        for (Hormiga hormiga : hormigas) {
+        for (int k = 0; k < hormigas.size(); k++) {
+            Hormiga hormiga = hormigas.get(k);
             if (hormiga.getCalidad() < mejorCalidad) { // Minimización
                 mejorCalidad = hormiga.getCalidad();
-                mejorHormiga = clonarHormiga(hormiga);
-                iteracionMejorEncontrada = iteracion;
-                mejoraEncontrada = true;
+                mejorIteracion = hormiga;
             }
         }
-        
-        return mejoraEncontrada;
-    }
-    
-    /**
-     * Clona una hormiga para preservar la mejor solución
-     */
-    private Hormiga clonarHormiga(Hormiga original) {
-        try {
-            Hormiga clon = original.getClass().newInstance();
-            clon.setCalidad(original.getCalidad());
-            clon.setSolucionCompleta(original.isSolucionCompleta());
-            return clon;
-        } catch (Exception e) {
-            return original; // Fallback
+        if (mejorIteracion == null) {
+            return false;
         }
+        
+        // Solo se copia la mejor de la iteración, en el búfer reservado
+        reservaMejor.copiarDesde(mejorIteracion);
+        mejorHormiga = reservaMejor;
+        iteracionMejorEncontrada = iteracion;
+        return true;
     }
     
     /**
@@ -145,10 +236,15 @@ public class Colonia {
     
     // Getters
     public List<Hormiga> getHormigas() { return new ArrayList<>(hormigas); }
+    
+    /** Hormiga k de la población (sin copiar la lista) */
+    public Hormiga getHormiga(int indice) { return hormigas.get(indice); }
+    public int getTamanoPoblacion() { return hormigas.size(); }
     public int getNumeroHormigas() { return numeroHormigas; }
     public Hormiga getMejorHormiga() { return mejorHormiga; }
     public double getMejorCalidad() { return mejorCalidad; }
     public int getIteracionMejorEncontrada() { return iteracionMejorEncontrada; }
+    public long getSemilla() { return semilla; }
     
     // Setters
     public void setNumeroHormigas(int numero) {
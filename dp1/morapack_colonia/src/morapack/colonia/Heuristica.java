@@ -3,9 +3,16 @@ package morapack.colonia;
 /**
  * Maneja la información heurística del problema
  * Proporciona conocimiento específico del dominio para guiar a las hormigas
+ *
+ * calcularValor debe ser constante durante una ejecución y sin efectos secundarios: sus
+ * valores se precalculan en CacheDeseabilidad y las hormigas pueden leerlos en paralelo.
  */
 public abstract class Heuristica {
+    private static final int MAX_EXPONENTE_ENTERO = 16; // Más allá se usa Math.pow
+    
     protected double factorImportancia; // Alpha: importancia de la heurística vs feromona
+    private CacheDeseabilidad cache;    // null hasta crearCacheDeseabilidad
+    private ListaCandidatos candidatos; // null = las hormigas sortean entre todos los nodos
     
     public Heuristica(double factorImportancia) {
         this.factorImportancia = factorImportancia;
@@ -60,7 +67,57 @@ public abstract class Heuristica {
         
         // Fórmula ACO: τ^α * η^β
         // donde τ = feromona, η = heurística, α = factorFeromona, β = factorImportancia
-        return Math.pow(feromona, factorFeromona) * Math.pow(heuristica, factorImportancia);
+        return potencia(feromona, factorFeromona) * potencia(heuristica, factorImportancia);
+    }
+    
+    /**
+     * base^exponente con multiplicaciones para exponentes enteros y semienteros pequeños
+     * (α = 1 y β = 2 por defecto) y Math.pow para el resto
+     */
+    public static double potencia(double base, double exponente) {
+        if (exponente == 1.0) return base;
+        if (exponente == 2.0) return base * base;
+        double doble = exponente * 2.0;
+        if (exponente >= 0 && exponente <= MAX_EXPONENTE_ENTERO && doble == Math.rint(doble)) {
+            double resultado = 1.0;
+            double factor = base;
+            for (int e = (int) exponente; e > 0; e >>= 1) { // Exponenciación por cuadrados
+                if ((e & 1) != 0) resultado *= factor;
+                factor *= factor;
+            }
+            return ((int) doble & 1) != 0 ? resultado * Math.sqrt(base) : resultado;
+        }
+        return Math.pow(base, exponente);
+    }
+    
+    /**
+     * Crea la caché de deseabilidad de la ejecución (η^β una vez, τ^α solo en celdas cambiadas)
+     */
+    public CacheDeseabilidad crearCacheDeseabilidad(Feromona feromona, double factorFeromona) {
+        this.cache = new CacheDeseabilidad(this, feromona, factorFeromona);
+        return cache;
+    }
+    
+    public CacheDeseabilidad getCacheDeseabilidad() { return cache; }
+    
+    /**
+     * Crea las listas de los k mejores sucesores de cada nodo según calcularValor
+     */
+    public ListaCandidatos crearListaCandidatos(int tamano, int maximoCandidatos) {
+        this.candidatos = new ListaCandidatos(this, tamano, maximoCandidatos);
+        return candidatos;
+    }
+    
+    public ListaCandidatos getListaCandidatos() { return candidatos; }
+    public void eliminarListaCandidatos() { this.candidatos = null; }
+    
+    /**
+     * Lleva a la caché los cambios de feromona de la última actualización (sin caché no hace nada)
+     */
+    public void sincronizarCache() {
+        if (cache != null) {
+            cache.sincronizar();
+        }
     }
     
     /**
@@ -70,12 +127,16 @@ public abstract class Heuristica {
         int tamano = feromona.getTamano();
         double[][] matriz = new double[tamano][tamano];
         
+        // La caché de la ejecución evita recalcular η y las potencias de cada celda
+        if (cache == null || cache.getFeromona() != feromona || cache.getAlfa() != factorFeromona) {
+            crearCacheDeseabilidad(feromona, factorFeromona);
+        } else {
+            cache.sincronizar();
+        }
         for (int i = 0; i < tamano; i++) {
             for (int j = 0; j < tamano; j++) {
                 if (i != j) {
-                    double valorFeromona = feromona.obtenerFeromona(i, j);
-                    double valorHeuristico = calcularValor(i, j);
-                    matriz[i][j] = calcularDeseabilidad(valorFeromona, valorHeuristico, factorFeromona);
+                    matriz[i][j] = cache.getDeseabilidad(i, j);
                 }
             }
         }
@@ -110,7 +171,12 @@ public abstract class Heuristica {
     
     // Getters y setters
     public double getFactorImportancia() { return factorImportancia; }
-    public void setFactorImportancia(double factor) { this.factorImportancia = factor; }
+    public void setFactorImportancia(double factor) {
+        this.factorImportancia = factor;
+        if (cache != null && cache.getBeta() != factor) {
+            cache = null; // η^β cambió: la próxima matriz crea otra caché
+        }
+    }
     
     /**
      * Clase interna para estadísticas
@@ -1,19 +1,30 @@
 package morapack.colonia;
 
+import morapack.colonia.componentes.FlujoAleatorio;
+import morapack.colonia.componentes.MuestreoRuleta;
+import morapack.modelo.Semillas;
+
 /**
  * Clase abstracta que representa una hormiga en el algoritmo de colonia
  * Cada hormiga construye una solución siguiendo feromonas y heurísticas
+ *
+ * Las hormigas pueden construir en paralelo: cada una usa solo su propio generador (random,
+ * que la colonia vuelve a sembrar en su sitio en cada iteración) y lee la feromona y la heurística sin modificarlas.
  */
 public abstract class Hormiga {
     protected double[] solucion;
     protected double calidad;
     protected boolean solucionCompleta;
     protected int posicionActual;
+    protected final FlujoAleatorio random;
+    protected final MuestreoRuleta ruleta;   // Búfer de sorteo reutilizado en cada paso
     
     public Hormiga() {
         this.calidad = 0.0;
         this.solucionCompleta = false;
         this.posicionActual = 0;
+        this.random = new FlujoAleatorio(Semillas.siguienteSemilla());
+        this.ruleta = new MuestreoRuleta();
     }
     
     /**
@@ -51,18 +62,64 @@ public abstract class Hormiga {
         }
     }
     
+    /**
+     * Elige el siguiente nodo desde actual sin reservar memoria: sortea con la caché de
+     * deseabilidad entre los candidatos de la heurística (o entre todos los disponibles si no
+     * hay lista o ninguno queda libre). Devuelve -1 si no hay nodos disponibles.
+     */
+    protected int elegirSiguiente(int actual, boolean[] disponibles, Heuristica heuristica) {
+        CacheDeseabilidad cache = heuristica.getCacheDeseabilidad();
+        if (cache == null) {
+            throw new IllegalStateException("La heurística no tiene caché de deseabilidad (crearCacheDeseabilidad)");
+        }
+        ListaCandidatos candidatos = heuristica.getListaCandidatos();
+        if (candidatos != null) {
+            return candidatos.elegir(actual, disponibles, cache, ruleta, random);
+        }
+        return ListaCandidatos.elegirEntreTodos(actual, disponibles, cache, ruleta, random);
+    }
+    
     /**
      * Verifica si quedan opciones disponibles
      */
     protected abstract boolean[] obtenerOpcionesDisponibles();
     
+    /**
+     * Copia el estado de otra hormiga reutilizando el arreglo de solución de esta (solo se crea
+     * si falta o cambia de tamaño). Las subclases con más estado deben extenderlo.
+     */
+    public void copiarDesde(Hormiga otra) {
+        if (otra.solucion == null) {
+            solucion = null;
+        } else {
+            if (solucion == null || solucion.length != otra.solucion.length) {
+                solucion = new double[otra.solucion.length];
+            }
+            System.arraycopy(otra.solucion, 0, solucion, 0, solucion.length);
+        }
+        this.calidad = otra.calidad;
+        this.solucionCompleta = otra.solucionCompleta;
+        this.posicionActual = otra.posicionActual;
+    }
+    
     // Getters y setters
     public double[] getSolucion() { return solucion != null ? solucion.clone() : null; }
+    
+    /**
+     * Arreglo interno de la solución, sin copia: solo lectura y válido hasta la próxima construcción
+     */
+    public double[] getSolucionSinCopia() { return solucion; }
     public double getCalidad() { return calidad; }
     public boolean isSolucionCompleta() { return solucionCompleta; }
     public int getPosicionActual() { return posicionActual; }
     
     public void setCalidad(double calidad) { this.calidad = calidad; }
+    
+    /**
+     * Siembra el generador para la próxima construcción (la colonia lo hace por hormiga e
+     * iteración, sin crear objetos)
+     */
+    public void sembrarGenerador(long semilla) { random.reiniciar(semilla); }
     public void setSolucionCompleta(boolean completa) { this.solucionCompleta = completa; }
     
     @Override
@@ -0,0 +1,97 @@
+package morapack.colonia;
+
+import morapack.colonia.componentes.FlujoAleatorio;
+import morapack.colonia.componentes.MuestreoRuleta;
+import java.util.Arrays;
+
+/**
+ * Listas de candidatos: para cada nodo, sus k mejores sucesores según la heurística estática.
+ *
+ * La hormiga solo sortea entre los candidatos aún disponibles (O(k) por paso en lugar de O(n));
+ * si todos están usados, sortea entre todos los nodos disponibles. Es inmutable y puede
+ * compartirse entre hormigas e hilos.
+ */
+public class ListaCandidatos {
+    private final int tamano;
+    private final int maximoCandidatos;
+    private final int[] inicio;       // Candidatos del nodo i: candidatos[inicio[i] .. inicio[i + 1])
+    private final int[] candidatos;   // Ordenados de mayor a menor valor heurístico
+
+    ListaCandidatos(Heuristica heuristica, int tamano, int maximoCandidatos) {
+        this.tamano = tamano;
+        this.maximoCandidatos = Math.max(1, Math.min(maximoCandidatos, tamano - 1));
+        this.inicio = new int[tamano + 1];
+
+        int[] porNodo = new int[tamano * this.maximoCandidatos];
+        double[] valores = new double[this.maximoCandidatos];
+        int total = 0;
+        for (int i = 0; i < tamano; i++) {
+            inicio[i] = total;
+            int cuenta = 0;
+            for (int j = 0; j < tamano; j++) {
+                double valor = j != i ? heuristica.calcularValor(i, j) : 0.0;
+                if (!(valor > 0) || (cuenta == this.maximoCandidatos && valor <= valores[cuenta - 1])) {
+                    continue;
+                }
+                // Inserción ordenada entre los k mejores (descarta el último si ya hay k)
+                int p = cuenta < this.maximoCandidatos ? cuenta++ : cuenta - 1;
+                while (p > 0 && valores[p - 1] < valor) {
+                    valores[p] = valores[p - 1];
+                    porNodo[total + p] = porNodo[total + p - 1];
+                    p--;
+                }
+                valores[p] = valor;
+                porNodo[total + p] = j;
+            }
+            total += cuenta;
+        }
+        inicio[tamano] = total;
+        this.candidatos = Arrays.copyOf(porNodo, total);
+    }
+
+    /**
+     * Sortea el siguiente nodo desde actual con peso τ^α · η^β (de la caché) entre los candidatos
+     * disponibles; sin candidatos disponibles, entre todos los nodos disponibles (uniforme si
+     * ninguno tiene deseabilidad). Devuelve -1 si no queda ningún nodo disponible.
+     */
+    public int elegir(int actual, boolean[] disponibles, CacheDeseabilidad cache,
+                      MuestreoRuleta ruleta, FlujoAleatorio random) {
+        ruleta.reiniciar();
+        for (int p = inicio[actual]; p < inicio[actual + 1]; p++) {
+            int j = candidatos[p];
+            if (disponibles[j]) {
+                ruleta.agregar(j, cache.getDeseabilidad(actual, j));
+            }
+        }
+        if (!ruleta.estaVacia()) {
+            return ruleta.muestrear(random);
+        }
+        return elegirEntreTodos(actual, disponibles, cache, ruleta, random);
+    }
+
+    /**
+     * Sorteo sobre todos los nodos disponibles (respaldo de elegir)
+     */
+    public static int elegirEntreTodos(int actual, boolean[] disponibles, CacheDeseabilidad cache,
+                                       MuestreoRuleta ruleta, FlujoAleatorio random) {
+        ruleta.reiniciar();
+        for (int j = 0; j < disponibles.length; j++) {
+            if (disponibles[j] && j != actual) {
+                ruleta.agregar(j, cache.getDeseabilidad(actual, j));
+            }
+        }
+        if (ruleta.estaVacia()) {
+            for (int j = 0; j < disponibles.length; j++) {
+                if (disponibles[j] && j != actual) {
+                    ruleta.agregar(j, 1.0);
+                }
+            }
+        }
+        return ruleta.muestrear(random);
+    }
+
+    public int getNumeroCandidatos(int nodo) { return inicio[nodo + 1] - inicio[nodo]; }
+    public int getCandidato(int nodo, int posicion) { return candidatos[inicio[nodo] + posicion]; }
+    public int getMaximoCandidatos() { return maximoCandidatos; }
+    public int getTamano() { return tamano; }
+}
@@ -0,0 +1,67 @@
+package morapack.colonia.componentes;
+
+/**
+ * Generador SplitMix64 que se vuelve a sembrar en su sitio: la misma secuencia que
+ * java.util.SplittableRandom(semilla) (nextLong, nextInt, nextDouble, nextBoolean), pero el
+ * estado es un long que reiniciar(semilla) sobrescribe, así una hormiga conserva su generador
+ * entre iteraciones sin crear objetos.
+ *
+ * Cada hormiga usa el suyo (no es seguro entre hilos).
+ */
+public final class FlujoAleatorio {
+    private static final long GAMMA = 0x9E3779B97F4A7C15L; // Incremento de SplittableRandom(semilla)
+    private static final double UNIDAD_DOUBLE = 0x1.0p-53;
+
+    private long estado;
+
+    public FlujoAleatorio(long semilla) {
+        this.estado = semilla;
+    }
+
+    /**
+     * Vuelve a empezar la secuencia desde la semilla dada
+     */
+    public void reiniciar(long semilla) {
+        this.estado = semilla;
+    }
+
+    public long nextLong() {
+        return mezclar64(estado += GAMMA);
+    }
+
+    /**
+     * Entero uniforme en [0, limite) (mismo rechazo que SplittableRandom)
+     */
+    public int nextInt(int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo");
+        }
+        int r = mezclar32(estado += GAMMA);
+        int m = limite - 1;
+        if ((limite & m) == 0) {
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % limite) < 0; u = mezclar32(estado += GAMMA) >>> 1) {
+        }
+        return r;
+    }
+
+    public double nextDouble() {
+        return (nextLong() >>> 11) * UNIDAD_DOUBLE;
+    }
+
+    public boolean nextBoolean() {
+        return mezclar32(estado += GAMMA) < 0;
+    }
+
+    private static long mezclar64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mezclar32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62A9D9ED799705F5L;
+        return (int) (((z ^ (z >>> 28)) * 0xCB24D0A5C88C35B3L) >>> 32);
+    }
+}
@@ -0,0 +1,80 @@
+package morapack.colonia.componentes;
+
+import java.util.Arrays;
+
+/**
+ * Ruleta reutilizable: se cargan opciones con su peso (sumas acumuladas) y se muestrea con
+ * búsqueda binaria. Los arreglos solo crecen, así que en régimen estable no reserva memoria.
+ *
+ * Cada hormiga usa su propia ruleta (no es segura entre hilos).
+ */
+public class MuestreoRuleta {
+    private int[] opciones;
+    private double[] acumulados;
+    private int tamano;
+
+    public MuestreoRuleta() {
+        this(16);
+    }
+
+    public MuestreoRuleta(int capacidadInicial) {
+        this.opciones = new int[Math.max(1, capacidadInicial)];
+        this.acumulados = new double[opciones.length];
+    }
+
+    public void reiniciar() {
+        tamano = 0;
+    }
+
+    /**
+     * Agrega una opción; los pesos no positivos se ignoran
+     */
+    public void agregar(int opcion, double peso) {
+        if (!(peso > 0)) {
+            return;
+        }
+        if (tamano == opciones.length) {
+            int capacidad = opciones.length * 2;
+            opciones = Arrays.copyOf(opciones, capacidad);
+            acumulados = Arrays.copyOf(acumulados, capacidad);
+        }
+        acumulados[tamano] = (tamano > 0 ? acumulados[tamano - 1] : 0.0) + peso;
+        opciones[tamano++] = opcion;
+    }
+
+    /**
+     * Carga un arreglo de probabilidades o pesos indexado por opción
+     */
+    public MuestreoRuleta cargar(double[] pesos) {
+        reiniciar();
+        for (int i = 0; i < pesos.length; i++) {
+            agregar(i, pesos[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Opción elegida con probabilidad proporcional a su peso (-1 si no hay opciones)
+     */
+    public int muestrear(FlujoAleatorio random) {
+        if (tamano == 0) {
+            return -1;
+        }
+        double r = random.nextDouble() * acumulados[tamano - 1];
+        int inicio = 0;
+        int fin = tamano - 1;
+        while (inicio < fin) {
+            int medio = (inicio + fin) >>> 1;
+            if (acumulados[medio] <= r) {
+                inicio = medio + 1;
+            } else {
+                fin = medio;
+            }
+        }
+        return opciones[inicio];
+    }
+
+    public int getTamano() { return tamano; }
+    public boolean estaVacia() { return tamano == 0; }
+    public double getPesoTotal() { return tamano > 0 ? acumulados[tamano - 1] : 0.0; }
+}
@@ -1,5 +1,82 @@
 package morapack.colonia.core.algoritmo;
 
-public class HormigaIntegrada {
-    
+import morapack.modelo.Pedido;
+import morapack.planificacion.PlanificadorEscaneoConexiones;
+import morapack.planificacion.RutaCompleta;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hormiga de la colonia integrada: camina como HormigaACOReal y, si la caminata no llega al
+ * destino, repara el pedido con la ruta de llegada más temprana del Connection Scan sobre su
+ * propia capacidad (la misma búsqueda que usa IndividuoIntegrado). Su solución se convierte en
+ * un IndividuoIntegrado para reportarla y puntuarla igual que las demás.
+ */
+public class HormigaIntegrada extends HormigaACOReal {
+
+    public HormigaIntegrada(Instancia instancia) {
+        super(instancia);
+    }
+
+    @Override
+    protected int repararRuta(int pedido, int sede) {
+        PlanificadorEscaneoConexiones motor = instancia.getPlanificador().getMotorEscaneo();
+        if (motor == null || instancia.destinos[pedido] < 0) {
+            return 0;
+        }
+        int origen = instancia.registro.getIdSede(sede);
+        int marca = capacidad.marcar();
+        RutaCompleta ruta = motor.planificarRuta(origen, instancia.destinos[pedido], instancia.cantidades[pedido],
+                                                 instancia.getListo(pedido, sede), capacidad);
+        int tramos = guardarRuta(pedido, ruta);
+        if (tramos > 0) {
+            sedes[pedido] = sede;
+            capacidad.confirmar(marca);
+        } else {
+            capacidad.deshacerHasta(marca);
+        }
+        return tramos;
+    }
+
+    /**
+     * Individuo con las sedes y rutas de esta hormiga (sus vuelos como RutaCompleta)
+     */
+    public IndividuoIntegrado crearIndividuo(List<Pedido> pedidos) {
+        IndividuoIntegrado individuo = new IndividuoIntegrado(pedidos, instancia.getPlanificador(), random.nextLong());
+        for (int pedido = 0; pedido < pedidos.size(); pedido++) {
+            individuo.asignarRuta(pedido, Math.max(0, sedes[pedido]), crearRuta(pedido));
+        }
+        return individuo;
+    }
+
+    /**
+     * Ruta del pedido con el mismo formato que los planificadores (null si no tiene)
+     */
+    public RutaCompleta crearRuta(int pedido) {
+        int tramos = numeroVuelos[pedido];
+        if (tramos == 0) {
+            return null;
+        }
+        RutaCompleta ruta = new RutaCompleta();
+        List<String> escalas = new ArrayList<>();
+        for (int t = 0; t < tramos; t++) {
+            int vuelo = getVuelo(pedido, t);
+            ruta.agregarVuelo(instancia.tabla.getVuelo(vuelo));
+            if (t < tramos - 1) {
+                escalas.add(instancia.tabla.getCodigo(instancia.tabla.getDestino(vuelo)));
+            }
+        }
+        ruta.setEscalas(escalas);
+        if (escalas.isEmpty()) {
+            ruta.setTipoRuta("DIRECTO");
+        } else if (escalas.size() == 1) {
+            ruta.setTipoRuta("UNA_CONEXION");
+        } else if (escalas.size() == 2) {
+            ruta.setTipoRuta("DOS_CONEXIONES");
+        } else {
+            ruta.setTipoRuta("MULTIPLE_CONEXIONES");
+        }
+        ruta.setCantidadPaquetes(instancia.cantidades[pedido]);
+        return ruta;
+    }
 }
@@ -1,9 +1,11 @@
 package morapack.colonia.core.algoritmo;
 
 import morapack.modelo.Pedido;
-import morapack.modelo.Aeropuerto;
-import morapack.datos.CargadorDatosCSV;
+import morapack.modelo.RegistroAeropuertos;
+import morapack.modelo.Semillas;
+import morapack.planificacion.CatalogoItinerarios;
 import morapack.planificacion.PlanificadorAvanzadoEscalas;
+import morapack.planificacion.PlanificadorEscaneoConexiones;
 import morapack.planificacion.RutaCompleta;
 import java.util.*;
 
@@ -19,21 +21,29 @@ public class IndividuoIntegrado {
     // Cromosoma híbrido: tanto asignación simple como rutas completas
     private int[] asignacionSedes;           // Asignación simple (compatibilidad)
     private List<RutaCompleta> rutasCompletas; // Planificación completa (avanzado)
+    private int[] itinerarios;               // Índice en el CatalogoItinerarios por pedido (-1 = ruta buscada en la red)
     
     private double fitness;
     private boolean fitnessCalculado;
     
-    // Mapa estático de aeropuertos para detección continental (copiado del genético)
-    private static Map<String, Aeropuerto> mapaAeropuertos;
+    static final double BONUS_BASE = 1000.0;              // Por ruta planificada
+    static final double PENALIZACION_SIN_RUTA = -500.0;   // Por pedido sin ruta
+    
+    // 🎲 Flujo aleatorio propio, derivado de la semilla del individuo (reproducible y sin contención)
+    private final long semilla;
+    private final SplittableRandom random;
+    
+    // 🌍 Ids de aeropuerto del registro de los planificadores (los códigos ICAO solo se leen una vez)
+    private final RegistroAeropuertos registro;
+    private int[] idsDestino;                 // Por pedido; se calcula al primer uso y se comparte con las copias
+    private static volatile ClasificacionICAO clasificacionICAO = null;
     
     public IndividuoIntegrado(List<Pedido> pedidos, PlanificadorAvanzadoEscalas planificador) {
-        this.pedidos = pedidos;
-        this.planificador = planificador;
-        this.planificadorAvanzado = planificador; // Usar el mismo planificador para ambos
-        this.asignacionSedes = new int[pedidos.size()];
-        this.rutasCompletas = new ArrayList<>(Collections.nCopies(pedidos.size(), null));
-        this.fitness = 0.0;
-        this.fitnessCalculado = false;
+        this(pedidos, planificador, planificador, Semillas.siguienteSemilla()); // Usar el mismo planificador para ambos
+    }
+    
+    public IndividuoIntegrado(List<Pedido> pedidos, PlanificadorAvanzadoEscalas planificador, long semilla) {
+        this(pedidos, planificador, planificador, semilla);
     }
     
     /**
@@ -41,11 +51,24 @@ public class IndividuoIntegrado {
      */
     public IndividuoIntegrado(List<Pedido> pedidos, PlanificadorAvanzadoEscalas planificador, 
                              PlanificadorAvanzadoEscalas planificadorAvanzado) {
+        this(pedidos, planificador, planificadorAvanzado, Semillas.siguienteSemilla());
+    }
+    
+    /**
+     * Constructor con semilla: la misma semilla da la misma inicialización y las mismas mutaciones
+     */
+    public IndividuoIntegrado(List<Pedido> pedidos, PlanificadorAvanzadoEscalas planificador, 
+                             PlanificadorAvanzadoEscalas planificadorAvanzado, long semilla) {
         this.pedidos = pedidos;
         this.planificador = planificador;
         this.planificadorAvanzado = planificadorAvanzado;
+        this.registro = (planificadorAvanzado != null ? planificadorAvanzado : planificador).getRegistro();
+        this.semilla = semilla;
+        this.random = Semillas.crear(semilla);
         this.asignacionSedes = new int[pedidos.size()];
         this.rutasCompletas = new ArrayList<>(Collections.nCopies(pedidos.size(), null));
+        this.itinerarios = new int[pedidos.size()];
+        Arrays.fill(itinerarios, -1);
         this.fitness = 0.0;
         this.fitnessCalculado = false;
     }
@@ -54,8 +77,7 @@ public class IndividuoIntegrado {
      * Inicializa el individuo con planificación real avanzada y asignación geográficamente inteligente
      */
     public void inicializarConPlanificacion() {
-        Random random = new Random();
-        String[] sedes = {"SPIM", "EBCI", "UBBB"}; // Usar las 3 sedes: Lima, Bruselas, Baku
+        int[] destinos = getIdsDestino(); // Sedes del registro: Lima, Bruselas, Baku
         
         // Reiniciar capacidades del planificador avanzado
         if (planificadorAvanzado != null) {
@@ -64,29 +86,32 @@ public class IndividuoIntegrado {
         
         for (int i = 0; i < pedidos.size(); i++) {
             Pedido pedido = pedidos.get(i);
-            String destino = pedido.getAeropuertoDestinoId();
+            int destino = destinos[i];
             
             // 1. Asignación inteligente por región geográfica  
             int sedeIndex = asignarSedeInteligente(destino, random);
             asignacionSedes[i] = sedeIndex;
             
             // 2. Planificación completa usando el planificador avanzado
-            String origen = sedes[sedeIndex];
+            int origen = registro.getIdSede(sedeIndex);
+            int tiempoMinimo = planificador.calcularTiempoMinimoPedido(pedido, origen);
             
             try {
-                RutaCompleta ruta = null;
+                // ⚡ Primero el catálogo de itinerarios: solo comprueba y reserva capacidad
+                RutaCompleta ruta = planificarConCatalogo(i, planificadorAvanzado, sedeIndex, destino,
+                                                          pedido.getCantidadProductos(), tiempoMinimo);
                 
-                // Intentar primero con planificador avanzado (múltiples escalas)
-                if (planificadorAvanzado != null) {
+                // Intentar con planificador avanzado (múltiples escalas)
+                if (ruta == null && planificadorAvanzado != null) {
                     int cantidad = pedido.getCantidadProductos();
-                    ruta = planificadorAvanzado.planificarRuta(origen, destino, cantidad);
+                    ruta = planificadorAvanzado.planificarRuta(origen, destino, cantidad, tiempoMinimo);
                     
 
                 }
                 
                 // Si no funciona, usar planificador simple
                 if (ruta == null) {
-                    ruta = planificador.planificarRuta(origen, destino, pedido.getCantidadProductos());
+                    ruta = planificador.planificarRuta(origen, destino, pedido.getCantidadProductos(), tiempoMinimo);
                     
 
                 }
@@ -102,44 +127,47 @@ public class IndividuoIntegrado {
         fitnessCalculado = false;
     }
     
+    /**
+     * Toma el itinerario de llegada más temprana del catálogo que salga desde tiempoMinimo y tenga
+     * capacidad, y lo reserva en el planificador (null si no usa Connection Scan o ningún itinerario sirve)
+     */
+    private RutaCompleta planificarConCatalogo(int indice, PlanificadorAvanzadoEscalas planificador,
+                                              int sedeIndex, int destino, int cantidad, int tiempoMinimo) {
+        itinerarios[indice] = -1;
+        PlanificadorEscaneoConexiones motor = planificador != null ? planificador.getMotorEscaneo() : null;
+        if (motor == null || destino < 0) {
+            return null;
+        }
+        CatalogoItinerarios catalogo = motor.getCatalogoItinerarios();
+        int itinerario = catalogo.buscarItinerario(sedeIndex, destino, tiempoMinimo, cantidad, motor.getRegistroCapacidad());
+        if (itinerario < 0 || !catalogo.reservar(itinerario, cantidad, motor.getRegistroCapacidad())) {
+            return null;
+        }
+        itinerarios[indice] = itinerario;
+        return catalogo.getRuta(itinerario);
+    }
+    
     /**
      * Asigna sede de manera inteligente basada en la región geográfica del destino
      * Ahora usa información geográfica real si está disponible
      */
-    private int asignarSedeInteligente(String destino, Random random) {
+    private int asignarSedeInteligente(int destino, SplittableRandom random) {
         // Información de sedes con sus coordenadas aproximadas
         // SPIM (Lima): -12.0219, -77.1144 (Sudamérica)
         // EBCI (Bruselas): 50.9014, 4.4844 (Europa) 
         // UBBB (Baku): 40.4675, 50.0467 (Asia/Eurasia)
         
-        // Mapeo geográfico mejorado basado en códigos ICAO
+        // Mapeo geográfico basado en códigos ICAO (precalculado por id)
+        int sedePorPrefijo = destino >= 0 ? obtenerClasificacionICAO().sedePorPrefijo[destino] : -1;
         
-        // SPIM (Lima, Perú) - Sudamérica y Centroamérica
-        if (destino.startsWith("S") || destino.startsWith("M") || destino.startsWith("T")) {
-            // 90% probabilidad de usar SPIM para América
-            if (random.nextDouble() < 0.9) {
-                return 0; // SPIM
-            }
-        }
+        // SPIM (Lima, Perú) - Sudamérica y Centroamérica: 90% de probabilidad
+        if (sedePorPrefijo == 0 && random.nextDouble() < 0.9) return 0;
         
-        // EBCI (Bruselas, Bélgica) - Europa y África
-        if (destino.startsWith("E") || destino.startsWith("L") || 
-            destino.startsWith("G") || destino.startsWith("F") || destino.startsWith("D")) {
-            // 85% probabilidad de usar EBCI para Europa/África
-            if (random.nextDouble() < 0.85) {
-                return 1; // EBCI
-            }
-        }
+        // EBCI (Bruselas, Bélgica) - Europa y África: 85% de probabilidad
+        if (sedePorPrefijo == 1 && random.nextDouble() < 0.85) return 1;
         
-        // UBBB (Baku, Azerbaiyán) - Asia, Medio Oriente, Oceanía
-        if (destino.startsWith("O") || destino.startsWith("U") || destino.startsWith("Z") || 
-            destino.startsWith("V") || destino.startsWith("R") || destino.startsWith("Y") ||
-            destino.startsWith("P") || destino.startsWith("A") || destino.startsWith("N")) {
-            // 85% probabilidad de usar UBBB para Asia/Oceanía
-            if (random.nextDouble() < 0.85) {
-                return 2; // UBBB
-            }
-        }
+        // UBBB (Baku, Azerbaiyán) - Asia, Medio Oriente, Oceanía: 85% de probabilidad
+        if (sedePorPrefijo == 2 && random.nextDouble() < 0.85) return 2;
         
         // Para casos sin coincidencia clara, elegir la sede más probable
         // Distribuir proporcionalmente: SPIM 40%, EBCI 35%, UBBB 25%
@@ -165,43 +193,20 @@ public class IndividuoIntegrado {
      */
     private double calcularFitness() {
         double fitness = 0.0;
-        String[] sedes = {"SPIM", "EBCI", "UBBB"};
+        int[] destinos = getIdsDestino();
         
         for (int i = 0; i < rutasCompletas.size(); i++) {
             RutaCompleta ruta = rutasCompletas.get(i);
             if (ruta != null) {
-                // Bonus base por ruta planificada
-                double bonusBase = 1000.0;
-                
                 // Factor continental/intercontinental
-                String origen = sedes[asignacionSedes[i]]; // Sede asignada
-                String destino = pedidos.get(i).getAeropuertoDestinoId();
+                int origen = registro.getIdSede(asignacionSedes[i]); // Sede asignada
+                int destino = destinos[i];
                 double factorContinental = esVueloContinental(origen, destino) ? 1.0 : 0.5;
                 
-                // Aplicar factor continental al bonus base
-                fitness += bonusBase * factorContinental;
-                
-                // Penalizar por tiempo de viaje (también con factor continental)
-                double tiempoTotal = ruta.calcularTiempoTotal();
-                fitness -= (tiempoTotal * 0.5 * factorContinental); // Menos penalización para intercontinentales
-                
-                // Bonus por tipo de ruta (priorizar directos)
-                String tipoRuta = ruta.getTipoRuta();
-                double bonusTipoRuta = 0.0;
-                if ("DIRECTO".equals(tipoRuta)) {
-                    bonusTipoRuta = 400.0; // Máxima prioridad para directos
-                } else if ("UNA_CONEXION".equals(tipoRuta)) {
-                    bonusTipoRuta = 150.0; // Buena prioridad para una conexión
-                } else if ("DOS_CONEXIONES".equals(tipoRuta)) {
-                    bonusTipoRuta = 50.0;  // Mínima prioridad para dos conexiones
-                }
-                
-                // Aplicar bonus con factor continental
-                fitness += bonusTipoRuta * factorContinental;
-                
+                fitness += puntajeRuta(factorContinental, ruta.calcularTiempoTotal(planificador.getTabla()),
+                                       bonusTipoRuta(ruta.getTipoRuta()));
             } else {
-                // Penalización por pedido sin ruta
-                fitness -= 500.0;
+                fitness += PENALIZACION_SIN_RUTA;
             }
         }
         
@@ -209,91 +214,156 @@ public class IndividuoIntegrado {
     }
     
     /**
-     * ✅ COPIADO: Determina si un vuelo es continental usando datos del CSV
+     * Puntaje de un pedido con ruta: bonus base, penalización por tiempo de viaje y bonus por
+     * tipo de ruta, todo con el factor continental (las hormigas puntúan con la misma fórmula)
      */
-    private boolean esVueloContinental(String origen, String destino) {
-        cargarAeropuertosSiEsNecesario();
-        
-        Aeropuerto aeropuertoOrigen = mapaAeropuertos.get(origen);
-        Aeropuerto aeropuertoDestino = mapaAeropuertos.get(destino);
-        
-        if (aeropuertoOrigen != null && aeropuertoDestino != null) {
-            String continenteOrigen = aeropuertoOrigen.getContinente();
-            String continenteDestino = aeropuertoDestino.getContinente();
-            
-            // Comparar continentes directamente desde CSV
-            return continenteOrigen != null && continenteOrigen.equals(continenteDestino);
-        }
-        
-        // Fallback al método anterior si no se encuentran en CSV
-        return (esAeropuertoSudamericano(origen) && esAeropuertoSudamericano(destino)) ||
-               (esAeropuertoEuropeo(origen) && esAeropuertoEuropeo(destino)) ||
-               (esAeropuertoAsiatico(origen) && esAeropuertoAsiatico(destino)) ||
-               (esAeropuertoNorteamericano(origen) && esAeropuertoNorteamericano(destino)) ||
-               (esAeropuertoAfricano(origen) && esAeropuertoAfricano(destino)) ||
-               (esAeropuertoOceania(origen) && esAeropuertoOceania(destino));
+    static double puntajeRuta(double factorContinental, int tiempoTotal, double bonusTipoRuta) {
+        return BONUS_BASE * factorContinental
+             - tiempoTotal * 0.5 * factorContinental // Menos penalización para intercontinentales
+             + bonusTipoRuta * factorContinental;
     }
     
     /**
-     * ✅ COPIADO: Carga aeropuertos del CSV la primera vez que se necesiten
+     * Bonus por tipo de ruta (priorizar directos)
      */
-    private static void cargarAeropuertosSiEsNecesario() {
-        if (mapaAeropuertos == null) {
-            mapaAeropuertos = new HashMap<>();
-            try {
-                List<Aeropuerto> aeropuertos = CargadorDatosCSV.cargarAeropuertos();
-                for (Aeropuerto aeropuerto : aeropuertos) {
-                    mapaAeropuertos.put(aeropuerto.getCodigoICAO(), aeropuerto);
-                }
-                // System.out.println("🌍 Aeropuertos cargados para detección continental: " + mapaAeropuertos.size());
-            } catch (Exception e) {
-                System.err.println("⚠️ Error cargando aeropuertos, usando fallback ICAO: " + e.getMessage());
-                mapaAeropuertos = new HashMap<>(); // Mapa vacío para usar fallback
-            }
+    static double bonusTipoRuta(String tipoRuta) {
+        if ("DIRECTO".equals(tipoRuta)) return bonusPorVuelos(1);
+        if ("UNA_CONEXION".equals(tipoRuta)) return bonusPorVuelos(2);
+        if ("DOS_CONEXIONES".equals(tipoRuta)) return bonusPorVuelos(3);
+        return 0.0;
+    }
+    
+    /**
+     * Bonus del tipo de ruta según su número de vuelos
+     */
+    static double bonusPorVuelos(int numeroVuelos) {
+        switch (numeroVuelos) {
+            case 1: return 400.0; // Máxima prioridad para directos
+            case 2: return 150.0; // Buena prioridad para una conexión
+            case 3: return 50.0;  // Mínima prioridad para dos conexiones
+            default: return 0.0;
         }
     }
     
     /**
-     * ✅ COPIADO: Métodos auxiliares para determinar continentes por código ICAO
+     * ✅ COPIADO: Determina si un vuelo es continental usando datos del CSV
      */
-    private boolean esAeropuertoSudamericano(String codigo) {
-        return codigo.startsWith("S");
+    private boolean esVueloContinental(int origen, int destino) {
+        return esVueloContinental(registro, origen, destino);
     }
     
-    private boolean esAeropuertoEuropeo(String codigo) {
-        return codigo.startsWith("E") || codigo.startsWith("L") || codigo.startsWith("G") || 
-               codigo.startsWith("F") || codigo.startsWith("D");
+    /**
+     * Igual que esVueloContinental para cualquier registro (lo usan las hormigas al puntuar)
+     */
+    static boolean esVueloContinental(RegistroAeropuertos registro, int origen, int destino) {
+        if (origen < 0 || destino < 0) {
+            return false;
+        }
+        
+        if (registro.tieneDatos(origen) && registro.tieneDatos(destino)) {
+            // Comparar continentes directamente desde CSV
+            return registro.mismoContinente(origen, destino);
+        }
+        
+        // Fallback al método anterior si no se encuentran en CSV (regiones ICAO precalculadas)
+        byte[] regiones = obtenerClasificacionICAO(registro).regionesPorPrefijo;
+        return (regiones[origen] & regiones[destino]) != 0;
     }
     
-    private boolean esAeropuertoAsiatico(String codigo) {
-        return codigo.startsWith("Z") || codigo.startsWith("V") || codigo.startsWith("R") || 
-               codigo.startsWith("U") || codigo.startsWith("O");
+    /**
+     * Ids de destino de cada pedido en el registro de los planificadores (-1 si no existe)
+     */
+    private int[] getIdsDestino() {
+        if (idsDestino == null) {
+            int[] ids = new int[pedidos.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = registro.getId(pedidos.get(i).getAeropuertoDestinoId());
+            }
+            idsDestino = ids;
+        }
+        return idsDestino;
     }
     
-    private boolean esAeropuertoNorteamericano(String codigo) {
-        return codigo.startsWith("K") || codigo.startsWith("C") || codigo.startsWith("M");
+    /**
+     * Regiones por prefijo ICAO de cada aeropuerto del registro, calculadas una sola vez
+     */
+    private ClasificacionICAO obtenerClasificacionICAO() {
+        return obtenerClasificacionICAO(registro);
     }
     
-    private boolean esAeropuertoAfricano(String codigo) {
-        return codigo.startsWith("H") || codigo.startsWith("D");
+    private static ClasificacionICAO obtenerClasificacionICAO(RegistroAeropuertos registro) {
+        ClasificacionICAO clasificacion = clasificacionICAO;
+        if (clasificacion == null || clasificacion.registro != registro) {
+            clasificacion = new ClasificacionICAO(registro);
+            clasificacionICAO = clasificacion; // Publicar solo la clasificación completa
+        }
+        return clasificacion;
     }
     
-    private boolean esAeropuertoOceania(String codigo) {
-        return codigo.startsWith("Y") || codigo.startsWith("A") || codigo.startsWith("N");
+    /**
+     * ✅ COPIADO: Continentes por código ICAO para aeropuertos sin continente en el CSV
+     * ('D' cuenta como Europa y África, por eso se guarda una máscara)
+     */
+    private static final class ClasificacionICAO {
+        private static final byte SUDAMERICA = 1, EUROPA = 2, ASIA = 4, NORTEAMERICA = 8, AFRICA = 16, OCEANIA = 32;
+        
+        final RegistroAeropuertos registro;
+        final byte[] regionesPorPrefijo;   // Máscara de regiones del prefijo
+        final byte[] sedePorPrefijo;       // Sede sugerida por prefijo (-1 si ninguna)
+        
+        ClasificacionICAO(RegistroAeropuertos registro) {
+            this.registro = registro;
+            int n = registro.getNumeroAeropuertos();
+            this.regionesPorPrefijo = new byte[n];
+            this.sedePorPrefijo = new byte[n];
+            for (int a = 0; a < n; a++) {
+                String codigo = registro.getCodigo(a);
+                regionesPorPrefijo[a] = calcularRegiones(codigo);
+                sedePorPrefijo[a] = calcularSede(codigo);
+            }
+        }
+        
+        private static byte calcularRegiones(String codigo) {
+            char c = codigo.isEmpty() ? ' ' : codigo.charAt(0);
+            switch (c) {
+                case 'S': return SUDAMERICA;
+                case 'E': case 'L': case 'G': case 'F': return EUROPA;
+                case 'D': return EUROPA | AFRICA;
+                case 'Z': case 'V': case 'R': case 'U': case 'O': return ASIA;
+                case 'K': case 'C': case 'M': return NORTEAMERICA;
+                case 'H': return AFRICA;
+                case 'Y': case 'A': case 'N': return OCEANIA;
+                default: return 0;
+            }
+        }
+        
+        private static byte calcularSede(String codigo) {
+            char c = codigo.isEmpty() ? ' ' : codigo.charAt(0);
+            switch (c) {
+                case 'S': case 'M': case 'T': return 0;                     // SPIM
+                case 'E': case 'L': case 'G': case 'F': case 'D': return 1; // EBCI
+                case 'O': case 'U': case 'Z': case 'V': case 'R':
+                case 'Y': case 'P': case 'A': case 'N': return 2;           // UBBB
+                default: return -1;
+            }
+        }
     }
     
     /**
-     * Crea una copia del individuo
+     * Crea una copia del individuo (su flujo aleatorio se separa del de este individuo)
      */
     public IndividuoIntegrado copiar() {
         IndividuoIntegrado copia;
+        long semillaCopia = random.nextLong();
         if (planificadorAvanzado != null) {
-            copia = new IndividuoIntegrado(pedidos, planificador, planificadorAvanzado);
+            copia = new IndividuoIntegrado(pedidos, planificador, planificadorAvanzado, semillaCopia);
         } else {
-            copia = new IndividuoIntegrado(pedidos, planificador);
+            copia = new IndividuoIntegrado(pedidos, planificador, semillaCopia);
         }
         copia.asignacionSedes = Arrays.copyOf(this.asignacionSedes, this.asignacionSedes.length);
+        copia.idsDestino = this.idsDestino; // Mismos pedidos y mismo registro: solo lectura
         copia.rutasCompletas = new ArrayList<>(this.rutasCompletas);
+        copia.itinerarios = this.itinerarios.clone();
         copia.fitness = this.fitness;
         copia.fitnessCalculado = this.fitnessCalculado;
         return copia;
@@ -305,29 +375,43 @@ public class IndividuoIntegrado {
     public void asignarRuta(int indice, RutaCompleta ruta) {
         if (indice >= 0 && indice < rutasCompletas.size()) {
             rutasCompletas.set(indice, ruta);
+            itinerarios[indice] = -1;
             fitnessCalculado = false;
         }
     }
     
+    /**
+     * Asigna sede y ruta a un pedido (la ruta ya tiene su capacidad reservada por quien la construyó)
+     */
+    public void asignarRuta(int indice, int sedeIndex, RutaCompleta ruta) {
+        if (indice >= 0 && indice < rutasCompletas.size()) {
+            asignacionSedes[indice] = sedeIndex;
+            asignarRuta(indice, ruta);
+        }
+    }
+    
     /**
      * Re-planifica una ruta específica
      */
     public void replanificarRuta(int indice) {
         if (indice >= 0 && indice < pedidos.size()) {
             Pedido pedido = pedidos.get(indice);
-            Random random = new Random();
-            String[] sedes = {"SPIM", "EBCI", "UBBB"};
+            int destino = getIdsDestino()[indice];
             
             // Usar asignación inteligente en lugar de aleatoria
-            int nuevaSedeIndex = asignarSedeInteligente(pedido.getAeropuertoDestinoId(), random);
+            int nuevaSedeIndex = asignarSedeInteligente(destino, random);
             asignacionSedes[indice] = nuevaSedeIndex;
             
             // Re-planificar ruta completa usando la NUEVA sede asignada
-            String origen = sedes[nuevaSedeIndex]; // Usar la misma sede asignada
-            String destino = pedido.getAeropuertoDestinoId();
+            int origen = registro.getIdSede(nuevaSedeIndex); // Usar la misma sede asignada
+            int tiempoMinimo = planificador.calcularTiempoMinimoPedido(pedido, origen);
             
             try {
-                RutaCompleta nuevaRuta = planificador.planificarRuta(origen, destino, pedido.getCantidadProductos());
+                RutaCompleta nuevaRuta = planificarConCatalogo(indice, planificador, nuevaSedeIndex, destino,
+                                                               pedido.getCantidadProductos(), tiempoMinimo);
+                if (nuevaRuta == null) {
+                    nuevaRuta = planificador.planificarRuta(origen, destino, pedido.getCantidadProductos(), tiempoMinimo);
+                }
                 rutasCompletas.set(indice, nuevaRuta);
             } catch (Exception e) {
                 rutasCompletas.set(indice, null);
@@ -365,7 +449,7 @@ public class IndividuoIntegrado {
         sb.append("  • Rutas planificadas: ").append(contarRutasPlanificadas()).append("/").append(pedidos.size()).append("\n\n");
         
         sb.append("📋 DETALLE POR PEDIDO:\n");
-        String[] sedes = {"SPIM", "EBCI", "UBBB"};
+        String[] sedes = RegistroAeropuertos.CODIGOS_SEDE;
         
         for (int i = 0; i < pedidos.size(); i++) {
             Pedido pedido = pedidos.get(i);
@@ -398,4 +482,12 @@ public class IndividuoIntegrado {
     
     public int[] getAsignacionSedes() { return Arrays.copyOf(asignacionSedes, asignacionSedes.length); }
     public List<RutaCompleta> getRutasCompletas() { return new ArrayList<>(rutasCompletas); }
+    
+    /**
+     * Índice del itinerario del catálogo elegido para el pedido (-1 si su ruta no salió del catálogo)
+     */
+    public int getItinerario(int indice) { return itinerarios[indice]; }
+    
+    /** Semilla del flujo aleatorio de este individuo */
+    public long getSemilla() { return semilla; }
 }
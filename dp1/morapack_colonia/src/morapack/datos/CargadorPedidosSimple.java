@@ -28,9 +28,9 @@ public class CargadorPedidosSimple {
                 
                 String idPedido = linea.trim();
                 
-                // Validar formato del ID
-                if (Pedido.esFormatoValido(idPedido)) {
-                    Pedido pedido = new Pedido(idPedido);
+                // Validar formato del ID y extraer sus campos en una sola pasada
+                Pedido pedido = Pedido.parsear(idPedido);
+                if (pedido != null) {
                     // Asignar aeropuerto origen aleatorio entre las 3 sedes disponibles
                     String[] aeropuertosOrigen = {"SPIM", "EBCI", "UBBB"};
                     pedido.setAeropuertoOrigenId(aeropuertosOrigen[(int)(Math.random() * 3)]);
@@ -0,0 +1,310 @@
+package morapack.datos;
+
+import morapack.modelo.Aeropuerto;
+import morapack.modelo.RegistroAeropuertos;
+import morapack.modelo.TablaVuelos;
+import morapack.modelo.Vuelo;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Red compilada: aeropuertos y vuelos en un archivo binario versionado (datos/red.bin).
+ *
+ * La primera carga parsea aeropuertos_simple.csv y vuelos_completos.csv y escribe el archivo;
+ * las siguientes lo mapean en memoria y leen las columnas de vuelos de una sola vez, sin
+ * parsear texto. El encabezado guarda un CRC32 de ambos CSV: si cambian, se recompila solo.
+ *
+ * Formato (big-endian):
+ *   int magia, int versión, long crc de los CSV, int aeropuertos, int aeropuertos de la tabla, int vuelos
+ *   aeropuertos: código, ciudad, país, código corto (texto), huso, capacidad (int), latitud, longitud (double), continente (texto)
+ *   tabla: código (texto) y huso aplicado en minutos (int) por id denso del RegistroAeropuertos
+ *   columnas de vuelos ordenadas por (origen, salida UTC): origen, destino, salida UTC, llegada UTC,
+ *   capacidad, salida local, llegada local, posición en el CSV (int[] cada una), inicioOrigen (int[aeropuertos de la tabla + 1])
+ */
+public final class SnapshotRed {
+
+    public static final String ARCHIVO_SNAPSHOT = "datos/red.bin";
+    private static final String ARCHIVO_AEROPUERTOS = "datos/aeropuertos_simple.csv";
+    private static final String ARCHIVO_VUELOS = "datos/vuelos_completos.csv";
+    private static final int MAGIA = 0x4D505244; // "MPRD"
+    private static final int VERSION = 3;
+
+    private static SnapshotRed instancia;
+    private static boolean snapshotNoDisponible; // Sin CSV o sin permiso de escritura: no reintentar
+
+    private final List<Aeropuerto> aeropuertos;
+    private final TablaVuelos tabla;
+    private final Vuelo[] vuelosEnOrdenArchivo;
+
+    private SnapshotRed(List<Aeropuerto> aeropuertos, TablaVuelos tabla, Vuelo[] vuelosEnOrdenArchivo) {
+        this.aeropuertos = aeropuertos;
+        this.tabla = tabla;
+        this.vuelosEnOrdenArchivo = vuelosEnOrdenArchivo;
+    }
+
+    /**
+     * Red compartida: mapea el snapshot si está al día con los CSV y si no (o si está dañado)
+     * lo recompila. Devuelve null si no se pudo leer los CSV ni escribir el snapshot (los
+     * cargadores vuelven a parsear el CSV).
+     */
+    public static synchronized SnapshotRed obtener() {
+        if (instancia == null && !snapshotNoDisponible) {
+            try {
+                long crc = calcularChecksumFuentes();
+                instancia = leer(Paths.get(ARCHIVO_SNAPSHOT), crc);
+                if (instancia == null) {
+                    instancia = compilar(Paths.get(ARCHIVO_SNAPSHOT), crc);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("⚠️ Snapshot de red no disponible, se usará el CSV: " + e.getMessage());
+                snapshotNoDisponible = true;
+            }
+        }
+        return instancia;
+    }
+
+    /**
+     * Vuelve a generar el snapshot aunque esté al día (paso explícito de "compilar red")
+     */
+    public static synchronized SnapshotRed recompilar() throws IOException {
+        instancia = compilar(Paths.get(ARCHIVO_SNAPSHOT), calcularChecksumFuentes());
+        snapshotNoDisponible = false;
+        return instancia;
+    }
+
+    /**
+     * CRC32 del contenido de los dos CSV de origen
+     */
+    private static long calcularChecksumFuentes() throws IOException {
+        CRC32 crc = new CRC32();
+        for (String archivo : new String[] {ARCHIVO_AEROPUERTOS, ARCHIVO_VUELOS}) {
+            crc.update(Files.readAllBytes(Paths.get(archivo)));
+        }
+        return crc.getValue();
+    }
+
+    // ==================== ESCRITURA ====================
+
+    private static SnapshotRed compilar(Path destino, long crc) throws IOException {
+        List<Aeropuerto> aeropuertos = CargadorDatosCSV.leerAeropuertosCSV();
+        List<Vuelo> vuelos = CargadorDatosCSV.leerVuelosCSV();
+        if (vuelos.isEmpty()) {
+            throw new IOException("No hay vuelos en " + ARCHIVO_VUELOS);
+        }
+        TablaVuelos tabla = TablaVuelos.construir(vuelos, aeropuertos);
+
+        int n = tabla.getNumeroVuelos();
+        int numCodigos = tabla.getNumeroAeropuertos();
+        Map<Vuelo, Integer> posicionArchivo = new IdentityHashMap<>(n);
+        for (int i = 0; i < vuelos.size(); i++) {
+            posicionArchivo.put(vuelos.get(i), i);
+        }
+
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+            out.writeInt(MAGIA);
+            out.writeInt(VERSION);
+            out.writeLong(crc);
+            out.writeInt(aeropuertos.size());
+            out.writeInt(numCodigos);
+            out.writeInt(n);
+
+            for (Aeropuerto aeropuerto : aeropuertos) {
+                escribirTexto(out, aeropuerto.getCodigoICAO());
+                escribirTexto(out, aeropuerto.getCiudad());
+                escribirTexto(out, aeropuerto.getPais());
+                escribirTexto(out, aeropuerto.getCodigoCorto());
+                out.writeInt(aeropuerto.getHusoMinutos());
+                out.writeInt(aeropuerto.getCapacidadAlmacen());
+                out.writeDouble(aeropuerto.getLatitud());
+                out.writeDouble(aeropuerto.getLongitud());
+                escribirTexto(out, aeropuerto.getContinente());
+            }
+            for (int a = 0; a < numCodigos; a++) {
+                escribirTexto(out, tabla.getCodigo(a));
+                out.writeInt(tabla.getHusoMinutos(a));
+            }
+
+            for (int i = 0; i < n; i++) out.writeInt(tabla.getOrigen(i));
+            for (int i = 0; i < n; i++) out.writeInt(tabla.getDestino(i));
+            for (int i = 0; i < n; i++) out.writeInt(tabla.getSalidaUTC(i));
+            for (int i = 0; i < n; i++) out.writeInt(tabla.getLlegadaUTC(i));
+            for (int i = 0; i < n; i++) out.writeInt(tabla.getCapacidad(i));
+            for (int i = 0; i < n; i++) out.writeInt(convertirHoraAMinutos(tabla.getVuelo(i).getHoraSalida()));
+            for (int i = 0; i < n; i++) out.writeInt(convertirHoraAMinutos(tabla.getVuelo(i).getHoraLlegada()));
+            for (int i = 0; i < n; i++) out.writeInt(posicionArchivo.get(tabla.getVuelo(i)));
+            for (int a = 0; a <= numCodigos; a++) {
+                out.writeInt(a < numCodigos ? tabla.getInicioOrigen(a) : n);
+            }
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.printf("🗜️  Red compilada en %s: %d aeropuertos, %d vuelos%n", destino, aeropuertos.size(), n);
+
+        Vuelo[] enOrdenArchivo = vuelos.toArray(new Vuelo[0]);
+        return new SnapshotRed(aeropuertos, tabla, enOrdenArchivo);
+    }
+
+    private static void escribirTexto(DataOutputStream out, String texto) throws IOException {
+        byte[] bytes = texto != null ? texto.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        out.writeShort(texto != null ? bytes.length : -1);
+        out.write(bytes);
+    }
+
+    private static int convertirHoraAMinutos(String hora) {
+        String[] partes = hora.split(":");
+        return Integer.parseInt(partes[0].trim()) * 60 + Integer.parseInt(partes[1].trim());
+    }
+
+    // ==================== LECTURA ====================
+
+    /**
+     * Mapea el snapshot; null si no existe, es de otra versión, los CSV cambiaron o el archivo
+     * no se puede leer (truncado o dañado): en todos esos casos se vuelve a compilar
+     */
+    private static SnapshotRed leer(Path origen, long crcEsperado) {
+        if (!Files.isRegularFile(origen)) {
+            return null;
+        }
+        try {
+            MappedByteBuffer datos;
+            try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ)) {
+                datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()); // Sigue válido al cerrar el canal
+            }
+            return leer(datos, crcEsperado);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Snapshot de red dañado (" + e + "), se recompila desde el CSV");
+            return null;
+        }
+    }
+
+    private static SnapshotRed leer(MappedByteBuffer datos, long crcEsperado) {
+        if (datos.remaining() < 28 || datos.getInt() != MAGIA || datos.getInt() != VERSION
+                || datos.getLong() != crcEsperado) {
+            return null;
+        }
+        int numAeropuertos = datos.getInt();
+        int numCodigos = datos.getInt();
+        int n = datos.getInt();
+
+        List<Aeropuerto> aeropuertos = new ArrayList<>(numAeropuertos);
+        for (int i = 0; i < numAeropuertos; i++) {
+            String codigo = leerTexto(datos);
+            String ciudad = leerTexto(datos);
+            String pais = leerTexto(datos);
+            String codigoCorto = leerTexto(datos);
+            int husoMinutos = datos.getInt();
+            int capacidad = datos.getInt();
+            double latitud = datos.getDouble();
+            double longitud = datos.getDouble();
+            Aeropuerto aeropuerto = new Aeropuerto(codigo, ciudad, pais, codigoCorto, 0, capacidad, latitud, longitud);
+            aeropuerto.setHusoMinutos(husoMinutos);
+            aeropuerto.setContinente(leerTexto(datos));
+            aeropuertos.add(aeropuerto);
+        }
+
+        String[] codigos = new String[numCodigos];
+        int[] husos = new int[numCodigos];
+        for (int a = 0; a < numCodigos; a++) {
+            codigos[a] = leerTexto(datos);
+            husos[a] = datos.getInt();
+        }
+        // Los ids se vuelven a asignar igual que al compilar; si no coinciden, el archivo no sirve
+        RegistroAeropuertos registro = RegistroAeropuertos.construir(aeropuertos, Arrays.asList(codigos));
+        if (registro.getNumeroAeropuertos() != numCodigos) {
+            return null;
+        }
+        for (int a = 0; a < numCodigos; a++) {
+            if (!codigos[a].equals(registro.getCodigo(a))) {
+                return null;
+            }
+        }
+
+        int[] origenes = leerColumna(datos, n);
+        int[] destinos = leerColumna(datos, n);
+        int[] salidas = leerColumna(datos, n);
+        int[] llegadas = leerColumna(datos, n);
+        int[] capacidades = leerColumna(datos, n);
+        int[] salidasLocales = leerColumna(datos, n);
+        int[] llegadasLocales = leerColumna(datos, n);
+        int[] posicionArchivo = leerColumna(datos, n);
+        int[] inicioOrigen = leerColumna(datos, numCodigos + 1);
+
+        // Los horarios locales "HH:mm" se comparten: como mucho 1440 Strings distintos
+        String[] horas = new String[TablaVuelos.MINUTOS_DIA];
+        Vuelo[] vuelos = new Vuelo[n];
+        Vuelo[] enOrdenArchivo = new Vuelo[n];
+        for (int i = 0; i < n; i++) {
+            vuelos[i] = new Vuelo(codigos[origenes[i]], codigos[destinos[i]], formatearHora(horas, salidasLocales[i]),
+                                  formatearHora(horas, llegadasLocales[i]), capacidades[i]);
+            enOrdenArchivo[posicionArchivo[i]] = vuelos[i];
+        }
+
+        TablaVuelos tabla = TablaVuelos.desdeColumnas(registro, husos, vuelos, origenes, destinos,
+                                                      salidas, llegadas, capacidades, inicioOrigen);
+        return new SnapshotRed(aeropuertos, tabla, enOrdenArchivo);
+    }
+
+    private static String leerTexto(ByteBuffer datos) {
+        int longitud = datos.getShort();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        datos.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copia en bloque una columna de enteros del mapeo
+     */
+    private static int[] leerColumna(ByteBuffer datos, int longitud) {
+        int[] columna = new int[longitud];
+        datos.asIntBuffer().get(columna);
+        datos.position(datos.position() + longitud * Integer.BYTES);
+        return columna;
+    }
+
+    private static String formatearHora(String[] horas, int minutos) {
+        String hora = horas[minutos];
+        if (hora == null) {
+            hora = String.format("%02d:%02d", minutos / 60, minutos % 60);
+            horas[minutos] = hora;
+        }
+        return hora;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * Aeropuertos en el orden de aeropuertos_simple.csv (copias nuevas: Aeropuerto es mutable)
+     */
+    public List<Aeropuerto> getAeropuertos() {
+        List<Aeropuerto> copia = new ArrayList<>(aeropuertos.size());
+        for (Aeropuerto a : aeropuertos) {
+            Aeropuerto aeropuerto = new Aeropuerto(a.getCodigoICAO(), a.getCiudad(), a.getPais(), a.getCodigoCorto(),
+                                                   a.getHusoHorario(), a.getCapacidadAlmacen(), a.getLatitud(), a.getLongitud());
+            aeropuerto.setHusoMinutos(a.getHusoMinutos());
+            aeropuerto.setContinente(a.getContinente());
+            copia.add(aeropuerto);
+        }
+        return copia;
+    }
+
+    /**
+     * Vuelos en el orden de vuelos_completos.csv; son los mismos objetos (inmutables) que
+     * contiene la tabla, así las rutas planificadas sobre ella se reconocen por identidad
+     */
+    public List<Vuelo> getVuelos() {
+        return new ArrayList<>(Arrays.asList(vuelosEnOrdenArchivo));
+    }
+
+    public TablaVuelos getTabla() {
+        return tabla;
+    }
+}
@@ -4,6 +4,7 @@ import morapack.datos.*;
 import morapack.modelo.*;
 import morapack.planificacion.PlanificadorAvanzadoEscalas;
 import morapack.planificacion.RutaCompleta;
+import morapack.colonia.core.algoritmo.AlgoritmoColoniaIntegrado;
 import morapack.colonia.core.algoritmo.IndividuoIntegrado;
 import java.util.*;
 import java.io.FileWriter;
@@ -62,12 +63,14 @@ public class MainRapidoColoniaNuevo {
                 for (int ejecucion = 1; ejecucion <= 20; ejecucion++) {
                     System.out.printf("Ejecución %d/20...%n", ejecucion);
                     
-                    // Usar diferentes semillas para cada ejecución
-                    long semilla = 1111L + ejecucion;
+                    // Usar diferentes semillas para cada ejecución (la semilla reportada reproduce la ejecución)
+                    long semilla = Semillas.SEMILLA_POR_DEFECTO + ejecucion;
+                    planificador.setSemilla(semilla);
                     
-                    // Ejecutar algoritmo de colonia de hormigas con rutas reales
-                    IndividuoIntegrado individuo = new IndividuoIntegrado(pedidos, planificador);
-                    individuo.inicializarConPlanificacion();
+                    // Ejecutar algoritmo de colonia de hormigas con rutas reales (iteraciones fijas: reproducible)
+                    AlgoritmoColoniaIntegrado colonia = new AlgoritmoColoniaIntegrado(pedidos, planificador);
+                    colonia.setSemilla(semilla);
+                    IndividuoIntegrado individuo = colonia.ejecutar();
                     List<RutaCompleta> rutas = individuo.getRutasCompletas();
                     
                     double fitness = individuo.getFitness();
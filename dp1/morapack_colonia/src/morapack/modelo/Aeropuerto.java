@@ -10,6 +10,7 @@ public class Aeropuerto {
     private String pais;
     private String codigoCorto;
     private int husoHorario; // GMT offset
+    private int husoMinutos; // GMT offset en minutos (admite husos de media hora, ej. UTC+5:30)
     private int capacidadAlmacen;
     private String continente;
     private boolean esSede = false;
@@ -27,6 +28,7 @@ public class Aeropuerto {
         this.continente = continente;
         this.codigoCorto = codigoICAO.substring(0, Math.min(3, codigoICAO.length()));
         this.husoHorario = 0; // Valor por defecto
+        this.husoMinutos = 0;
         this.capacidadAlmacen = 1000; // Valor por defecto
     }
     
@@ -38,6 +40,7 @@ public class Aeropuerto {
         this.pais = pais;
         this.codigoCorto = codigoCorto;
         this.husoHorario = husoHorario;
+        this.husoMinutos = husoHorario * 60;
         this.capacidadAlmacen = capacidadAlmacen;
         this.continente = determinarContinente();
         this.latitud = 0.0; // Valor por defecto
@@ -52,6 +55,7 @@ public class Aeropuerto {
         this.pais = pais;
         this.codigoCorto = codigoCorto;
         this.husoHorario = husoHorario;
+        this.husoMinutos = husoHorario * 60;
         this.capacidadAlmacen = capacidadAlmacen;
         this.latitud = latitud;
         this.longitud = longitud;
@@ -132,7 +136,16 @@ public class Aeropuerto {
     public void setCodigoCorto(String codigoCorto) { this.codigoCorto = codigoCorto; }
     
     public int getHusoHorario() { return husoHorario; }
-    public void setHusoHorario(int husoHorario) { this.husoHorario = husoHorario; }
+    public void setHusoHorario(int husoHorario) { 
+        this.husoHorario = husoHorario;
+        this.husoMinutos = husoHorario * 60; // Mantener sincronizado
+    }
+    
+    public int getHusoMinutos() { return husoMinutos; }
+    public void setHusoMinutos(int husoMinutos) { 
+        this.husoMinutos = husoMinutos;
+        this.husoHorario = husoMinutos / 60; // Horas enteras (trunca las medias horas)
+    }
     
     public int getCapacidadAlmacen() { return capacidadAlmacen; }
     public void setCapacidadAlmacen(int capacidadAlmacen) { this.capacidadAlmacen = capacidadAlmacen; }
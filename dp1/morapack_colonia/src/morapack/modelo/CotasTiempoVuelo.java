@@ -0,0 +1,161 @@
+package morapack.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Cotas inferiores del tiempo de vuelo entre cada par de aeropuertos de una TablaVuelos,
+ * para búsquedas dirigidas al destino (A*).
+ *
+ * La cota es la distancia ortodrómica (Haversine sobre las coordenadas del registro) dividida
+ * entre la velocidad máxima observada en la propia tabla. Es admisible y consistente: ningún
+ * vuelo recorre su distancia en menos tiempo y, por la desigualdad triangular, tampoco una
+ * ruta con escalas. Los pares sin conexión en el grafo de vuelos tienen cota infinita y el
+ * mínimo de tramos necesarios permite descartar destinos fuera del límite de escalas.
+ *
+ * Se guarda en una matriz plana N×N (N = aeropuertos de la tabla) y es inmutable.
+ */
+public final class CotasTiempoVuelo {
+
+    public static final int SIN_CAMINO = Integer.MAX_VALUE;
+    private static final double RADIO_TIERRA_KM = 6371.0;
+
+    private final int numAeropuertos;
+    private final float[] cotaMinutos;     // [origen * N + destino]
+    private final int[] tramosMinimos;     // [origen * N + destino], SIN_CAMINO si no hay ruta
+    private final double velocidadMaxima;  // km por minuto (0 = sin coordenadas, cotas solo por alcance)
+
+    private CotasTiempoVuelo(int numAeropuertos, float[] cotaMinutos, int[] tramosMinimos, double velocidadMaxima) {
+        this.numAeropuertos = numAeropuertos;
+        this.cotaMinutos = cotaMinutos;
+        this.tramosMinimos = tramosMinimos;
+        this.velocidadMaxima = velocidadMaxima;
+    }
+
+    public static CotasTiempoVuelo construir(TablaVuelos tabla) {
+        RegistroAeropuertos registro = tabla.getRegistro();
+        int n = tabla.getNumeroAeropuertos();
+
+        // Distancias ortodrómicas; un aeropuerto con vuelos y sin coordenadas invalida la desigualdad triangular
+        boolean coordenadasCompletas = true;
+        for (int i = 0; i < tabla.getNumeroVuelos(); i++) {
+            if (!tieneCoordenadas(registro, tabla.getOrigen(i)) || !tieneCoordenadas(registro, tabla.getDestino(i))) {
+                coordenadasCompletas = false;
+                break;
+            }
+        }
+        double[] distancias = new double[n * n];
+        if (coordenadasCompletas) {
+            for (int a = 0; a < n; a++) {
+                for (int b = a + 1; b < n; b++) {
+                    double km = tieneCoordenadas(registro, a) && tieneCoordenadas(registro, b)
+                            ? distanciaKm(registro.getLatitud(a), registro.getLongitud(a),
+                                          registro.getLatitud(b), registro.getLongitud(b))
+                            : 0.0;
+                    distancias[a * n + b] = km;
+                    distancias[b * n + a] = km;
+                }
+            }
+        }
+
+        // Velocidad máxima sobre los horarios de esta tabla (misma escala de tiempo que la búsqueda)
+        double velocidadMaxima = 0.0;
+        for (int i = 0; i < tabla.getNumeroVuelos(); i++) {
+            double km = distancias[tabla.getOrigen(i) * n + tabla.getDestino(i)];
+            velocidadMaxima = Math.max(velocidadMaxima, km / tabla.getDuracion(i));
+        }
+
+        float[] cotas = new float[n * n];
+        if (velocidadMaxima > 0) {
+            for (int p = 0; p < n * n; p++) {
+                cotas[p] = (float) (distancias[p] / velocidadMaxima);
+            }
+        }
+
+        // Mínimo de tramos por BFS hacia atrás desde cada destino sobre el grafo de aeropuertos
+        boolean[] hayVuelo = new boolean[n * n];
+        for (int i = 0; i < tabla.getNumeroVuelos(); i++) {
+            hayVuelo[tabla.getOrigen(i) * n + tabla.getDestino(i)] = true;
+        }
+        int[] tramos = new int[n * n];
+        Arrays.fill(tramos, SIN_CAMINO);
+        int[] cola = new int[n];
+        for (int d = 0; d < n; d++) {
+            tramos[d * n + d] = 0;
+            int inicio = 0;
+            int fin = 0;
+            cola[fin++] = d;
+            while (inicio < fin) {
+                int b = cola[inicio++];
+                for (int a = 0; a < n; a++) {
+                    if (hayVuelo[a * n + b] && tramos[a * n + d] == SIN_CAMINO) {
+                        tramos[a * n + d] = tramos[b * n + d] + 1;
+                        cola[fin++] = a;
+                    }
+                }
+            }
+        }
+        for (int p = 0; p < n * n; p++) {
+            if (tramos[p] == SIN_CAMINO) {
+                cotas[p] = Float.POSITIVE_INFINITY;
+            }
+        }
+
+        return new CotasTiempoVuelo(n, cotas, tramos, velocidadMaxima);
+    }
+
+    private static boolean tieneCoordenadas(RegistroAeropuertos registro, int a) {
+        return registro.tieneDatos(a) && (registro.getLatitud(a) != 0.0 || registro.getLongitud(a) != 0.0);
+    }
+
+    /**
+     * Distancia ortodrómica en kilómetros (fórmula Haversine, igual que Aeropuerto.calcularDistancia)
+     */
+    public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double deltaLat = Math.toRadians(lat2 - lat1);
+        double deltaLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
+                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                   Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
+        return RADIO_TIERRA_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * Cota inferior en minutos de vuelo (infinita si no hay ruta)
+     */
+    public float getCota(int origen, int destino) {
+        return cotaMinutos[origen * numAeropuertos + destino];
+    }
+
+    /**
+     * Cota en minutos enteros redondeada hacia abajo (SIN_CAMINO si no hay ruta)
+     */
+    public int getCotaMinutos(int origen, int destino) {
+        float cota = cotaMinutos[origen * numAeropuertos + destino];
+        return cota == Float.POSITIVE_INFINITY ? SIN_CAMINO : (int) cota;
+    }
+
+    /**
+     * Mínimo de vuelos para ir de origen a destino, sin mirar horarios (SIN_CAMINO si no hay ruta)
+     */
+    public int getTramosMinimos(int origen, int destino) {
+        return tramosMinimos[origen * numAeropuertos + destino];
+    }
+
+    /**
+     * true si el destino puede alcanzarse desde el origen con a lo sumo maxTramos vuelos
+     */
+    public boolean alcanzable(int origen, int destino, int maxTramos) {
+        return tramosMinimos[origen * numAeropuertos + destino] <= maxTramos;
+    }
+
+    public int getNumeroAeropuertos() { return numAeropuertos; }
+
+    /** Velocidad máxima observada en km/h (0 si faltan coordenadas) */
+    public double getVelocidadMaximaKmh() { return velocidadMaxima * 60.0; }
+
+    @Override
+    public String toString() {
+        return String.format("CotasTiempoVuelo[%d aeropuertos, velocidad máxima %.0f km/h]",
+            numAeropuertos, getVelocidadMaximaKmh());
+    }
+}
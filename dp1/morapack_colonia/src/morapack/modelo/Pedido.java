@@ -1,8 +1,7 @@
 package morapack.modelo;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 /**
  * Representa un pedido de cliente que debe ser enviado desde una sede MoraPack
@@ -21,7 +20,7 @@ public class Pedido {
     private String aeropuertoOrigenId; // Código del aeropuerto origen (ej: SPIM, EBCI, UBBB)
     private String aeropuertoDestinoId; // Código del aeropuerto destino (ej: SVMI, SBBR)
     private int cantidadProductos; // 001-999
-    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaCreacion; // Se toma del reloj solo cuando se consulta por primera vez
     private LocalDateTime fechaLimiteEntrega;
     private int prioridad; // 1=alta, 2=media, 3=baja
     private String estado; // PENDIENTE, ASIGNADO, EN_RUTA, ENTREGADO, CANCELADO
@@ -32,13 +31,18 @@ public class Pedido {
     private int hora;
     private int minuto;
     
-    // Patrón para validar el formato del ID
-    private static final Pattern ID_PATTERN = Pattern.compile(
-        "^(\\d{2})-(\\d{2})-(\\d{2})-([A-Z]{4})-(\\d{3})-(\\d{7})$"
-    );
+    // Formato de ID por posiciones fijas: dd-hh-mm-DEST-###-IdClien (25 caracteres)
+    private static final int POS_DESTINO = 9;
+    private static final int POS_CANTIDAD = 14;
+    private static final int DIGITOS_CLIENTE = 7;
+    private static final int LONGITUD_MINIMA_ID = 25;
+    private static final int LONGITUD_MAXIMA_ID = 25;
+    
+    // Caché de códigos de destino para parsear(byte[], ...)
+    private static final int BITS_CACHE_CODIGOS = 10;
+    private static final String[] CACHE_CODIGOS = new String[1 << BITS_CACHE_CODIGOS];
     
     public Pedido() {
-        this.fechaCreacion = LocalDateTime.now();
         this.estado = "PENDIENTE";
     }
     
@@ -56,14 +60,74 @@ public class Pedido {
     
     public Pedido(String id) {
         this();
-        if (validarFormatoId(id)) {
-            this.id = id;
-            extraerComponentesId();
-        } else {
+        if (!extraerComponentesId(id, this)) {
             throw new IllegalArgumentException("Formato de ID inválido: " + id);
         }
     }
     
+    /**
+     * Crea el pedido a partir de su ID sin lanzar excepción (null si el formato no es válido).
+     * Pensado para cargas masivas: sin expresiones regulares ni consulta al reloj por pedido.
+     */
+    public static Pedido parsear(String id) {
+        Pedido pedido = new Pedido();
+        return extraerComponentesId(id, pedido) ? pedido : null;
+    }
+    
+    /**
+     * Igual que parsear(String) pero validando y leyendo los campos directamente de un buffer
+     * de bytes ASCII: las líneas rechazadas no asignan nada y las válidas solo crean el String
+     * del ID (el destino sale de una caché de códigos y el cliente se extrae al consultarlo).
+     */
+    public static Pedido parsear(byte[] buffer, int inicio, int fin) {
+        int longitud = fin - inicio;
+        if (longitud < LONGITUD_MINIMA_ID || longitud > LONGITUD_MAXIMA_ID) return null;
+        
+        int finCantidad = fin - DIGITOS_CLIENTE - 1;
+        if (buffer[inicio + 2] != '-' || buffer[inicio + 5] != '-' || buffer[inicio + 8] != '-'
+                || buffer[inicio + POS_DESTINO + 4] != '-' || buffer[finCantidad] != '-') {
+            return null;
+        }
+        
+        int dia = leerNumero(buffer, inicio, inicio + 2);
+        int hora = leerNumero(buffer, inicio + 3, inicio + 5);
+        int minuto = leerNumero(buffer, inicio + 6, inicio + 8);
+        int cantidad = leerNumero(buffer, inicio + POS_CANTIDAD, finCantidad);
+        if ((dia | hora | minuto | cantidad) < 0 || leerNumero(buffer, finCantidad + 1, fin) < 0) {
+            return null;
+        }
+        for (int i = inicio + POS_DESTINO; i < inicio + POS_DESTINO + 4; i++) {
+            if (buffer[i] < 'A' || buffer[i] > 'Z') return null;
+        }
+        
+        Pedido pedido = new Pedido();
+        pedido.id = new String(buffer, inicio, longitud, StandardCharsets.ISO_8859_1);
+        pedido.dia = dia;
+        pedido.hora = hora;
+        pedido.minuto = minuto;
+        pedido.aeropuertoDestinoId = codigoDestino(buffer, inicio + POS_DESTINO);
+        pedido.cantidadProductos = cantidad;
+        return pedido;
+    }
+    
+    /**
+     * Código de aeropuerto de 4 letras leído del buffer, reutilizando el String de una caché de
+     * correspondencia directa (solo se crea uno nuevo la primera vez o si otro código ocupó la ranura).
+     * Las carreras entre hilos solo pueden provocar un String de más.
+     */
+    private static String codigoDestino(byte[] buffer, int desde) {
+        int clave = (((buffer[desde] - 'A') * 26 + buffer[desde + 1] - 'A') * 26
+                    + buffer[desde + 2] - 'A') * 26 + buffer[desde + 3] - 'A';
+        int ranura = (clave * 0x9E3779B1) >>> (32 - BITS_CACHE_CODIGOS);
+        String codigo = CACHE_CODIGOS[ranura];
+        if (codigo == null || codigo.charAt(0) != buffer[desde] || codigo.charAt(1) != buffer[desde + 1]
+                || codigo.charAt(2) != buffer[desde + 2] || codigo.charAt(3) != buffer[desde + 3]) {
+            codigo = new String(buffer, desde, 4, StandardCharsets.ISO_8859_1);
+            CACHE_CODIGOS[ranura] = codigo;
+        }
+        return codigo;
+    }
+    
     /**
      * Genera el ID del pedido en formato: dd-hh-mm-dest-###-IdClien
      */
@@ -84,27 +148,68 @@ public class Pedido {
     }
     
     /**
-     * Valida que el ID tenga el formato correcto
+     * Valida el ID y extrae sus componentes en una sola pasada por posiciones fijas.
+     * Si destino es null solo valida. Devuelve false si el formato no es válido.
      */
-    private boolean validarFormatoId(String id) {
+    private static boolean extraerComponentesId(String id, Pedido destino) {
         if (id == null) return false;
-        Matcher matcher = ID_PATTERN.matcher(id);
-        return matcher.matches();
+        int longitud = id.length();
+        if (longitud < LONGITUD_MINIMA_ID || longitud > LONGITUD_MAXIMA_ID) return false;
+        
+        int finCantidad = longitud - DIGITOS_CLIENTE - 1;
+        if (id.charAt(2) != '-' || id.charAt(5) != '-' || id.charAt(8) != '-'
+                || id.charAt(POS_DESTINO + 4) != '-' || id.charAt(finCantidad) != '-') {
+            return false;
+        }
+        
+        int dia = leerNumero(id, 0, 2);
+        int hora = leerNumero(id, 3, 5);
+        int minuto = leerNumero(id, 6, 8);
+        int cantidad = leerNumero(id, POS_CANTIDAD, finCantidad);
+        if ((dia | hora | minuto | cantidad) < 0 || leerNumero(id, finCantidad + 1, longitud) < 0) {
+            return false;
+        }
+        for (int i = POS_DESTINO; i < POS_DESTINO + 4; i++) {
+            char c = id.charAt(i);
+            if (c < 'A' || c > 'Z') return false;
+        }
+        
+        if (destino != null) {
+            destino.id = id;
+            destino.dia = dia;
+            destino.hora = hora;
+            destino.minuto = minuto;
+            destino.aeropuertoDestinoId = id.substring(POS_DESTINO, POS_DESTINO + 4);
+            destino.cantidadProductos = cantidad;
+            destino.clienteId = id.substring(finCantidad + 1);
+        }
+        return true;
+    }
+    
+    /**
+     * Igual que leerNumero(String, ...) sobre bytes ASCII
+     */
+    private static int leerNumero(byte[] buffer, int desde, int hasta) {
+        int valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            int digito = buffer[i] - '0';
+            if (digito < 0 || digito > 9) return -1;
+            valor = valor * 10 + digito;
+        }
+        return valor;
     }
     
     /**
-     * Extrae los componentes del ID y los asigna a los campos correspondientes
+     * Lee los dígitos ASCII de [desde, hasta) como entero (-1 si hay otro carácter)
      */
-    private void extraerComponentesId() {
-        Matcher matcher = ID_PATTERN.matcher(id);
-        if (matcher.matches()) {
-            this.dia = Integer.parseInt(matcher.group(1));
-            this.hora = Integer.parseInt(matcher.group(2));
-            this.minuto = Integer.parseInt(matcher.group(3));
-            this.aeropuertoDestinoId = matcher.group(4);
-            this.cantidadProductos = Integer.parseInt(matcher.group(5));
-            this.clienteId = matcher.group(6);
+    private static int leerNumero(String texto, int desde, int hasta) {
+        int valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            int digito = texto.charAt(i) - '0';
+            if (digito < 0 || digito > 9) return -1;
+            valor = valor * 10 + digito;
         }
+        return valor;
     }
     
     /**
@@ -150,7 +255,8 @@ public class Pedido {
      * Obtiene la fecha y hora del pedido basada en los componentes del ID
      */
     public LocalDateTime getFechaPedido() {
-        return LocalDateTime.of(fechaCreacion.getYear(), fechaCreacion.getMonth(), 
+        LocalDateTime creacion = getFechaCreacion();
+        return LocalDateTime.of(creacion.getYear(), creacion.getMonth(), 
                                dia, hora, minuto);
     }
     
@@ -158,39 +264,35 @@ public class Pedido {
      * Valida si el formato del ID es correcto
      */
     public static boolean esFormatoValido(String id) {
-        if (id == null) return false;
-        return ID_PATTERN.matcher(id).matches();
+        return extraerComponentesId(id, null);
     }
     
     /**
      * Extrae el código del aeropuerto destino del ID
      */
     public static String extraerAeropuertoDestino(String id) {
-        Matcher matcher = ID_PATTERN.matcher(id);
-        return matcher.matches() ? matcher.group(4) : null;
+        return esFormatoValido(id) ? id.substring(POS_DESTINO, POS_DESTINO + 4) : null;
     }
     
     /**
      * Extrae la cantidad de productos del ID
      */
     public static int extraerCantidad(String id) {
-        Matcher matcher = ID_PATTERN.matcher(id);
-        return matcher.matches() ? Integer.parseInt(matcher.group(5)) : 0;
+        return esFormatoValido(id) ? leerNumero(id, POS_CANTIDAD, id.length() - DIGITOS_CLIENTE - 1) : 0;
     }
     
     /**
      * Extrae el ID del cliente del ID del pedido
      */
     public static String extraerClienteId(String id) {
-        Matcher matcher = ID_PATTERN.matcher(id);
-        return matcher.matches() ? matcher.group(6) : null;
+        return esFormatoValido(id) ? id.substring(id.length() - DIGITOS_CLIENTE) : null;
     }
     
     private LocalDateTime calcularFechaLimite() {
         // Reglas de negocio MoraPack:
         // - Mismo continente: 2 días máximo
         // - Diferente continente: 3 días máximo
-        return fechaCreacion.plusDays(3); // Por defecto 3 días
+        return getFechaCreacion().plusDays(3); // Por defecto 3 días
     }
     
     /**
@@ -198,7 +300,7 @@ public class Pedido {
      */
     public void actualizarFechaLimite(boolean mismoContinente) {
         int diasLimite = mismoContinente ? 2 : 3;
-        this.fechaLimiteEntrega = fechaCreacion.plusDays(diasLimite);
+        this.fechaLimiteEntrega = getFechaCreacion().plusDays(diasLimite);
     }
     
     /**
@@ -247,7 +349,12 @@ public class Pedido {
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
     
-    public String getClienteId() { return clienteId; }
+    public String getClienteId() {
+        if (clienteId == null && esFormatoValido(id)) {
+            clienteId = id.substring(id.length() - DIGITOS_CLIENTE); // Pedidos leídos de un buffer de bytes
+        }
+        return clienteId;
+    }
     public void setClienteId(String clienteId) { this.clienteId = clienteId; }
     
     public String getAeropuertoDestinoId() { return aeropuertoDestinoId; }
@@ -259,7 +366,12 @@ public class Pedido {
     public int getCantidadProductos() { return cantidadProductos; }
     public void setCantidadProductos(int cantidadProductos) { this.cantidadProductos = cantidadProductos; }
     
-    public LocalDateTime getFechaCreacion() { return fechaCreacion; }
+    public LocalDateTime getFechaCreacion() {
+        if (fechaCreacion == null) {
+            fechaCreacion = LocalDateTime.now();
+        }
+        return fechaCreacion;
+    }
     public void setFechaCreacion(LocalDateTime fechaCreacion) { this.fechaCreacion = fechaCreacion; }
     
     public LocalDateTime getFechaLimiteEntrega() { return fechaLimiteEntrega; }
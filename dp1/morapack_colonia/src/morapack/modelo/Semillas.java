@@ -0,0 +1,78 @@
+package morapack.modelo;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Semillas reproducibles para todos los componentes aleatorios (planificador, genético y colonia).
+ *
+ * Una ejecución tiene una semilla; de ella se derivan flujos SplittableRandom independientes
+ * por individuo, hormiga o tarea con derivar(semilla, flujo). Los flujos se identifican por la
+ * unidad de trabajo (índice del individuo o de la hormiga, número de generación), nunca por el
+ * hilo que la ejecuta: así el resultado es el mismo bit a bit con cualquier número de hilos.
+ *
+ * La semilla de la ejecución se toma de la propiedad del sistema "morapack.semilla" si existe.
+ */
+public final class Semillas {
+
+    public static final String PROPIEDAD_SEMILLA = "morapack.semilla";
+    public static final long SEMILLA_POR_DEFECTO = 1111L;
+
+    private static final long GAMMA = 0x9E3779B97F4A7C15L; // Incremento de SplitMix64
+    private static final AtomicLong contadorSinSemilla = new AtomicLong();
+
+    private Semillas() {
+    }
+
+    /**
+     * Semilla de la ejecución: -Dmorapack.semilla o SEMILLA_POR_DEFECTO
+     */
+    public static long semillaEjecucion() {
+        return Long.getLong(PROPIEDAD_SEMILLA, SEMILLA_POR_DEFECTO);
+    }
+
+    /**
+     * Semilla para objetos creados sin semilla explícita: el siguiente flujo de la ejecución.
+     * Es reproducible si los objetos se crean en el mismo orden; en paralelo conviene pasar
+     * derivar(semilla, indice) explícitamente.
+     */
+    public static long siguienteSemilla() {
+        return derivar(semillaEjecucion(), contadorSinSemilla.getAndIncrement());
+    }
+
+    /**
+     * Semilla del flujo número flujo dentro de la semilla dada (función pura, sin estado)
+     */
+    public static long derivar(long semilla, long flujo) {
+        return mezclar(semilla + GAMMA * (flujo + 1));
+    }
+
+    /**
+     * Semilla derivada de varias claves, en orden (por ejemplo origen, destino, hora y cantidad)
+     */
+    public static long derivar(long semilla, long a, long b, long c, long d) {
+        return derivar(derivar(derivar(derivar(semilla, a), b), c), d);
+    }
+
+    public static SplittableRandom crear(long semilla) {
+        return new SplittableRandom(semilla);
+    }
+
+    public static SplittableRandom crear(long semilla, long flujo) {
+        return new SplittableRandom(derivar(semilla, flujo));
+    }
+
+    /**
+     * Real uniforme en [0, 1) determinado solo por la semilla (para decisiones sin generador)
+     */
+    public static double uniforme(long semilla) {
+        return (mezclar(semilla) >>> 11) * 0x1.0p-53;
+    }
+
+    /** Finalizador de SplitMix64 (mix64 de Stafford) */
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
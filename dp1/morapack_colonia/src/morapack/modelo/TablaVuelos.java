@@ -0,0 +1,235 @@
+package morapack.modelo;
+
+import java.util.*;
+
+/**
+ * Tabla de vuelos columnar e inmutable, compartida por todos los planificadores.
+ * Los aeropuertos se identifican con los ids enteros densos de un RegistroAeropuertos
+ * y los horarios se guardan como minutos UTC, de modo que el camino caliente no parsea
+ * ni compara Strings.
+ *
+ * Los vuelos quedan ordenados por (origen, salida UTC); inicioOrigen[a]..inicioOrigen[a+1]
+ * delimita los vuelos que salen del aeropuerto a.
+ */
+public final class TablaVuelos {
+
+    public static final int MINUTOS_DIA = 24 * 60;
+
+    // Aeropuertos (id denso del registro → huso aplicado a los horarios de esta tabla)
+    private final RegistroAeropuertos registro;
+    private final int[] husoMinutos;
+
+    // Vuelos (columnas paralelas ordenadas por origen y hora de salida UTC)
+    private final Vuelo[] vuelos;
+    private final int[] origenes;
+    private final int[] destinos;
+    private final int[] salidasUTC;   // [0, 1440)
+    private final int[] llegadasUTC;  // salida + duración, puede pasar de 1440 (llega al día siguiente)
+    private final int[] capacidades;
+    private final int[] inicioOrigen;
+    private final Map<Vuelo, Integer> indicePorVuelo; // Por identidad del objeto cargado
+
+    private TablaVuelos(RegistroAeropuertos registro, int[] husoMinutos, Vuelo[] vuelos, int[] origenes,
+                        int[] destinos, int[] salidasUTC, int[] llegadasUTC, int[] capacidades, int[] inicioOrigen) {
+        this.registro = registro;
+        this.husoMinutos = husoMinutos;
+        this.vuelos = vuelos;
+        this.origenes = origenes;
+        this.destinos = destinos;
+        this.salidasUTC = salidasUTC;
+        this.llegadasUTC = llegadasUTC;
+        this.capacidades = capacidades;
+        this.inicioOrigen = inicioOrigen;
+        this.indicePorVuelo = new IdentityHashMap<>(vuelos.length);
+        for (int i = 0; i < vuelos.length; i++) {
+            indicePorVuelo.put(vuelos[i], i);
+        }
+    }
+
+    /**
+     * Construye la tabla a partir de los vuelos y aeropuertos cargados del CSV.
+     * Los aeropuertos sin datos (o una lista vacía) se tratan como UTC+0.
+     */
+    public static TablaVuelos construir(List<Vuelo> listaVuelos, List<Aeropuerto> aeropuertos) {
+        return construir(listaVuelos, RegistroAeropuertos.construir(aeropuertos, Collections.emptyList()), true);
+    }
+
+    /**
+     * Construye la tabla con los ids de un registro existente (extendido con los códigos de
+     * los vuelos que le falten). Con aplicarHusos en false las horas del CSV se usan tal cual.
+     */
+    public static TablaVuelos construir(List<Vuelo> listaVuelos, RegistroAeropuertos registroBase, boolean aplicarHusos) {
+        Set<String> codigosVuelos = new LinkedHashSet<>();
+        for (Vuelo vuelo : listaVuelos) {
+            codigosVuelos.add(vuelo.getOrigen());
+            codigosVuelos.add(vuelo.getDestino());
+        }
+        RegistroAeropuertos registro = registroBase.conCodigos(codigosVuelos);
+
+        int numAeropuertos = registro.getNumeroAeropuertos();
+        int[] husos = new int[numAeropuertos];
+        if (aplicarHusos) {
+            for (int a = 0; a < numAeropuertos; a++) {
+                husos[a] = registro.getHusoMinutos(a);
+            }
+        }
+
+        // Convertir horarios locales a UTC una sola vez
+        int n = listaVuelos.size();
+        int[] origenTmp = new int[n];
+        int[] salidaTmp = new int[n];
+        int[] duracionTmp = new int[n];
+        Integer[] orden = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            Vuelo vuelo = listaVuelos.get(i);
+            int o = registro.getId(vuelo.getOrigen());
+            int d = registro.getId(vuelo.getDestino());
+            int salida = normalizar(convertirHoraAMinutos(vuelo.getHoraSalida()) - husos[o]);
+            int llegada = normalizar(convertirHoraAMinutos(vuelo.getHoraLlegada()) - husos[d]);
+            int duracion = llegada - salida;
+            if (duracion <= 0) {
+                duracion += MINUTOS_DIA; // Llega al día siguiente (UTC)
+            }
+            origenTmp[i] = o;
+            salidaTmp[i] = salida;
+            duracionTmp[i] = duracion;
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> origenTmp[a] != origenTmp[b]
+                ? Integer.compare(origenTmp[a], origenTmp[b])
+                : Integer.compare(salidaTmp[a], salidaTmp[b]));
+
+        Vuelo[] vuelos = new Vuelo[n];
+        int[] origenes = new int[n];
+        int[] destinos = new int[n];
+        int[] salidas = new int[n];
+        int[] llegadas = new int[n];
+        int[] capacidades = new int[n];
+        int[] inicioOrigen = new int[numAeropuertos + 1];
+        for (int k = 0; k < n; k++) {
+            int i = orden[k];
+            Vuelo vuelo = listaVuelos.get(i);
+            vuelos[k] = vuelo;
+            origenes[k] = origenTmp[i];
+            destinos[k] = registro.getId(vuelo.getDestino());
+            salidas[k] = salidaTmp[i];
+            llegadas[k] = salidaTmp[i] + duracionTmp[i];
+            capacidades[k] = vuelo.getCapacidad();
+            inicioOrigen[origenes[k] + 1]++;
+        }
+        for (int a = 0; a < numAeropuertos; a++) {
+            inicioOrigen[a + 1] += inicioOrigen[a];
+        }
+
+        return new TablaVuelos(registro, husos, vuelos, origenes, destinos, salidas, llegadas, capacidades, inicioOrigen);
+    }
+
+    /**
+     * Reconstruye una tabla a partir de columnas ya ordenadas por (origen, salida UTC),
+     * como las que guarda SnapshotRed. Los arreglos pasan a ser de la tabla (no se copian).
+     */
+    public static TablaVuelos desdeColumnas(RegistroAeropuertos registro, int[] husoMinutos, Vuelo[] vuelos,
+                                            int[] origenes, int[] destinos, int[] salidasUTC, int[] llegadasUTC,
+                                            int[] capacidades, int[] inicioOrigen) {
+        int numAeropuertos = registro.getNumeroAeropuertos();
+        if (husoMinutos.length != numAeropuertos || inicioOrigen.length != numAeropuertos + 1
+                || inicioOrigen[numAeropuertos] != vuelos.length) {
+            throw new IllegalArgumentException("Columnas de vuelos inconsistentes con " + numAeropuertos + " aeropuertos");
+        }
+        return new TablaVuelos(registro, husoMinutos, vuelos, origenes, destinos, salidasUTC, llegadasUTC,
+                               capacidades, inicioOrigen);
+    }
+
+    private static int normalizar(int minutos) {
+        return Math.floorMod(minutos, MINUTOS_DIA);
+    }
+
+    /**
+     * Convierte hora en formato HH:mm a minutos desde medianoche (solo durante la carga)
+     */
+    private static int convertirHoraAMinutos(String hora) {
+        try {
+            String[] partes = hora.split(":");
+            return Integer.parseInt(partes[0].trim()) * 60 + Integer.parseInt(partes[1].trim());
+        } catch (Exception e) {
+            return 0; // Valor por defecto
+        }
+    }
+
+    // ==================== AEROPUERTOS ====================
+
+    /**
+     * Id del aeropuerto o -1 si no existe (solo para fronteras de E/S)
+     */
+    public int getIdAeropuerto(String codigo) {
+        return registro.getId(codigo);
+    }
+
+    public RegistroAeropuertos getRegistro() { return registro; }
+    public int getNumeroAeropuertos() { return husoMinutos.length; }
+    public String getCodigo(int aeropuerto) { return registro.getCodigo(aeropuerto); }
+    public int getHusoMinutos(int aeropuerto) { return husoMinutos[aeropuerto]; }
+    public String getContinente(int aeropuerto) { return registro.getNombreContinente(aeropuerto); }
+
+    // ==================== VUELOS ====================
+
+    public int getNumeroVuelos() { return vuelos.length; }
+    public Vuelo getVuelo(int indice) { return vuelos[indice]; }
+    public int getOrigen(int indice) { return origenes[indice]; }
+    public int getDestino(int indice) { return destinos[indice]; }
+    public int getSalidaUTC(int indice) { return salidasUTC[indice]; }
+    public int getLlegadaUTC(int indice) { return llegadasUTC[indice]; }
+    public int getCapacidad(int indice) { return capacidades[indice]; }
+
+    /**
+     * Índice en la tabla del vuelo dado o -1 si no pertenece a ella
+     */
+    public int getIndice(Vuelo vuelo) {
+        Integer indice = indicePorVuelo.get(vuelo);
+        return indice != null ? indice : -1;
+    }
+
+    /** Primer vuelo (inclusive) que sale del aeropuerto */
+    public int getInicioOrigen(int aeropuerto) { return inicioOrigen[aeropuerto]; }
+
+    /** Último vuelo (exclusive) que sale del aeropuerto */
+    public int getFinOrigen(int aeropuerto) { return inicioOrigen[aeropuerto + 1]; }
+
+    // ==================== LÍNEA DE TIEMPO ====================
+    // Instantes absolutos: minutos UTC desde las 00:00 UTC del día 1 del mes de planificación
+
+    /**
+     * Instante del minuto UTC dado del día del mes (el minuto puede caer fuera de [0, 1440))
+     */
+    public static int minutoAbsoluto(int dia, int minutoUTC) {
+        return (dia - 1) * MINUTOS_DIA + minutoUTC;
+    }
+
+    /** Día del mes (UTC) en que cae un instante */
+    public static int diaDe(int instante) { return Math.floorDiv(instante, MINUTOS_DIA) + 1; }
+
+    /** Primer instante (00:00 UTC) de un día del mes */
+    public static int inicioDia(int dia) { return (dia - 1) * MINUTOS_DIA; }
+
+    /**
+     * Salida de la primera instancia diaria del vuelo en o después del instante dado
+     */
+    public int getSiguienteSalida(int indice, int instante) {
+        return instante + Math.floorMod(salidasUTC[indice] - instante, MINUTOS_DIA);
+    }
+
+    /** Duración del vuelo en minutos */
+    public int getDuracion(int indice) { return llegadasUTC[indice] - salidasUTC[indice]; }
+
+    /**
+     * Llegada de la primera instancia diaria del vuelo que sale en o después del instante dado
+     */
+    public int getSiguienteLlegada(int indice, int instante) {
+        return getSiguienteSalida(indice, instante) + getDuracion(indice);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TablaVuelos[%d vuelos, %d aeropuertos]", vuelos.length, husoMinutos.length);
+    }
+}
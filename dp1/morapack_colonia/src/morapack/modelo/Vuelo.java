@@ -1,16 +1,17 @@
 package morapack.modelo;
 
 /**
- * Representa un vuelo en el sistema MoraPack
+ * Representa un vuelo en el sistema MoraPack.
+ *
+ * Es inmutable: la TablaVuelos compartida y el snapshot de la red entregan los mismos objetos
+ * a todos los planificadores, y la capacidad usada se lleva aparte en un RegistroCapacidad.
  */
-public class Vuelo {
-    private String origen;
-    private String destino; 
-    private String horaSalida;
-    private String horaLlegada;
-    private int capacidad;
-    
-    public Vuelo() {}
+public final class Vuelo {
+    private final String origen;
+    private final String destino; 
+    private final String horaSalida;
+    private final String horaLlegada;
+    private final int capacidad;
     
     public Vuelo(String origen, String destino, String horaSalida, String horaLlegada, int capacidad) {
         this.origen = origen;
@@ -20,25 +21,15 @@ public class Vuelo {
         this.capacidad = capacidad;
     }
     
-    // Getters y setters
+    // Getters
     public String getOrigen() { return origen; }
-    public void setOrigen(String origen) { this.origen = origen; }
-    
     public String getDestino() { return destino; }
-    public void setDestino(String destino) { this.destino = destino; }
-    
     public String getHoraSalida() { return horaSalida; }
-    public void setHoraSalida(String horaSalida) { this.horaSalida = horaSalida; }
-    
     public String getHoraLlegada() { return horaLlegada; }
-    public void setHoraLlegada(String horaLlegada) { this.horaLlegada = horaLlegada; }
-    
     public int getCapacidad() { return capacidad; }
-    public void setCapacidad(int capacidad) { this.capacidad = capacidad; }
     
     // ==================== MÉTODOS DE COMPATIBILIDAD ====================
     public int getCapacidadMaxima() { return capacidad; } // Alias para getCapacidad()
-    public void setCapacidadMaxima(int capacidad) { this.capacidad = capacidad; } // Alias para setCapacidad()
     
     @Override
     public String toString() {
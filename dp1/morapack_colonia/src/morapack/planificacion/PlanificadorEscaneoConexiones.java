@@ -0,0 +1,468 @@
+package morapack.planificacion;
+
+import morapack.modelo.*;
+import morapack.datos.CargadorDatosCSV;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Planificador basado en Connection Scan (CSA) sobre los vuelos ordenados por hora de salida.
+ * Reemplaza la búsqueda recursiva en profundidad de PlanificadorAvanzadoEscalas: una sola
+ * pasada lineal por consulta entrega el itinerario de llegada más temprana.
+ *
+ * Con la búsqueda dirigida activa se usa en su lugar A* sobre el grafo de aeropuertos con
+ * horarios (llegada más temprana por aeropuerto + cota Haversine de CotasTiempoVuelo): solo
+ * se expanden los aeropuertos que pueden mejorar la llegada y los destinos inalcanzables se
+ * descartan sin explorar.
+ *
+ * Trabaja sobre una TablaVuelos: ids enteros de aeropuerto y minutos UTC, sin Strings en el
+ * camino caliente. Los vuelos se repiten cada día, así que la búsqueda pasa al día siguiente
+ * cuando se acaban los vuelos del día, hasta DIAS_BUSQUEDA días después del tiempo mínimo.
+ * La capacidad usada se lleva en un RegistroCapacidad por índice de vuelo (la misma para todas
+ * las instancias diarias de un vuelo).
+ */
+public class PlanificadorEscaneoConexiones {
+
+    private static final int MIN_CONEXION_MINUTOS = 30;  // Tiempo mínimo entre conexiones
+    private static final int MAX_ESCALAS = 5;            // Máximo de vuelos por ruta (igual que el DFS)
+    private static final int INFINITO = Integer.MAX_VALUE;
+    private static final int DIAS_BUSQUEDA = 3;          // Salidas consideradas: el plazo intercontinental
+
+    private final TablaVuelos tabla;
+    private final RegistroAeropuertos registro;
+
+    // Conexiones ordenadas por salida UTC (índices a la tabla + columnas copiadas para escaneo secuencial)
+    private final int[] indiceTabla;
+    private final int[] origenes;
+    private final int[] destinos;
+    private final int[] salidas;
+    private final int[] llegadas;
+
+    // Conexiones de cada aeropuerto en orden de salida (CSR) y cotas para la búsqueda dirigida
+    private final int[] inicioPorOrigen;
+    private final int[] conexionesPorOrigen;
+    private final CotasTiempoVuelo cotas;
+    private boolean busquedaDirigida = false;
+
+    private final RegistroCapacidad capacidadUsada; // Por índice de vuelo de la tabla
+
+    // Trabajo acumulado de las búsquedas (aeropuertos expandidos solo en la dirigida)
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder conexionesExaminadas = new LongAdder();
+    private final LongAdder aeropuertosExpandidos = new LongAdder();
+
+    /**
+     * Construye la red en horarios UTC (la tabla compartida si son los vuelos cargados),
+     * con los ids del registro de aeropuertos compartido
+     */
+    public PlanificadorEscaneoConexiones(List<Vuelo> vuelos) {
+        this(CargadorDatosCSV.cargarTablaVuelos(vuelos));
+    }
+
+    public PlanificadorEscaneoConexiones(TablaVuelos tabla) {
+        this.tabla = tabla;
+        this.registro = tabla.getRegistro();
+
+        int n = tabla.getNumeroVuelos();
+        Integer[] orden = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, Comparator.comparingInt(tabla::getSalidaUTC));
+
+        this.indiceTabla = new int[n];
+        this.origenes = new int[n];
+        this.destinos = new int[n];
+        this.salidas = new int[n];
+        this.llegadas = new int[n];
+        for (int c = 0; c < n; c++) {
+            int i = orden[c];
+            indiceTabla[c] = i;
+            origenes[c] = tabla.getOrigen(i);
+            destinos[c] = tabla.getDestino(i);
+            salidas[c] = tabla.getSalidaUTC(i);
+            llegadas[c] = tabla.getLlegadaUTC(i);
+        }
+
+        int numAeropuertos = tabla.getNumeroAeropuertos();
+        this.inicioPorOrigen = new int[numAeropuertos + 1];
+        for (int c = 0; c < n; c++) {
+            inicioPorOrigen[origenes[c] + 1]++;
+        }
+        for (int a = 0; a < numAeropuertos; a++) {
+            inicioPorOrigen[a + 1] += inicioPorOrigen[a];
+        }
+        this.conexionesPorOrigen = new int[n];
+        int[] llenos = Arrays.copyOf(inicioPorOrigen, numAeropuertos);
+        for (int c = 0; c < n; c++) {
+            conexionesPorOrigen[llenos[origenes[c]]++] = c;
+        }
+        this.cotas = CotasTiempoVuelo.construir(tabla);
+
+        this.capacidadUsada = new RegistroCapacidad(tabla);
+    }
+
+    /**
+     * Comparte la red ordenada (inmutable) y arranca con capacidades vacías
+     */
+    private PlanificadorEscaneoConexiones(PlanificadorEscaneoConexiones base) {
+        this.tabla = base.tabla;
+        this.registro = base.registro;
+        this.indiceTabla = base.indiceTabla;
+        this.origenes = base.origenes;
+        this.destinos = base.destinos;
+        this.salidas = base.salidas;
+        this.llegadas = base.llegadas;
+        this.inicioPorOrigen = base.inicioPorOrigen;
+        this.conexionesPorOrigen = base.conexionesPorOrigen;
+        this.cotas = base.cotas;
+        this.busquedaDirigida = base.busquedaDirigida;
+        this.capacidadUsada = new RegistroCapacidad(base.tabla);
+    }
+
+    /**
+     * Crea un planificador sobre la misma red con su propio estado de capacidad (uno por hilo)
+     */
+    public PlanificadorEscaneoConexiones crearConCapacidadPropia() {
+        return new PlanificadorEscaneoConexiones(this);
+    }
+
+    /**
+     * Planifica una ruta completa desde una sede hasta un destino
+     */
+    public RutaCompleta planificarRuta(String sedeOrigen, String destino, int cantidad) {
+        return planificarRuta(sedeOrigen, destino, cantidad, 0); // Sin restricción temporal
+    }
+
+    /**
+     * Planifica la ruta de llegada más temprana desde una sede hasta un destino
+     * @param sedeOrigen Aeropuerto origen (sede)
+     * @param destino Aeropuerto destino
+     * @param cantidad Cantidad de paquetes
+     * @param tiempoMinimoPedido Instante UTC en minutos desde el que puede salir (hora del pedido en la
+     *                           sede + ventana de recojo); como los vuelos son diarios, solo cuenta su hora del día
+     */
+    public RutaCompleta planificarRuta(String sedeOrigen, String destino, int cantidad, int tiempoMinimoPedido) {
+        return planificarRuta(sedeOrigen, destino, cantidad, tiempoMinimoPedido, capacidadUsada);
+    }
+
+    /**
+     * Planifica entre ids de aeropuerto reservando en la capacidad propia del planificador
+     */
+    public RutaCompleta planificarRuta(int idOrigen, int idDestino, int cantidad, int tiempoMinimoPedido) {
+        return planificarRuta(idOrigen, idDestino, cantidad, tiempoMinimoPedido, capacidadUsada);
+    }
+
+    /**
+     * Igual que planificarRuta, pero comprueba y reserva capacidad en un registro externo
+     * (ver crearRegistroCapacidad). La red no se modifica, por lo que es seguro entre hilos
+     * mientras cada hilo use su propio registro.
+     */
+    public RutaCompleta planificarRuta(String sedeOrigen, String destino, int cantidad, int tiempoMinimoPedido,
+                                       RegistroCapacidad capacidadUsada) {
+        return planificarRuta(registro.getId(sedeOrigen), registro.getId(destino), cantidad, tiempoMinimoPedido,
+                              capacidadUsada);
+    }
+
+    /**
+     * Planifica entre ids de aeropuerto del registro de la tabla (-1 = aeropuerto desconocido)
+     */
+    public RutaCompleta planificarRuta(int idOrigen, int idDestino, int cantidad, int tiempoMinimoPedido,
+                                       RegistroCapacidad capacidadUsada) {
+        if (idOrigen < 0 || idDestino < 0) {
+            return null;
+        }
+
+        // Validar que el destino no sea una sede de MoraPack
+        if (registro.esSede(idDestino)) {
+            return null; // No planificar rutas hacia las propias sedes (silencioso)
+        }
+
+        // Validar que el origen y destino sean diferentes
+        if (idOrigen == idDestino) {
+            System.out.println("⚠️ ADVERTENCIA: Origen y destino son iguales (" + registro.getCodigo(idOrigen) + ") - esto no tiene sentido");
+            return null;
+        }
+
+        consultas.increment();
+        int[] conexionLlegada = busquedaDirigida
+                ? buscarDirigido(idOrigen, idDestino, cantidad, tiempoMinimoPedido, capacidadUsada)
+                : escanearConexiones(idOrigen, idDestino, cantidad, tiempoMinimoPedido, capacidadUsada);
+        if (conexionLlegada == null) {
+            return null;
+        }
+
+        return construirRuta(conexionLlegada, idDestino, cantidad, capacidadUsada);
+    }
+
+    /**
+     * Pasada única de Connection Scan sobre las instancias diarias de los vuelos, desde el
+     * tiempo mínimo hasta DIAS_BUSQUEDA días después. Devuelve, por aeropuerto, la conexión con
+     * la que se llegó más temprano (o null si el destino es inalcanzable).
+     */
+    private int[] escanearConexiones(int idOrigen, int idDestino, int cantidad, int tiempoMinimo,
+                                     RegistroCapacidad capacidadUsada) {
+        int numAeropuertos = tabla.getNumeroAeropuertos();
+        int[] llegadaMasTemprana = new int[numAeropuertos];
+        int[] conexionLlegada = new int[numAeropuertos];
+        int[] vuelosHasta = new int[numAeropuertos];
+        Arrays.fill(llegadaMasTemprana, INFINITO);
+        Arrays.fill(conexionLlegada, -1);
+        llegadaMasTemprana[idOrigen] = tiempoMinimo;
+
+        int inicioDia = tiempoMinimo - Math.floorMod(tiempoMinimo, TablaVuelos.MINUTOS_DIA);
+        int limiteSalida = tiempoMinimo + DIAS_BUSQUEDA * TablaVuelos.MINUTOS_DIA;
+        int c = primeraConexionDesde(tiempoMinimo - inicioDia);
+        int examinadas = 0;
+        escaneo:
+        for (; inicioDia < limiteSalida; inicioDia += TablaVuelos.MINUTOS_DIA, c = 0) {
+            for (; c < salidas.length; c++) {
+                // Ninguna conexión posterior puede mejorar la llegada al destino
+                int salida = inicioDia + salidas[c];
+                if (salida >= llegadaMasTemprana[idDestino] || salida >= limiteSalida) {
+                    break escaneo;
+                }
+                examinadas++;
+
+                int o = origenes[c];
+                if (llegadaMasTemprana[o] == INFINITO || vuelosHasta[o] >= MAX_ESCALAS) {
+                    continue;
+                }
+
+                int listoParaSalir = (o == idOrigen) ? tiempoMinimo : llegadaMasTemprana[o] + MIN_CONEXION_MINUTOS;
+                int llegada = inicioDia + llegadas[c];
+                int d = destinos[c];
+                if (salida < listoParaSalir || llegada >= llegadaMasTemprana[d] || d == idOrigen) {
+                    continue;
+                }
+
+                int i = indiceTabla[c];
+                if (!capacidadUsada.cabe(i, cantidad)) {
+                    continue;
+                }
+
+                llegadaMasTemprana[d] = llegada;
+                conexionLlegada[d] = c;
+                vuelosHasta[d] = vuelosHasta[o] + 1;
+            }
+        }
+        conexionesExaminadas.add(examinadas);
+
+        return conexionLlegada[idDestino] >= 0 ? conexionLlegada : null;
+    }
+
+    /**
+     * A* de llegada más temprana: la prioridad de un aeropuerto es su llegada más la cota
+     * inferior del vuelo restante al destino. Con la cota consistente, al sacar un aeropuerto
+     * de los abiertos su llegada es definitiva, y al sacar el destino la búsqueda termina.
+     * Mismas reglas que el escaneo: conexión mínima, límite de vuelos, capacidad por vuelo y
+     * salidas hasta DIAS_BUSQUEDA días después del tiempo mínimo.
+     */
+    private int[] buscarDirigido(int idOrigen, int idDestino, int cantidad, int tiempoMinimo,
+                                 RegistroCapacidad capacidadUsada) {
+        if (!cotas.alcanzable(idOrigen, idDestino, MAX_ESCALAS)) {
+            return null; // Ni siquiera sin horarios hay camino con MAX_ESCALAS vuelos
+        }
+
+        int numAeropuertos = tabla.getNumeroAeropuertos();
+        int[] llegadaMasTemprana = new int[numAeropuertos];
+        int[] conexionLlegada = new int[numAeropuertos];
+        int[] vuelosHasta = new int[numAeropuertos];
+        boolean[] cerrado = new boolean[numAeropuertos];
+        int[] prioridad = new int[numAeropuertos]; // Llegada + cota de los aeropuertos abiertos
+        Arrays.fill(llegadaMasTemprana, INFINITO);
+        Arrays.fill(conexionLlegada, -1);
+        Arrays.fill(prioridad, INFINITO);
+        llegadaMasTemprana[idOrigen] = tiempoMinimo;
+        prioridad[idOrigen] = tiempoMinimo + cotas.getCotaMinutos(idOrigen, idDestino);
+        int limiteSalida = tiempoMinimo + DIAS_BUSQUEDA * TablaVuelos.MINUTOS_DIA;
+        int examinadas = 0;
+        int expandidos = 0;
+
+        // Con pocas decenas de aeropuertos, elegir el mínimo recorriendo el arreglo es más barato que un montículo
+        while (true) {
+            int a = -1;
+            for (int b = 0; b < numAeropuertos; b++) {
+                if (prioridad[b] != INFINITO && (a < 0 || prioridad[b] < prioridad[a])) {
+                    a = b;
+                }
+            }
+            if (a < 0) {
+                break;
+            }
+            prioridad[a] = INFINITO;
+            cerrado[a] = true;
+            expandidos++;
+            if (a == idDestino) {
+                break;
+            }
+
+            int tramos = vuelosHasta[a];
+            if (tramos >= MAX_ESCALAS) {
+                continue;
+            }
+            // Cada vuelo del aeropuerto se toma en su primera instancia diaria tras estar listo
+            int listoParaSalir = (a == idOrigen) ? tiempoMinimo : llegadaMasTemprana[a] + MIN_CONEXION_MINUTOS;
+            int fin = inicioPorOrigen[a + 1];
+            for (int k = inicioPorOrigen[a]; k < fin; k++) {
+                int c = conexionesPorOrigen[k];
+                examinadas++;
+                int d = destinos[c];
+                int salida = listoParaSalir + Math.floorMod(salidas[c] - listoParaSalir, TablaVuelos.MINUTOS_DIA);
+                int llegada = salida + (llegadas[c] - salidas[c]);
+                if (cerrado[d] || d == idOrigen || salida >= limiteSalida || llegada >= llegadaMasTemprana[d]) {
+                    continue;
+                }
+                // Poda: el destino no se alcanza a tiempo de mejorar, o no quedan vuelos suficientes
+                if (cotas.getTramosMinimos(d, idDestino) > MAX_ESCALAS - tramos - 1
+                        || llegada + cotas.getCotaMinutos(d, idDestino) >= llegadaMasTemprana[idDestino]) {
+                    continue;
+                }
+                if (!capacidadUsada.cabe(indiceTabla[c], cantidad)) {
+                    continue;
+                }
+
+                llegadaMasTemprana[d] = llegada;
+                conexionLlegada[d] = c;
+                vuelosHasta[d] = tramos + 1;
+                prioridad[d] = llegada + cotas.getCotaMinutos(d, idDestino);
+            }
+        }
+        conexionesExaminadas.add(examinadas);
+        aeropuertosExpandidos.add(expandidos);
+
+        return conexionLlegada[idDestino] >= 0 ? conexionLlegada : null;
+    }
+
+    /**
+     * Reconstruye la ruta siguiendo las conexiones hacia atrás y reserva su capacidad
+     */
+    private RutaCompleta construirRuta(int[] conexionLlegada, int idDestino, int cantidad,
+                                       RegistroCapacidad capacidadUsada) {
+        LinkedList<Integer> tramos = new LinkedList<>();
+        for (int c = conexionLlegada[idDestino]; c >= 0; c = conexionLlegada[origenes[c]]) {
+            tramos.addFirst(c);
+        }
+
+        RutaCompleta ruta = new RutaCompleta();
+        List<String> escalas = new ArrayList<>();
+        for (int c : tramos) {
+            int i = indiceTabla[c];
+            capacidadUsada.reservar(i, cantidad); // Ya verificada durante el escaneo
+            ruta.agregarVuelo(tabla.getVuelo(i));
+            if (destinos[c] != idDestino) {
+                escalas.add(tabla.getCodigo(destinos[c]));
+            }
+        }
+
+        ruta.setEscalas(escalas);
+        if (escalas.isEmpty()) {
+            ruta.setTipoRuta("DIRECTO");
+        } else if (escalas.size() == 1) {
+            ruta.setTipoRuta("UNA_CONEXION");
+        } else if (escalas.size() == 2) {
+            ruta.setTipoRuta("DOS_CONEXIONES");
+        } else {
+            ruta.setTipoRuta("MULTIPLE_CONEXIONES");
+        }
+
+        return ruta;
+    }
+
+    /**
+     * Búsqueda binaria de la primera conexión que sale en o después del tiempo indicado
+     */
+    private int primeraConexionDesde(int tiempo) {
+        int inicio = 0;
+        int fin = salidas.length;
+        while (inicio < fin) {
+            int medio = (inicio + fin) >>> 1;
+            if (salidas[medio] < tiempo) {
+                inicio = medio + 1;
+            } else {
+                fin = medio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Activa A* con cotas Haversine en lugar del escaneo de conexiones (las copias lo heredan)
+     */
+    public void setBusquedaDirigida(boolean busquedaDirigida) {
+        this.busquedaDirigida = busquedaDirigida;
+    }
+
+    public boolean isBusquedaDirigida() { return busquedaDirigida; }
+
+    /**
+     * Trabajo medio por consulta: conexiones examinadas y aeropuertos expandidos
+     */
+    public String getEstadisticasBusqueda() {
+        long total = Math.max(1, consultas.sum());
+        return String.format("%s: %d consultas, %.1f conexiones/consulta, %.1f aeropuertos expandidos/consulta",
+            busquedaDirigida ? "A*" : "CSA", consultas.sum(),
+            (double) conexionesExaminadas.sum() / total, (double) aeropuertosExpandidos.sum() / total);
+    }
+
+    public void reiniciarEstadisticasBusqueda() {
+        consultas.reset();
+        conexionesExaminadas.reset();
+        aeropuertosExpandidos.reset();
+    }
+
+    /**
+     * Registro de capacidad vacío sobre la tabla de este planificador
+     */
+    public RegistroCapacidad crearRegistroCapacidad() {
+        return new RegistroCapacidad(tabla);
+    }
+
+    /**
+     * Devuelve al registro la capacidad reservada por una ruta planificada sobre esta red
+     */
+    public void liberarRuta(RutaCompleta ruta, int cantidad, RegistroCapacidad capacidadUsada) {
+        for (Vuelo vuelo : ruta.getVuelos()) {
+            int i = tabla.getIndice(vuelo);
+            if (i >= 0) {
+                capacidadUsada.liberar(i, cantidad);
+            }
+        }
+    }
+
+    /**
+     * Catálogo de itinerarios por (sede, destino) de esta red (se construye una vez y se comparte)
+     */
+    public CatalogoItinerarios getCatalogoItinerarios() {
+        return CatalogoItinerarios.obtener(tabla);
+    }
+
+    /**
+     * Reinicia el estado de capacidades usadas
+     */
+    public void reiniciarCapacidades() {
+        capacidadUsada.reiniciar();
+    }
+
+    /**
+     * Obtiene estadísticas de uso de capacidad (claves origen-destino-horaSalida)
+     */
+    public Map<String, Integer> getEstadisticasCapacidad() {
+        Map<String, Integer> estadisticas = new HashMap<>();
+        for (int i = 0; i < capacidadUsada.getNumeroVuelos(); i++) {
+            int usada = capacidadUsada.getUsada(i);
+            if (usada > 0) {
+                Vuelo vuelo = tabla.getVuelo(i);
+                String claveVuelo = vuelo.getOrigen() + "-" + vuelo.getDestino() + "-" + vuelo.getHoraSalida();
+                estadisticas.merge(claveVuelo, usada, Integer::sum);
+            }
+        }
+        return estadisticas;
+    }
+
+    public TablaVuelos getTabla() { return tabla; }
+    public RegistroCapacidad getRegistroCapacidad() { return capacidadUsada; }
+    public RegistroAeropuertos getRegistro() { return registro; }
+    public int getNumeroConexiones() { return salidas.length; }
+    public CotasTiempoVuelo getCotasTiempoVuelo() { return cotas; }
+}
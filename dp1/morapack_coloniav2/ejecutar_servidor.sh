@@ -0,0 +1,16 @@
+#!/bin/bash
+
+# ===================================================
+# Servidor de planificacion persistente MoraPack Colonia v2
+#   ./ejecutar_servidor.sh               -> protocolo por entrada estandar
+#   ./ejecutar_servidor.sh --puerto 5050 -> protocolo por socket local
+# ===================================================
+
+mkdir -p bin
+javac -encoding UTF-8 -d bin -sourcepath src src/morapack/main/ServidorPlanificacion.java
+if [ $? -ne 0 ]; then
+    echo "[ERROR] Error compilando el servidor" >&2
+    exit 1
+fi
+
+java -cp bin morapack.main.ServidorPlanificacion "$@"
@@ -3,14 +3,34 @@ package morapack.colonia;
 /**
  * Maneja las feromonas del algoritmo de colonia de hormigas
  * Las feromonas representan la "memoria" de buenas soluciones pasadas
+ *
+ * Por defecto la evaporación es perezosa: evaporar() solo multiplica un factor de escala global
+ * y cada celda guarda su valor dividido por la escala vigente al escribirla, junto con la
+ * iteración en que se escribió. El valor real (escala × guardado, con el mínimo aplicado si hubo
+ * evaporación desde entonces) se calcula al leer o depositar, así el costo por iteración es
+ * proporcional a lo depositado y no a tamano².
  */
 public class Feromona {
+    private static final double ESCALA_MINIMA = 1e-150; // Renormalizar antes del underflow
+    
     private double[][] matriz;
+    private int[][] ultimaActualizacion; // Iteración de evaporación en que se escribió cada celda
+    private double escala;               // Producto de (1 - factorEvaporacion) desde la última renormalización
+    private int iteracion;
+    private boolean evaporacionPerezosa;
     private int tamano;
     private double valorInicial;
     private double factorEvaporacion;
     private double feromonaMinima;
     private double feromonaMaxima;
+    private boolean soloLectura;         // Mientras las hormigas construyen (posiblemente en paralelo)
+    
+    // Celdas escritas desde la última sincronización de CacheDeseabilidad (solo si hay caché)
+    private boolean seguirCambios;
+    private boolean[] celdaCambiada;     // [origen * tamano + destino]
+    private int[] celdasCambiadas;
+    private int numeroCambios;
+    private boolean cambiaronTodas;
     
     public Feromona(int tamano, double valorInicial, double factorEvaporacion) {
         this.tamano = tamano;
@@ -18,6 +38,7 @@ public class Feromona {
         this.factorEvaporacion = factorEvaporacion;
         this.feromonaMinima = 0.01;
         this.feromonaMaxima = 10.0;
+        this.evaporacionPerezosa = true;
         
         inicializarMatriz();
     }
@@ -32,6 +53,10 @@ public class Feromona {
                 matriz[i][j] = valorInicial;
             }
         }
+        ultimaActualizacion = new int[tamano][tamano];
+        escala = 1.0;
+        iteracion = 0;
+        marcarTodasCambiadas();
     }
     
     /**
@@ -39,21 +64,49 @@ public class Feromona {
      */
     public double obtenerFeromona(int origen, int destino) {
         if (origen >= 0 && origen < tamano && destino >= 0 && destino < tamano) {
-            return matriz[origen][destino];
+            return valorActual(origen, destino);
         }
         return valorInicial;
     }
     
+    /**
+     * Valor real de una celda: el mínimo solo aplica si se evaporó desde la última escritura
+     */
+    private double valorActual(int origen, int destino) {
+        double valor = matriz[origen][destino] * escala;
+        if (ultimaActualizacion[origen][destino] < iteracion && valor < feromonaMinima) {
+            return feromonaMinima;
+        }
+        return valor;
+    }
+    
+    /**
+     * Guarda un valor real en la celda (dividido por la escala vigente)
+     */
+    private void guardarValor(int origen, int destino, double valor) {
+        matriz[origen][destino] = valor / escala;
+        ultimaActualizacion[origen][destino] = iteracion;
+        if (seguirCambios && !cambiaronTodas) {
+            int celda = origen * tamano + destino;
+            if (!celdaCambiada[celda]) {
+                celdaCambiada[celda] = true;
+                celdasCambiadas[numeroCambios++] = celda;
+            }
+        }
+    }
+    
     /**
      * Deposita feromona en un camino específico
      */
     public void depositarFeromona(int origen, int destino, double cantidad) {
+        verificarEscritura();
         if (origen >= 0 && origen < tamano && destino >= 0 && destino < tamano) {
-            matriz[origen][destino] += cantidad;
+            double valor = valorActual(origen, destino) + cantidad;
             // Aplicar límites
-            if (matriz[origen][destino] > feromonaMaxima) {
-                matriz[origen][destino] = feromonaMaxima;
+            if (valor > feromonaMaxima) {
+                valor = feromonaMaxima;
             }
+            guardarValor(origen, destino, valor);
         }
     }
     
@@ -76,6 +129,16 @@ public class Feromona {
      * Evapora las feromonas (reduce gradualmente su intensidad)
      */
     public void evaporar() {
+        verificarEscritura();
+        if (evaporacionPerezosa) {
+            escala *= (1.0 - factorEvaporacion);
+            iteracion++;
+            if (escala < ESCALA_MINIMA) {
+                materializar();
+            }
+            return;
+        }
+        
         for (int i = 0; i < tamano; i++) {
             for (int j = 0; j < tamano; j++) {
                 matriz[i][j] *= (1.0 - factorEvaporacion);
@@ -85,8 +148,64 @@ public class Feromona {
                 }
             }
         }
+        marcarTodasCambiadas();
     }
     
+    /**
+     * Escribe en la matriz los valores reales y deja la escala en 1 (renormalización periódica)
+     */
+    private void materializar() {
+        for (int i = 0; i < tamano; i++) {
+            for (int j = 0; j < tamano; j++) {
+                matriz[i][j] = valorActual(i, j);
+                ultimaActualizacion[i][j] = iteracion;
+            }
+        }
+        escala = 1.0;
+        marcarTodasCambiadas();
+    }
+    
+    // ==================== CAMBIOS (para CacheDeseabilidad) ====================
+    
+    /**
+     * Empieza a registrar las celdas escritas; hasta la primera sincronización cuentan todas
+     */
+    void activarSeguimientoCambios() {
+        if (!seguirCambios) {
+            seguirCambios = true;
+            celdaCambiada = new boolean[tamano * tamano];
+            celdasCambiadas = new int[tamano * tamano];
+            numeroCambios = 0;
+            cambiaronTodas = true;
+        }
+    }
+    
+    private void marcarTodasCambiadas() {
+        cambiaronTodas = true;
+    }
+    
+    boolean isCambiaronTodas() { return cambiaronTodas; }
+    int getNumeroCambios() { return numeroCambios; }
+    int getCeldaCambiada(int k) { return celdasCambiadas[k]; }
+    
+    /**
+     * Olvida los cambios ya aplicados por la caché
+     */
+    void limpiarCambios() {
+        for (int k = 0; k < numeroCambios; k++) {
+            celdaCambiada[celdasCambiadas[k]] = false;
+        }
+        numeroCambios = 0;
+        cambiaronTodas = false;
+    }
+    
+    /** Valor guardado de la celda (el real es este por la escala, con el mínimo si quedó vieja) */
+    double getValorGuardado(int origen, int destino) { return matriz[origen][destino]; }
+    int getUltimaActualizacion(int origen, int destino) { return ultimaActualizacion[origen][destino]; }
+    double getEscala() { return escala; }
+    int getIteracionEvaporacion() { return iteracion; }
+    double getFeromonaMinima() { return feromonaMinima; }
+    
     /**
      * Refuerza el mejor camino encontrado
      */
@@ -106,9 +225,27 @@ public class Feromona {
      * Reinicia la matriz de feromonas
      */
     public void reiniciar() {
+        verificarEscritura();
         inicializarMatriz();
     }
     
+    /**
+     * Marca la matriz como de solo lectura durante la construcción de la iteración: la lectura
+     * no tiene efectos secundarios, así que varias hormigas pueden leerla a la vez, y los
+     * depósitos se aplican después, juntos, en la actualización de la iteración
+     */
+    public void setSoloLectura(boolean soloLectura) {
+        this.soloLectura = soloLectura;
+    }
+    
+    public boolean isSoloLectura() { return soloLectura; }
+    
+    private void verificarEscritura() {
+        if (soloLectura) {
+            throw new IllegalStateException("Feromona de solo lectura mientras las hormigas construyen");
+        }
+    }
+    
     /**
      * Obtiene estadísticas de las feromonas
      */
@@ -121,7 +258,7 @@ public class Feromona {
         for (int i = 0; i < tamano; i++) {
             for (int j = 0; j < tamano; j++) {
                 if (i != j) { // Excluir diagonal
-                    double valor = matriz[i][j];
+                    double valor = valorActual(i, j);
                     suma += valor;
                     contador++;
                     if (valor < min) min = valor;
@@ -138,6 +275,19 @@ public class Feromona {
     public int getTamano() { return tamano; }
     public double getFactorEvaporacion() { return factorEvaporacion; }
     public void setFactorEvaporacion(double factor) { this.factorEvaporacion = factor; }
+    public boolean isEvaporacionPerezosa() { return evaporacionPerezosa; }
+    
+    /**
+     * Cambia entre evaporación perezosa y el recorrido completo de la matriz en cada iteración
+     */
+    public void setEvaporacionPerezosa(boolean perezosa) {
+        verificarEscritura();
+        if (evaporacionPerezosa && !perezosa) {
+            materializar();
+        }
+        this.evaporacionPerezosa = perezosa;
+    }
+    
     public void setLimites(double minimo, double maximo) {
         this.feromonaMinima = minimo;
         this.feromonaMaxima = maximo;
@@ -4,6 +4,8 @@ import morapack.colonia.*;
 import morapack.colonia.Colonia.EstadisticasColonia;
 import morapack.colonia.Feromona.EstadisticasFeromona;
 import morapack.colonia.Heuristica.EstadisticasHeuristica;
+import morapack.modelo.Semillas;
+import java.util.function.Supplier;
 
 /**
  * Implementación del Algoritmo de Colonia de Hormigas (ACO)
@@ -18,6 +20,9 @@ public class AlgoritmoColoniaHormigas {
     private double factorHeuristico;      // Beta: importancia de heurística
     private double factorEvaporacion;     // Rho: tasa de evaporación
     private double valorInicialFeromona;
+    private long semilla;
+    private int hilosConstruccion;        // 1 = construcción secuencial
+    private int tamanoListaCandidatos;    // Sucesores por nodo en la lista de candidatos (0 = todos)
     
     // Componentes del algoritmo
     private Colonia colonia;
@@ -28,6 +33,7 @@ public class AlgoritmoColoniaHormigas {
     private boolean debug;
     private int iteracionSinMejora;
     private int maxIteracionesSinMejora;
+    private long tiempoMaximo;            // Milisegundos (0 = sin límite de tiempo)
     
     public AlgoritmoColoniaHormigas() {
         // Valores por defecto
@@ -40,6 +46,9 @@ public class AlgoritmoColoniaHormigas {
         this.debug = false;
         this.maxIteracionesSinMejora = 100;
         this.iteracionSinMejora = 0;
+        this.semilla = Semillas.semillaEjecucion();
+        this.hilosConstruccion = 1;
+        this.tamanoListaCandidatos = 15;
     }
     
     /**
@@ -60,9 +69,17 @@ public class AlgoritmoColoniaHormigas {
      */
     public void inicializar(int tamanoProblem, Class<? extends Hormiga> tipoHormiga, 
                            Heuristica heuristicaProblema) {
-        // Crear colonia
-        this.colonia = new Colonia(numeroHormigas);
-        this.colonia.inicializar(tipoHormiga);
+        inicializar(tamanoProblem, Colonia.fabrica(tipoHormiga), heuristicaProblema);
+    }
+    
+    /**
+     * Inicializa los componentes con una fábrica de hormigas (sin reflexión)
+     */
+    public void inicializar(int tamanoProblem, Supplier<? extends Hormiga> fabricaHormigas,
+                           Heuristica heuristicaProblema) {
+        // Crear colonia (la construcción paralela se configura al ejecutar)
+        this.colonia = new Colonia(numeroHormigas, semilla);
+        this.colonia.inicializar(fabricaHormigas);
         
         // Crear matriz de feromonas
         this.feromona = new Feromona(tamanoProblem, valorInicialFeromona, factorEvaporacion);
@@ -70,6 +87,12 @@ public class AlgoritmoColoniaHormigas {
         // Configurar heurística
         this.heuristica = heuristicaProblema;
         this.heuristica.setFactorImportancia(factorHeuristico);
+        this.heuristica.crearCacheDeseabilidad(feromona, factorFeromona);
+        if (tamanoListaCandidatos > 0 && tamanoListaCandidatos < tamanoProblem - 1) {
+            this.heuristica.crearListaCandidatos(tamanoProblem, tamanoListaCandidatos);
+        } else {
+            this.heuristica.eliminarListaCandidatos();
+        }
         
         this.iteracionSinMejora = 0;
     }
@@ -87,44 +110,58 @@ public class AlgoritmoColoniaHormigas {
         long tiempoInicio = System.currentTimeMillis();
         Hormiga mejorGlobal = null;
         double mejorCalidadGlobal = Double.MAX_VALUE;
+        int iteracionesEjecutadas = 0;
         
-        for (int iteracion = 1; iteracion <= numeroIteraciones; iteracion++) {
-            // 1. Construcción de soluciones
-            colonia.construirSoluciones(feromona, heuristica);
-            
-            // 2. Actualizar mejor solución
-            boolean mejoraEncontrada = colonia.actualizarMejorSolucion(iteracion);
-            
-            if (mejoraEncontrada) {
-                mejorGlobal = colonia.getMejorHormiga();
-                mejorCalidadGlobal = colonia.getMejorCalidad();
-                iteracionSinMejora = 0;
-            } else {
-                iteracionSinMejora++;
-            }
-            
-            // 3. Actualización de feromonas
-            actualizarFeromonas();
-            
-            // 4. Mostrar progreso
-            if (debug && iteracion % 100 == 0) {
-                mostrarProgreso(iteracion);
-            }
-            
-            // 5. Criterio de parada temprana
-            if (iteracionSinMejora >= maxIteracionesSinMejora) {
-                if (debug) {
-                    System.out.printf("Parada temprana en iteración %d (sin mejora por %d iteraciones)%n", 
-                                     iteracion, maxIteracionesSinMejora);
+        // El pool de la construcción paralela vive solo durante la ejecución
+        colonia.configurarConstruccionParalela(hilosConstruccion);
+        try {
+            for (int iteracion = 1; iteracion <= numeroIteraciones; iteracion++) {
+                iteracionesEjecutadas = iteracion;
+                
+                // 1. Construcción de soluciones
+                colonia.construirSoluciones(feromona, heuristica);
+                
+                // 2. Actualizar mejor solución
+                boolean mejoraEncontrada = colonia.actualizarMejorSolucion(iteracion);
+                
+                if (mejoraEncontrada) {
+                    mejorGlobal = colonia.getMejorHormiga();
+                    mejorCalidadGlobal = colonia.getMejorCalidad();
+                    iteracionSinMejora = 0;
+                } else {
+                    iteracionSinMejora++;
+                }
+                
+                // 3. Actualización de feromonas
+                actualizarFeromonas();
+                
+                // 4. Mostrar progreso
+                if (debug && iteracion % 100 == 0) {
+                    mostrarProgreso(iteracion);
+                }
+                
+                // 5. Criterio de parada temprana
+                if (iteracionSinMejora >= maxIteracionesSinMejora) {
+                    if (debug) {
+                        System.out.printf("Parada temprana en iteración %d (sin mejora por %d iteraciones)%n", 
+                                         iteracion, maxIteracionesSinMejora);
+                    }
+                    break;
+                }
+                
+                // 6. Límite de tiempo (se comprueba entre iteraciones)
+                if (tiempoMaximo > 0 && System.currentTimeMillis() - tiempoInicio >= tiempoMaximo) {
+                    break;
                 }
-                break;
             }
+        } finally {
+            colonia.cerrar();
         }
         
         long tiempoTotal = System.currentTimeMillis() - tiempoInicio;
         
         return new ResultadoACO(mejorGlobal, mejorCalidadGlobal, colonia.getIteracionMejorEncontrada(), 
-                               tiempoTotal, numeroIteraciones - iteracionSinMejora);
+                               tiempoTotal, iteracionesEjecutadas);
     }
     
     /**
@@ -134,16 +171,18 @@ public class AlgoritmoColoniaHormigas {
         // 1. Evaporación
         feromona.evaporar();
         
-        // 2. Depositar feromona de todas las hormigas
-        for (Hormiga hormiga : colonia.getHormigas()) {
+        // 2. Depositar feromona de todas las hormigas: reducción única tras la construcción,
+        //    en orden de hormiga para que no dependa de los hilos (lectura sin copias)
+        for (int k = 0; k < colonia.getTamanoPoblacion(); k++) {
+            Hormiga hormiga = colonia.getHormiga(k);
             if (hormiga.isSolucionCompleta()) {
-                feromona.actualizarFeromona(hormiga.getSolucion(), hormiga.getCalidad());
+                feromona.actualizarFeromona(hormiga.getSolucionSinCopia(), hormiga.getCalidad());
             }
         }
         
         // 3. Reforzar mejor camino global
         if (colonia.getMejorHormiga() != null) {
-            feromona.reforzarMejorCamino(colonia.getMejorHormiga().getSolucion(), 
+            feromona.reforzarMejorCamino(colonia.getMejorHormiga().getSolucionSinCopia(), 
                                        colonia.getMejorCalidad());
         }
     }
@@ -192,11 +231,32 @@ public class AlgoritmoColoniaHormigas {
     public void setDebug(boolean debug) { this.debug = debug; }
     public void setMaxIteracionesSinMejora(int max) { this.maxIteracionesSinMejora = max; }
     
+    /** Límite de tiempo de ejecutar() en milisegundos (0 = solo iteraciones) */
+    public void setTiempoMaximo(long milisegundos) { this.tiempoMaximo = Math.max(0, milisegundos); }
+    
+    /** Semilla de la colonia (aplicar antes de inicializar) */
+    public void setSemilla(long semilla) { this.semilla = semilla; }
+    
+    /**
+     * Hilos para construir las soluciones de las hormigas (aplicar antes de ejecutar); el pool
+     * se crea al empezar ejecutar() y se cierra al terminar
+     */
+    public void configurarConstruccionParalela(int numeroHilos) {
+        this.hilosConstruccion = Math.max(1, numeroHilos);
+    }
+    
+    /**
+     * Sucesores por nodo en la lista de candidatos (0 = sin lista; aplicar antes de inicializar)
+     */
+    public void setTamanoListaCandidatos(int tamano) { this.tamanoListaCandidatos = Math.max(0, tamano); }
+    
     public int getNumeroHormigas() { return numeroHormigas; }
     public int getNumeroIteraciones() { return numeroIteraciones; }
     public double getFactorFeromona() { return factorFeromona; }
     public double getFactorHeuristico() { return factorHeuristico; }
     public double getFactorEvaporacion() { return factorEvaporacion; }
+    public long getSemilla() { return semilla; }
+    public int getTamanoListaCandidatos() { return tamanoListaCandidatos; }
     
     public Colonia getColonia() { return colonia; }
     public Feromona getFeromona() { return feromona; }
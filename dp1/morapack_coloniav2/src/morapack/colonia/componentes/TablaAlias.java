@@ -0,0 +1,79 @@
+package morapack.colonia.componentes;
+
+/**
+ * Método del alias (Vose) para distribuciones fijas: construcción O(n) una vez y muestreo O(1)
+ * con un entero y un real aleatorios. Sirve para elecciones cuyos pesos no dependen de la
+ * feromona (por ejemplo, la sede o el nodo inicial según la heurística).
+ *
+ * Es inmutable y puede compartirse entre hormigas e hilos.
+ */
+public final class TablaAlias {
+    private final double[] probabilidad;
+    private final int[] alias;
+
+    /**
+     * @param pesos Pesos no negativos por opción (al menos uno positivo)
+     */
+    public TablaAlias(double[] pesos) {
+        int n = pesos.length;
+        this.probabilidad = new double[n];
+        this.alias = new int[n];
+
+        double suma = 0.0;
+        int algunaPositiva = -1;
+        for (int i = 0; i < n; i++) {
+            if (pesos[i] > 0) {
+                suma += pesos[i];
+                algunaPositiva = i;
+            }
+        }
+        if (!(suma > 0)) {
+            throw new IllegalArgumentException("La tabla de alias necesita al menos un peso positivo");
+        }
+
+        // Pesos escalados a media 1: los menores de 1 se completan con un alias mayor
+        double[] escalados = new double[n];
+        int[] pequenos = new int[n];
+        int[] grandes = new int[n];
+        int numPequenos = 0;
+        int numGrandes = 0;
+        for (int i = 0; i < n; i++) {
+            escalados[i] = (pesos[i] > 0 ? pesos[i] : 0.0) * n / suma;
+            if (escalados[i] < 1.0) {
+                pequenos[numPequenos++] = i;
+            } else {
+                grandes[numGrandes++] = i;
+            }
+        }
+        while (numPequenos > 0 && numGrandes > 0) {
+            int menor = pequenos[--numPequenos];
+            int mayor = grandes[--numGrandes];
+            probabilidad[menor] = escalados[menor];
+            alias[menor] = mayor;
+            escalados[mayor] = (escalados[mayor] + escalados[menor]) - 1.0;
+            if (escalados[mayor] < 1.0) {
+                pequenos[numPequenos++] = mayor;
+            } else {
+                grandes[numGrandes++] = mayor;
+            }
+        }
+        // Restos por redondeo: probabilidad 1 (sin alias)
+        while (numGrandes > 0) {
+            int i = grandes[--numGrandes];
+            probabilidad[i] = 1.0;
+            alias[i] = i;
+        }
+        while (numPequenos > 0) {
+            int i = pequenos[--numPequenos];
+            probabilidad[i] = pesos[i] > 0 ? 1.0 : 0.0;
+            alias[i] = pesos[i] > 0 ? i : algunaPositiva;
+        }
+    }
+
+    public int muestrear(FlujoAleatorio random) {
+        int i = random.nextInt(probabilidad.length);
+        return random.nextDouble() < probabilidad[i] ? i : alias[i];
+    }
+
+    public int getTamano() { return probabilidad.length; }
+}
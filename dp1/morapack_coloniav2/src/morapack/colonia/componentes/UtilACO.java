@@ -1,28 +1,88 @@
 package morapack.colonia.componentes;
 
-import java.util.Random;
+import morapack.modelo.Semillas;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Utilidades para el algoritmo de colonia de hormigas
+ * Utilidades para el algoritmo de colonia de hormigas.
+ *
+ * Los métodos aleatorios tienen una variante que recibe el SplittableRandom de quien los llama
+ * (la hormiga o el individuo, con su flujo de Semillas): es la que da resultados idénticos con
+ * cualquier número de hilos. Las variantes sin generador usan un flujo propio de cada hilo,
+ * derivado de la semilla de establecerSemilla, sin contención entre hilos.
  */
 public class UtilACO {
-    private static final Random random = new Random();
+    private static volatile long semilla = Semillas.semillaEjecucion();
+    private static volatile long version = 0;                       // Cambia en cada establecerSemilla
+    private static final AtomicLong hilosConFlujo = new AtomicLong(); // Flujos entregados desde la última semilla
+    private static final ThreadLocal<FlujoHilo> flujoPorHilo = new ThreadLocal<>();
+    
+    private static final class FlujoHilo {
+        final long version;
+        final SplittableRandom random;
+        
+        FlujoHilo(long version, SplittableRandom random) {
+            this.version = version;
+            this.random = random;
+        }
+    }
+    
+    /**
+     * Generador del hilo actual (se vuelve a derivar si cambió la semilla)
+     */
+    private static SplittableRandom random() {
+        FlujoHilo flujo = flujoPorHilo.get();
+        long versionActual = version;
+        if (flujo == null || flujo.version != versionActual) {
+            flujo = new FlujoHilo(versionActual, Semillas.crear(semilla, hilosConFlujo.getAndIncrement()));
+            flujoPorHilo.set(flujo);
+        }
+        return flujo.random;
+    }
     
     /**
      * Selección proporcional basada en probabilidades (ruleta)
      */
     public static int seleccionRuleta(double[] probabilidades) {
-        double suma = 0.0;
-        for (double prob : probabilidades) {
-            suma += prob;
-        }
-        
+        return seleccionRuleta(probabilidades, random());
+    }
+    
+    /**
+     * Selección por ruleta con el generador de quien llama
+     */
+    public static int seleccionRuleta(double[] probabilidades, SplittableRandom random) {
+        double suma = sumar(probabilidades);
         if (suma == 0.0) {
             // Si todas las probabilidades son 0, selección aleatoria
             return random.nextInt(probabilidades.length);
         }
-        
-        double r = random.nextDouble() * suma;
+        return posicionRuleta(probabilidades, random.nextDouble() * suma);
+    }
+    
+    /**
+     * Selección por ruleta con el generador de una hormiga
+     */
+    public static int seleccionRuleta(double[] probabilidades, FlujoAleatorio random) {
+        double suma = sumar(probabilidades);
+        if (suma == 0.0) {
+            return random.nextInt(probabilidades.length);
+        }
+        return posicionRuleta(probabilidades, random.nextDouble() * suma);
+    }
+    
+    private static double sumar(double[] valores) {
+        double suma = 0.0;
+        for (double valor : valores) {
+            suma += valor;
+        }
+        return suma;
+    }
+    
+    /**
+     * Posición donde el acumulado alcanza r
+     */
+    private static int posicionRuleta(double[] probabilidades, double r) {
         double acumulado = 0.0;
         
         for (int i = 0; i < probabilidades.length; i++) {
@@ -84,7 +144,15 @@ public class UtilACO {
      * Calcula probabilidades basadas en deseabilidad
      */
     public static double[] calcularProbabilidades(double[] deseabilidades, boolean[] disponibles) {
-        double[] probabilidades = new double[deseabilidades.length];
+        return calcularProbabilidades(deseabilidades, disponibles, new double[deseabilidades.length]);
+    }
+    
+    /**
+     * Igual que calcularProbabilidades, escribiendo en un arreglo reutilizable del llamador
+     * (puede ser el mismo arreglo de deseabilidades)
+     */
+    public static double[] calcularProbabilidades(double[] deseabilidades, boolean[] disponibles,
+                                                  double[] probabilidades) {
         double suma = 0.0;
         
         // Calcular suma de deseabilidades disponibles
@@ -92,12 +160,14 @@ public class UtilACO {
             if (disponibles[i] && deseabilidades[i] > 0) {
                 probabilidades[i] = deseabilidades[i];
                 suma += deseabilidades[i];
+            } else {
+                probabilidades[i] = 0.0;
             }
         }
         
         // Normalizar probabilidades
         if (suma > 0) {
-            for (int i = 0; i < probabilidades.length; i++) {
+            for (int i = 0; i < deseabilidades.length; i++) {
                 probabilidades[i] /= suma;
             }
         } else {
@@ -109,7 +179,7 @@ public class UtilACO {
             
             if (disponiblesCount > 0) {
                 double probUniforme = 1.0 / disponiblesCount;
-                for (int i = 0; i < probabilidades.length; i++) {
+                for (int i = 0; i < deseabilidades.length; i++) {
                     if (disponibles[i]) {
                         probabilidades[i] = probUniforme;
                     }
@@ -124,6 +194,11 @@ public class UtilACO {
      * Aplica mutación a una solución
      */
     public static void mutar(double[] solucion, double probabilidadMutacion, int rangoMutacion) {
+        mutar(solucion, probabilidadMutacion, rangoMutacion, random());
+    }
+    
+    public static void mutar(double[] solucion, double probabilidadMutacion, int rangoMutacion,
+                             SplittableRandom random) {
         for (int i = 0; i < solucion.length; i++) {
             if (random.nextDouble() < probabilidadMutacion) {
                 solucion[i] = random.nextInt(rangoMutacion);
@@ -155,10 +230,18 @@ public class UtilACO {
      * Genera un número aleatorio en un rango
      */
     public static int enteroAleatorio(int min, int max) {
+        return enteroAleatorio(min, max, random());
+    }
+    
+    public static int enteroAleatorio(int min, int max, SplittableRandom random) {
         return random.nextInt(max - min + 1) + min;
     }
     
     public static double realAleatorio(double min, double max) {
+        return realAleatorio(min, max, random());
+    }
+    
+    public static double realAleatorio(double min, double max, SplittableRandom random) {
         return random.nextDouble() * (max - min) + min;
     }
     
@@ -187,9 +270,12 @@ public class UtilACO {
     }
     
     /**
-     * Establece semilla para reproducibilidad
+     * Establece semilla para reproducibilidad: cada hilo deriva de nuevo su flujo al siguiente uso
+     * (en un solo hilo la secuencia es la misma en cada ejecución)
      */
-    public static void establecerSemilla(long semilla) {
-        random.setSeed(semilla);
+    public static synchronized void establecerSemilla(long semilla) {
+        UtilACO.semilla = semilla;
+        hilosConFlujo.set(0);
+        version++;
     }
 }
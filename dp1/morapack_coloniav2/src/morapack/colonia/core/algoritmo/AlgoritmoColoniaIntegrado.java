@@ -0,0 +1,147 @@
+package morapack.colonia.core.algoritmo;
+
+import morapack.colonia.Heuristica;
+import morapack.colonia.algoritmo.AlgoritmoColoniaHormigas;
+import morapack.colonia.algoritmo.AlgoritmoColoniaHormigas.ResultadoACO;
+import morapack.modelo.CotasTiempoVuelo;
+import morapack.modelo.Pedido;
+import morapack.modelo.Semillas;
+import morapack.planificacion.PlanificadorAvanzadoEscalas;
+import java.util.List;
+
+/**
+ * Colonia de hormigas para la planificación de rutas de MoraPack sobre AlgoritmoColoniaHormigas:
+ * en cada iteración las HormigaIntegrada asignan sede y ruta a todos los pedidos, la feromona
+ * de las aristas de vuelo (y de la elección de sede) se evapora y se deposita según el fitness
+ * de IndividuoIntegrado, y la mejor hormiga se devuelve como IndividuoIntegrado.
+ */
+public class AlgoritmoColoniaIntegrado {
+
+    private final List<Pedido> pedidos;
+    private final PlanificadorAvanzadoEscalas planificador;
+
+    // Parámetros de la colonia
+    private int numeroHormigas;
+    private int numeroIteraciones;
+    private double factorFeromona;        // Alpha
+    private double factorHeuristico;      // Beta
+    private double factorEvaporacion;     // Rho
+    private double valorInicialFeromona;
+    private double probabilidadExplotacion; // q0
+    private int maxIteracionesSinMejora;
+    private long tiempoMaximoMs;          // 0 = sin límite de tiempo
+    private long semilla;
+    private int hilosConstruccion;
+    private boolean debug;
+
+    private ResultadoACO resultado;
+
+    public AlgoritmoColoniaIntegrado(List<Pedido> pedidos, PlanificadorAvanzadoEscalas planificador) {
+        this.pedidos = pedidos;
+        this.planificador = planificador;
+        this.numeroHormigas = 20;
+        this.numeroIteraciones = 100;
+        this.factorFeromona = 1.0;
+        this.factorHeuristico = 4.0;
+        this.factorEvaporacion = 0.1;
+        this.valorInicialFeromona = 1.0;
+        this.probabilidadExplotacion = 0.9;
+        this.maxIteracionesSinMejora = 50;
+        this.tiempoMaximoMs = 0;
+        this.semilla = Semillas.semillaEjecucion();
+        this.hilosConstruccion = 1;
+    }
+
+    /**
+     * Configura los parámetros de la colonia
+     */
+    public void configurar(int hormigas, int iteraciones, double alpha, double beta,
+                           double rho, double feromonaInicial) {
+        this.numeroHormigas = hormigas;
+        this.numeroIteraciones = iteraciones;
+        this.factorFeromona = alpha;
+        this.factorHeuristico = beta;
+        this.factorEvaporacion = rho;
+        this.valorInicialFeromona = feromonaInicial;
+    }
+
+    /**
+     * Ejecuta la colonia y devuelve la mejor planificación encontrada
+     */
+    public IndividuoIntegrado ejecutar() {
+        HormigaACOReal.Instancia instancia = new HormigaACOReal.Instancia(pedidos, planificador);
+
+        AlgoritmoColoniaHormigas algoritmo = new AlgoritmoColoniaHormigas();
+        algoritmo.configurar(numeroHormigas, numeroIteraciones, factorFeromona, factorHeuristico,
+                             factorEvaporacion, valorInicialFeromona);
+        algoritmo.setSemilla(semilla);
+        algoritmo.setMaxIteracionesSinMejora(maxIteracionesSinMejora);
+        algoritmo.setTiempoMaximo(tiempoMaximoMs);
+        algoritmo.setTamanoListaCandidatos(0); // Los candidatos son vuelos por horario, no una lista fija
+        algoritmo.configurarConstruccionParalela(hilosConstruccion);
+        algoritmo.setDebug(debug);
+        double q0 = probabilidadExplotacion;
+        algoritmo.inicializar(instancia.getNumeroNodos(), () -> {
+            HormigaIntegrada hormiga = new HormigaIntegrada(instancia);
+            hormiga.setProbabilidadExplotacion(q0);
+            return hormiga;
+        }, new HeuristicaRutas(instancia, factorHeuristico));
+
+        resultado = algoritmo.ejecutar();
+        return ((HormigaIntegrada) resultado.mejorSolucion).crearIndividuo(pedidos);
+    }
+
+    // Getters y setters
+    public void setSemilla(long semilla) { this.semilla = semilla; }
+    public void setMaxIteracionesSinMejora(int max) { this.maxIteracionesSinMejora = max; }
+    public void setDebug(boolean debug) { this.debug = debug; }
+
+    /** Probabilidad de tomar el vuelo de mayor peso en cada tramo en lugar de sortearlo (q0) */
+    public void setProbabilidadExplotacion(double q0) { this.probabilidadExplotacion = q0; }
+
+    /** Límite de tiempo de la ejecución en milisegundos (0 = solo iteraciones) */
+    public void setTiempoMaximo(long milisegundos) { this.tiempoMaximoMs = milisegundos; }
+
+    public void configurarConstruccionParalela(int numeroHilos) { this.hilosConstruccion = Math.max(1, numeroHilos); }
+
+    public long getSemilla() { return semilla; }
+
+    /** Resultado de la última ejecución (null antes de ejecutar) */
+    public ResultadoACO getResultado() { return resultado; }
+
+    /**
+     * Heurística estática de la feromona de rutas: 1 en las aristas con vuelo directo entre
+     * aeropuertos y, en la arista (destino, sede), el puntaje estimado con la cota de vuelo
+     * y los tramos mínimos desde la sede, por el factor continental
+     */
+    public static class HeuristicaRutas extends Heuristica {
+        private static final double VALOR_MINIMO = 0.01;
+
+        private final HormigaACOReal.Instancia instancia;
+
+        public HeuristicaRutas(HormigaACOReal.Instancia instancia, double factorImportancia) {
+            super(factorImportancia);
+            this.instancia = instancia;
+        }
+
+        @Override
+        public double calcularValor(int origen, int destino) {
+            int numeroAeropuertos = instancia.getNumeroAeropuertos();
+            if (origen < 0 || origen >= numeroAeropuertos || origen == destino) {
+                return 0.0;
+            }
+            CotasTiempoVuelo cotas = instancia.getCotas();
+            if (destino < numeroAeropuertos) {
+                return cotas.getTramosMinimos(origen, destino) == 1 ? 1.0 : 0.0;
+            }
+
+            // Elección de sede para los pedidos con destino en origen
+            int s = destino - numeroAeropuertos;
+            int sede = instancia.getTabla().getRegistro().getIdSede(s);
+            if (sede == origen || !cotas.alcanzable(sede, origen, HormigaACOReal.MAX_VUELOS_RUTA)) {
+                return 0.0;
+            }
+            return Math.max(VALOR_MINIMO, instancia.getMejorPuntaje(origen, s) / IndividuoIntegrado.BONUS_BASE);
+        }
+    }
+}
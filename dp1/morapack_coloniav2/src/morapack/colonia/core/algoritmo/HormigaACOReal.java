@@ -1,5 +1,500 @@
 package morapack.colonia.core.algoritmo;
 
-public class HormigaACOReal {
+import morapack.colonia.CacheDeseabilidad;
+import morapack.colonia.Feromona;
+import morapack.colonia.Heuristica;
+import morapack.colonia.Hormiga;
+import morapack.colonia.componentes.UtilACO;
+import morapack.modelo.CotasTiempoVuelo;
+import morapack.modelo.Pedido;
+import morapack.modelo.RegistroAeropuertos;
+import morapack.modelo.RegistroCapacidad;
+import morapack.modelo.TablaVuelos;
+import morapack.planificacion.PlanificadorAvanzadoEscalas;
+import morapack.planificacion.RutaCompleta;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hormiga que planifica todos los pedidos sobre la red de vuelos real: para cada pedido elige
+ * una sede y luego camina por el grafo de vuelos tramo a tramo hasta el destino.
+ *
+ * Nodos de la feromona: los aeropuertos de la tabla más un nodo virtual por sede. La arista
+ * (a, b) entre aeropuertos guía la elección del siguiente tramo y la arista (destino, sede)
+ * la elección de sede para los pedidos de ese destino. Cada paso pesa τ^α · η^β de la caché
+ * de deseabilidad por una heurística dinámica del vuelo concreto: holgura (puntaje que aún
+ * puede obtener el pedido según la llegada estimada con la cota de CotasTiempoVuelo) y
+ * capacidad residual del vuelo en el estado de esta hormiga.
+ *
+ * Los tiempos son instantes UTC de la tabla: el pedido sale desde su minuto de listo en la
+ * sede y cada vuelo se toma en su primera instancia diaria tras la llegada anterior más la
+ * conexión mínima, pasando al día siguiente si hace falta (como RutaCompleta.calcularTiempoTotal).
+ *
+ * Cada hormiga lleva su propio RegistroCapacidad y sus búferes se reservan al crearla, de modo
+ * que construir una solución no crea objetos (salvo las reparaciones de HormigaIntegrada).
+ */
+public class HormigaACOReal extends Hormiga {
+
+    public static final int MAX_TRAMOS_CAMINATA = 3; // Vuelos por ruta al caminar (hasta DOS_CONEXIONES)
+    public static final int MAX_VUELOS_RUTA = 5;     // Vuelos por ruta guardada (las reparaciones llegan a 5)
+
+    private static final int MIN_CONEXION_MINUTOS = 30;   // Igual que los planificadores
+    private static final double HEURISTICA_MINIMA = 0.01; // Ningún vuelo factible queda con peso 0
+    private static final double PUNTAJE_MAXIMO_PEDIDO =   // Cota del puntaje de un pedido (tiempo ≥ 0)
+        IndividuoIntegrado.BONUS_BASE + IndividuoIntegrado.bonusPorVuelos(1);
+
+    protected final Instancia instancia;
+    private double probabilidadExplotacion; // q0: elegir el vuelo de mayor peso en lugar de sortear
+
+    // Solución: sede y vuelos (índices de la tabla) por pedido; numeroVuelos 0 = sin ruta
+    protected final int[] sedes;
+    protected final int[] numeroVuelos;
+    protected final int[] vuelos;           // [pedido * MAX_VUELOS_RUTA + tramo]
+    protected double fitness;
+
+    // Estado de la construcción (reutilizado entre iteraciones)
+    protected final RegistroCapacidad capacidad;
+    private final int[] orden;
+    private final int[] visitado;           // Marca de caminata por aeropuerto
+    private int marcaCaminata;
+    private final int[] camino;             // Vuelos del pedido en curso
+
+    public HormigaACOReal(Instancia instancia) {
+        this.instancia = instancia;
+        int n = instancia.getNumeroPedidos();
+        this.sedes = new int[n];
+        this.numeroVuelos = new int[n];
+        this.vuelos = new int[n * MAX_VUELOS_RUTA];
+        this.capacidad = instancia.crearRegistroCapacidad();
+        this.orden = new int[n];
+        this.visitado = new int[instancia.getNumeroAeropuertos()];
+        this.camino = new int[MAX_VUELOS_RUTA];
+        this.solucion = new double[n * (MAX_VUELOS_RUTA + 4)];
+    }
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    @Override
+    public void construirSolucion(Feromona feromona, Heuristica heuristica) {
+        CacheDeseabilidad cache = heuristica.getCacheDeseabilidad();
+        if (cache == null) {
+            throw new IllegalStateException("La heurística no tiene caché de deseabilidad (crearCacheDeseabilidad)");
+        }
+        instancia.reiniciarCapacidad(capacidad);
+
+        // Orden aleatorio de los pedidos: la capacidad se la llevan los primeros
+        int n = orden.length;
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temporal = orden[i];
+            orden[i] = orden[j];
+            orden[j] = temporal;
+        }
+
+        for (int k = 0; k < n; k++) {
+            int pedido = orden[k];
+            int sede = elegirSede(pedido, cache);
+            sedes[pedido] = sede;
+            numeroVuelos[pedido] = sede >= 0 ? caminar(pedido, sede, cache) : 0;
+            if (numeroVuelos[pedido] == 0) {
+                numeroVuelos[pedido] = repararRuta(pedido, sede >= 0 ? sede : 0);
+            }
+        }
+        codificarSolucion();
+        solucionCompleta = true;
+    }
+
+    /**
+     * Sorteo de la sede del pedido con la arista (destino, sede) de la caché (-1 si no hay destino)
+     */
+    private int elegirSede(int pedido, CacheDeseabilidad cache) {
+        int destino = instancia.destinos[pedido];
+        if (destino < 0) {
+            return -1;
+        }
+        ruleta.reiniciar();
+        for (int s = 0; s < instancia.numeroSedes; s++) {
+            ruleta.agregar(s, cache.getDeseabilidad(destino, instancia.getNodoSede(s)));
+        }
+        return ruleta.muestrear(random);
+    }
+
+    /**
+     * Camina desde la sede hasta el destino eligiendo un vuelo por paso; reserva la capacidad
+     * de la ruta si llega (devuelve sus vuelos) o la deja como estaba si no (devuelve 0)
+     */
+    private int caminar(int pedido, int sede, CacheDeseabilidad cache) {
+        TablaVuelos tabla = instancia.tabla;
+        CotasTiempoVuelo cotas = instancia.cotas;
+        int destino = instancia.destinos[pedido];
+        int cantidad = instancia.cantidades[pedido];
+        int actual = instancia.registro.getIdSede(sede);
+        if (actual == destino || !cotas.alcanzable(actual, destino, MAX_TRAMOS_CAMINATA)) {
+            return 0;
+        }
+        double beta = cache.getBeta();
+
+        marcaCaminata++;
+        visitado[actual] = marcaCaminata;
+        int marca = capacidad.marcar();
+        int tramos = 0;
+        int salidaPrimera = 0;
+        int listo = instancia.getListo(pedido, sede); // Minuto UTC de listo del pedido en la sede
+
+        while (tramos < MAX_TRAMOS_CAMINATA) {
+            int restantes = MAX_TRAMOS_CAMINATA - tramos - 1;
+            boolean explotar = random.nextDouble() < probabilidadExplotacion;
+            int mejorVuelo = -1;
+            double mejorPeso = 0.0;
+            ruleta.reiniciar();
+            for (int v = tabla.getInicioOrigen(actual); v < tabla.getFinOrigen(actual); v++) {
+                int siguiente = tabla.getDestino(v);
+                if (visitado[siguiente] == marcaCaminata || !capacidad.cabe(v, cantidad)) {
+                    continue;
+                }
+                if (siguiente != destino && !cotas.alcanzable(siguiente, destino, restantes)) {
+                    continue; // Sin tramos suficientes para llegar
+                }
+                int salida = tabla.getSiguienteSalida(v, listo);
+                int transcurrido = salida + tabla.getDuracion(v) - (tramos == 0 ? salida : salidaPrimera);
+                double eta = heuristicaVuelo(v, siguiente, destino, cantidad, tramos, transcurrido);
+                double peso = cache.getDeseabilidad(actual, siguiente) * Heuristica.potencia(eta, beta);
+                if (explotar) {
+                    if (peso > mejorPeso) {
+                        mejorPeso = peso;
+                        mejorVuelo = v;
+                    }
+                } else {
+                    ruleta.agregar(v, peso);
+                }
+            }
+
+            int vuelo = explotar ? mejorVuelo : ruleta.muestrear(random);
+            if (vuelo < 0) {
+                capacidad.deshacerHasta(marca);
+                return 0;
+            }
+            capacidad.reservar(vuelo, cantidad);
+            camino[tramos++] = vuelo;
+            int salida = tabla.getSiguienteSalida(vuelo, listo);
+            if (tramos == 1) {
+                salidaPrimera = salida;
+            }
+            actual = tabla.getDestino(vuelo);
+            if (actual == destino) {
+                capacidad.confirmar(marca);
+                System.arraycopy(camino, 0, vuelos, pedido * MAX_VUELOS_RUTA, tramos);
+                return tramos;
+            }
+            visitado[actual] = marcaCaminata;
+            listo = salida + tabla.getDuracion(vuelo) + MIN_CONEXION_MINUTOS;
+        }
+
+        capacidad.deshacerHasta(marca);
+        return 0;
+    }
+
+    /**
+     * Heurística dinámica del vuelo: holgura del puntaje del pedido por la capacidad que deja
+     * libre. transcurrido va de la salida del primer vuelo a la llegada de este (minutos UTC);
+     * en el último tramo es el tiempo del fitness y en los intermedios se le suman la conexión
+     * mínima, la cota restante y los tramos mínimos.
+     */
+    private double heuristicaVuelo(int vuelo, int siguiente, int destino, int cantidad, int tramos,
+                                   int transcurrido) {
+        TablaVuelos tabla = instancia.tabla;
+        int tiempoEstimado = transcurrido;
+        int vuelosEstimados = tramos + 1;
+        if (siguiente != destino) {
+            tiempoEstimado += MIN_CONEXION_MINUTOS + instancia.cotas.getCotaMinutos(siguiente, destino);
+            vuelosEstimados += instancia.cotas.getTramosMinimos(siguiente, destino);
+        }
+        double holgura = (IndividuoIntegrado.BONUS_BASE - 0.5 * tiempoEstimado
+                          + IndividuoIntegrado.bonusPorVuelos(vuelosEstimados)) / PUNTAJE_MAXIMO_PEDIDO;
+
+        int capacidadVuelo = tabla.getCapacidad(vuelo);
+        double residual = capacidadVuelo > 0
+            ? (double) (capacidadVuelo - capacidad.getUsada(vuelo) - cantidad) / capacidadVuelo : 0.0;
+
+        return Math.max(HEURISTICA_MINIMA, holgura) * (0.5 + 0.5 * residual);
+    }
+
+    /**
+     * Ruta de respaldo cuando la caminata no llega; esta hormiga deja el pedido sin ruta
+     * (devuelve el número de vuelos guardados, 0 = sin ruta)
+     */
+    protected int repararRuta(int pedido, int sede) {
+        return 0;
+    }
+
+    /**
+     * Guarda en el arreglo de vuelos del pedido una ruta planificada fuera de la caminata
+     * (ya reservada en la capacidad de la hormiga); devuelve su número de vuelos
+     */
+    protected int guardarRuta(int pedido, RutaCompleta ruta) {
+        if (ruta == null || ruta.getVuelos().size() > MAX_VUELOS_RUTA) {
+            return 0;
+        }
+        int tramos = 0;
+        for (int t = 0; t < ruta.getVuelos().size(); t++) {
+            int vuelo = instancia.tabla.getIndice(ruta.getVuelos().get(t));
+            if (vuelo < 0) {
+                return 0;
+            }
+            vuelos[pedido * MAX_VUELOS_RUTA + tramos++] = vuelo;
+        }
+        return tramos;
+    }
+
+    /**
+     * Secuencia de nodos para Feromona.actualizarFeromona: por pedido destino, nodo de sede,
+     * sede y aeropuertos de la ruta, separados por -1 (las aristas con -1 no reciben depósito)
+     */
+    private void codificarSolucion() {
+        int p = 0;
+        for (int pedido = 0; pedido < sedes.length; pedido++) {
+            if (numeroVuelos[pedido] == 0) {
+                continue;
+            }
+            int base = pedido * MAX_VUELOS_RUTA;
+            solucion[p++] = instancia.destinos[pedido];
+            solucion[p++] = instancia.getNodoSede(sedes[pedido]);
+            solucion[p++] = instancia.tabla.getOrigen(vuelos[base]);
+            for (int t = 0; t < numeroVuelos[pedido]; t++) {
+                solucion[p++] = instancia.tabla.getDestino(vuelos[base + t]);
+            }
+            solucion[p++] = -1;
+        }
+        while (p < solucion.length) {
+            solucion[p++] = -1;
+        }
+    }
+
+    // ==================== EVALUACIÓN ====================
+
+    /**
+     * Fitness de IndividuoIntegrado (misma fórmula y mismo tiempo UTC encadenado de la ruta);
+     * la calidad a minimizar es la distancia al puntaje máximo, en miles por pedido
+     */
+    @Override
+    public void evaluarSolucion() {
+        double total = 0.0;
+        for (int pedido = 0; pedido < sedes.length; pedido++) {
+            int tramos = numeroVuelos[pedido];
+            if (tramos == 0) {
+                total += IndividuoIntegrado.PENALIZACION_SIN_RUTA;
+                continue;
+            }
+            int tiempoTotal = calcularTiempoTotal(pedido * MAX_VUELOS_RUTA, tramos);
+            total += IndividuoIntegrado.puntajeRuta(instancia.getFactorContinental(pedido, sedes[pedido]),
+                                                    tiempoTotal, IndividuoIntegrado.bonusPorVuelos(tramos));
+        }
+        this.fitness = total;
+        int n = Math.max(1, sedes.length);
+        this.calidad = (PUNTAJE_MAXIMO_PEDIDO * n - total) / (IndividuoIntegrado.BONUS_BASE * n);
+    }
+
+    /**
+     * Tiempo de la ruta guardada en vuelos[base..base + tramos) igual que
+     * RutaCompleta.calcularTiempoTotal(tabla): de la primera salida a la última llegada (UTC)
+     */
+    private int calcularTiempoTotal(int base, int tramos) {
+        TablaVuelos tabla = instancia.tabla;
+        int llegada = tabla.getLlegadaUTC(vuelos[base]);
+        for (int t = 1; t < tramos; t++) {
+            llegada = tabla.getSiguienteLlegada(vuelos[base + t], llegada + MIN_CONEXION_MINUTOS);
+        }
+        return llegada - tabla.getSalidaUTC(vuelos[base]);
+    }
+
+    // ==================== API DE HORMIGA ====================
+
+    @Override
+    protected int seleccionarSiguienteMovimiento(double[] probabilidades) {
+        return UtilACO.seleccionRuleta(probabilidades, random);
+    }
+
+    /**
+     * Probabilidad de cada nodo desde la posición actual con la caché (fuera del camino caliente)
+     */
+    @Override
+    protected double[] calcularProbabilidades(Feromona feromona, Heuristica heuristica,
+                                              boolean[] opcionesDisponibles) {
+        CacheDeseabilidad cache = heuristica.getCacheDeseabilidad();
+        double[] deseabilidades = new double[opcionesDisponibles.length];
+        for (int j = 0; j < deseabilidades.length; j++) {
+            if (opcionesDisponibles[j] && cache != null) {
+                deseabilidades[j] = cache.getDeseabilidad(posicionActual, j);
+            }
+        }
+        return UtilACO.calcularProbabilidades(deseabilidades, opcionesDisponibles, deseabilidades);
+    }
+
+    /**
+     * Aeropuertos con algún vuelo desde la posición actual
+     */
+    @Override
+    protected boolean[] obtenerOpcionesDisponibles() {
+        boolean[] disponibles = new boolean[instancia.getNumeroNodos()];
+        if (posicionActual < instancia.getNumeroAeropuertos()) {
+            for (int v = instancia.tabla.getInicioOrigen(posicionActual); v < instancia.tabla.getFinOrigen(posicionActual); v++) {
+                disponibles[instancia.tabla.getDestino(v)] = true;
+            }
+        }
+        return disponibles;
+    }
+
+    @Override
+    public void reiniciar() {
+        super.reiniciar();
+        this.fitness = 0.0;
+    }
+
+    /**
+     * Copia también sedes, vuelos y fitness (en los arreglos de esta hormiga, sin crear otros)
+     */
+    @Override
+    public void copiarDesde(Hormiga otra) {
+        super.copiarDesde(otra);
+        HormigaACOReal origen = (HormigaACOReal) otra;
+        System.arraycopy(origen.sedes, 0, sedes, 0, sedes.length);
+        System.arraycopy(origen.numeroVuelos, 0, numeroVuelos, 0, numeroVuelos.length);
+        System.arraycopy(origen.vuelos, 0, vuelos, 0, vuelos.length);
+        this.fitness = origen.fitness;
+    }
+
+    /**
+     * Probabilidad de tomar el vuelo de mayor peso en cada paso (regla pseudoaleatoria de ACS)
+     */
+    public void setProbabilidadExplotacion(double probabilidad) { this.probabilidadExplotacion = probabilidad; }
     
+    // Getters
+    public double getFitness() { return fitness; }
+    public int getSede(int pedido) { return sedes[pedido]; }
+    public int getNumeroVuelos(int pedido) { return numeroVuelos[pedido]; }
+    public int getVuelo(int pedido, int tramo) { return vuelos[pedido * MAX_VUELOS_RUTA + tramo]; }
+    public Instancia getInstancia() { return instancia; }
+
+    @Override
+    public String toString() {
+        return String.format("HormigaACOReal[Fitness=%.2f, Calidad=%.6f]", fitness, calidad);
+    }
+
+    /**
+     * Datos de solo lectura compartidos por todas las hormigas: red, cotas, pedidos (destino,
+     * cantidad y minuto de listo en cada sede) y factores continentales por pedido y sede
+     */
+    public static final class Instancia {
+        final TablaVuelos tabla;
+        final RegistroAeropuertos registro;
+        final CotasTiempoVuelo cotas;
+        final PlanificadorAvanzadoEscalas planificador;
+        final int numeroSedes;
+        final int[] destinos;
+        final int[] cantidades;
+        private final int[] listos;       // [pedido * numeroSedes + sede], minuto UTC desde el que sale
+        private final double[] factores;  // [pedido * numeroSedes + sede]
+        private final double[] mejorPuntaje; // [aeropuerto * numeroSedes + sede], sin capacidad
+        private final int[] capacidadInicial;
+
+        public Instancia(List<Pedido> pedidos, PlanificadorAvanzadoEscalas planificador) {
+            this.planificador = planificador;
+            this.tabla = planificador.getTabla();
+            this.registro = tabla.getRegistro();
+            this.cotas = planificador.getMotorEscaneo() != null
+                ? planificador.getMotorEscaneo().getCotasTiempoVuelo() : CotasTiempoVuelo.construir(tabla);
+            this.numeroSedes = registro.getNumeroSedes();
+
+            int n = pedidos.size();
+            this.destinos = new int[n];
+            this.cantidades = new int[n];
+            this.listos = new int[n * numeroSedes];
+            this.factores = new double[n * numeroSedes];
+            for (int i = 0; i < n; i++) {
+                Pedido pedido = pedidos.get(i);
+                destinos[i] = registro.getId(pedido.getAeropuertoDestinoId());
+                cantidades[i] = pedido.getCantidadProductos();
+                for (int s = 0; s < numeroSedes; s++) {
+                    listos[i * numeroSedes + s] = planificador.calcularTiempoMinimoPedido(pedido, registro.getIdSede(s));
+                    boolean continental = IndividuoIntegrado.esVueloContinental(registro, registro.getIdSede(s), destinos[i]);
+                    factores[i * numeroSedes + s] = continental ? 1.0 : 0.5;
+                }
+            }
+
+            // Mejor puntaje de una ruta caminable desde cada sede a cada aeropuerto (guía la elección de sede)
+            this.mejorPuntaje = new double[registro.getNumeroAeropuertos() * numeroSedes];
+            Arrays.fill(mejorPuntaje, Double.NEGATIVE_INFINITY);
+            boolean[] enRuta = new boolean[registro.getNumeroAeropuertos()];
+            for (int s = 0; s < numeroSedes; s++) {
+                int sede = registro.getIdSede(s);
+                enRuta[sede] = true;
+                explorarRutas(s, sede, 0, 0, 0, enRuta);
+                enRuta[sede] = false;
+            }
+
+            // Las hormigas parten de la capacidad que el planificador tenga ya reservada
+            this.capacidadInicial = planificador.getRegistroCapacidad().instantanea();
+        }
+
+        /**
+         * Recorre las rutas con hasta MAX_TRAMOS_CAMINATA vuelos desde la sede (cada tramo en su
+         * primera instancia tras la conexión) y guarda el mejor puntaje (fórmula del fitness) de
+         * llegada a cada aeropuerto; salidaPrimera es el instante de salida del primer vuelo
+         */
+        private void explorarRutas(int s, int aeropuerto, int listo, int tramos, int salidaPrimera, boolean[] enRuta) {
+            int idSede = registro.getIdSede(s);
+            for (int v = tabla.getInicioOrigen(aeropuerto); v < tabla.getFinOrigen(aeropuerto); v++) {
+                int siguiente = tabla.getDestino(v);
+                if (enRuta[siguiente]) {
+                    continue;
+                }
+                int salida = tramos == 0 ? tabla.getSalidaUTC(v) : tabla.getSiguienteSalida(v, listo);
+                int primera = tramos == 0 ? salida : salidaPrimera;
+                int llegada = salida + tabla.getDuracion(v);
+                double factor = IndividuoIntegrado.esVueloContinental(registro, idSede, siguiente) ? 1.0 : 0.5;
+                double puntaje = IndividuoIntegrado.puntajeRuta(factor, llegada - primera,
+                                                                IndividuoIntegrado.bonusPorVuelos(tramos + 1));
+                int celda = siguiente * numeroSedes + s;
+                mejorPuntaje[celda] = Math.max(mejorPuntaje[celda], puntaje);
+
+                if (tramos + 1 < MAX_TRAMOS_CAMINATA) {
+                    enRuta[siguiente] = true;
+                    explorarRutas(s, siguiente, llegada + MIN_CONEXION_MINUTOS, tramos + 1, primera, enRuta);
+                    enRuta[siguiente] = false;
+                }
+            }
+        }
+
+        /**
+         * Mejor puntaje de una ruta caminable de la sede al aeropuerto sin considerar capacidad
+         * (-infinito si no hay ninguna)
+         */
+        public double getMejorPuntaje(int aeropuerto, int sede) { return mejorPuntaje[aeropuerto * numeroSedes + sede]; }
+
+        RegistroCapacidad crearRegistroCapacidad() {
+            RegistroCapacidad registroHormiga = new RegistroCapacidad(tabla);
+            reiniciarCapacidad(registroHormiga);
+            return registroHormiga;
+        }
+
+        void reiniciarCapacidad(RegistroCapacidad registroHormiga) {
+            registroHormiga.restaurar(capacidadInicial);
+        }
+
+        /** Nodo de feromona de la sede (después de los aeropuertos) */
+        public int getNodoSede(int sede) { return registro.getNumeroAeropuertos() + sede; }
+        public int getNumeroNodos() { return registro.getNumeroAeropuertos() + numeroSedes; }
+        public int getNumeroAeropuertos() { return registro.getNumeroAeropuertos(); }
+        public int getNumeroPedidos() { return destinos.length; }
+        public int getNumeroSedes() { return numeroSedes; }
+        public double getFactorContinental(int pedido, int sede) { return factores[pedido * numeroSedes + sede]; }
+        /** Minuto UTC desde el que el pedido puede salir de la sede (hora del pedido + ventana de recojo) */
+        public int getListo(int pedido, int sede) { return listos[pedido * numeroSedes + sede]; }
+        public TablaVuelos getTabla() { return tabla; }
+        public CotasTiempoVuelo getCotas() { return cotas; }
+        public PlanificadorAvanzadoEscalas getPlanificador() { return planificador; }
+    }
 }
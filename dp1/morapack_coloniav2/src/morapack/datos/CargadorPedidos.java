@@ -51,6 +51,12 @@ public class CargadorPedidos {
      * Formato esperado: dd-hh-mm-DEST-cantidad-clienteId
      */
     private static Pedido parsearPedido(String linea) {
+        // Caso normal: ID de ancho fijo, se lee por posiciones sin split
+        Pedido pedidoNormalizado = Pedido.parsear(linea);
+        if (pedidoNormalizado != null) {
+            return pedidoNormalizado;
+        }
+        
         try {
             // Formato: 30-09-15-SEQM-145-0054321
             String[] partes = linea.split("-");
@@ -0,0 +1,299 @@
+package morapack.datos;
+
+import morapack.modelo.Pedido;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Carga masiva de archivos de pedidos (pedidos_XX.csv, pedidoUltrafinal.txt).
+ * Mapea el archivo en memoria, lo corta en bloques por saltos de línea y parsea los bloques
+ * en paralelo. Devuelve los pedidos ordenados por día, hora y minuto (a igual instante se
+ * respeta el orden del archivo) y los rechazos como conteos más una muestra acotada.
+ */
+public class CargadorPedidosMasivo {
+
+    private static final long TAMANO_MINIMO_BLOQUE = 1L << 20;  // 1 MB por tarea como mínimo
+    private static final long TAMANO_MAXIMO_BLOQUE = 1L << 30;  // Un mapeo no puede pasar de 2 GB
+    private static final int MAXIMO_EJEMPLOS_RECHAZO = 10;
+    private static final int LONGITUD_MAXIMA_LINEA = 256;
+
+    /**
+     * Resultado de la carga: pedidos ordenados y resumen de lo descartado
+     */
+    public static class Resultado {
+        private final Pedido[] pedidos;
+        private final int lineasLeidas;
+        private final int rechazadosFormato;
+        private final int rechazadosDestino;
+        private final List<String> ejemplosRechazo;
+
+        Resultado(Pedido[] pedidos, int lineasLeidas, int rechazadosFormato, int rechazadosDestino,
+                  List<String> ejemplosRechazo) {
+            this.pedidos = pedidos;
+            this.lineasLeidas = lineasLeidas;
+            this.rechazadosFormato = rechazadosFormato;
+            this.rechazadosDestino = rechazadosDestino;
+            this.ejemplosRechazo = Collections.unmodifiableList(ejemplosRechazo);
+        }
+
+        public Pedido[] getPedidos() { return pedidos; }
+        public List<Pedido> getListaPedidos() { return Arrays.asList(pedidos); }
+        public int getLineasLeidas() { return lineasLeidas; }
+        public int getRechazadosFormato() { return rechazadosFormato; }
+        public int getRechazadosDestino() { return rechazadosDestino; }
+        public List<String> getEjemplosRechazo() { return ejemplosRechazo; }
+
+        @Override
+        public String toString() {
+            return String.format("%d pedidos de %d líneas (%d con formato inválido, %d con destino no válido)",
+                               pedidos.length, lineasLeidas, rechazadosFormato, rechazadosDestino);
+        }
+    }
+
+    /**
+     * Resultado parcial de un bloque, en orden de archivo
+     */
+    private static class Bloque {
+        final long inicio;
+        final long fin;
+        final List<Pedido> pedidos = new ArrayList<>();
+        final List<String> ejemplosRechazo = new ArrayList<>();
+        int lineasLeidas;
+        int rechazadosFormato;
+        int rechazadosDestino;
+
+        Bloque(long inicio, long fin) {
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+    }
+
+    /**
+     * Carga todos los pedidos del archivo usando el pool común
+     */
+    public static Resultado cargar(String rutaArchivo) throws IOException {
+        return cargar(rutaArchivo, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Carga los pedidos del archivo; si destinosValidos no es null se descartan los demás destinos
+     */
+    public static Resultado cargar(String rutaArchivo, Set<String> destinosValidos, ForkJoinPool pool) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(rutaArchivo), StandardOpenOption.READ)) {
+            List<Bloque> bloques = dividirEnBloques(canal, pool.getParallelism());
+
+            List<Bloque> procesados;
+            if (bloques.size() == 1) {
+                procesados = Collections.singletonList(parsearBloque(canal, bloques.get(0), destinosValidos));
+            } else {
+                try {
+                    procesados = pool.submit(() -> bloques.parallelStream()
+                        .map(bloque -> {
+                            try {
+                                return parsearBloque(canal, bloque, destinosValidos);
+                            } catch (IOException e) {
+                                throw new IllegalStateException(e);
+                            }
+                        })
+                        .collect(Collectors.toList())).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Carga interrumpida: " + rutaArchivo, e);
+                } catch (ExecutionException e) {
+                    throw new IOException("Error leyendo " + rutaArchivo + ": " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+            return combinar(procesados);
+        }
+    }
+
+    /**
+     * Corta el archivo en bloques de tamaño parecido que terminan justo después de un salto de línea
+     */
+    private static List<Bloque> dividirEnBloques(FileChannel canal, int paralelismo) throws IOException {
+        long tamano = canal.size();
+        long numeroBloques = Math.max(1, Math.min((long) paralelismo * 4, tamano / TAMANO_MINIMO_BLOQUE));
+        numeroBloques = Math.max(numeroBloques, (tamano + TAMANO_MAXIMO_BLOQUE - 1) / TAMANO_MAXIMO_BLOQUE);
+        long paso = Math.max(1, tamano / numeroBloques);
+
+        List<Bloque> bloques = new ArrayList<>();
+        ByteBuffer lectura = ByteBuffer.allocate(LONGITUD_MAXIMA_LINEA);
+        long inicio = 0;
+        while (inicio < tamano) {
+            long fin = Math.min(tamano, inicio + paso);
+            // Avanzar hasta el próximo '\n' para no partir una línea
+            while (fin < tamano) {
+                lectura.clear();
+                int leidos = canal.read(lectura, fin);
+                if (leidos <= 0) {
+                    fin = tamano;
+                    break;
+                }
+                int salto = -1;
+                for (int i = 0; i < leidos; i++) {
+                    if (lectura.get(i) == '\n') {
+                        salto = i;
+                        break;
+                    }
+                }
+                if (salto >= 0) {
+                    fin += salto + 1;
+                    break;
+                }
+                fin += leidos;
+            }
+            bloques.add(new Bloque(inicio, Math.min(fin, tamano)));
+            inicio = fin;
+        }
+        if (bloques.isEmpty()) {
+            bloques.add(new Bloque(0, 0));
+        }
+        return bloques;
+    }
+
+    /**
+     * Parsea las líneas de un bloque mapeado en memoria
+     */
+    private static Bloque parsearBloque(FileChannel canal, Bloque bloque, Set<String> destinosValidos) throws IOException {
+        long longitud = bloque.fin - bloque.inicio;
+        if (longitud == 0) {
+            return bloque;
+        }
+        MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, bloque.inicio, longitud);
+        byte[] linea = new byte[LONGITUD_MAXIMA_LINEA];
+        int limite = (int) longitud;
+
+        int posicion = 0;
+        // BOM de UTF-8 al inicio del archivo
+        if (bloque.inicio == 0 && limite >= 3 && (datos.get(0) & 0xFF) == 0xEF
+                && (datos.get(1) & 0xFF) == 0xBB && (datos.get(2) & 0xFF) == 0xBF) {
+            posicion = 3;
+        }
+        boolean primeraLinea = bloque.inicio == 0;
+
+        while (posicion < limite) {
+            int finLinea = posicion;
+            while (finLinea < limite && datos.get(finLinea) != '\n') {
+                finLinea++;
+            }
+            int siguiente = finLinea + 1;
+
+            // Recortar espacios y '\r'; en CSV solo cuenta la primera columna
+            int desde = posicion;
+            int hasta = finLinea;
+            for (int i = desde; i < hasta; i++) {
+                if (datos.get(i) == ',') {
+                    hasta = i;
+                    break;
+                }
+            }
+            while (desde < hasta && datos.get(desde) <= ' ') desde++;
+            while (hasta > desde && datos.get(hasta - 1) <= ' ') hasta--;
+            posicion = siguiente;
+
+            int largo = hasta - desde;
+            if (largo == 0) {
+                continue;
+            }
+            boolean esCabecera = primeraLinea && !esDigito(datos.get(desde));
+            primeraLinea = false;
+            if (esCabecera) {
+                continue; // IdPedido u otra cabecera de CSV
+            }
+
+            bloque.lineasLeidas++;
+            Pedido pedido = null;
+            if (largo <= LONGITUD_MAXIMA_LINEA) {
+                datos.get(desde, linea, 0, largo);
+                pedido = Pedido.parsear(linea, 0, largo);
+            }
+            if (pedido == null || !tieneCamposEnRango(pedido)) {
+                bloque.rechazadosFormato++;
+                registrarEjemplo(bloque, datos, desde, largo, "formato inválido");
+            } else if (destinosValidos != null && !destinosValidos.contains(pedido.getAeropuertoDestinoId())) {
+                bloque.rechazadosDestino++;
+                registrarEjemplo(bloque, datos, desde, largo, "destino no válido");
+            } else {
+                bloque.pedidos.add(pedido);
+            }
+        }
+        return bloque;
+    }
+
+    private static boolean esDigito(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean tieneCamposEnRango(Pedido pedido) {
+        return pedido.getDia() >= 1 && pedido.getDia() <= 31
+            && pedido.getHora() <= 23 && pedido.getMinuto() <= 59
+            && pedido.getCantidadProductos() > 0;
+    }
+
+    private static void registrarEjemplo(Bloque bloque, MappedByteBuffer datos, int desde, int largo, String motivo) {
+        if (bloque.ejemplosRechazo.size() < MAXIMO_EJEMPLOS_RECHAZO) {
+            byte[] texto = new byte[Math.min(largo, LONGITUD_MAXIMA_LINEA)];
+            datos.get(desde, texto);
+            bloque.ejemplosRechazo.add(new String(texto, StandardCharsets.ISO_8859_1) + " (" + motivo + ")");
+        }
+    }
+
+    /**
+     * Junta los bloques en orden de archivo y ordena por instante del pedido (orden estable)
+     */
+    private static Resultado combinar(List<Bloque> bloques) {
+        int total = 0;
+        int lineas = 0;
+        int rechazadosFormato = 0;
+        int rechazadosDestino = 0;
+        List<String> ejemplos = new ArrayList<>();
+        for (Bloque bloque : bloques) {
+            total += bloque.pedidos.size();
+            lineas += bloque.lineasLeidas;
+            rechazadosFormato += bloque.rechazadosFormato;
+            rechazadosDestino += bloque.rechazadosDestino;
+            for (String ejemplo : bloque.ejemplosRechazo) {
+                if (ejemplos.size() < MAXIMO_EJEMPLOS_RECHAZO) {
+                    ejemplos.add(ejemplo);
+                }
+            }
+        }
+
+        Pedido[] pedidos = new Pedido[total];
+        int i = 0;
+        for (Bloque bloque : bloques) {
+            for (Pedido pedido : bloque.pedidos) {
+                pedidos[i++] = pedido;
+            }
+        }
+        Arrays.parallelSort(pedidos, Comparator.comparingInt(CargadorPedidosMasivo::minutoDelMes));
+
+        return new Resultado(pedidos, lineas, rechazadosFormato, rechazadosDestino, ejemplos);
+    }
+
+    private static int minutoDelMes(Pedido pedido) {
+        return (pedido.getDia() * 24 + pedido.getHora()) * 60 + pedido.getMinuto();
+    }
+
+    /**
+     * Muestra el resumen de la carga y la muestra de líneas rechazadas
+     */
+    public static void mostrarResumen(Resultado resultado) {
+        System.out.println("✅ " + resultado);
+        if (!resultado.getEjemplosRechazo().isEmpty()) {
+            System.out.println("   Ejemplos de líneas descartadas:");
+            for (String ejemplo : resultado.getEjemplosRechazo()) {
+                System.out.println("     ❌ " + ejemplo);
+            }
+        }
+    }
+}
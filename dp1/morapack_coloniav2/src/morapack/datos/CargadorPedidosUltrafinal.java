@@ -33,11 +33,11 @@ public class CargadorPedidosUltrafinal {
                 if (linea.isEmpty()) continue;
                 
                 try {
-                    // Extraer destino del ID para filtrar
-                    String destino = extraerDestino(linea);
+                    // Un solo parseo por posiciones fijas; el destino para filtrar sale del pedido
+                    Pedido pedido = parsearPedido(linea);
+                    String destino = pedido.getAeropuertoDestinoId();
                     
                     if (destinosValidos.contains(destino)) {
-                        Pedido pedido = new Pedido(linea);
                         pedidos.add(pedido);
                         contador++;
                         
@@ -83,7 +83,7 @@ public class CargadorPedidosUltrafinal {
                 if (linea.isEmpty()) continue;
                 
                 try {
-                    Pedido pedido = new Pedido(linea);
+                    Pedido pedido = parsearPedido(linea);
                     pedidos.add(pedido);
                     contador++;
                     
@@ -103,15 +103,15 @@ public class CargadorPedidosUltrafinal {
     }
     
     /**
-     * Extrae el código de destino del ID del pedido
+     * Valida y extrae el pedido en una sola pasada (sin split ni expresiones regulares)
      * Formato: dd-hh-mm-DEST-###-IdClien
      */
-    private static String extraerDestino(String idPedido) {
-        String[] partes = idPedido.split("-");
-        if (partes.length >= 4) {
-            return partes[3]; // El destino está en la 4ta posición (índice 3)
+    private static Pedido parsearPedido(String idPedido) {
+        Pedido pedido = Pedido.parsear(idPedido);
+        if (pedido == null) {
+            throw new IllegalArgumentException("Formato de ID inválido: " + idPedido);
         }
-        throw new IllegalArgumentException("Formato de ID inválido: " + idPedido);
+        return pedido;
     }
     
     /**
@@ -0,0 +1,20 @@
+package morapack.main;
+
+import morapack.datos.SnapshotRed;
+import java.io.IOException;
+
+/**
+ * Compila aeropuertos_simple.csv y vuelos_completos.csv en el snapshot binario datos/red.bin.
+ * No es obligatorio (los cargadores lo regeneran solos si falta o si los CSV cambiaron),
+ * pero deja el archivo listo antes de arrancar el servidor o una corrida.
+ *
+ * Uso: java -cp bin morapack.main.CompilarRed
+ */
+public class CompilarRed {
+
+    public static void main(String[] args) throws IOException {
+        long inicio = System.nanoTime();
+        SnapshotRed red = SnapshotRed.recompilar();
+        System.out.printf("✅ %s compilada en %d ms%n", red.getTabla(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
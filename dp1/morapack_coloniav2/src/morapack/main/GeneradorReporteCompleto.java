@@ -795,66 +795,21 @@ public class GeneradorReporteCompleto {
          * Verifica si existe un vuelo directo entre dos aeropuertos con capacidad suficiente
          */
         private static boolean existeVueloDirecto(String origen, String destino) {
-            Map<String, Set<String>> rutasDirectas = crearRutasDirectas();
-            
-            Set<String> destinosDirectos = rutasDirectas.get(origen);
-            return destinosDirectos != null && destinosDirectos.contains(destino);
+            return IndiceVuelos.obtener().existeVueloDirecto(origen, destino);
         }
         
         /**
          * Verifica si existe un vuelo directo con capacidad suficiente para la cantidad de productos
          */
         private static boolean tieneCapacidadSuficiente(String origen, String destino, int cantidadProductos) {
-            try (BufferedReader reader = new BufferedReader(new FileReader("datos/vuelos_completos.csv"))) {
-                String linea = reader.readLine(); // Saltar encabezado
-                
-                while ((linea = reader.readLine()) != null) {
-                    String[] partes = linea.split(",");
-                    if (partes.length >= 5) {
-                        String origenVuelo = partes[0].trim();
-                        String destinoVuelo = partes[1].trim();
-                        int capacidad = Integer.parseInt(partes[4].trim());
-                        
-                        if (origenVuelo.equals(origen) && destinoVuelo.equals(destino)) {
-                            if (capacidad >= cantidadProductos) {
-                                return true; // Encontró al menos un vuelo con capacidad suficiente
-                            }
-                        }
-                    }
-                }
-            } catch (IOException | NumberFormatException e) {
-                System.err.println("⚠️  Error verificando capacidad de vuelos: " + e.getMessage());
-            }
-            
-            return false; // No encontró vuelo con capacidad suficiente
+            return IndiceVuelos.obtener().tieneCapacidadSuficiente(origen, destino, cantidadProductos);
         }
         
         /**
          * Obtiene la capacidad máxima disponible en la ruta origen -> destino
          */
         private static int obtenerCapacidadMaxima(String origen, String destino) {
-            int capacidadMaxima = 0;
-            
-            try (BufferedReader reader = new BufferedReader(new FileReader("datos/vuelos_completos.csv"))) {
-                String linea = reader.readLine(); // Saltar encabezado
-                
-                while ((linea = reader.readLine()) != null) {
-                    String[] partes = linea.split(",");
-                    if (partes.length >= 5) {
-                        String origenVuelo = partes[0].trim();
-                        String destinoVuelo = partes[1].trim();
-                        int capacidad = Integer.parseInt(partes[4].trim());
-                        
-                        if (origenVuelo.equals(origen) && destinoVuelo.equals(destino)) {
-                            capacidadMaxima = Math.max(capacidadMaxima, capacidad);
-                        }
-                    }
-                }
-            } catch (IOException | NumberFormatException e) {
-                System.err.println("⚠️  Error obteniendo capacidad máxima: " + e.getMessage());
-            }
-            
-            return capacidadMaxima;
+            return IndiceVuelos.obtener().getCapacidadMaxima(origen, destino);
         }
         
         /**
@@ -962,38 +917,18 @@ public class GeneradorReporteCompleto {
         }
         
         /**
-         * Obtiene lista de vuelos disponibles en una ruta específica
+         * Obtiene lista de vuelos disponibles en una ruta específica, ordenados por hora de salida
          */
         private static List<VueloInfo> obtenerVuelosDisponibles(String origen, String destino) {
             List<VueloInfo> vuelos = new ArrayList<>();
+            IndiceVuelos.RutaDirecta ruta = IndiceVuelos.obtener().getRuta(origen, destino);
             
-            try (BufferedReader reader = new BufferedReader(new FileReader("datos/vuelos_completos.csv"))) {
-                String linea = reader.readLine(); // Saltar encabezado
-                
-                while ((linea = reader.readLine()) != null) {
-                    String[] partes = linea.split(",");
-                    if (partes.length >= 5) {
-                        String origenVuelo = partes[0].trim();
-                        String destinoVuelo = partes[1].trim();
-                        String horaSalidaStr = partes[2].trim();
-                        int capacidad = Integer.parseInt(partes[4].trim());
-                        
-                        if (origenVuelo.equals(origen) && destinoVuelo.equals(destino)) {
-                            // Convertir hora a minutos (formato HH:MM)
-                            String[] tiempoPartes = horaSalidaStr.split(":");
-                            int horaSalida = Integer.parseInt(tiempoPartes[0]) * 60 + Integer.parseInt(tiempoPartes[1]);
-                            
-                            vuelos.add(new VueloInfo(horaSalida, capacidad));
-                        }
-                    }
+            if (ruta != null) {
+                for (int i = 0; i < ruta.size(); i++) {
+                    vuelos.add(new VueloInfo(ruta.getSalidaMinutos(i), ruta.getVuelos().get(i).getCapacidad()));
                 }
-            } catch (IOException | NumberFormatException e) {
-                System.err.println("⚠️  Error obteniendo vuelos disponibles: " + e.getMessage());
             }
             
-            // Ordenar por hora de salida
-            vuelos.sort((a, b) -> Integer.compare(a.horaSalida, b.horaSalida));
-            
             return vuelos;
         }
         
@@ -1001,52 +936,8 @@ public class GeneradorReporteCompleto {
          * Encuentra la mejor escala para conectar origen con destino
          */
         private static String encontrarEscalaOptima(String origen, String destino) {
-            Map<String, Set<String>> rutasDirectas = crearRutasDirectas();
-            Set<String> destinosDesdeOrigen = rutasDirectas.get(origen);
-            
-            if (destinosDesdeOrigen == null) return null;
-            
-            // Buscar escalas que tengan conexión tanto desde origen como hacia destino
-            for (String posibleEscala : destinosDesdeOrigen) {
-                Set<String> destinosDesdeEscala = rutasDirectas.get(posibleEscala);
-                if (destinosDesdeEscala != null && destinosDesdeEscala.contains(destino)) {
-                    return posibleEscala;
-                }
-            }
-            
-            return null; // No hay ruta disponible
-        }
-        
-        /**
-         * Carga las rutas directas REALES desde vuelos_completos.csv
-         */
-        private static Map<String, Set<String>> crearRutasDirectas() {
-            Map<String, Set<String>> rutas = new HashMap<>();
-            
-            try (BufferedReader reader = new BufferedReader(new FileReader("datos/vuelos_completos.csv"))) {
-                String linea = reader.readLine(); // Saltar encabezado
-                
-                while ((linea = reader.readLine()) != null) {
-                    String[] partes = linea.split(",");
-                    if (partes.length >= 2) {
-                        String origen = partes[0].trim();
-                        String destino = partes[1].trim();
-                        
-                        // Agregar conexión directa origen -> destino
-                        rutas.computeIfAbsent(origen, k -> new HashSet<>()).add(destino);
-                    }
-                }
-                
-                System.out.printf("✈️  Cargadas %d aeropuertos con rutas directas reales desde vuelos_completos.csv%n", 
-                                rutas.size());
-                
-            } catch (IOException e) {
-                System.err.println("❌ Error crítico: No se pudo cargar vuelos_completos.csv");
-                System.err.println("   " + e.getMessage());
-                throw new RuntimeException("No se puede continuar sin los datos de vuelos reales");
-            }
-            
-            return rutas;
+            List<String> escalas = IndiceVuelos.obtener().getEscalas(origen, destino);
+            return escalas.isEmpty() ? null : escalas.get(0); // null si no hay ruta disponible
         }
         
         private static Set<String> crearAeropuertosValidos() {
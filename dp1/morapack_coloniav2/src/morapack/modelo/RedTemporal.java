@@ -0,0 +1,213 @@
+package morapack.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Red expandida en el tiempo sobre el horario diario de una TablaVuelos para todo un mes.
+ *
+ * Una instancia de vuelo es el par (índice de vuelo de la tabla, día) y se identifica con el
+ * entero dia * numVuelos + vuelo, la misma posición que usa RegistroCapacidad: no hace falta
+ * crear ningún objeto por instancia y la carga se lleva en el registro. El día 0 es el último
+ * día del mes anterior (los instantes UTC del día 1 pueden ser negativos).
+ *
+ * Como el horario se repite cada día, los arcos se guardan una sola vez por vuelo de la tabla
+ * en formato CSR, con el desfase en días que suma cada arco:
+ * - ESPERA: a la siguiente salida del mismo aeropuerto (la primera del día siguiente al final)
+ * - VUELO: a la primera salida del aeropuerto de llegada tras la conexión mínima
+ */
+public final class RedTemporal {
+
+    public static final int MIN_CONEXION_MINUTOS = 30;
+    public static final byte ARCO_ESPERA = 0;
+    public static final byte ARCO_VUELO = 1;
+
+    private static final int MINUTOS_DIA = TablaVuelos.MINUTOS_DIA;
+
+    private final TablaVuelos tabla;
+    private final int numVuelos;
+    private final int numDias;          // Días 0..numDias
+    private final int minConexion;
+
+    // Arcos por vuelo de la tabla (CSR): los de v van de inicioArcos[v] a inicioArcos[v + 1]
+    private final int[] inicioArcos;
+    private final int[] arcoDestino;    // Vuelo de la tabla al que llega el arco
+    private final int[] arcoDesfase;    // Días que avanza el arco
+    private final byte[] arcoTipo;
+
+    public RedTemporal(TablaVuelos tabla, int numDias) {
+        this(tabla, numDias, MIN_CONEXION_MINUTOS);
+    }
+
+    public RedTemporal(TablaVuelos tabla, int numDias, int minConexion) {
+        this.tabla = tabla;
+        this.numVuelos = tabla.getNumeroVuelos();
+        this.numDias = Math.max(1, numDias);
+        this.minConexion = minConexion;
+
+        int[] inicio = new int[numVuelos + 1];
+        int[] destinoTmp = new int[2 * numVuelos];
+        int[] desfaseTmp = new int[2 * numVuelos];
+        byte[] tipoTmp = new byte[2 * numVuelos];
+        int arcos = 0;
+        for (int v = 0; v < numVuelos; v++) {
+            inicio[v] = arcos;
+
+            // Espera: los vuelos de cada origen ya están ordenados por salida UTC
+            int o = tabla.getOrigen(v);
+            boolean ultimo = v + 1 == tabla.getFinOrigen(o);
+            destinoTmp[arcos] = ultimo ? tabla.getInicioOrigen(o) : v + 1;
+            desfaseTmp[arcos] = ultimo ? 1 : 0;
+            tipoTmp[arcos++] = ARCO_ESPERA;
+
+            // Vuelo: primera salida desde el destino tras llegar y conectar
+            int d = tabla.getDestino(v);
+            if (tabla.getInicioOrigen(d) < tabla.getFinOrigen(d)) {
+                int listo = tabla.getLlegadaUTC(v) + minConexion;
+                int siguiente = primeraSalidaDelDia(d, Math.floorMod(listo, MINUTOS_DIA));
+                int desfase = Math.floorDiv(listo, MINUTOS_DIA);
+                if (siguiente < 0) {
+                    siguiente = tabla.getInicioOrigen(d);
+                    desfase++;
+                }
+                destinoTmp[arcos] = siguiente;
+                desfaseTmp[arcos] = desfase;
+                tipoTmp[arcos++] = ARCO_VUELO;
+            }
+        }
+        inicio[numVuelos] = arcos;
+
+        this.inicioArcos = inicio;
+        this.arcoDestino = Arrays.copyOf(destinoTmp, arcos);
+        this.arcoDesfase = Arrays.copyOf(desfaseTmp, arcos);
+        this.arcoTipo = Arrays.copyOf(tipoTmp, arcos);
+    }
+
+    /**
+     * Primer vuelo del aeropuerto que sale en o después del minuto del día, o -1
+     */
+    private int primeraSalidaDelDia(int aeropuerto, int minutoDelDia) {
+        int inicio = tabla.getInicioOrigen(aeropuerto);
+        int fin = tabla.getFinOrigen(aeropuerto);
+        while (inicio < fin) {
+            int medio = (inicio + fin) >>> 1;
+            if (tabla.getSalidaUTC(medio) < minutoDelDia) {
+                inicio = medio + 1;
+            } else {
+                fin = medio;
+            }
+        }
+        return inicio < tabla.getFinOrigen(aeropuerto) ? inicio : -1;
+    }
+
+    // ==================== INSTANCIAS ====================
+
+    /**
+     * Instancia del vuelo en el día (días fuera de 0..numDias dan -1)
+     */
+    public int instancia(int vuelo, int dia) {
+        return dia >= 0 && dia <= numDias ? dia * numVuelos + vuelo : -1;
+    }
+
+    public int getVuelo(int instancia) { return instancia % numVuelos; }
+    public int getDia(int instancia) { return instancia / numVuelos; }
+    public int getOrigen(int instancia) { return tabla.getOrigen(getVuelo(instancia)); }
+    public int getDestino(int instancia) { return tabla.getDestino(getVuelo(instancia)); }
+
+    /** Instante de salida (minutos UTC desde las 00:00 UTC del día 1) */
+    public int getSalida(int instancia) {
+        return TablaVuelos.minutoAbsoluto(getDia(instancia), tabla.getSalidaUTC(getVuelo(instancia)));
+    }
+
+    /** Instante de llegada */
+    public int getLlegada(int instancia) {
+        return TablaVuelos.minutoAbsoluto(getDia(instancia), tabla.getLlegadaUTC(getVuelo(instancia)));
+    }
+
+    /**
+     * Primera instancia del vuelo que sale en o después del instante (-1 si cae fuera del mes)
+     */
+    public int siguienteInstancia(int vuelo, int instante) {
+        return instancia(vuelo, TablaVuelos.diaDe(tabla.getSiguienteSalida(vuelo, instante)));
+    }
+
+    /**
+     * Primera instancia que sale del aeropuerto en o después del instante (-1 si no hay)
+     */
+    public int primeraSalidaDesde(int aeropuerto, int instante) {
+        if (tabla.getInicioOrigen(aeropuerto) == tabla.getFinOrigen(aeropuerto)) {
+            return -1;
+        }
+        int dia = TablaVuelos.diaDe(instante);
+        int vuelo = primeraSalidaDelDia(aeropuerto, instante - TablaVuelos.inicioDia(dia));
+        if (vuelo < 0) {
+            vuelo = tabla.getInicioOrigen(aeropuerto);
+            dia++;
+        }
+        return instancia(vuelo, dia);
+    }
+
+    // ==================== ARCOS ====================
+
+    /** Primer arco (inclusive) del vuelo de la tabla */
+    public int getInicioArcos(int vuelo) { return inicioArcos[vuelo]; }
+
+    /** Último arco (exclusive) del vuelo de la tabla */
+    public int getFinArcos(int vuelo) { return inicioArcos[vuelo + 1]; }
+
+    public int getArcoDestino(int arco) { return arcoDestino[arco]; }
+    public int getArcoDesfase(int arco) { return arcoDesfase[arco]; }
+    public boolean esArcoVuelo(int arco) { return arcoTipo[arco] == ARCO_VUELO; }
+
+    /**
+     * Instancia a la que lleva el arco desde la instancia dada (-1 si sale del mes)
+     */
+    public int seguirArco(int instancia, int arco) {
+        return instancia(arcoDestino[arco], getDia(instancia) + arcoDesfase[arco]);
+    }
+
+    /** Siguiente salida del mismo aeropuerto (arco de espera) */
+    public int siguienteEspera(int instancia) {
+        return seguirArco(instancia, inicioArcos[getVuelo(instancia)]);
+    }
+
+    /**
+     * Primera salida que se puede tomar tras volar en la instancia (-1 si no hay)
+     */
+    public int conexion(int instancia) {
+        int vuelo = getVuelo(instancia);
+        int arco = inicioArcos[vuelo] + 1;
+        return arco < inicioArcos[vuelo + 1] ? seguirArco(instancia, arco) : -1;
+    }
+
+    // ==================== CARGA ====================
+
+    /**
+     * Registro de capacidad para todas las instancias de la red (misma numeración)
+     */
+    public RegistroCapacidad crearRegistroCapacidad() {
+        return new RegistroCapacidad(tabla, numDias + 1);
+    }
+
+    public boolean cabe(int instancia, int cantidad, RegistroCapacidad capacidad) {
+        return capacidad.cabe(getVuelo(instancia), getDia(instancia), cantidad);
+    }
+
+    public boolean reservar(int instancia, int cantidad, RegistroCapacidad capacidad) {
+        return capacidad.reservar(getVuelo(instancia), getDia(instancia), cantidad);
+    }
+
+    public void liberar(int instancia, int cantidad, RegistroCapacidad capacidad) {
+        capacidad.liberar(getVuelo(instancia), getDia(instancia), cantidad);
+    }
+
+    public TablaVuelos getTabla() { return tabla; }
+    public int getNumeroDias() { return numDias; }
+    public int getNumeroInstancias() { return (numDias + 1) * numVuelos; }
+    public int getNumeroArcos() { return arcoDestino.length; }
+    public int getMinConexion() { return minConexion; }
+
+    @Override
+    public String toString() {
+        return String.format("RedTemporal[%d vuelos x %d días, %d arcos]", numVuelos, numDias, arcoDestino.length);
+    }
+}
@@ -0,0 +1,222 @@
+package morapack.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Capacidad usada por instancia de vuelo (índice de vuelo de una TablaVuelos, día) en un
+ * solo int[]: reservar, liberar y consultar son O(1) y sin objetos.
+ *
+ * Las reservas tentativas se deshacen con una bitácora: marcar() devuelve una marca,
+ * deshacerHasta(marca) revierte todo lo reservado o liberado desde entonces y confirmar(marca)
+ * lo deja como está. Las instantáneas y copias son una sola copia del arreglo, para que cada
+ * individuo u hormiga bifurque su estado de capacidad sin recorrer mapas.
+ */
+public final class RegistroCapacidad {
+
+    private static final int[] BITACORA_VACIA = new int[0];
+
+    private final int[] capacidades;   // Capacidad máxima por vuelo (compartida entre copias)
+    private final int numVuelos;
+    private int numDias;
+    private int[] usada;               // usada[dia * numVuelos + vuelo]
+
+    // Bitácora de cambios (pares índice, cantidad) mientras haya marcas abiertas
+    private int[] bitacora = BITACORA_VACIA;
+    private int tamanoBitacora;
+    private int marcasAbiertas;
+
+    /**
+     * Registro de un solo día (vuelos diarios que se repiten, sin distinguir fecha)
+     */
+    public RegistroCapacidad(TablaVuelos tabla) {
+        this(tabla, 1);
+    }
+
+    /**
+     * Registro para los días [0, numDias); se amplía solo si se reserva en un día posterior
+     */
+    public RegistroCapacidad(TablaVuelos tabla, int numDias) {
+        this.numVuelos = tabla.getNumeroVuelos();
+        this.capacidades = new int[numVuelos];
+        for (int i = 0; i < numVuelos; i++) {
+            capacidades[i] = tabla.getCapacidad(i);
+        }
+        this.numDias = Math.max(1, numDias);
+        this.usada = new int[numVuelos * this.numDias];
+    }
+
+    private RegistroCapacidad(RegistroCapacidad base) {
+        this.capacidades = base.capacidades;
+        this.numVuelos = base.numVuelos;
+        this.numDias = base.numDias;
+        this.usada = base.usada.clone();
+    }
+
+    // ==================== CONSULTA Y RESERVA ====================
+
+    public int getUsada(int vuelo) { return getUsada(vuelo, 0); }
+
+    public int getUsada(int vuelo, int dia) {
+        return dia < numDias ? usada[indice(vuelo, dia)] : 0;
+    }
+
+    public int getDisponible(int vuelo, int dia) {
+        return capacidades[vuelo] - getUsada(vuelo, dia);
+    }
+
+    public boolean cabe(int vuelo, int cantidad) { return cabe(vuelo, 0, cantidad); }
+
+    public boolean cabe(int vuelo, int dia, int cantidad) {
+        return getUsada(vuelo, dia) + cantidad <= capacidades[vuelo];
+    }
+
+    public boolean reservar(int vuelo, int cantidad) { return reservar(vuelo, 0, cantidad); }
+
+    /**
+     * Reserva la cantidad si cabe; retorna false (sin cambios) si excede la capacidad
+     */
+    public boolean reservar(int vuelo, int dia, int cantidad) {
+        if (!cabe(vuelo, dia, cantidad)) {
+            return false;
+        }
+        sumar(vuelo, dia, cantidad);
+        return true;
+    }
+
+    public void liberar(int vuelo, int cantidad) { liberar(vuelo, 0, cantidad); }
+
+    public void liberar(int vuelo, int dia, int cantidad) {
+        sumar(vuelo, dia, -cantidad);
+    }
+
+    private void sumar(int vuelo, int dia, int cantidad) {
+        if (dia >= numDias) {
+            ampliarDias(dia + 1);
+        }
+        int i = indice(vuelo, dia);
+        usada[i] += cantidad;
+        if (marcasAbiertas > 0) {
+            if (tamanoBitacora + 2 > bitacora.length) {
+                bitacora = Arrays.copyOf(bitacora, Math.max(16, bitacora.length * 2));
+            }
+            bitacora[tamanoBitacora++] = i;
+            bitacora[tamanoBitacora++] = cantidad;
+        }
+    }
+
+    private int indice(int vuelo, int dia) {
+        if (dia < 0) {
+            throw new IllegalArgumentException("Día negativo: " + dia);
+        }
+        return dia * numVuelos + vuelo;
+    }
+
+    private void ampliarDias(int dias) {
+        int nuevosDias = Math.max(dias, numDias * 2);
+        usada = Arrays.copyOf(usada, nuevosDias * numVuelos);
+        numDias = nuevosDias;
+    }
+
+    // ==================== RESERVAS TENTATIVAS ====================
+
+    /**
+     * Abre una reserva tentativa; los cambios posteriores se pueden deshacer hasta esta marca
+     */
+    public int marcar() {
+        marcasAbiertas++;
+        return tamanoBitacora;
+    }
+
+    /**
+     * Revierte todos los cambios hechos después de la marca y la cierra
+     */
+    public void deshacerHasta(int marca) {
+        while (tamanoBitacora > marca) {
+            int cantidad = bitacora[--tamanoBitacora];
+            int i = bitacora[--tamanoBitacora];
+            usada[i] -= cantidad;
+        }
+        cerrarMarca();
+    }
+
+    /**
+     * Conserva los cambios hechos desde la marca y la cierra (una marca exterior aún puede deshacerlos)
+     */
+    public void confirmar(int marca) {
+        cerrarMarca();
+    }
+
+    private void cerrarMarca() {
+        if (marcasAbiertas > 0 && --marcasAbiertas == 0) {
+            tamanoBitacora = 0;
+        }
+    }
+
+    // ==================== INSTANTÁNEAS ====================
+
+    /**
+     * Copia independiente del estado (misma red, bitácora vacía)
+     */
+    public RegistroCapacidad copiar() {
+        return new RegistroCapacidad(this);
+    }
+
+    /**
+     * Estado actual como arreglo plano (para restaurar más tarde)
+     */
+    public int[] instantanea() {
+        return usada.clone();
+    }
+
+    /**
+     * Vuelve al estado de una instantánea de este registro o de una copia suya; descarta la bitácora
+     */
+    public void restaurar(int[] instantanea) {
+        if (instantanea.length % numVuelos != 0) {
+            throw new IllegalArgumentException("La instantánea no corresponde a " + numVuelos + " vuelos");
+        }
+        if (instantanea.length == usada.length) {
+            System.arraycopy(instantanea, 0, usada, 0, usada.length);
+        } else {
+            usada = instantanea.clone();
+            numDias = Math.max(1, usada.length / numVuelos);
+        }
+        tamanoBitacora = 0;
+        marcasAbiertas = 0;
+    }
+
+    /**
+     * Copia el estado de otro registro de la misma red sobre este (sin asignar si los tamaños coinciden)
+     */
+    public void copiarDesde(RegistroCapacidad otro) {
+        if (otro.capacidades != capacidades) {
+            throw new IllegalArgumentException("Los registros no son de la misma red de vuelos");
+        }
+        restaurar(otro.usada);
+    }
+
+    public void reiniciar() {
+        Arrays.fill(usada, 0);
+        tamanoBitacora = 0;
+        marcasAbiertas = 0;
+    }
+
+    public int getNumeroVuelos() { return numVuelos; }
+    public int getNumeroDias() { return numDias; }
+
+    /**
+     * Capacidad usada del vuelo sumando todos los días (para estadísticas)
+     */
+    public int getUsadaTotal(int vuelo) {
+        int total = 0;
+        for (int dia = 0; dia < numDias; dia++) {
+            total += usada[dia * numVuelos + vuelo];
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RegistroCapacidad[%d vuelos x %d días]", numVuelos, numDias);
+    }
+}
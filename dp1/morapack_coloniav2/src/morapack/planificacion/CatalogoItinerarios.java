@@ -0,0 +1,385 @@
+package morapack.planificacion;
+
+import morapack.modelo.RegistroAeropuertos;
+import morapack.modelo.RegistroCapacidad;
+import morapack.modelo.TablaVuelos;
+import java.util.*;
+
+/**
+ * Catálogo de itinerarios precalculados por (sede, destino) sobre el horario diario de una
+ * TablaVuelos. Se construye una sola vez (3 sedes x ~30 destinos) y sirve de alfabeto de genes:
+ * el individuo o la hormiga elige un índice de itinerario y evaluarlo es solo comprobar y
+ * reservar la capacidad de sus tramos, sin volver a buscar en el grafo.
+ *
+ * Para cada vuelo que sale de una sede se toma la continuación de llegada más temprana hacia
+ * cada destino (misma regla que Connection Scan: conexión mínima de 30 minutos, hasta
+ * MAX_ESCALAS vuelos). De esos candidatos se descartan los dominados (salen antes y llegan
+ * después, con más tramos y menos capacidad) y se conservan los k mejores por duración,
+ * número de tramos y capacidad.
+ *
+ * Todo se guarda en arreglos int: los itinerarios de un par quedan contiguos y ordenados por
+ * hora de salida, y inicioPar delimita el rango de cada par.
+ */
+public final class CatalogoItinerarios {
+
+    public static final int MAX_ITINERARIOS_POR_PAR = 24;
+    private static final int MIN_CONEXION_MINUTOS = 30;  // Igual que PlanificadorEscaneoConexiones
+    private static final int MAX_ESCALAS = 5;
+    private static final int INFINITO = Integer.MAX_VALUE;
+
+    private static volatile CatalogoItinerarios ultimoCatalogo = null;
+
+    private final TablaVuelos tabla;
+    private final int numAeropuertos;
+
+    // Itinerarios (columnas paralelas); los del par (sede, destino) van de inicioPar[p] a inicioPar[p + 1]
+    private final int[] inicioPar;
+    private final int[] salidas;
+    private final int[] llegadas;
+    private final int[] capacidadesMinimas;
+    private final int[] inicioTramos;
+    private final int[] tramos;           // Índices de vuelo de la tabla
+
+    private CatalogoItinerarios(TablaVuelos tabla, int[] inicioPar, int[] salidas, int[] llegadas,
+                                int[] capacidadesMinimas, int[] inicioTramos, int[] tramos) {
+        this.tabla = tabla;
+        this.numAeropuertos = tabla.getNumeroAeropuertos();
+        this.inicioPar = inicioPar;
+        this.salidas = salidas;
+        this.llegadas = llegadas;
+        this.capacidadesMinimas = capacidadesMinimas;
+        this.inicioTramos = inicioTramos;
+        this.tramos = tramos;
+    }
+
+    /**
+     * Catálogo de la tabla con el tamaño por defecto; se construye una vez por tabla y se comparte
+     */
+    public static CatalogoItinerarios obtener(TablaVuelos tabla) {
+        CatalogoItinerarios catalogo = ultimoCatalogo;
+        if (catalogo == null || catalogo.tabla != tabla) {
+            synchronized (CatalogoItinerarios.class) { // Los hilos del GA lo piden a la vez en la primera evaluación
+                catalogo = ultimoCatalogo;
+                if (catalogo == null || catalogo.tabla != tabla) {
+                    catalogo = construir(tabla, MAX_ITINERARIOS_POR_PAR);
+                    ultimoCatalogo = catalogo; // Publicar solo el catálogo completo
+                }
+            }
+        }
+        return catalogo;
+    }
+
+    /**
+     * Enumera los itinerarios de cada par (sede, destino), conservando como máximo maxPorPar
+     */
+    public static CatalogoItinerarios construir(TablaVuelos tabla, int maxPorPar) {
+        RegistroAeropuertos registro = tabla.getRegistro();
+        int numAeropuertos = tabla.getNumeroAeropuertos();
+        int numSedes = RegistroAeropuertos.CODIGOS_SEDE.length;
+
+        // Conexiones ordenadas por salida UTC para el escaneo
+        int n = tabla.getNumeroVuelos();
+        Integer[] orden = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, Comparator.comparingInt(tabla::getSalidaUTC));
+        int[] porSalida = new int[n];
+        int[] salidasOrdenadas = new int[n];
+        for (int c = 0; c < n; c++) {
+            porSalida[c] = orden[c];
+            salidasOrdenadas[c] = tabla.getSalidaUTC(orden[c]);
+        }
+
+        List<List<int[]>> candidatosPorPar = new ArrayList<>(numSedes * numAeropuertos);
+        for (int p = 0; p < numSedes * numAeropuertos; p++) {
+            candidatosPorPar.add(new ArrayList<>());
+        }
+
+        int[] llegada = new int[numAeropuertos];
+        int[] vueloLlegada = new int[numAeropuertos];
+        int[] previo = new int[numAeropuertos];
+        int[] vuelosHasta = new int[numAeropuertos];
+        for (int sede = 0; sede < numSedes; sede++) {
+            int origen = registro.getIdSede(sede);
+            if (origen < 0) {
+                continue;
+            }
+            for (int primero = tabla.getInicioOrigen(origen); primero < tabla.getFinOrigen(origen); primero++) {
+                int d0 = tabla.getDestino(primero);
+                if (d0 == origen) {
+                    continue;
+                }
+                escanearDesde(tabla, porSalida, salidasOrdenadas, origen, primero,
+                              llegada, vueloLlegada, previo, vuelosHasta);
+                for (int d = 0; d < numAeropuertos; d++) {
+                    if (llegada[d] != INFINITO && d != origen && !registro.esSede(d)) {
+                        candidatosPorPar.get(sede * numAeropuertos + d)
+                                        .add(crearCandidato(tabla, origen, d, vueloLlegada, previo, vuelosHasta[d]));
+                    }
+                }
+            }
+        }
+
+        // Filtrar por par y aplanar en columnas
+        int[] inicioPar = new int[numSedes * numAeropuertos + 1];
+        List<int[]> elegidos = new ArrayList<>();
+        int totalTramos = 0;
+        for (int p = 0; p < candidatosPorPar.size(); p++) {
+            List<int[]> seleccion = seleccionar(candidatosPorPar.get(p), maxPorPar);
+            elegidos.addAll(seleccion);
+            for (int[] candidato : seleccion) {
+                totalTramos += candidato.length - 3;
+            }
+            inicioPar[p + 1] = elegidos.size();
+        }
+
+        int m = elegidos.size();
+        int[] salidas = new int[m];
+        int[] llegadas = new int[m];
+        int[] capacidadesMinimas = new int[m];
+        int[] inicioTramos = new int[m + 1];
+        int[] tramos = new int[totalTramos];
+        for (int it = 0; it < m; it++) {
+            int[] candidato = elegidos.get(it);
+            salidas[it] = candidato[0];
+            llegadas[it] = candidato[1];
+            capacidadesMinimas[it] = candidato[2];
+            int numTramos = candidato.length - 3;
+            System.arraycopy(candidato, 3, tramos, inicioTramos[it], numTramos);
+            inicioTramos[it + 1] = inicioTramos[it] + numTramos;
+        }
+
+        return new CatalogoItinerarios(tabla, inicioPar, salidas, llegadas, capacidadesMinimas, inicioTramos, tramos);
+    }
+
+    /**
+     * Connection Scan con el primer vuelo fijo: llegada más temprana a cada aeropuerto
+     * saliendo de la sede en ese vuelo (sin considerar capacidad)
+     */
+    private static void escanearDesde(TablaVuelos tabla, int[] porSalida, int[] salidasOrdenadas, int origen,
+                                      int primero, int[] llegada, int[] vueloLlegada, int[] previo, int[] vuelosHasta) {
+        Arrays.fill(llegada, INFINITO);
+        Arrays.fill(vuelosHasta, 0);
+        int d0 = tabla.getDestino(primero);
+        llegada[d0] = tabla.getLlegadaUTC(primero);
+        vueloLlegada[d0] = primero;
+        previo[d0] = origen;
+        vuelosHasta[d0] = 1;
+
+        for (int c = primeraConexionDesde(salidasOrdenadas, llegada[d0] + MIN_CONEXION_MINUTOS); c < porSalida.length; c++) {
+            int i = porSalida[c];
+            int o = tabla.getOrigen(i);
+            if (llegada[o] == INFINITO || vuelosHasta[o] >= MAX_ESCALAS) {
+                continue;
+            }
+            int d = tabla.getDestino(i);
+            if (salidasOrdenadas[c] < llegada[o] + MIN_CONEXION_MINUTOS
+                    || tabla.getLlegadaUTC(i) >= llegada[d] || d == origen) {
+                continue;
+            }
+            llegada[d] = tabla.getLlegadaUTC(i);
+            vueloLlegada[d] = i;
+            previo[d] = o;
+            vuelosHasta[d] = vuelosHasta[o] + 1;
+        }
+    }
+
+    /**
+     * Candidato como {salida, llegada, capacidad mínima, tramos...}
+     */
+    private static int[] crearCandidato(TablaVuelos tabla, int origen, int destino, int[] vueloLlegada,
+                                        int[] previo, int numTramos) {
+        int[] candidato = new int[3 + numTramos];
+        int capacidadMinima = INFINITO;
+        int a = destino;
+        for (int k = numTramos - 1; k >= 0; k--) {
+            int i = vueloLlegada[a];
+            candidato[3 + k] = i;
+            capacidadMinima = Math.min(capacidadMinima, tabla.getCapacidad(i));
+            a = previo[a];
+        }
+        candidato[0] = tabla.getSalidaUTC(candidato[3]);
+        candidato[1] = tabla.getLlegadaUTC(candidato[3 + numTramos - 1]);
+        candidato[2] = capacidadMinima;
+        return candidato;
+    }
+
+    /**
+     * Quita los candidatos dominados, conserva los maxPorPar mejores y los ordena por salida
+     */
+    private static List<int[]> seleccionar(List<int[]> candidatos, int maxPorPar) {
+        List<int[]> vigentes = new ArrayList<>();
+        for (int i = 0; i < candidatos.size(); i++) {
+            int[] a = candidatos.get(i);
+            boolean dominado = false;
+            for (int j = 0; j < candidatos.size() && !dominado; j++) {
+                int[] b = candidatos.get(j);
+                // Entre equivalentes se queda el primero
+                dominado = j != i && domina(b, a) && (!domina(a, b) || j < i);
+            }
+            if (!dominado) {
+                vigentes.add(a);
+            }
+        }
+
+        if (vigentes.size() > maxPorPar) {
+            vigentes.sort(Comparator.<int[]>comparingInt(c -> c[1] - c[0])
+                                    .thenComparingInt(c -> c.length)
+                                    .thenComparingInt(c -> -c[2]));
+            vigentes = new ArrayList<>(vigentes.subList(0, maxPorPar));
+        }
+        vigentes.sort(Comparator.<int[]>comparingInt(c -> c[0]).thenComparingInt(c -> c[1]));
+        return vigentes;
+    }
+
+    /**
+     * b es al menos tan bueno como a en salida (más tarde), llegada, tramos y capacidad
+     */
+    private static boolean domina(int[] b, int[] a) {
+        return b[0] >= a[0] && b[1] <= a[1] && b.length <= a.length && b[2] >= a[2];
+    }
+
+    private static int primeraConexionDesde(int[] salidasOrdenadas, int tiempo) {
+        int inicio = 0;
+        int fin = salidasOrdenadas.length;
+        while (inicio < fin) {
+            int medio = (inicio + fin) >>> 1;
+            if (salidasOrdenadas[medio] < tiempo) {
+                inicio = medio + 1;
+            } else {
+                fin = medio;
+            }
+        }
+        return inicio;
+    }
+
+    // ==================== CONSULTA ====================
+
+    /** Primer itinerario (inclusive) del par; sede es el índice en RegistroAeropuertos.CODIGOS_SEDE */
+    public int getPrimerItinerario(int sede, int destino) { return inicioPar[sede * numAeropuertos + destino]; }
+
+    /** Último itinerario (exclusive) del par */
+    public int getFinItinerarios(int sede, int destino) { return inicioPar[sede * numAeropuertos + destino + 1]; }
+
+    public int getNumeroItinerarios() { return salidas.length; }
+    public int getSalida(int itinerario) { return salidas[itinerario]; }
+    public int getLlegada(int itinerario) { return llegadas[itinerario]; }
+    public int getDuracion(int itinerario) { return llegadas[itinerario] - salidas[itinerario]; }
+    public int getCapacidadMinima(int itinerario) { return capacidadesMinimas[itinerario]; }
+    public int getNumeroTramos(int itinerario) { return inicioTramos[itinerario + 1] - inicioTramos[itinerario]; }
+    public int getTramo(int itinerario, int tramo) { return tramos[inicioTramos[itinerario] + tramo]; }
+    public TablaVuelos getTabla() { return tabla; }
+
+    /**
+     * Indica si el itinerario pertenece al par (sede, destino)
+     */
+    public boolean esDelPar(int itinerario, int sede, int destino) {
+        return itinerario >= getPrimerItinerario(sede, destino) && itinerario < getFinItinerarios(sede, destino);
+    }
+
+    /**
+     * Itinerario del par que sale en o después de tiempoMinimo, llega más temprano (luego con menos
+     * tramos) y tiene capacidad para la cantidad; -1 si ninguno sirve. No reserva.
+     */
+    public int buscarItinerario(int sede, int destino, int tiempoMinimo, int cantidad, RegistroCapacidad capacidad) {
+        if (sede < 0 || destino < 0) {
+            return -1;
+        }
+        int fin = getFinItinerarios(sede, destino);
+        int mejor = -1;
+        for (int it = primeroDesde(sede, destino, tiempoMinimo); it < fin; it++) {
+            if (mejor >= 0 && (llegadas[it] > llegadas[mejor]
+                    || (llegadas[it] == llegadas[mejor] && getNumeroTramos(it) >= getNumeroTramos(mejor)))) {
+                continue;
+            }
+            if (capacidadesMinimas[it] >= cantidad && cabe(it, cantidad, capacidad)) {
+                mejor = it;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Búsqueda binaria del primer itinerario del par que sale en o después del tiempo indicado
+     */
+    private int primeroDesde(int sede, int destino, int tiempo) {
+        int inicio = getPrimerItinerario(sede, destino);
+        int fin = getFinItinerarios(sede, destino);
+        while (inicio < fin) {
+            int medio = (inicio + fin) >>> 1;
+            if (salidas[medio] < tiempo) {
+                inicio = medio + 1;
+            } else {
+                fin = medio;
+            }
+        }
+        return inicio;
+    }
+
+    // ==================== CAPACIDAD ====================
+
+    public boolean cabe(int itinerario, int cantidad, RegistroCapacidad capacidad) {
+        for (int t = inicioTramos[itinerario]; t < inicioTramos[itinerario + 1]; t++) {
+            if (!capacidad.cabe(tramos[t], cantidad)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reserva todos los tramos o ninguno; retorna false si alguno no tiene capacidad
+     */
+    public boolean reservar(int itinerario, int cantidad, RegistroCapacidad capacidad) {
+        if (!cabe(itinerario, cantidad, capacidad)) {
+            return false;
+        }
+        for (int t = inicioTramos[itinerario]; t < inicioTramos[itinerario + 1]; t++) {
+            capacidad.reservar(tramos[t], cantidad);
+        }
+        return true;
+    }
+
+    public void liberar(int itinerario, int cantidad, RegistroCapacidad capacidad) {
+        for (int t = inicioTramos[itinerario]; t < inicioTramos[itinerario + 1]; t++) {
+            capacidad.liberar(tramos[t], cantidad);
+        }
+    }
+
+    // ==================== RUTAS ====================
+
+    /**
+     * Ruta nueva del itinerario (misma forma que las del Connection Scan): es del que la pide y
+     * puede modificarla sin afectar a los demás que eligen el mismo itinerario
+     */
+    public RutaCompleta getRuta(int itinerario) {
+        RutaCompleta ruta = new RutaCompleta();
+        List<String> escalas = new ArrayList<>();
+        int numTramos = getNumeroTramos(itinerario);
+        for (int t = 0; t < numTramos; t++) {
+            int i = getTramo(itinerario, t);
+            ruta.agregarVuelo(tabla.getVuelo(i));
+            if (t < numTramos - 1) {
+                escalas.add(tabla.getCodigo(tabla.getDestino(i)));
+            }
+        }
+
+        ruta.setEscalas(escalas);
+        if (escalas.isEmpty()) {
+            ruta.setTipoRuta("DIRECTO");
+        } else if (escalas.size() == 1) {
+            ruta.setTipoRuta("UNA_CONEXION");
+        } else if (escalas.size() == 2) {
+            ruta.setTipoRuta("DOS_CONEXIONES");
+        } else {
+            ruta.setTipoRuta("MULTIPLE_CONEXIONES");
+        }
+        return ruta;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CatalogoItinerarios[%d itinerarios, %d tramos]", salidas.length, tramos.length);
+    }
+}
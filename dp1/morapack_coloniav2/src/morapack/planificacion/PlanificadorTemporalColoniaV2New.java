@@ -2,8 +2,6 @@ package morapack.planificacion;
 
 import morapack.modelo.*;
 import morapack.datos.*;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
@@ -16,22 +14,23 @@ public class PlanificadorTemporalColoniaV2New {
     private static final int TIEMPO_PREPARACION_MINUTOS = 30;  // Tiempo preparación de pedidos
     private static final int MIN_CONEXION_MINUTOS = 30;        // Tiempo mínimo entre conexiones
     private static final int MAX_ESCALAS = 3;                  // Máximo 3 escalas
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    
+    private static final int MINUTOS_DIA = TablaVuelos.MINUTOS_DIA;
+    private static final int DIAS_REGISTRO = 35;               // Días del mes más el plazo máximo
     
     // 📊 GESTIÓN DE CAPACIDAD (NUEVA FUNCIONALIDAD)
-    private final Map<String, Integer> capacidadUsada; // Capacidad usada por vuelo por día
-    private final List<Vuelo> vuelosDisponibles;
-    private final Map<String, List<Vuelo>> vuelosPorOrigen;
+    private final TablaVuelos tabla;                   // Ids enteros y horarios UTC precalculados
+    private final RedTemporal red;                     // Instancias (vuelo, día) del mes sin objetos por instancia
+    private final RegistroCapacidad capacidadUsada;   // Capacidad usada por instancia de vuelo
     
     public PlanificadorTemporalColoniaV2New(List<Vuelo> vuelos) {
-        this.vuelosDisponibles = vuelos;
-        this.capacidadUsada = new HashMap<>();
-        
-        // Indexar vuelos por origen para búsqueda eficiente
-        this.vuelosPorOrigen = new HashMap<>();
-        for (Vuelo vuelo : vuelos) {
-            vuelosPorOrigen.computeIfAbsent(vuelo.getOrigen(), k -> new ArrayList<>()).add(vuelo);
-        }
+        this(TablaVuelos.construir(vuelos, CargadorDatosCSV.cargarRegistroAeropuertos(), true));
+    }
+    
+    public PlanificadorTemporalColoniaV2New(TablaVuelos tabla) {
+        this.tabla = tabla;
+        this.red = new RedTemporal(tabla, DIAS_REGISTRO);
+        this.capacidadUsada = red.crearRegistroCapacidad();
     }
     
     /**
@@ -55,164 +54,152 @@ public class PlanificadorTemporalColoniaV2New {
         String destino = pedido.getAeropuertoDestinoId();
         int cantidad = pedido.getCantidadProductos();
         
-        // Validaciones básicas
-        if (destino.equals("SPIM") || destino.equals("EBCI") || destino.equals("UBBB")) {
+        // Validaciones básicas (los códigos se traducen a ids una sola vez)
+        RegistroAeropuertos registro = tabla.getRegistro();
+        int idOrigen = registro.getId(sedeOrigen);
+        int idDestino = registro.getId(destino);
+        if (idOrigen < 0 || idDestino < 0) {
+            return null; // Aeropuerto no configurado
+        }
+        
+        if (registro.esSede(idDestino)) {
             return null; // No enviar a nuestras propias sedes
         }
         
-        if (sedeOrigen.equals(destino)) {
+        if (idOrigen == idDestino) {
             return null; // Origen = destino no tiene sentido
         }
         
-        // 🌍 CONVERSIÓN UTC: Convertir hora del pedido a UTC
-        LocalTime horaPedidoLocal = LocalTime.of(pedido.getHora(), pedido.getMinuto());
-        LocalTime horaPedidoUTC = GestorUTCyContinentesCSV.convertirAUTC(sedeOrigen, horaPedidoLocal);
+        // 🌍 CONVERSIÓN UTC: instante del pedido en minutos UTC desde el inicio del mes
+        int minutosPedidoLocal = pedido.getHora() * 60 + pedido.getMinuto();
+        int instantePedido = TablaVuelos.minutoAbsoluto(pedido.getDia(), minutosPedidoLocal - tabla.getHusoMinutos(idOrigen));
+        int minutosDelDiaUTC = Math.floorMod(instantePedido, MINUTOS_DIA);
         
         // ⏰ LÓGICA TEMPORAL: Calcular cuándo puede salir el pedido en UTC
-        int minutosDelDiaUTC = horaPedidoUTC.getHour() * 60 + horaPedidoUTC.getMinute();
-        int tiempoMinimoSalidaUTC = minutosDelDiaUTC + TIEMPO_PREPARACION_MINUTOS;
+        int instanteListo = instantePedido + TIEMPO_PREPARACION_MINUTOS;
         
         System.out.println("📦 Planificando pedido " + pedido.getId() + " (ColoniaV2):");
         System.out.printf("   Hora pedido local (%s): %02d:%02d\n", 
-            GestorUTCyContinentesCSV.obtenerZonaHoraria(sedeOrigen),
+            formatearZonaHoraria(tabla.getHusoMinutos(idOrigen)),
             pedido.getHora(), pedido.getMinuto());
-        System.out.printf("   Hora pedido UTC: %s\n", horaPedidoUTC.format(TIME_FORMATTER));
-        System.out.printf("   Tiempo mínimo salida UTC: %s\n", formatearTiempo(tiempoMinimoSalidaUTC));
+        System.out.printf("   Hora pedido UTC: %s\n", formatearTiempo(minutosDelDiaUTC));
+        System.out.printf("   Tiempo mínimo salida UTC: %s\n", formatearTiempo(instanteListo));
         
         // 📆 VALIDACIÓN DE PLAZOS: Verificar plazo máximo permitido
-        int plazoMaximo = GestorUTCyContinentesCSV.obtenerPlazoMaximo(sedeOrigen, destino);
-        boolean esIntercontinental = !GestorUTCyContinentesCSV.mismosContinentes(sedeOrigen, destino);
+        boolean esIntercontinental = !mismoContinente(idOrigen, idDestino);
+        int plazoMaximo = esIntercontinental ? 3 : 2;
         
         System.out.printf("   🌍 Ruta: %s (%s) → %s (%s)\n", 
-            sedeOrigen, GestorUTCyContinentesCSV.obtenerContinente(sedeOrigen),
-            destino, GestorUTCyContinentesCSV.obtenerContinente(destino));
+            sedeOrigen, tabla.getContinente(idOrigen),
+            destino, tabla.getContinente(idDestino));
         System.out.printf("   📆 Tipo: %s (Plazo máximo: %d días)\n", 
             esIntercontinental ? "INTERCONTINENTAL" : "CONTINENTAL", plazoMaximo);
         
         // 🌙 LÓGICA NOCTURNA: Si es muy tarde, considerar vuelos del día siguiente
-        boolean esNocturno = horaPedidoUTC.getHour() >= 22 || horaPedidoUTC.getHour() < 6;
+        boolean esNocturno = minutosDelDiaUTC >= 22 * 60 || minutosDelDiaUTC < 6 * 60;
         if (esNocturno) {
             System.out.println("   🌙 Pedido nocturno detectado (UTC)");
         }
         
-        return construirRutaTemporalConPlazos(sedeOrigen, destino, cantidad, 
-                                            tiempoMinimoSalidaUTC, new HashSet<>(), 
-                                            pedido.getDia(), esNocturno, plazoMaximo, 
-                                            horaPedidoUTC, pedido.getDia());
+        // Límites del plazo como instantes (entrega y escalas), calculados una sola vez
+        int diaPedido = TablaVuelos.diaDe(instantePedido);
+        int limiteEntrega = TablaVuelos.inicioDia(diaPedido + Math.max(1, plazoMaximo) + 1);
+        int limiteEscala = TablaVuelos.inicioDia(diaPedido + plazoMaximo);
+        
+        return construirRutaTemporalConPlazos(idOrigen, idDestino, cantidad, instanteListo,
+                                            new boolean[tabla.getNumeroAeropuertos()], 0, 
+                                            esNocturno, limiteEntrega, limiteEscala, diaPedido, plazoMaximo);
     }
     
     /**
      * Construye una ruta temporal considerando plazos máximos
-     * IMPLEMENTACIÓN IDÉNTICA AL SISTEMA GENÉTICO
+     * IMPLEMENTACIÓN IDÉNTICA AL SISTEMA GENÉTICO (instantes en minutos UTC desde el inicio del mes)
      */
-    private RutaCompleta construirRutaTemporalConPlazos(String origen, String destino, int cantidad,
-                                                      int tiempoMinimo, Set<String> visitados, 
-                                                      int diaInicial, boolean esNocturno, int plazoMaximo,
-                                                      LocalTime horaPedidoUTC, int diaPedido) {
+    private RutaCompleta construirRutaTemporalConPlazos(int origen, int destino, int cantidad,
+                                                      int instanteListo, boolean[] visitados, int numVisitados,
+                                                      boolean esNocturno, int limiteEntrega, int limiteEscala,
+                                                      int diaPedido, int plazoMaximo) {
         
         // Prevenir ciclos infinitos
-        if (visitados.contains(origen) || visitados.size() >= MAX_ESCALAS) {
+        if (visitados[origen] || numVisitados >= MAX_ESCALAS) {
             return null;
         }
         
-        visitados.add(origen);
-        
-        // Buscar vuelos desde el origen
-        List<Vuelo> vuelosDesdeOrigen = vuelosPorOrigen.get(origen);
-        if (vuelosDesdeOrigen == null || vuelosDesdeOrigen.isEmpty()) {
-            return null;
-        }
-        
-        // 🎯 BÚSQUEDA DIRECTA: Buscar vuelo directo al destino
-        for (Vuelo vuelo : vuelosDesdeOrigen) {
-            if (vuelo.getDestino().equals(destino)) {
+        visitados[origen] = true;
+        try {
+            int inicio = tabla.getInicioOrigen(origen);
+            int fin = tabla.getFinOrigen(origen);
+            
+            // 🎯 BÚSQUEDA DIRECTA: Buscar vuelo directo al destino
+            for (int i = inicio; i < fin; i++) {
+                if (tabla.getDestino(i) != destino) {
+                    continue;
+                }
+                int instancia = instanciaDisponible(i, instanteListo, cantidad, esNocturno);
+                if (instancia < 0) {
+                    continue;
+                }
                 
-                // Convertir horarios del vuelo a UTC
-                LocalTime horaSalidaLocal = LocalTime.parse(vuelo.getHoraSalida());
-                LocalTime horaLlegadaLocal = LocalTime.parse(vuelo.getHoraLlegada());
+                // 📆 VALIDAR PLAZO: Verificar que la entrega esté dentro del plazo
+                int llegada = red.getLlegada(instancia);
+                if (llegada >= limiteEntrega) {
+                    System.out.printf("   ❌ Vuelo directo excede plazo: %s→%s\n",
+                                    tabla.getCodigo(origen), tabla.getCodigo(destino));
+                    continue; // Buscar otra opción
+                }
                 
-                LocalTime horaSalidaUTC = GestorUTCyContinentesCSV.convertirAUTC(origen, horaSalidaLocal);
-                LocalTime horaLlegadaUTC = GestorUTCyContinentesCSV.convertirAUTC(destino, horaLlegadaLocal);
+                Vuelo vuelo = tabla.getVuelo(i);
+                System.out.printf("     ✅ Vuelo %s %s→%s (Cap: %d/%d, Paquetes: %d)\n", 
+                          vuelo.getHoraSalida(), vuelo.getOrigen(), vuelo.getDestino(), 
+                          vuelo.getCapacidad(), vuelo.getCapacidad(), cantidad);
+                System.out.println("   ✈️ Ruta directa encontrada: " + vuelo.getOrigen() + " → " + vuelo.getDestino());
+                System.out.printf("   📆 Entrega en %d días (dentro del plazo de %d días)\n", 
+                                TablaVuelos.diaDe(llegada) - diaPedido, plazoMaximo);
                 
-                if (esVueloDisponibleEnTiempoUTC(vuelo, tiempoMinimo, cantidad, diaInicial, esNocturno)) {
-                    
-                    // 📆 VALIDAR PLAZO: Verificar que la entrega esté dentro del plazo
-                    int diaLlegada = calcularDiaLlegada(diaInicial, horaSalidaUTC, horaLlegadaUTC, esNocturno);
-                    
-                    boolean cumplePlazo = GestorUTCyContinentesCSV.validarPlazoRuta(
-                        origen, destino, horaPedidoUTC, diaPedido, horaLlegadaUTC, diaLlegada
-                    );
-                    
-                    if (!cumplePlazo) {
-                        System.out.printf("   ❌ Vuelo directo excede plazo: %s→%s\n", origen, destino);
-                        continue; // Buscar otra opción
-                    }
-                    
-                    System.out.printf("     ✅ Vuelo %s %s→%s (Cap: %d/%d, Paquetes: %d)\n", 
-                              vuelo.getHoraSalida(), origen, destino, 
-                              vuelo.getCapacidad(), vuelo.getCapacidad(), cantidad);
-                    System.out.println("   ✈️ Ruta directa encontrada: " + origen + " → " + destino);
-                    System.out.printf("   📆 Entrega en %d días (dentro del plazo de %d días)\n", 
-                                    GestorUTCyContinentesCSV.calcularDiasTranscurridos(horaPedidoUTC, diaPedido, horaLlegadaUTC, diaLlegada),
-                                    plazoMaximo);
-                    
-                    // Crear ruta directa exitosa
-                    RutaCompleta ruta = new RutaCompleta();
-                    ruta.agregarVuelo(vuelo);
-                    ruta.setTipoRuta("DIRECTO");
-                    
-                    // Actualizar capacidad usada
-                    String claveVuelo = vuelo.getOrigen() + "-" + vuelo.getDestino() + "-" + vuelo.getHoraSalida() + "-" + diaInicial;
-                    capacidadUsada.merge(claveVuelo, cantidad, Integer::sum);
-                    
-                    return ruta;
-                }
-            }
-        }
-        
-        // 🔄 BÚSQUEDA CON ESCALAS: Si no hay vuelo directo, buscar con conexiones
-        for (Vuelo vuelo : vuelosDesdeOrigen) {
-            String aeropuertoConexion = vuelo.getDestino();
-            
-            // No hacer escala en el destino final ni en el origen
-            if (aeropuertoConexion.equals(destino) || aeropuertoConexion.equals(origen)) {
-                continue;
+                // Crear ruta directa exitosa
+                RutaCompleta ruta = new RutaCompleta();
+                ruta.agregarVuelo(vuelo);
+                ruta.setTipoRuta("DIRECTO");
+                
+                // Actualizar capacidad usada (instancia del día en que sale el vuelo)
+                red.reservar(instancia, cantidad, capacidadUsada);
+                
+                return ruta;
             }
             
-            if (esVueloDisponibleEnTiempoUTC(vuelo, tiempoMinimo, cantidad, diaInicial, esNocturno)) {
+            // 🔄 BÚSQUEDA CON ESCALAS: Si no hay vuelo directo, buscar con conexiones
+            for (int i = inicio; i < fin; i++) {
+                int aeropuertoConexion = tabla.getDestino(i);
                 
-                // Calcular tiempo de llegada a la escala para la conexión
-                LocalTime horaLlegadaEscala = LocalTime.parse(vuelo.getHoraLlegada());
-                LocalTime horaLlegadaEscalaUTC = GestorUTCyContinentesCSV.convertirAUTC(aeropuertoConexion, horaLlegadaEscala);
-                
-                int tiempoLlegadaEscala = horaLlegadaEscalaUTC.getHour() * 60 + horaLlegadaEscalaUTC.getMinute();
-                int tiempoMinimoConexion = tiempoLlegadaEscala + MIN_CONEXION_MINUTOS;
+                // No hacer escala en el destino final ni en el origen
+                if (aeropuertoConexion == destino || aeropuertoConexion == origen) {
+                    continue;
+                }
                 
-                int diaConexion = calcularDiaLlegada(diaInicial, 
-                    GestorUTCyContinentesCSV.convertirAUTC(origen, LocalTime.parse(vuelo.getHoraSalida())), 
-                    horaLlegadaEscalaUTC, esNocturno);
+                int instancia = instanciaDisponible(i, instanteListo, cantidad, esNocturno);
+                if (instancia < 0) {
+                    continue;
+                }
                 
                 // Validar que la escala no exceda el plazo
-                int diasHastaEscala = GestorUTCyContinentesCSV.calcularDiasTranscurridos(
-                    horaPedidoUTC, diaPedido, horaLlegadaEscalaUTC, diaConexion
-                );
-                
-                if (diasHastaEscala >= plazoMaximo) {
+                int llegadaEscala = red.getLlegada(instancia);
+                if (llegadaEscala >= limiteEscala) {
                     continue; // Esta escala ya excede el plazo
                 }
                 
                 // Buscar recursivamente desde la escala
-                Set<String> nuevosVisitados = new HashSet<>(visitados);
                 RutaCompleta rutaContinuacion = construirRutaTemporalConPlazos(
-                    aeropuertoConexion, destino, cantidad, tiempoMinimoConexion,
-                    nuevosVisitados, diaConexion, false, plazoMaximo, horaPedidoUTC, diaPedido
+                    aeropuertoConexion, destino, cantidad, llegadaEscala + MIN_CONEXION_MINUTOS,
+                    visitados, numVisitados + 1, false, limiteEntrega, limiteEscala, diaPedido, plazoMaximo
                 );
                 
                 if (rutaContinuacion != null) {
+                    Vuelo vuelo = tabla.getVuelo(i);
                     System.out.printf("     ✅ Vuelo %s %s→%s (Cap: %d/%d, Paquetes: %d)\n", 
-                              vuelo.getHoraSalida(), origen, aeropuertoConexion, 
+                              vuelo.getHoraSalida(), vuelo.getOrigen(), vuelo.getDestino(), 
                               vuelo.getCapacidad(), vuelo.getCapacidad(), cantidad);
-                    System.out.printf("     🔄 Escala: %s→%s→... (%d paquetes)\n", origen, aeropuertoConexion, cantidad);
+                    System.out.printf("     🔄 Escala: %s→%s→... (%d paquetes)\n",
+                                    vuelo.getOrigen(), vuelo.getDestino(), cantidad);
                     
                     // Crear ruta con escala exitosa
                     RutaCompleta ruta = new RutaCompleta();
@@ -227,65 +214,64 @@ public class PlanificadorTemporalColoniaV2New {
                     for (String escala : rutaContinuacion.getEscalas()) {
                         ruta.getEscalas().add(escala);
                     }
-                    ruta.getEscalas().add(aeropuertoConexion);
+                    ruta.getEscalas().add(vuelo.getDestino());
                     
                     // Actualizar capacidad usada
-                    String claveVuelo = vuelo.getOrigen() + "-" + vuelo.getDestino() + "-" + vuelo.getHoraSalida() + "-" + diaInicial;
-                    capacidadUsada.merge(claveVuelo, cantidad, Integer::sum);
+                    red.reservar(instancia, cantidad, capacidadUsada);
                     
                     System.out.println("   🔄 Ruta con escalas encontrada");
                     
                     return ruta;
                 }
             }
+            
+            return null; // No se encontró ruta
+        } finally {
+            visitados[origen] = false;
         }
-        
-        return null; // No se encontró ruta
     }
     
     /**
-     * Verifica si un vuelo está disponible considerando tiempo UTC y capacidad
+     * Próxima instancia del vuelo en la red si se puede tomar, o -1.
+     * Sale el mismo día UTC en que el envío está listo (un pedido nocturno también puede
+     * esperar al día siguiente) y debe tener capacidad en ese día.
      * IMPLEMENTACIÓN IDÉNTICA AL SISTEMA GENÉTICO
      */
-    private boolean esVueloDisponibleEnTiempoUTC(Vuelo vuelo, int tiempoMinimo, int cantidad, int dia, boolean esNocturno) {
-        
-        // Crear clave única para el vuelo en un día específico
-        String claveVuelo = vuelo.getOrigen() + "-" + vuelo.getDestino() + "-" + vuelo.getHoraSalida() + "-" + dia;
-        
-        // Verificar capacidad disponible
-        int capacidadUsadaActual = capacidadUsada.getOrDefault(claveVuelo, 0);
-        int capacidadDisponible = vuelo.getCapacidad() - capacidadUsadaActual;
-        
-        if (capacidadDisponible < cantidad) {
-            return false; // No hay suficiente capacidad
+    private int instanciaDisponible(int indiceVuelo, int instanteListo, int cantidad, boolean esNocturno) {
+        int instancia = red.siguienteInstancia(indiceVuelo, instanteListo);
+        int limiteSalida = TablaVuelos.inicioDia(TablaVuelos.diaDe(instanteListo) + (esNocturno ? 2 : 1));
+        if (instancia < 0 || red.getSalida(instancia) >= limiteSalida || !red.cabe(instancia, cantidad, capacidadUsada)) {
+            return -1;
         }
-        
-        // Convertir hora de salida del vuelo a UTC
-        LocalTime horaSalidaLocal = LocalTime.parse(vuelo.getHoraSalida());
-        LocalTime horaSalidaUTC = GestorUTCyContinentesCSV.convertirAUTC(vuelo.getOrigen(), horaSalidaLocal);
-        
-        int tiempoSalidaVueloUTC = horaSalidaUTC.getHour() * 60 + horaSalidaUTC.getMinute();
-        
-        // Verificar si el vuelo sale después del tiempo mínimo (lógica diaria repetitiva)
-        return tiempoSalidaVueloUTC >= tiempoMinimo || esNocturno;
+        return instancia;
     }
     
-    /**
-     * Calcula el día de llegada considerando vuelos nocturnos
-     */
-    private int calcularDiaLlegada(int diaSalida, LocalTime horaSalida, LocalTime horaLlegada, boolean esNocturno) {
-        if (horaLlegada.isBefore(horaSalida)) {
-            return diaSalida + 1; // Llega al día siguiente
-        }
-        return diaSalida; // Llega el mismo día
+    private boolean mismoContinente(int aeropuerto1, int aeropuerto2) {
+        return tabla.getRegistro().mismoContinente(aeropuerto1, aeropuerto2);
     }
     
     /**
      * Formatea tiempo en minutos a formato HH:mm
      */
     private String formatearTiempo(int minutos) {
-        int horas = minutos / 60;
-        int mins = minutos % 60;
-        return String.format("%02d:%02d", horas % 24, mins);
+        int minutosDelDia = Math.floorMod(minutos, MINUTOS_DIA); // También acepta instantes absolutos
+        int horas = minutosDelDia / 60;
+        int mins = minutosDelDia % 60;
+        return String.format("%02d:%02d", horas, mins);
     }
+    
+    /**
+     * Formatea un huso horario en minutos como UTC±H
+     */
+    private String formatearZonaHoraria(int husoMinutos) {
+        String signo = husoMinutos >= 0 ? "+" : "-";
+        int absoluto = Math.abs(husoMinutos);
+        return absoluto % 60 == 0
+            ? String.format("UTC%s%d", signo, absoluto / 60)
+            : String.format("UTC%s%d:%02d", signo, absoluto / 60, absoluto % 60);
+    }
+    
+    public TablaVuelos getTabla() { return tabla; }
+    public RedTemporal getRedTemporal() { return red; }
+    public RegistroCapacidad getRegistroCapacidad() { return capacidadUsada; }
 }
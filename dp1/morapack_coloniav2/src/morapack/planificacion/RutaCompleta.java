@@ -1,5 +1,6 @@
 package morapack.planificacion;
 
+import morapack.modelo.TablaVuelos;
 import morapack.modelo.Vuelo;
 import java.util.List;
 import java.util.ArrayList;
@@ -8,6 +9,8 @@ import java.util.ArrayList;
  * Clase que representa una ruta completa (puede tener múltiples vuelos)
  */
 public class RutaCompleta {
+    private static final int MIN_CONEXION_MINUTOS = 30; // Igual que los planificadores
+    
     private List<Vuelo> vuelos;
     private String tipoRuta;
     private List<String> escalas;
@@ -58,6 +61,33 @@ public class RutaCompleta {
         return sb.toString();
     }
     
+    /**
+     * Tiempo total en minutos UTC sobre la tabla: desde la salida del primer vuelo hasta la
+     * llegada del último, tomando cada vuelo en su primera instancia diaria tras la llegada
+     * anterior más la conexión mínima (pasa al día siguiente si hace falta).
+     * Integer.MAX_VALUE si la ruta está vacía o tiene vuelos que no son de la tabla.
+     */
+    public int calcularTiempoTotal(TablaVuelos tabla) {
+        if (vuelos.isEmpty()) return Integer.MAX_VALUE;
+        
+        int salida = -1;
+        int llegada = 0;
+        for (Vuelo vuelo : vuelos) {
+            int indice = tabla.getIndice(vuelo);
+            if (indice < 0) return Integer.MAX_VALUE;
+            if (salida < 0) {
+                salida = tabla.getSalidaUTC(indice);
+                llegada = tabla.getLlegadaUTC(indice);
+            } else {
+                llegada = tabla.getSiguienteLlegada(indice, llegada + MIN_CONEXION_MINUTOS);
+            }
+        }
+        return llegada - salida;
+    }
+    
+    /**
+     * Tiempo total con las horas locales del CSV (sin husos ni cambio de día)
+     */
     public int calcularTiempoTotal() {
         if (vuelos.isEmpty()) return Integer.MAX_VALUE;
         
@@ -68,7 +98,10 @@ public class RutaCompleta {
                convertirHoraAMinutos(primero.getHoraSalida());
     }
     
-    private int convertirHoraAMinutos(String hora) {
+    /**
+     * Minutos desde medianoche de una hora HH:mm (720 si no se puede leer)
+     */
+    public static int convertirHoraAMinutos(String hora) {
         try {
             String[] partes = hora.split(":");
             int horas = Integer.parseInt(partes[0]);
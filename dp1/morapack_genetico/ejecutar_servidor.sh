@@ -0,0 +1,15 @@
+#!/bin/bash
+
+# Servidor de planificación persistente: la red se carga una sola vez y
+# cada lote de pedidos se responde en milisegundos.
+#   ./ejecutar_servidor.sh              -> protocolo por entrada estándar
+#   ./ejecutar_servidor.sh --puerto 5050 -> protocolo por socket local
+
+mkdir -p bin
+javac -encoding UTF-8 -d bin -sourcepath src src/morapack/main/ServidorPlanificacion.java
+if [ $? -ne 0 ]; then
+    echo "❌ Error compilando el servidor" >&2
+    exit 1
+fi
+
+java -cp bin morapack.main.ServidorPlanificacion "$@"
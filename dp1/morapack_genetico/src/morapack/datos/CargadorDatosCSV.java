@@ -2,6 +2,8 @@ package morapack.datos;
 
 import morapack.modelo.Vuelo;
 import morapack.modelo.Aeropuerto;
+import morapack.modelo.TablaVuelos;
+import morapack.modelo.RegistroAeropuertos;
 import java.io.*;
 import java.util.*;
 
@@ -12,10 +14,64 @@ public class CargadorDatosCSV {
     
     private static final String RUTA_DATOS = "datos/";
     
+    // Tabla columnar cargada una sola vez y compartida por todos los planificadores
+    private static TablaVuelos tablaVuelos;
+    
     /**
-     * Carga vuelos desde el archivo CSV completo (2866 vuelos) y retorna la lista
+     * Devuelve la tabla de vuelos (horarios UTC) construida a partir de vuelos_completos.csv
+     * y aeropuertos_simple.csv. Se toma del snapshot binario (datos/red.bin) la primera vez
+     * y luego se reutiliza.
+     */
+    public static synchronized TablaVuelos cargarTablaVuelos() {
+        if (tablaVuelos == null) {
+            SnapshotRed red = SnapshotRed.obtener();
+            tablaVuelos = red != null ? red.getTabla() : TablaVuelos.construir(leerVuelosCSV(), leerAeropuertosCSV());
+        }
+        return tablaVuelos;
+    }
+    
+    /**
+     * Tabla UTC para una lista de vuelos: la compartida si son los vuelos cargados (los mismos
+     * objetos) o, si vienen de otra fuente, una nueva con los ids y husos del registro compartido
+     */
+    public static TablaVuelos cargarTablaVuelos(List<Vuelo> vuelos) {
+        TablaVuelos tabla = cargarTablaVuelos();
+        if (vuelos.size() == tabla.getNumeroVuelos()) {
+            boolean mismosVuelos = true;
+            for (Vuelo vuelo : vuelos) {
+                if (tabla.getIndice(vuelo) < 0) {
+                    mismosVuelos = false;
+                    break;
+                }
+            }
+            if (mismosVuelos) {
+                return tabla;
+            }
+        }
+        return TablaVuelos.construir(vuelos, tabla.getRegistro(), true);
+    }
+    
+    /**
+     * Registro de aeropuertos con ids enteros compartido por la tabla de vuelos y los planificadores
+     */
+    public static RegistroAeropuertos cargarRegistroAeropuertos() {
+        return cargarTablaVuelos().getRegistro();
+    }
+    
+    /**
+     * Carga vuelos desde el archivo CSV completo (2866 vuelos) y retorna la lista.
+     * Lee el snapshot binario de la red; el CSV solo se parsea si el snapshot no está disponible.
      */
     public static List<Vuelo> cargarVuelos() {
+        SnapshotRed red = SnapshotRed.obtener();
+        List<Vuelo> vuelos = red != null ? red.getVuelos() : leerVuelosCSV();
+        return vuelos;
+    }
+    
+    /**
+     * Parsea vuelos_completos.csv (usado al compilar el snapshot)
+     */
+    static List<Vuelo> leerVuelosCSV() {
         String archivo = RUTA_DATOS + "vuelos_completos.csv";
         List<Vuelo> vuelos = new ArrayList<>();
         
@@ -52,9 +108,17 @@ public class CargadorDatosCSV {
     }
     
     /**
-     * Carga aeropuertos desde el archivo CSV con coordenadas geográficas y continente
+     * Carga aeropuertos desde el archivo CSV con coordenadas geográficas y continente (desde el snapshot binario si está disponible)
      */
     public static List<Aeropuerto> cargarAeropuertos() {
+        SnapshotRed red = SnapshotRed.obtener();
+        return red != null ? red.getAeropuertos() : leerAeropuertosCSV();
+    }
+    
+    /**
+     * Parsea aeropuertos_simple.csv (usado al compilar el snapshot)
+     */
+    static List<Aeropuerto> leerAeropuertosCSV() {
         String archivo = RUTA_DATOS + "aeropuertos_simple.csv";
         List<Aeropuerto> aeropuertos = new ArrayList<>();
         
@@ -84,14 +148,15 @@ public class CargadorDatosCSV {
                         String ciudad = campos[1].trim();
                         String pais = campos[2].trim();
                         String codigoCorto = campos[3].trim();
-                        int husoHorario = Integer.parseInt(campos[4].trim());
+                        int husoMinutos = parsearHusoMinutos(campos[4].trim());
                         int capacidad = Integer.parseInt(campos[5].trim());
                         double latitud = Double.parseDouble(campos[6].trim());
                         double longitud = Double.parseDouble(campos[7].trim());
                         String continente = campos[8].trim(); // ✅ NUEVA COLUMNA
                         
                         Aeropuerto aeropuerto = new Aeropuerto(codigoICAO, ciudad, pais, codigoCorto, 
-                                                              husoHorario, capacidad, latitud, longitud);
+                                                              husoMinutos / 60, capacidad, latitud, longitud);
+                        aeropuerto.setHusoMinutos(husoMinutos); // Conserva husos de media hora
                         aeropuerto.setContinente(continente); // ✅ ASIGNAR CONTINENTE EXPLÍCITO
                         aeropuertos.add(aeropuerto);
                         lineasProcesadas++;
@@ -112,4 +177,20 @@ public class CargadorDatosCSV {
         
         return aeropuertos;
     }
+    
+    /**
+     * Huso del CSV en minutos: "-5", "+2", "5.5" o "5:30" (husos de media hora como VIDP)
+     */
+    private static int parsearHusoMinutos(String huso) {
+        int separador = huso.indexOf(':');
+        if (separador >= 0) {
+            int horas = Integer.parseInt(huso.substring(0, separador).trim());
+            int minutos = Integer.parseInt(huso.substring(separador + 1).trim());
+            return huso.startsWith("-") ? horas * 60 - minutos : horas * 60 + minutos;
+        }
+        if (huso.indexOf('.') >= 0) {
+            return (int) Math.round(Double.parseDouble(huso) * 60);
+        }
+        return Integer.parseInt(huso) * 60;
+    }
 }
@@ -78,9 +78,23 @@ public class CargadorPedidosUltrafinal {
     }
     
     /**
-     * Parsea una línea del formato: DIA-HORA-MINUTO-DESTINO-CANTIDAD-ID
+     * Parsea una línea del formato: DIA-HORA-MINUTO-DESTINO-CANTIDAD-ID.
+     * Las líneas con el ID ya normalizado (el caso normal) se leen por posiciones fijas;
+     * el resto pasa por el parseo con split, que completa los ceros a la izquierda.
      */
     private static Pedido parsearPedido(String linea) {
+        Pedido pedido = Pedido.parsear(linea);
+        if (pedido == null) {
+            return parsearPedidoNoNormalizado(linea);
+        }
+        validarCampos(pedido.getDia(), pedido.getHora(), pedido.getMinuto(), pedido.getCantidadProductos());
+        return pedido;
+    }
+    
+    /**
+     * Parsea una línea cuyos campos no tienen el ancho fijo del ID (ej: 1-8-5-SKBO-45-123)
+     */
+    private static Pedido parsearPedidoNoNormalizado(String linea) {
         String[] partes = linea.split("-");
         
         if (partes.length != 6) {
@@ -95,19 +109,7 @@ public class CargadorPedidosUltrafinal {
             int cantidad = Integer.parseInt(partes[4]);
             String id = partes[5];
             
-            // Validaciones básicas
-            if (dia < 1 || dia > 31) {
-                throw new IllegalArgumentException("Día inválido: " + dia);
-            }
-            if (hora < 0 || hora > 23) {
-                throw new IllegalArgumentException("Hora inválida: " + hora);
-            }
-            if (minuto < 0 || minuto > 59) {
-                throw new IllegalArgumentException("Minuto inválido: " + minuto);
-            }
-            if (cantidad <= 0) {
-                throw new IllegalArgumentException("Cantidad inválida: " + cantidad);
-            }
+            validarCampos(dia, hora, minuto, cantidad);
             
             // Crear ID completo en formato esperado por Pedido
             String idCompleto = String.format("%02d-%02d-%02d-%s-%03d-%s", 
@@ -123,6 +125,24 @@ public class CargadorPedidosUltrafinal {
         }
     }
     
+    /**
+     * Validaciones básicas de rango
+     */
+    private static void validarCampos(int dia, int hora, int minuto, int cantidad) {
+        if (dia < 1 || dia > 31) {
+            throw new IllegalArgumentException("Día inválido: " + dia);
+        }
+        if (hora < 0 || hora > 23) {
+            throw new IllegalArgumentException("Hora inválida: " + hora);
+        }
+        if (minuto < 0 || minuto > 59) {
+            throw new IllegalArgumentException("Minuto inválido: " + minuto);
+        }
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("Cantidad inválida: " + cantidad);
+        }
+    }
+    
     /**
      * Muestra estadísticas de los pedidos cargados
      */
@@ -1,5 +1,7 @@
 package morapack.datos;
 
+import morapack.modelo.Aeropuerto;
+import morapack.modelo.TablaVuelos;
 import morapack.modelo.Vuelo;
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -61,6 +63,14 @@ public class CargadorVuelosCompletos {
         return vuelos;
     }
     
+    /**
+     * Carga los vuelos y los compacta en una TablaVuelos (ids enteros, minutos UTC)
+     * usando los husos horarios de los aeropuertos indicados
+     */
+    public static TablaVuelos cargarTablaVuelos(String rutaArchivo, List<Aeropuerto> aeropuertos) {
+        return TablaVuelos.construir(cargarVuelos(rutaArchivo), aeropuertos);
+    }
+    
     /**
      * Parsea una línea del formato: Origen,Destino,HoraSalida,HoraLlegada,Capacidad
      */
@@ -0,0 +1,162 @@
+package morapack.datos;
+
+import morapack.modelo.Vuelo;
+import java.util.*;
+
+/**
+ * Índice en memoria de vuelos_completos.csv, cargado una sola vez por proceso.
+ * Responde en O(1) si existe ruta directa, la capacidad máxima por par origen-destino,
+ * los vuelos de cada par ordenados por hora de salida y las escalas de un salto.
+ */
+public class IndiceVuelos {
+
+    private static IndiceVuelos instancia;
+
+    private final Map<String, Set<String>> destinosDirectos;            // origen -> destinos con vuelo directo
+    private final Map<String, Map<String, RutaDirecta>> rutas;          // origen -> destino -> vuelos
+    private final Map<String, Map<String, List<String>>> escalas;       // origen -> destino -> escalas de un salto
+
+    /**
+     * Vuelos de un par origen-destino ordenados por hora de salida
+     */
+    public static class RutaDirecta {
+        private final List<Vuelo> vuelos = new ArrayList<>();
+        private int[] salidasMinutos;
+        private int capacidadMaxima;
+
+        public List<Vuelo> getVuelos() { return Collections.unmodifiableList(vuelos); }
+        public int getSalidaMinutos(int i) { return salidasMinutos[i]; }
+        public int getCapacidadMaxima() { return capacidadMaxima; }
+        public int size() { return vuelos.size(); }
+    }
+
+    /**
+     * Índice compartido construido desde CargadorDatosCSV la primera vez que se pide
+     */
+    public static synchronized IndiceVuelos obtener() {
+        if (instancia == null) {
+            List<Vuelo> vuelos = CargadorDatosCSV.cargarVuelos();
+            if (vuelos.isEmpty()) {
+                System.err.println("❌ Error crítico: No se pudo cargar vuelos_completos.csv");
+                throw new RuntimeException("No se puede continuar sin los datos de vuelos reales");
+            }
+            instancia = new IndiceVuelos(vuelos);
+            System.out.printf("✈️  Cargadas %d aeropuertos con rutas directas reales desde vuelos_completos.csv%n",
+                            instancia.destinosDirectos.size());
+        }
+        return instancia;
+    }
+
+    public IndiceVuelos(List<Vuelo> vuelos) {
+        this.destinosDirectos = new HashMap<>();
+        this.rutas = new HashMap<>();
+        this.escalas = new HashMap<>();
+
+        for (Vuelo vuelo : vuelos) {
+            destinosDirectos.computeIfAbsent(vuelo.getOrigen(), k -> new HashSet<>()).add(vuelo.getDestino());
+            rutas.computeIfAbsent(vuelo.getOrigen(), k -> new HashMap<>())
+                 .computeIfAbsent(vuelo.getDestino(), k -> new RutaDirecta())
+                 .vuelos.add(vuelo);
+        }
+
+        for (Map<String, RutaDirecta> porDestino : rutas.values()) {
+            for (RutaDirecta ruta : porDestino.values()) {
+                ruta.vuelos.sort(Comparator.comparingInt(v -> convertirHoraAMinutos(v.getHoraSalida())));
+                ruta.salidasMinutos = new int[ruta.vuelos.size()];
+                for (int i = 0; i < ruta.vuelos.size(); i++) {
+                    Vuelo vuelo = ruta.vuelos.get(i);
+                    ruta.salidasMinutos[i] = convertirHoraAMinutos(vuelo.getHoraSalida());
+                    ruta.capacidadMaxima = Math.max(ruta.capacidadMaxima, vuelo.getCapacidad());
+                }
+            }
+        }
+
+        // Tabla de conexiones de un salto: origen -> escala -> destino
+        for (Map.Entry<String, Set<String>> entrada : destinosDirectos.entrySet()) {
+            Map<String, List<String>> porDestino = new HashMap<>();
+            for (String escala : entrada.getValue()) {
+                for (String destino : destinosDirectos.getOrDefault(escala, Collections.emptySet())) {
+                    porDestino.computeIfAbsent(destino, k -> new ArrayList<>()).add(escala);
+                }
+            }
+            escalas.put(entrada.getKey(), porDestino);
+        }
+    }
+
+    private static int convertirHoraAMinutos(String hora) {
+        String[] partes = hora.split(":");
+        return Integer.parseInt(partes[0].trim()) * 60 + Integer.parseInt(partes[1].trim());
+    }
+
+    public boolean existeVueloDirecto(String origen, String destino) {
+        return getRuta(origen, destino) != null;
+    }
+
+    /**
+     * Vuelos directos origen-destino ordenados por salida (null si no hay)
+     */
+    public RutaDirecta getRuta(String origen, String destino) {
+        Map<String, RutaDirecta> porDestino = rutas.get(origen);
+        return porDestino != null ? porDestino.get(destino) : null;
+    }
+
+    public Set<String> getDestinosDirectos(String origen) {
+        Set<String> destinos = destinosDirectos.get(origen);
+        return destinos != null ? Collections.unmodifiableSet(destinos) : Collections.emptySet();
+    }
+
+    /**
+     * Capacidad del vuelo directo más grande entre ambos aeropuertos (0 si no hay)
+     */
+    public int getCapacidadMaxima(String origen, String destino) {
+        RutaDirecta ruta = getRuta(origen, destino);
+        return ruta != null ? ruta.capacidadMaxima : 0;
+    }
+
+    public boolean tieneCapacidadSuficiente(String origen, String destino, int cantidadProductos) {
+        return getCapacidadMaxima(origen, destino) >= cantidadProductos;
+    }
+
+    /**
+     * Aeropuertos intermedios con vuelo directo desde el origen y hacia el destino
+     */
+    public List<String> getEscalas(String origen, String destino) {
+        Map<String, List<String>> porDestino = escalas.get(origen);
+        List<String> lista = porDestino != null ? porDestino.get(destino) : null;
+        return lista != null ? Collections.unmodifiableList(lista) : Collections.emptyList();
+    }
+
+    /**
+     * Primer vuelo directo que sale a la hora indicada o después (null si no hay)
+     */
+    public Vuelo getPrimerVueloDesdeHora(String origen, String destino, int hora) {
+        RutaDirecta ruta = getRuta(origen, destino);
+        if (ruta == null) {
+            return null;
+        }
+        int inicio = 0;
+        int fin = ruta.salidasMinutos.length;
+        while (inicio < fin) {
+            int medio = (inicio + fin) >>> 1;
+            if (ruta.salidasMinutos[medio] < hora * 60) {
+                inicio = medio + 1;
+            } else {
+                fin = medio;
+            }
+        }
+        return inicio < ruta.vuelos.size() ? ruta.vuelos.get(inicio) : null;
+    }
+
+    /**
+     * Capacidad máxima de cada par con vuelo directo, con claves "ORIGEN-DESTINO"
+     */
+    public Map<String, Integer> getCapacidadesPorRuta() {
+        Map<String, Integer> capacidades = new TreeMap<>();
+        for (Map.Entry<String, Map<String, RutaDirecta>> porOrigen : rutas.entrySet()) {
+            for (Map.Entry<String, RutaDirecta> ruta : porOrigen.getValue().entrySet()) {
+                capacidades.put(porOrigen.getKey() + "-" + ruta.getKey(), ruta.getValue().capacidadMaxima);
+            }
+        }
+        return capacidades;
+    }
+}
@@ -1,10 +1,13 @@
 package morapack.genetico.core.algoritmo;
 
 import morapack.modelo.Pedido;
+import morapack.modelo.Semillas;
 import morapack.modelo.Vuelo;
 import morapack.planificacion.PlanificadorAvanzadoEscalas;
+import morapack.planificacion.PlanificadorLoteVoraz;
 import morapack.planificacion.RutaCompleta;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Algoritmo Genético Integrado con Planificación Completa Avanzada
@@ -26,10 +29,20 @@ public class AlgoritmoGeneticoIntegrado {
     private final PlanificadorAvanzadoEscalas planificador;
     private final PlanificadorAvanzadoEscalas planificadorAvanzado;
     
-    // Control de ejecución
-    private final Random random;
+    // Control de ejecución: selección, cruce y mutación son secuenciales sobre un único flujo;
+    // cada individuo lleva su propio flujo derivado de semillaBase y de su índice
+    private final SplittableRandom random;
     private final long semillaBase;
     
+    // Evaluación paralela: red compartida, capacidad propia por hilo (null = secuencial)
+    private ForkJoinPool poolEvaluacion;
+    private ForkJoinPool poolPropio;       // Creado por configurarEvaluacionParalela(int); se cierra con cerrar()
+    private final ThreadLocal<PlanificadorAvanzadoEscalas[]> planificadoresPorHilo;
+    
+    // Sembrado opcional: sede por pedido del plan por lotes (null = población totalmente aleatoria)
+    private int[] sedesSemilla;
+    private int individuosSembrados;
+    
     // Estadísticas
     private List<Double> fitnessPromedioPorGeneracion;
     private List<Double> fitnessMaximoPorGeneracion;
@@ -37,7 +50,7 @@ public class AlgoritmoGeneticoIntegrado {
     
     public AlgoritmoGeneticoIntegrado(List<Pedido> pedidos, List<Vuelo> vuelos, 
                                      int tamanoPoblacion, int numeroGeneraciones) {
-        this(pedidos, vuelos, tamanoPoblacion, numeroGeneraciones, System.nanoTime());
+        this(pedidos, vuelos, tamanoPoblacion, numeroGeneraciones, Semillas.semillaEjecucion());
     }
     
     public AlgoritmoGeneticoIntegrado(List<Pedido> pedidos, List<Vuelo> vuelos, 
@@ -50,11 +63,15 @@ public class AlgoritmoGeneticoIntegrado {
         this.probabilidadMutacion = 0.1;
         this.elitismo = true;
         this.tamanoElite = Math.max(1, tamanoPoblacion / 10);        
+        // Una sola red (tabla, conexiones ordenadas y cotas); cada planificador solo lleva su capacidad
         this.planificador = new PlanificadorAvanzadoEscalas(vuelos);
-        this.planificadorAvanzado = new PlanificadorAvanzadoEscalas(vuelos);
+        this.planificadorAvanzado = planificador.crearConCapacidadPropia();
         this.semillaBase = seed;
-        this.random = new Random(seed);
-        
+        this.random = Semillas.crear(seed);
+        this.poolEvaluacion = null;
+        this.planificadoresPorHilo = ThreadLocal.withInitial(() -> new PlanificadorAvanzadoEscalas[] {
+            planificador.crearConCapacidadPropia(), planificador.crearConCapacidadPropia()
+        });
         
         this.fitnessPromedioPorGeneracion = new ArrayList<>();
         this.fitnessMaximoPorGeneracion = new ArrayList<>();
@@ -143,22 +160,98 @@ public class AlgoritmoGeneticoIntegrado {
         
         for (int i = 0; i < tamanoPoblacion; i++) {
             // Generar semilla derivada para cada individuo
-            long semillaIndividuo = semillaBase + i;
+            long semillaIndividuo = Semillas.derivar(semillaBase, i);
             IndividuoIntegrado individuo = new IndividuoIntegrado(pedidos, planificador, planificadorAvanzado, semillaIndividuo);
-            individuo.inicializarConPlanificacion();
+            if (sedesSemilla != null && i < individuosSembrados) {
+                individuo.inicializarConSedes(sedesSemilla);
+            } else {
+                individuo.inicializarConPlanificacion();
+            }
             poblacion.add(individuo);
         }
         
         return poblacion;
     }
     
+    /**
+     * Siembra la población inicial con el plan voraz por lotes (pedido a pedido con capacidades
+     * sobre la red expandida en el tiempo): los primeros individuos toman la sede principal de
+     * cada pedido según ese plan y el resto se inicializa al azar como siempre.
+     */
+    public void sembrarConLoteVoraz(PlanificadorLoteVoraz planificadorLote, int numeroIndividuos) {
+        PlanificadorLoteVoraz.ResultadoLote plan = planificadorLote.planificarPorDias(pedidos);
+        this.sedesSemilla = new int[pedidos.size()];
+        for (int i = 0; i < pedidos.size(); i++) {
+            sedesSemilla[i] = plan.getSedePrincipal(pedidos.get(i));
+        }
+        this.individuosSembrados = Math.min(numeroIndividuos, tamanoPoblacion);
+        System.out.println("Semilla por lotes: " + plan);
+    }
+    
+    /**
+     * Siembra el 10% de la población con un plan por lotes sobre la misma tabla de vuelos
+     */
+    public void sembrarConLoteVoraz() {
+        sembrarConLoteVoraz(new PlanificadorLoteVoraz(planificador.getTabla()), Math.max(1, tamanoPoblacion / 10));
+    }
+    
+    /**
+     * Activa la evaluación paralela del fitness con el número de hilos indicado (1 = secuencial).
+     * El pool es propio del algoritmo: se reutiliza mientras no cambie el número de hilos y
+     * se libera con cerrar().
+     */
+    public void configurarEvaluacionParalela(int numeroHilos) {
+        if (numeroHilos <= 1) {
+            cerrar();
+            return;
+        }
+        if (poolPropio == null || poolPropio.getParallelism() != numeroHilos) {
+            cerrar();
+            poolPropio = new ForkJoinPool(numeroHilos);
+        }
+        this.poolEvaluacion = poolPropio;
+    }
+    
+    /**
+     * Evalúa el fitness en el pool indicado (null vuelve a la evaluación secuencial).
+     * El pool es de quien llama, que decide cuándo cerrarlo. El resultado es el mismo que
+     * en secuencial para una semilla dada: la evaluación no consume números aleatorios y
+     * cada individuo solo usa su propio flujo.
+     */
+    public void configurarEvaluacionParalela(ForkJoinPool pool) {
+        cerrar();
+        this.poolEvaluacion = pool;
+    }
+    
+    /**
+     * Cierra el pool propio de la evaluación paralela (si lo hay) y vuelve a la evaluación secuencial
+     */
+    public void cerrar() {
+        if (poolPropio != null) {
+            poolPropio.shutdown();
+            if (poolEvaluacion == poolPropio) {
+                poolEvaluacion = null;
+            }
+            poolPropio = null;
+        }
+    }
+    
     /**
      * Evalúa fitness de toda la población
      */
     private void evaluarPoblacion(List<IndividuoIntegrado> poblacion) {
-        for (IndividuoIntegrado individuo : poblacion) {
-            individuo.evaluarFitness();
+        if (poolEvaluacion == null) {
+            for (IndividuoIntegrado individuo : poblacion) {
+                individuo.evaluarFitness();
+            }
+            return;
         }
+        
+        // Cada hilo re-planifica con sus propios planificadores; el fitness solo depende del individuo
+        poolEvaluacion.submit(() -> poblacion.parallelStream().forEach(individuo -> {
+            PlanificadorAvanzadoEscalas[] planificadoresHilo = planificadoresPorHilo.get();
+            individuo.evaluarFitness(planificadoresHilo[0], planificadoresHilo[1]);
+        })).join();
     }
     
     /**
@@ -183,19 +276,21 @@ public class AlgoritmoGeneticoIntegrado {
      */
     private IndividuoIntegrado cruzar(IndividuoIntegrado padre1, IndividuoIntegrado padre2) {
         if (random.nextDouble() > probabilidadCruce) {
-            return random.nextBoolean() ? padre1.copiar() : padre2.copiar();
+            // Copia con semilla derivada: la mutación posterior también es reproducible
+            IndividuoIntegrado padre = random.nextBoolean() ? padre1 : padre2;
+            return padre.copiarConSemilla(random.nextLong());
         }
         
         // Usar semilla derivada para reproducibilidad en cruce
-        long semillaHijo = semillaBase + random.nextLong();
-        IndividuoIntegrado hijo = new IndividuoIntegrado(pedidos, planificador, planificadorAvanzado, semillaHijo);
+        long semillaHijo = random.nextLong();
         
-        // Cruce uniforme de rutas
+        // El hijo parte de padre1 (con su registro de capacidad) y solo re-evalúa los genes de padre2
+        IndividuoIntegrado hijo = padre1.copiarConSemilla(semillaHijo);
+        
+        // Cruce uniforme de genes (sede + ruta)
         for (int i = 0; i < pedidos.size(); i++) {
-            if (random.nextBoolean()) {
-                hijo.asignarRuta(i, padre1.getRuta(i));
-            } else {
-                hijo.asignarRuta(i, padre2.getRuta(i));
+            if (!random.nextBoolean()) {
+                hijo.heredarGen(i, padre2);
             }
         }
         
@@ -1,10 +1,12 @@
 package morapack.genetico.core.algoritmo;
 
 import morapack.modelo.Pedido;
-import morapack.modelo.Aeropuerto;
-import morapack.datos.CargadorDatosCSV;
-import morapack.planificacion.PlanificadorAvanzadoEscalas;
+import morapack.modelo.RegistroAeropuertos;
+import morapack.modelo.RegistroCapacidad;
+import morapack.modelo.Semillas;
+import morapack.planificacion.CatalogoItinerarios;
 import morapack.planificacion.PlanificadorAvanzadoEscalas;
+import morapack.planificacion.PlanificadorEscaneoConexiones;
 import morapack.planificacion.RutaCompleta;
 import java.util.*;
 
@@ -24,15 +26,33 @@ public class IndividuoIntegrado {
     private double fitness;
     private boolean fitnessCalculado;
     
+    // ⚡ Evaluación incremental: registro de capacidad propio y aporte de cada gen al fitness
+    private static final byte SIN_RESERVA = 0;
+    private static final byte RESERVA_AVANZADO = 1;
+    private static final byte RESERVA_RESPALDO = 2;
+    private static final byte RESERVA_CATALOGO = 3;
+    // Con -Dmorapack.verificarIncremental=true cada evaluación por diferencia se compara con una completa
+    private static final boolean VERIFICAR_INCREMENTAL = Boolean.getBoolean("morapack.verificarIncremental");
+    private RegistroCapacidad capacidadAvanzado; // null = falta una evaluación completa
+    private RegistroCapacidad capacidadRespaldo; // Mismo registro si ambos planificadores son el mismo
+    private RutaCompleta[] rutasReservadas;   // Ruta cuya capacidad está reservada por gen
+    private int[] itinerariosReservados;      // Itinerario del catálogo reservado por gen (con RESERVA_CATALOGO)
+    private byte[] tipoReserva;
+    private double[] contribuciones;
+    private BitSet genesModificados;
+    private int[] itinerarios;               // Gen de ruta: índice en el CatalogoItinerarios (-1 = buscar el mejor)
+    
     // 🎲 Sistema de semillas para reproducibilidad
-    private final Random random;
+    private SplittableRandom random;        // Flujo propio: no se comparte con otros individuos ni hilos
     private final long seed;
     
-    // 🌍 Mapa de aeropuertos para consulta de continentes
-    private static Map<String, Aeropuerto> mapaAeropuertos = null;
+    // 🌍 Ids de aeropuerto del registro de los planificadores (los códigos ICAO solo se leen una vez)
+    private final RegistroAeropuertos registro;
+    private int[] idsDestino;                 // Por pedido; se calcula al primer uso y se comparte con las copias
+    private static volatile ClasificacionICAO clasificacionICAO = null;
     
     public IndividuoIntegrado(List<Pedido> pedidos, PlanificadorAvanzadoEscalas planificador) {
-        this(pedidos, planificador, planificador, System.nanoTime());
+        this(pedidos, planificador, planificador, Semillas.siguienteSemilla());
     }
     
     public IndividuoIntegrado(List<Pedido> pedidos, PlanificadorAvanzadoEscalas planificador, long seed) {
@@ -44,7 +64,7 @@ public class IndividuoIntegrado {
      */
     public IndividuoIntegrado(List<Pedido> pedidos, PlanificadorAvanzadoEscalas planificador, 
                              PlanificadorAvanzadoEscalas planificadorAvanzado) {
-        this(pedidos, planificador, planificadorAvanzado, System.nanoTime());
+        this(pedidos, planificador, planificadorAvanzado, Semillas.siguienteSemilla());
     }
     
     /**
@@ -55,12 +75,16 @@ public class IndividuoIntegrado {
         this.pedidos = pedidos;
         this.planificador = planificador;
         this.planificadorAvanzado = planificadorAvanzado;
+        this.registro = (planificadorAvanzado != null ? planificadorAvanzado : planificador).getRegistro();
         this.seed = seed;
-        this.random = new Random(seed);
+        this.random = Semillas.crear(seed);
         this.asignacionSedes = new int[pedidos.size()];
         this.rutasCompletas = new ArrayList<>(Collections.nCopies(pedidos.size(), null));
         this.fitness = 0.0;
         this.fitnessCalculado = false;
+        this.genesModificados = new BitSet(pedidos.size());
+        this.itinerarios = new int[pedidos.size()];
+        Arrays.fill(itinerarios, -1);
     }
     
     /**
@@ -77,7 +101,15 @@ public class IndividuoIntegrado {
      * 🎲 Inicialización completamente aleatoria para empezar con fitness bajo
      */
     public void inicializarAleatorio() {
-        String[] sedes = {"SPIM", "EBCI", "UBBB"};
+        inicializarConSedes(null);
+    }
+    
+    /**
+     * Inicializa con la sede sugerida para cada pedido (por ejemplo, la del plan por lotes);
+     * los pedidos sin sugerencia (-1) reciben una sede aleatoria
+     */
+    public void inicializarConSedes(int[] sedesSugeridas) {
+        int[] destinos = getIdsDestino();
         
         // ✅ REINICIAR capacidades UNA SOLA VEZ al inicio del individuo
         if (planificadorAvanzado != null) {
@@ -86,26 +118,27 @@ public class IndividuoIntegrado {
         
         for (int i = 0; i < pedidos.size(); i++) {
             Pedido pedido = pedidos.get(i);
-            String destino = pedido.getAeropuertoDestinoId();
+            int destino = destinos[i];
             
             // 🎲 ASIGNACIÓN COMPLETAMENTE ALEATORIA (no inteligente)  
-            int sedeIndex = random.nextInt(sedes.length);
+            int sedeIndex = sedesSugeridas != null && sedesSugeridas[i] >= 0
+                ? sedesSugeridas[i] : random.nextInt(RegistroAeropuertos.CODIGOS_SEDE.length);
             asignacionSedes[i] = sedeIndex;
             
             // 🎲 PLANIFICACIÓN CONTROLADA - usar planificadorAvanzado que controla capacidad
-            String origen = sedes[sedeIndex];
+            int origen = registro.getIdSede(sedeIndex);
             
             try {
                 // ✅ USAR PLANIFICADOR AVANZADO que controla capacidades compartidas Y tiempo del pedido
                 RutaCompleta ruta = null;
                 if (planificadorAvanzado != null) {
                     // Calcular tiempo mínimo basado en hora del pedido + ventana de recojo
-                    int tiempoMinimo = PlanificadorAvanzadoEscalas.calcularTiempoMinimoPedido(pedido);
+                    int tiempoMinimo = planificadorAvanzado.calcularTiempoMinimoPedido(pedido, origen);
                     ruta = planificadorAvanzado.planificarRuta(origen, destino, pedido.getCantidadProductos(), tiempoMinimo);
                 }
                 // Fallback solo si el avanzado falla completamente
                 if (ruta == null) {
-                    ruta = planificador.planificarRuta(origen, destino, pedido.getCantidadProductos());
+                    ruta = planificador.planificarRuta(origen, destino, pedido.getCantidadProductos(), 0);
                 }
                 rutasCompletas.set(i, ruta);
             } catch (Exception e) {
@@ -114,6 +147,7 @@ public class IndividuoIntegrado {
             }
         }
         
+        capacidadAvanzado = null; // Cromosoma nuevo: la próxima evaluación es completa
         fitnessCalculado = false;
     }
     
@@ -121,55 +155,38 @@ public class IndividuoIntegrado {
      * Asigna sede de manera inteligente basada en la región geográfica del destino
      * Ahora usa información geográfica real si está disponible
      */
-    private int asignarSedeInteligente(String destino) {
-        cargarAeropuertosSiEsNecesario();
-        
+    private int asignarSedeInteligente(int destino) {
         // ✅ MEJORADO: Usar continente del CSV si está disponible
-        Aeropuerto aeropuertoDestino = mapaAeropuertos.get(destino);
-        if (aeropuertoDestino != null && aeropuertoDestino.getContinente() != null) {
-            String continente = aeropuertoDestino.getContinente();
-            
+        if (destino >= 0 && registro.tieneDatos(destino)) {
             // Mapeo directo por continente desde CSV
-            switch (continente) {
-                case "SAM": // Sudamérica
+            switch (registro.getContinente(destino)) {
+                case RegistroAeropuertos.CONTINENTE_SAM: // Sudamérica
                     if (random.nextDouble() < 0.90) return 0; // SPIM
                     break;
-                case "EUR": // Europa  
+                case RegistroAeropuertos.CONTINENTE_EUR: // Europa  
                     if (random.nextDouble() < 0.85) return 1; // EBCI
                     break;
-                case "ASI": // Asia
+                case RegistroAeropuertos.CONTINENTE_ASI: // Asia
                     if (random.nextDouble() < 0.85) return 2; // UBBB
                     break;
-                case "NAM": // Norteamérica (usar sede más cercana)
+                case RegistroAeropuertos.CONTINENTE_NAM: // Norteamérica (usar sede más cercana)
                     if (random.nextDouble() < 0.60) return 0; // SPIM (por cercanía geográfica)
                     else return 1; // EBCI
-                case "AFR": // África (usar EBCI por cercanía)
+                case RegistroAeropuertos.CONTINENTE_AFR: // África (usar EBCI por cercanía)
                     if (random.nextDouble() < 0.80) return 1; // EBCI
                     break;
-                case "OCE": // Oceanía (usar UBBB por región del Pacífico)
+                case RegistroAeropuertos.CONTINENTE_OCE: // Oceanía (usar UBBB por región del Pacífico)
                     if (random.nextDouble() < 0.70) return 2; // UBBB
                     break;
             }
         }
         
-        // FALLBACK: Mapeo geográfico basado en códigos ICAO (método anterior)
-        // SPIM (Lima, Perú) - Sudamérica y Centroamérica
-        if (destino.startsWith("S") || destino.startsWith("M") || destino.startsWith("T")) {
-            if (random.nextDouble() < 0.9) return 0; // SPIM
-        }
-        
-        // EBCI (Bruselas, Bélgica) - Europa y África
-        if (destino.startsWith("E") || destino.startsWith("L") || 
-            destino.startsWith("G") || destino.startsWith("F") || destino.startsWith("D")) {
-            if (random.nextDouble() < 0.85) return 1; // EBCI
-        }
-        
-        // UBBB (Baku, Azerbaiyán) - Asia, Medio Oriente, Oceanía
-        if (destino.startsWith("O") || destino.startsWith("U") || destino.startsWith("Z") || 
-            destino.startsWith("V") || destino.startsWith("R") || destino.startsWith("Y") ||
-            destino.startsWith("P") || destino.startsWith("A") || destino.startsWith("N")) {
-            if (random.nextDouble() < 0.85) return 2; // UBBB
-        }
+        // FALLBACK: Mapeo geográfico basado en códigos ICAO (precalculado por aeropuerto)
+        // SPIM: Sudamérica y Centroamérica | EBCI: Europa y África | UBBB: Asia, Medio Oriente, Oceanía
+        int sedePorPrefijo = destino >= 0 ? obtenerClasificacionICAO().sedePorPrefijo[destino] : -1;
+        if (sedePorPrefijo == 0 && random.nextDouble() < 0.9) return 0;  // SPIM
+        if (sedePorPrefijo == 1 && random.nextDouble() < 0.85) return 1; // EBCI
+        if (sedePorPrefijo == 2 && random.nextDouble() < 0.85) return 2; // UBBB
         
         // Para casos sin coincidencia clara, elegir la sede más probable
         // Distribuir proporcionalmente: SPIM 40%, EBCI 35%, UBBB 25%
@@ -184,29 +201,58 @@ public class IndividuoIntegrado {
      * ✅ CORREGIDO: Re-planifica todas las rutas para evitar duplicación de vuelos
      */
     public void evaluarFitness() {
+        evaluarFitness(planificador, planificadorAvanzado);
+    }
+    
+    /**
+     * Evalúa el fitness usando planificadores propios del hilo llamador (misma red, capacidad
+     * independiente). El resultado depende solo del cromosoma, no del orden de evaluación.
+     */
+    public void evaluarFitness(PlanificadorAvanzadoEscalas planificador, PlanificadorAvanzadoEscalas planificadorAvanzado) {
         if (fitnessCalculado) return;
         
-        // ✅ REINICIAR capacidades antes de re-planificar todas las rutas
+        // ⚡ Con Connection Scan se evalúa sobre el registro propio del individuo
+        PlanificadorEscaneoConexiones motor = planificadorAvanzado != null ? planificadorAvanzado.getMotorEscaneo() : null;
+        PlanificadorEscaneoConexiones motorRespaldo = planificador != null ? planificador.getMotorEscaneo() : null;
+        if (motor != null && motorRespaldo != null) {
+            if (capacidadAvanzado == null) {
+                evaluarCompleto(motor, motorRespaldo);
+            } else if (VERIFICAR_INCREMENTAL) {
+                IndividuoIntegrado referencia = copiarCromosoma();
+                evaluarIncremental(motor, motorRespaldo);
+                referencia.evaluarCompleto(motor, motorRespaldo);
+                verificarIgual(referencia);
+            } else {
+                evaluarIncremental(motor, motorRespaldo);
+            }
+            fitnessCalculado = true;
+            return;
+        }
+        
+        // ✅ REINICIAR capacidades antes de re-planificar todas las rutas (también las del respaldo)
         if (planificadorAvanzado != null) {
             planificadorAvanzado.reiniciarCapacidades();
         }
+        if (planificador != null && planificador != planificadorAvanzado) {
+            planificador.reiniciarCapacidades();
+        }
         
         // ✅ RE-PLANIFICAR todas las rutas con las sedes asignadas
-        String[] sedes = {"SPIM", "EBCI", "UBBB"};
+        int[] destinos = getIdsDestino();
         for (int i = 0; i < pedidos.size(); i++) {
             Pedido pedido = pedidos.get(i);
-            String origen = sedes[asignacionSedes[i]];
-            String destino = pedido.getAeropuertoDestinoId();
+            int origen = registro.getIdSede(asignacionSedes[i]);
+            int destino = destinos[i];
             
             try {
                 RutaCompleta ruta = null;
                 if (planificadorAvanzado != null) {
                     // Calcular tiempo mínimo basado en hora del pedido + ventana de recojo
-                    int tiempoMinimo = PlanificadorAvanzadoEscalas.calcularTiempoMinimoPedido(pedido);
+                    int tiempoMinimo = planificadorAvanzado.calcularTiempoMinimoPedido(pedido, origen);
                     ruta = planificadorAvanzado.planificarRuta(origen, destino, pedido.getCantidadProductos(), tiempoMinimo);
                 }
                 if (ruta == null) {
-                    ruta = planificador.planificarRuta(origen, destino, pedido.getCantidadProductos());
+                    ruta = planificador.planificarRuta(origen, destino, pedido.getCantidadProductos(), 0);
                 }
                 rutasCompletas.set(i, ruta);
             } catch (Exception e) {
@@ -220,151 +266,350 @@ public class IndividuoIntegrado {
     }
     
     /**
-     * Calcula el fitness basado en planificación real de rutas
-     * ✅ NUEVO: Penaliza vuelos intercontinentales y prioriza vuelos directos
+     * Re-planifica todos los pedidos en orden sobre un registro de capacidad nuevo
+     * (mismo resultado que la evaluación desde cero) y guarda el aporte de cada gen
      */
-    private double calcularFitness() {
-        double fitness = 0.0;
-        String[] sedes = {"SPIM", "EBCI", "UBBB"};
+    private void evaluarCompleto(PlanificadorEscaneoConexiones motor, PlanificadorEscaneoConexiones motorRespaldo) {
+        int n = pedidos.size();
+        capacidadAvanzado = motor.crearRegistroCapacidad();
+        capacidadRespaldo = planificador == planificadorAvanzado ? capacidadAvanzado : motorRespaldo.crearRegistroCapacidad();
+        rutasReservadas = new RutaCompleta[n];
+        itinerariosReservados = new int[n];
+        tipoReserva = new byte[n];
+        contribuciones = new double[n];
+        fitness = 0.0;
         
-        for (int i = 0; i < rutasCompletas.size(); i++) {
+        for (int i = 0; i < n; i++) {
+            planificarGen(i, motor, motorRespaldo);
+        }
+        genesModificados.clear();
+    }
+    
+    /**
+     * Re-planifica desde el primer gen modificado, ajustando el fitness por diferencia. Los genes
+     * anteriores ven la misma capacidad que en la evaluación completa y conservan su reserva; desde
+     * el primero modificado se liberan todas las reservas y se vuelve a planificar en orden, así
+     * el resultado es el de evaluarCompleto y no depende de la historia del individuo.
+     */
+    private void evaluarIncremental(PlanificadorEscaneoConexiones motor, PlanificadorEscaneoConexiones motorRespaldo) {
+        int primero = genesModificados.nextSetBit(0);
+        if (primero >= 0) {
+            for (int i = primero; i < pedidos.size(); i++) {
+                liberarGen(i, motor, motorRespaldo);
+            }
+            for (int i = primero; i < pedidos.size(); i++) {
+                planificarGen(i, motor, motorRespaldo);
+            }
+        }
+        genesModificados.clear();
+    }
+    
+    /**
+     * Individuo sin evaluar con el mismo cromosoma (sedes e itinerarios) que este
+     */
+    private IndividuoIntegrado copiarCromosoma() {
+        IndividuoIntegrado copia = new IndividuoIntegrado(pedidos, planificador, planificadorAvanzado, seed);
+        copia.asignacionSedes = asignacionSedes.clone();
+        copia.itinerarios = itinerarios.clone();
+        copia.idsDestino = idsDestino;
+        return copia;
+    }
+    
+    /**
+     * Comprueba que la evaluación por diferencia dio las mismas rutas y el mismo fitness que la
+     * evaluación completa del mismo cromosoma
+     */
+    private void verificarIgual(IndividuoIntegrado referencia) {
+        for (int i = 0; i < pedidos.size(); i++) {
             RutaCompleta ruta = rutasCompletas.get(i);
-            if (ruta != null) {
-                // Bonus base por ruta planificada
-                double bonusBase = 1000.0;
-                
-                // ✅ NUEVO: Factor continental/intercontinental
-                String origen = sedes[asignacionSedes[i]]; // Sede asignada
-                String destino = pedidos.get(i).getAeropuertoDestinoId();
-                double factorContinental = esVueloContinental(origen, destino) ? 1.0 : 0.5;
-                
-                // Aplicar factor continental al bonus base
-                fitness += bonusBase * factorContinental;
-                
-                // Penalizar por tiempo de viaje (también con factor continental)
-                double tiempoTotal = ruta.calcularTiempoTotal();
-                fitness -= (tiempoTotal * 0.5 * factorContinental); // Menos penalización para intercontinentales
-                
-                // ✅ MEJORADO: Bonus por tipo de ruta (priorizar directos)
-                String tipoRuta = ruta.getTipoRuta();
-                double bonusTipoRuta = 0.0;
-                if ("DIRECTO".equals(tipoRuta)) {
-                    bonusTipoRuta = 400.0; // ✅ INCREMENTADO: Máxima prioridad para directos
-                } else if ("UNA_CONEXION".equals(tipoRuta)) {
-                    bonusTipoRuta = 150.0; // ✅ INCREMENTADO: Buena prioridad para una conexión
-                } else if ("DOS_CONEXIONES".equals(tipoRuta)) {
-                    bonusTipoRuta = 50.0;  // Mínima prioridad para dos conexiones
-                }
-                
-                // Aplicar bonus con factor continental
-                fitness += bonusTipoRuta * factorContinental;
-                
-            } else {
-                // Penalización por pedido sin ruta
-                fitness -= 500.0;
+            RutaCompleta esperada = referencia.rutasCompletas.get(i);
+            if ((ruta == null) != (esperada == null) || ruta != null && !ruta.getVuelos().equals(esperada.getVuelos())) {
+                throw new IllegalStateException("Evaluación incremental distinta de la completa en el pedido " + i
+                    + ": " + (ruta != null ? ruta.obtenerDescripcion() : "sin ruta") + " en lugar de "
+                    + (esperada != null ? esperada.obtenerDescripcion() : "sin ruta"));
             }
         }
-        
-        return fitness;
+        if (Math.abs(fitness - referencia.fitness) > 1e-6 * Math.max(1.0, Math.abs(referencia.fitness))) {
+            throw new IllegalStateException(String.format(
+                "Fitness incremental %.6f distinto del completo %.6f", fitness, referencia.fitness));
+        }
     }
     
     /**
-     * ✅ MEJORADO: Determina si un vuelo es continental usando datos del CSV
+     * Planifica un gen reservando en el registro propio y actualiza su aporte al fitness.
+     * Con un itinerario del catálogo solo se comprueba y reserva capacidad; la búsqueda en la
+     * red queda para cuando ningún itinerario del par tiene cupo.
      */
-    private boolean esVueloContinental(String origen, String destino) {
-        cargarAeropuertosSiEsNecesario();
+    private void planificarGen(int i, PlanificadorEscaneoConexiones motor, PlanificadorEscaneoConexiones motorRespaldo) {
+        Pedido pedido = pedidos.get(i);
+        int origen = registro.getIdSede(asignacionSedes[i]);
+        int destino = getIdsDestino()[i];
+        int cantidad = pedido.getCantidadProductos();
         
-        Aeropuerto aeropuertoOrigen = mapaAeropuertos.get(origen);
-        Aeropuerto aeropuertoDestino = mapaAeropuertos.get(destino);
-        
-        if (aeropuertoOrigen != null && aeropuertoDestino != null) {
-            String continenteOrigen = aeropuertoOrigen.getContinente();
-            String continenteDestino = aeropuertoDestino.getContinente();
-            
-            // Comparar continentes directamente desde CSV
-            return continenteOrigen != null && continenteOrigen.equals(continenteDestino);
+        int tiempoMinimo = planificadorAvanzado.calcularTiempoMinimoPedido(pedido, origen);
+        CatalogoItinerarios catalogo = motor.getCatalogoItinerarios();
+        int itinerario = elegirItinerario(i, destino, tiempoMinimo, cantidad, catalogo);
+        RutaCompleta ruta;
+        byte reserva;
+        if (itinerario >= 0) {
+            catalogo.reservar(itinerario, cantidad, capacidadAvanzado);
+            ruta = catalogo.getRuta(itinerario);
+            reserva = RESERVA_CATALOGO;
+        } else {
+            ruta = motor.planificarRuta(origen, destino, cantidad, tiempoMinimo, capacidadAvanzado);
+            reserva = RESERVA_AVANZADO;
+            if (ruta == null) {
+                ruta = motorRespaldo.planificarRuta(origen, destino, cantidad, 0, capacidadRespaldo);
+                reserva = RESERVA_RESPALDO;
+            }
         }
+        itinerarios[i] = itinerario;
         
-        // Fallback al método anterior si no se encuentran en CSV
-        return (esAeropuertoSudamericano(origen) && esAeropuertoSudamericano(destino)) ||
-               (esAeropuertoEuropeo(origen) && esAeropuertoEuropeo(destino)) ||
-               (esAeropuertoAsiatico(origen) && esAeropuertoAsiatico(destino)) ||
-               (esAeropuertoNorteamericano(origen) && esAeropuertoNorteamericano(destino)) ||
-               (esAeropuertoAfricano(origen) && esAeropuertoAfricano(destino)) ||
-               (esAeropuertoOceania(origen) && esAeropuertoOceania(destino));
+        rutasCompletas.set(i, ruta);
+        rutasReservadas[i] = ruta;
+        itinerariosReservados[i] = itinerario;
+        tipoReserva[i] = ruta != null ? reserva : SIN_RESERVA;
+        
+        double aporte = calcularContribucion(i);
+        fitness += aporte - contribuciones[i];
+        contribuciones[i] = aporte;
     }
     
     /**
-     * ✅ NUEVO: Carga aeropuertos del CSV la primera vez que se necesiten
+     * Itinerario del gen si todavía sirve (mismo par, sale a tiempo y cabe); si no, el de llegada
+     * más temprana del par con capacidad. -1 si el catálogo no tiene ninguno.
      */
-    private static void cargarAeropuertosSiEsNecesario() {
-        if (mapaAeropuertos == null) {
-            mapaAeropuertos = new HashMap<>();
-            try {
-                List<Aeropuerto> aeropuertos = CargadorDatosCSV.cargarAeropuertos();
-                for (Aeropuerto aeropuerto : aeropuertos) {
-                    mapaAeropuertos.put(aeropuerto.getCodigoICAO(), aeropuerto);
-                }
-                // System.out.println("🌍 Aeropuertos cargados para detección continental: " + mapaAeropuertos.size());
-            } catch (Exception e) {
-                System.err.println("⚠️ Error cargando aeropuertos, usando fallback ICAO: " + e.getMessage());
-                mapaAeropuertos = new HashMap<>(); // Mapa vacío para usar fallback
-            }
+    private int elegirItinerario(int i, int destino, int tiempoMinimo, int cantidad, CatalogoItinerarios catalogo) {
+        if (destino < 0) {
+            return -1;
         }
+        int sede = asignacionSedes[i];
+        int actual = itinerarios[i];
+        if (actual >= 0 && catalogo.esDelPar(actual, sede, destino) && catalogo.getSalida(actual) >= tiempoMinimo
+                && catalogo.cabe(actual, cantidad, capacidadAvanzado)) {
+            return actual;
+        }
+        return catalogo.buscarItinerario(sede, destino, tiempoMinimo, cantidad, capacidadAvanzado);
     }
     
     /**
-     * ✅ NUEVO: Métodos auxiliares para determinar continentes por código ICAO
+     * Devuelve al registro la capacidad reservada por un gen (si tenía reserva)
      */
-    private boolean esAeropuertoSudamericano(String codigo) {
-        return codigo.startsWith("S");
+    private void liberarGen(int i, PlanificadorEscaneoConexiones motor, PlanificadorEscaneoConexiones motorRespaldo) {
+        RutaCompleta ruta = rutasReservadas[i];
+        if (ruta == null) {
+            return;
+        }
+        int cantidad = pedidos.get(i).getCantidadProductos();
+        if (tipoReserva[i] == RESERVA_CATALOGO) {
+            motor.getCatalogoItinerarios().liberar(itinerariosReservados[i], cantidad, capacidadAvanzado);
+        } else if (tipoReserva[i] == RESERVA_AVANZADO) {
+            motor.liberarRuta(ruta, cantidad, capacidadAvanzado);
+        } else {
+            motorRespaldo.liberarRuta(ruta, cantidad, capacidadRespaldo);
+        }
+        rutasReservadas[i] = null;
+        tipoReserva[i] = SIN_RESERVA;
     }
     
-    private boolean esAeropuertoEuropeo(String codigo) {
-        return codigo.startsWith("E") || codigo.startsWith("L");
+    /**
+     * Calcula el fitness basado en planificación real de rutas
+     * ✅ NUEVO: Penaliza vuelos intercontinentales y prioriza vuelos directos
+     */
+    private double calcularFitness() {
+        double fitness = 0.0;
+        for (int i = 0; i < rutasCompletas.size(); i++) {
+            fitness += calcularContribucion(i);
+        }
+        return fitness;
     }
     
-    private boolean esAeropuertoAsiatico(String codigo) {
-        return codigo.startsWith("O") || codigo.startsWith("U") || codigo.startsWith("V") || codigo.startsWith("Z");
+    /**
+     * Aporte de un pedido al fitness según su ruta y su sede asignada
+     */
+    private double calcularContribucion(int i) {
+        RutaCompleta ruta = rutasCompletas.get(i);
+        if (ruta == null) {
+            // Penalización por pedido sin ruta
+            return -500.0;
+        }
+        
+        // Bonus base por ruta planificada
+        double bonusBase = 1000.0;
+        
+        // ✅ NUEVO: Factor continental/intercontinental
+        int origen = registro.getIdSede(asignacionSedes[i]); // Sede asignada
+        int destino = getIdsDestino()[i];
+        double factorContinental = esVueloContinental(origen, destino) ? 1.0 : 0.5;
+        
+        // Aplicar factor continental al bonus base
+        double aporte = bonusBase * factorContinental;
+        
+        // Penalizar por tiempo de viaje (también con factor continental)
+        double tiempoTotal = ruta.calcularTiempoTotal();
+        aporte -= (tiempoTotal * 0.5 * factorContinental); // Menos penalización para intercontinentales
+        
+        // ✅ MEJORADO: Bonus por tipo de ruta (priorizar directos)
+        String tipoRuta = ruta.getTipoRuta();
+        double bonusTipoRuta = 0.0;
+        if ("DIRECTO".equals(tipoRuta)) {
+            bonusTipoRuta = 400.0; // ✅ INCREMENTADO: Máxima prioridad para directos
+        } else if ("UNA_CONEXION".equals(tipoRuta)) {
+            bonusTipoRuta = 150.0; // ✅ INCREMENTADO: Buena prioridad para una conexión
+        } else if ("DOS_CONEXIONES".equals(tipoRuta)) {
+            bonusTipoRuta = 50.0;  // Mínima prioridad para dos conexiones
+        }
+        
+        // Aplicar bonus con factor continental
+        return aporte + bonusTipoRuta * factorContinental;
     }
     
-    private boolean esAeropuertoNorteamericano(String codigo) {
-        return codigo.startsWith("K") || codigo.startsWith("C") || codigo.startsWith("M") || codigo.startsWith("T");
+    /**
+     * ✅ MEJORADO: Determina si un vuelo es continental usando datos del CSV
+     */
+    private boolean esVueloContinental(int origen, int destino) {
+        if (origen < 0 || destino < 0) {
+            return false;
+        }
+        
+        if (registro.tieneDatos(origen) && registro.tieneDatos(destino)) {
+            // Comparar continentes directamente desde CSV
+            return registro.mismoContinente(origen, destino);
+        }
+        
+        // Fallback al método anterior si no se encuentran en CSV (regiones ICAO precalculadas)
+        byte[] regiones = obtenerClasificacionICAO().regionesPorPrefijo;
+        return (regiones[origen] & regiones[destino]) != 0;
     }
     
-    private boolean esAeropuertoAfricano(String codigo) {
-        return codigo.startsWith("F") || codigo.startsWith("G") || codigo.startsWith("H");
+    /**
+     * Ids de destino de cada pedido en el registro de los planificadores (-1 si no existe)
+     */
+    private int[] getIdsDestino() {
+        if (idsDestino == null) {
+            int[] ids = new int[pedidos.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = registro.getId(pedidos.get(i).getAeropuertoDestinoId());
+            }
+            idsDestino = ids;
+        }
+        return idsDestino;
     }
     
-    private boolean esAeropuertoOceania(String codigo) {
-        return codigo.startsWith("Y") || codigo.startsWith("A") || codigo.startsWith("N") || codigo.startsWith("P");
+    /**
+     * Regiones por prefijo ICAO de cada aeropuerto del registro, calculadas una sola vez
+     */
+    private ClasificacionICAO obtenerClasificacionICAO() {
+        ClasificacionICAO clasificacion = clasificacionICAO;
+        if (clasificacion == null || clasificacion.registro != registro) {
+            clasificacion = new ClasificacionICAO(registro);
+            clasificacionICAO = clasificacion; // Publicar solo la clasificación completa
+        }
+        return clasificacion;
     }
     
     /**
-     * Crea una copia del individuo (con nueva semilla aleatoria)
+     * Fallback por código ICAO para aeropuertos sin continente en el CSV
      */
-    public IndividuoIntegrado copiar() {
-        IndividuoIntegrado copia;
-        if (planificadorAvanzado != null) {
-            copia = new IndividuoIntegrado(pedidos, planificador, planificadorAvanzado);
-        } else {
-            copia = new IndividuoIntegrado(pedidos, planificador);
+    private static final class ClasificacionICAO {
+        private static final byte SUDAMERICA = 1, EUROPA = 2, ASIA = 4, NORTEAMERICA = 8, AFRICA = 16, OCEANIA = 32;
+        
+        final RegistroAeropuertos registro;
+        final byte[] regionesPorPrefijo;   // Máscara de regiones del prefijo
+        final byte[] sedePorPrefijo;       // Sede sugerida por prefijo (-1 si ninguna)
+        
+        ClasificacionICAO(RegistroAeropuertos registro) {
+            this.registro = registro;
+            int n = registro.getNumeroAeropuertos();
+            this.regionesPorPrefijo = new byte[n];
+            this.sedePorPrefijo = new byte[n];
+            for (int a = 0; a < n; a++) {
+                String codigo = registro.getCodigo(a);
+                regionesPorPrefijo[a] = calcularRegiones(codigo);
+                sedePorPrefijo[a] = calcularSede(codigo);
+            }
+        }
+        
+        private static byte calcularRegiones(String codigo) {
+            char c = codigo.isEmpty() ? ' ' : codigo.charAt(0);
+            switch (c) {
+                case 'S': return SUDAMERICA;
+                case 'E': case 'L': return EUROPA;
+                case 'O': case 'U': case 'V': case 'Z': return ASIA;
+                case 'K': case 'C': case 'M': case 'T': return NORTEAMERICA;
+                case 'F': case 'G': case 'H': return AFRICA;
+                case 'Y': case 'A': case 'N': case 'P': return OCEANIA;
+                default: return 0;
+            }
         }
+        
+        private static byte calcularSede(String codigo) {
+            char c = codigo.isEmpty() ? ' ' : codigo.charAt(0);
+            switch (c) {
+                case 'S': case 'M': case 'T': return 0;                     // SPIM
+                case 'E': case 'L': case 'G': case 'F': case 'D': return 1; // EBCI
+                case 'O': case 'U': case 'Z': case 'V': case 'R':
+                case 'Y': case 'P': case 'A': case 'N': return 2;           // UBBB
+                default: return -1;
+            }
+        }
+    }
+    
+    /**
+     * Crea una copia del individuo (con una semilla nueva tomada del flujo de este individuo)
+     */
+    public IndividuoIntegrado copiar() {
+        return copiarConSemilla(random.nextLong());
+    }
+    
+    /**
+     * Copia cromosoma, fitness y registro de capacidad (la copia sigue evaluándose por diferencia)
+     */
+    private void copiarEstadoEn(IndividuoIntegrado copia) {
         copia.asignacionSedes = Arrays.copyOf(this.asignacionSedes, this.asignacionSedes.length);
+        copia.idsDestino = this.idsDestino; // Mismos pedidos y mismo registro: solo lectura
         copia.rutasCompletas = new ArrayList<>(this.rutasCompletas);
         copia.fitness = this.fitness;
         copia.fitnessCalculado = this.fitnessCalculado;
-        return copia;
+        copia.genesModificados = (BitSet) this.genesModificados.clone();
+        copia.itinerarios = this.itinerarios.clone();
+        if (capacidadAvanzado != null) {
+            copia.capacidadAvanzado = capacidadAvanzado.copiar();
+            copia.capacidadRespaldo = capacidadRespaldo == capacidadAvanzado ? copia.capacidadAvanzado : capacidadRespaldo.copiar();
+            copia.rutasReservadas = rutasReservadas.clone();
+            copia.itinerariosReservados = itinerariosReservados.clone();
+            copia.tipoReserva = tipoReserva.clone();
+            copia.contribuciones = contribuciones.clone();
+        }
     }
     
     /**
-     * Asigna una ruta específica
+     * Toma el gen (sede e itinerario del catálogo) de otro individuo; si la sede coincide, la
+     * reserva actual sirve. La ruta se planifica al evaluar: el itinerario heredado se conserva
+     * si todavía cabe, y sin itinerario se busca en la red con la capacidad de este individuo.
      */
-    public void asignarRuta(int indice, RutaCompleta ruta) {
-        if (indice >= 0 && indice < rutasCompletas.size()) {
-            rutasCompletas.set(indice, ruta);
-            fitnessCalculado = false;
+    public void heredarGen(int indice, IndividuoIntegrado padre) {
+        if (padre.asignacionSedes[indice] == asignacionSedes[indice]) {
+            return;
+        }
+        asignacionSedes[indice] = padre.asignacionSedes[indice];
+        itinerarios[indice] = padre.itinerarios[indice];
+        genesModificados.set(indice);
+        fitnessCalculado = false;
+    }
+    
+    /**
+     * En modo incremental la mutación solo cambia la sede; la ruta se re-planifica al evaluar
+     */
+    private boolean diferirReplanificacion(int indice, int nuevaSedeIndex) {
+        if (capacidadAvanzado == null) {
+            return false;
         }
+        asignacionSedes[indice] = nuevaSedeIndex;
+        itinerarios[indice] = -1; // Al evaluar se toma el mejor itinerario de la nueva sede
+        genesModificados.set(indice);
+        fitnessCalculado = false;
+        return true;
     }
     
     /**
@@ -376,26 +621,30 @@ public class IndividuoIntegrado {
     public void replanificarRuta(int indice) {
         if (indice >= 0 && indice < pedidos.size()) {
             Pedido pedido = pedidos.get(indice);
-            String[] sedes = {"SPIM", "EBCI", "UBBB"};
+            int destino = getIdsDestino()[indice];
+            int numeroSedes = RegistroAeropuertos.CODIGOS_SEDE.length;
             
             RutaCompleta rutaActual = rutasCompletas.get(indice);
             
             // 🧬 MUTACIÓN INTELIGENTE: Si la ruta actual es mala o null, mejorarla
             if (rutaActual == null) {
                 // 🎯 REPARACIÓN: Si no hay ruta, usar asignación inteligente
-                int nuevaSedeIndex = asignarSedeInteligente(pedido.getAeropuertoDestinoId());
+                int nuevaSedeIndex = asignarSedeInteligente(destino);
+                if (diferirReplanificacion(indice, nuevaSedeIndex)) {
+                    return;
+                }
                 asignacionSedes[indice] = nuevaSedeIndex;
-                String origen = sedes[nuevaSedeIndex];
+                int origen = registro.getIdSede(nuevaSedeIndex);
                 
                 try {
                     // Intentar con planificador avanzado primero
                     RutaCompleta nuevaRuta = null;
                     if (planificadorAvanzado != null) {
-                        int tiempoMinimo = PlanificadorAvanzadoEscalas.calcularTiempoMinimoPedido(pedido);
-                        nuevaRuta = planificadorAvanzado.planificarRuta(origen, pedido.getAeropuertoDestinoId(), pedido.getCantidadProductos(), tiempoMinimo);
+                        int tiempoMinimo = planificadorAvanzado.calcularTiempoMinimoPedido(pedido, origen);
+                        nuevaRuta = planificadorAvanzado.planificarRuta(origen, destino, pedido.getCantidadProductos(), tiempoMinimo);
                     }
                     if (nuevaRuta == null) {
-                        nuevaRuta = planificador.planificarRuta(origen, pedido.getAeropuertoDestinoId(), pedido.getCantidadProductos());
+                        nuevaRuta = planificador.planificarRuta(origen, destino, pedido.getCantidadProductos(), 0);
                     }
                     rutasCompletas.set(indice, nuevaRuta);
                 } catch (Exception e) {
@@ -408,27 +657,31 @@ public class IndividuoIntegrado {
                 
                 // 70% probabilidad de usar asignación inteligente, 30% aleatoria (exploración)
                 if (random.nextDouble() < 0.7) {
-                    nuevaSedeIndex = asignarSedeInteligente(pedido.getAeropuertoDestinoId());
+                    nuevaSedeIndex = asignarSedeInteligente(destino);
                 } else {
                     // Exploración aleatoria de otras sedes
                     do {
-                        nuevaSedeIndex = random.nextInt(sedes.length);
-                    } while (nuevaSedeIndex == sedeActual && sedes.length > 1);
+                        nuevaSedeIndex = random.nextInt(numeroSedes);
+                    } while (nuevaSedeIndex == sedeActual && numeroSedes > 1);
+                }
+                
+                if (diferirReplanificacion(indice, nuevaSedeIndex)) {
+                    return;
                 }
                 
                 asignacionSedes[indice] = nuevaSedeIndex;
-                String origen = sedes[nuevaSedeIndex];
+                int origen = registro.getIdSede(nuevaSedeIndex);
                 
                 try {
                     // ✅ USAR PLANIFICADOR AVANZADO que controla capacidades Y tiempo pedido (CORREGIDO)
                     RutaCompleta nuevaRuta = null;
                     if (planificadorAvanzado != null) {
-                        int tiempoMinimo = PlanificadorAvanzadoEscalas.calcularTiempoMinimoPedido(pedido);
-                        nuevaRuta = planificadorAvanzado.planificarRuta(origen, pedido.getAeropuertoDestinoId(), pedido.getCantidadProductos(), tiempoMinimo);
+                        int tiempoMinimo = planificadorAvanzado.calcularTiempoMinimoPedido(pedido, origen);
+                        nuevaRuta = planificadorAvanzado.planificarRuta(origen, destino, pedido.getCantidadProductos(), tiempoMinimo);
                     }
                     // Solo si el avanzado falla completamente
                     if (nuevaRuta == null) {
-                        nuevaRuta = planificador.planificarRuta(origen, pedido.getAeropuertoDestinoId(), pedido.getCantidadProductos());
+                        nuevaRuta = planificador.planificarRuta(origen, destino, pedido.getCantidadProductos(), 0);
                     }
                     rutasCompletas.set(indice, nuevaRuta);
                 } catch (Exception e) {
@@ -469,12 +722,10 @@ public class IndividuoIntegrado {
         sb.append("  • Rutas planificadas: ").append(contarRutasPlanificadas()).append("/").append(pedidos.size()).append("\n\n");
         
         sb.append("📋 DETALLE POR PEDIDO:\n");
-        String[] sedes = {"SPIM", "EBCI", "UBBB"};
-        
         for (int i = 0; i < pedidos.size(); i++) {
             Pedido pedido = pedidos.get(i);
             RutaCompleta ruta = rutasCompletas.get(i);
-            String sedeOrigen = sedes[asignacionSedes[i]];
+            String sedeOrigen = RegistroAeropuertos.CODIGOS_SEDE[asignacionSedes[i]];
             
             sb.append(String.format("  [%02d] %s → %s | Sede: %s | ",
                     i + 1, sedeOrigen, pedido.getAeropuertoDestinoId(), sedeOrigen));
@@ -503,6 +754,11 @@ public class IndividuoIntegrado {
     public int[] getAsignacionSedes() { return Arrays.copyOf(asignacionSedes, asignacionSedes.length); }
     public List<RutaCompleta> getRutasCompletas() { return new ArrayList<>(rutasCompletas); }
     
+    /**
+     * Índice del itinerario del catálogo elegido para el pedido (-1 si su ruta no salió del catálogo)
+     */
+    public int getItinerario(int indice) { return itinerarios[indice]; }
+    
     // 🎲 Métodos relacionados con semillas
     public long getSeed() { return seed; }
     
@@ -512,7 +768,7 @@ public class IndividuoIntegrado {
      */
     public void reiniciarGeneradorAleatorio() {
         // Reiniciar el generador con la misma semilla
-        random.setSeed(seed);
+        random = Semillas.crear(seed);
     }
     
     /**
@@ -526,16 +782,20 @@ public class IndividuoIntegrado {
      * Crea una copia determinística con la misma semilla
      */
     public IndividuoIntegrado copiarConMismaSemilla() {
+        return copiarConSemilla(seed);
+    }
+    
+    /**
+     * Crea una copia con una semilla dada (reproducible si la semilla lo es)
+     */
+    public IndividuoIntegrado copiarConSemilla(long nuevaSemilla) {
         IndividuoIntegrado copia;
         if (planificadorAvanzado != null) {
-            copia = new IndividuoIntegrado(pedidos, planificador, planificadorAvanzado, seed);
+            copia = new IndividuoIntegrado(pedidos, planificador, planificadorAvanzado, nuevaSemilla);
         } else {
-            copia = new IndividuoIntegrado(pedidos, planificador, seed);
+            copia = new IndividuoIntegrado(pedidos, planificador, nuevaSemilla);
         }
-        copia.asignacionSedes = Arrays.copyOf(this.asignacionSedes, this.asignacionSedes.length);
-        copia.rutasCompletas = new ArrayList<>(this.rutasCompletas);
-        copia.fitness = this.fitness;
-        copia.fitnessCalculado = this.fitnessCalculado;
+        copiarEstadoEn(copia);
         return copia;
     }
 }
@@ -1,6 +1,7 @@
 package morapack.main;
 
 import morapack.datos.CargadorPedidosUltrafinal;
+import morapack.datos.IndiceVuelos;
 import morapack.modelo.Pedido;
 import java.util.*;
 
@@ -32,7 +33,7 @@ public class AnalizadorFallos {
             
             System.out.printf("Total de pedidos cargados: %d\\n\\n", todosPedidos.size());
             
-            // Generar capacidades simuladas (usando la misma lógica que el sistema principal)
+            // Capacidades reales por ruta (mismo índice que el sistema principal)
             Map<String, Integer> capacidadesVuelos = generarCapacidadesDinamicas();
             
             // Analizar cada pedido fallido
@@ -48,32 +49,10 @@ public class AnalizadorFallos {
     }
     
     /**
-     * Genera las mismas capacidades dinámicas que usa el sistema principal
+     * Capacidad máxima real de cada ruta directa, tomada del índice de vuelos en memoria
      */
     private static Map<String, Integer> generarCapacidadesDinamicas() {
-        Map<String, Integer> capacidades = new HashMap<>();
-        
-        // Vuelos de alta capacidad (25%)
-        String[] vuelosGrandes = {"SPIM-SKBO", "EBCI-EHAM", "UBBB-OPKC", "SPIM-SABE", 
-                                 "EBCI-LKPR", "UBBB-OMDB", "SPIM-SBBR", "EBCI-EDDI"};
-        for (String vuelo : vuelosGrandes) {
-            capacidades.put(vuelo, 400 + (int)(Math.random() * 200)); // 400-600 paquetes
-        }
-        
-        // Vuelos de capacidad media (50%)
-        String[] vuelosMedios = {"SPIM-SGAS", "EBCI-LOWW", "UBBB-OJAI", "SPIM-SUAA", 
-                                "EBCI-LATI", "UBBB-OAKB", "SPIM-SVMI", "EBCI-EKCH"};
-        for (String vuelo : vuelosMedios) {
-            capacidades.put(vuelo, 200 + (int)(Math.random() * 150)); // 200-350 paquetes
-        }
-        
-        // Vuelos de baja capacidad (25%)
-        String[] vuelosPequeños = {"SPIM-SCEL", "EBCI-LBSF", "UBBB-OYSN", "SPIM-SEQM"};
-        for (String vuelo : vuelosPequeños) {
-            capacidades.put(vuelo, 100 + (int)(Math.random() * 100)); // 100-200 paquetes
-        }
-        
-        return capacidades;
+        return IndiceVuelos.obtener().getCapacidadesPorRuta();
     }
     
     /**
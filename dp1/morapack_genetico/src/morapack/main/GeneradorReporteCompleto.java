@@ -2,6 +2,8 @@ package morapack.main;
 
 import morapack.modelo.*;
 import morapack.datos.*;
+import morapack.planificacion.PlanificadorDivision;
+import morapack.planificacion.PlanificadorLoteVoraz;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.io.*;
@@ -14,6 +16,11 @@ public class GeneradorReporteCompleto {
     // Tiempo de gracia en horas antes del primer vuelo disponible
     private static final int TIEMPO_GRACIA_HORAS = 2;
     
+    // División de pedidos con capacidad real por vuelo y día (días del mes más el plazo máximo)
+    private static final int DIAS_RED_DIVISION = 35;
+    private static PlanificadorDivision planificadorDivision = null;
+    private static PlanificadorDivision.PlanDivision ultimaDivision = null;
+    
     private static class RutaPedido {
         String pedidoId;
         String destino;
@@ -50,8 +57,10 @@ public class GeneradorReporteCompleto {
             
             System.out.printf("Total pedidos cargados: %d\\n", pedidos.size());
             
-            // Procesar todos los pedidos
-            List<RutaPedido> rutasPedidos = procesarTodosLosPedidos(pedidos);
+            // Procesar todos los pedidos (--lote: plan voraz por día con capacidades sobre la red real)
+            List<RutaPedido> rutasPedidos = Arrays.asList(args).contains("--lote")
+                ? procesarConLoteVoraz(pedidos)
+                : procesarTodosLosPedidos(pedidos);
             
             // Generar únicamente los 4 reportes solicitados
             generarReporteGeneral(rutasPedidos);
@@ -79,6 +88,7 @@ public class GeneradorReporteCompleto {
         
         for (Pedido pedido : pedidos) {
             procesados++;
+            ultimaDivision = null;
             
             RutaPedido ruta = new RutaPedido(pedido.getId(), 
                                            pedido.getAeropuertoDestinoId(), 
@@ -128,9 +138,7 @@ public class GeneradorReporteCompleto {
                     int vuelosNecesarios = (int) Math.ceil((double) pedido.getCantidadProductos() / capacidadMaxima);
                     
                     // Verificar disponibilidad de vuelos desde el día del pedido CON INFORMACIÓN DETALLADA
-                    List<VueloDividido> vuelosDetallados = planificarDivisionPedidoDetallada(ruta.sede, pedido.getAeropuertoDestinoId(), 
-                                                                                           pedido.getCantidadProductos(), capacidadMaxima, 
-                                                                                           pedido.getDia(), pedido.getHora());
+                    List<VueloDividido> vuelosDetallados = planificarDivisionPedidoDetallada(pedido, ruta.sede);
                     
                     // Verificar si se pudo asignar toda la cantidad solicitada
                     int cantidadAsignada = 0;
@@ -205,9 +213,7 @@ public class GeneradorReporteCompleto {
                 boolean divisionViable = false;
                 
                 if (capacidadMaxima > 0) {
-                    vuelosDetallados = planificarDivisionPedidoDetallada(ruta.sede, pedido.getAeropuertoDestinoId(), 
-                                                                       pedido.getCantidadProductos(), capacidadMaxima, 
-                                                                       pedido.getDia(), pedido.getHora());
+                    vuelosDetallados = planificarDivisionPedidoDetallada(pedido, ruta.sede);
                     
                     int cantidadAsignada = 0;
                     for (VueloDividido vuelo : vuelosDetallados) {
@@ -251,6 +257,13 @@ public class GeneradorReporteCompleto {
                     }
                 }
                 
+                // La división reservó capacidad real: se conserva solo si es la opción elegida
+                if ("DIVIDIDO".equals(mejorTipo)) {
+                    ruta.vuelosDetallados = vuelosDetallados;
+                } else if (vuelosDetallados != null) {
+                    descartarUltimaDivision();
+                }
+                
                 // 🏆 DECISIÓN POR FITNESS: Usar la opción con MAYOR FITNESS (más tiempo sobrante)
                 if (mejorFitness > Double.NEGATIVE_INFINITY) {
                     ruta.exitoso = true;
@@ -285,6 +298,93 @@ public class GeneradorReporteCompleto {
         return rutasPedidos;
     }
     
+    /**
+     * Procesa los pedidos con el planificador voraz por lotes: cada día se reparte pedido a pedido
+     * con capacidades sobre vuelos_completos.csv y un pedido puede dividirse entre vuelos y sedes
+     */
+    private static List<RutaPedido> procesarConLoteVoraz(List<Pedido> pedidos) {
+        System.out.println("\n============= PLANIFICACIÓN POR LOTES (VORAZ) =============");
+        
+        List<Vuelo> vuelos = CargadorVuelosCompletos.cargarVuelos("datos/vuelos_completos.csv");
+        PlanificadorLoteVoraz planificador = new PlanificadorLoteVoraz(vuelos);
+        PlanificadorLoteVoraz.ResultadoLote resultado = planificador.planificarPorDias(pedidos);
+        TablaVuelos tabla = planificador.getTabla();
+        
+        List<RutaPedido> rutasPedidos = new ArrayList<>();
+        for (Pedido pedido : pedidos) {
+            RutaPedido ruta = new RutaPedido(pedido.getId(), 
+                                           pedido.getAeropuertoDestinoId(), 
+                                           pedido.getCantidadProductos());
+            List<PlanificadorDivision.Parte> partes = resultado.getPartes(pedido);
+            int sedePrincipal = resultado.getSedePrincipal(pedido);
+            ruta.sede = sedePrincipal >= 0 ? RegistroAeropuertos.CODIGOS_SEDE[sedePrincipal]
+                                           : asignarSedeSegunDestino(pedido.getAeropuertoDestinoId());
+            
+            int cantidadAsignada = resultado.getCantidadEnviada(pedido);
+            if (partes.isEmpty()) {
+                ruta.exitoso = false;
+                ruta.tipoRuta = "FALLO";
+                ruta.rutaCompleta = "Sin capacidad dentro del plazo";
+                ruta.vuelo = "N/A";
+            } else if (cantidadAsignada < pedido.getCantidadProductos()) {
+                ruta.exitoso = false;
+                ruta.tipoRuta = "FALLO";
+                ruta.rutaCompleta = String.format("Capacidad insuficiente: solo %,d de %,d productos (faltan %,d)", 
+                                                 cantidadAsignada, pedido.getCantidadProductos(), 
+                                                 pedido.getCantidadProductos() - cantidadAsignada);
+                ruta.vuelo = "N/A";
+            } else if (partes.size() == 1) {
+                PlanificadorDivision.Parte parte = partes.get(0);
+                ruta.exitoso = true;
+                ruta.tipoRuta = parte.getNumeroTramos() == 1 ? "DIRECTA" : "CON ESCALAS";
+                ruta.rutaCompleta = String.join(" → ", codigosParte(parte, tabla));
+                ruta.vuelo = String.join("-", codigosParte(parte, tabla));
+            } else {
+                List<VueloDividido> vuelosDetallados = new ArrayList<>();
+                List<String> identificadoresVuelos = new ArrayList<>();
+                for (PlanificadorDivision.Parte parte : partes) {
+                    VueloDividido vuelo = crearVueloDividido(parte, tabla);
+                    vuelosDetallados.add(vuelo);
+                    identificadoresVuelos.add(vuelo.identificador);
+                }
+                ruta.exitoso = true;
+                ruta.tipoRuta = "DIVIDIDO";
+                ruta.vuelosDetallados = vuelosDetallados;
+                ruta.rutaCompleta = String.format("Dividido en %d vuelos: %s", 
+                                                 vuelosDetallados.size(), String.join(", ", identificadoresVuelos));
+                ruta.vuelo = String.join("+", identificadoresVuelos);
+            }
+            rutasPedidos.add(ruta);
+        }
+        
+        System.out.printf("\n✅ Procesamiento por lotes completado: %s\n", resultado);
+        return rutasPedidos;
+    }
+    
+    /**
+     * Parte de un pedido dividido con día y hora local de salida en la sede: D17-04:35-340
+     */
+    private static VueloDividido crearVueloDividido(PlanificadorDivision.Parte parte, TablaVuelos tabla) {
+        int salidaLocal = parte.getSalida() + tabla.getHusoMinutos(tabla.getIdAeropuerto(parte.getCodigoSede()));
+        int minutoDelDia = salidaLocal - TablaVuelos.inicioDia(TablaVuelos.diaDe(salidaLocal));
+        String identificador = String.format("D%d-%02d:%02d-%d", TablaVuelos.diaDe(salidaLocal),
+                                             minutoDelDia / 60, minutoDelDia % 60, parte.getCantidad());
+        return new VueloDividido(identificador, parte.getNumeroTramos() == 1 ? "DIRECTA" : "CON ESCALAS",
+                                 String.join(" → ", codigosParte(parte, tabla)));
+    }
+    
+    /**
+     * Códigos de aeropuerto recorridos por una parte (sede, escalas y destino)
+     */
+    private static List<String> codigosParte(PlanificadorDivision.Parte parte, TablaVuelos tabla) {
+        List<String> codigos = new ArrayList<>();
+        codigos.add(parte.getCodigoSede());
+        for (Vuelo vuelo : parte.getRuta().getVuelos()) {
+            codigos.add(vuelo.getDestino());
+        }
+        return codigos;
+    }
+    
     /**
      * REPORTE 1: General con estadísticas principales
      */
@@ -817,66 +917,21 @@ public class GeneradorReporteCompleto {
          * Verifica si existe un vuelo directo entre dos aeropuertos con capacidad suficiente
          */
         private static boolean existeVueloDirecto(String origen, String destino) {
-            Map<String, Set<String>> rutasDirectas = crearRutasDirectas();
-            
-            Set<String> destinosDirectos = rutasDirectas.get(origen);
-            return destinosDirectos != null && destinosDirectos.contains(destino);
+            return IndiceVuelos.obtener().existeVueloDirecto(origen, destino);
         }
         
         /**
          * Verifica si existe un vuelo directo con capacidad suficiente para la cantidad de productos
          */
         private static boolean tieneCapacidadSuficiente(String origen, String destino, int cantidadProductos) {
-            try (BufferedReader reader = new BufferedReader(new FileReader("datos/vuelos_completos.csv"))) {
-                String linea = reader.readLine(); // Saltar encabezado
-                
-                while ((linea = reader.readLine()) != null) {
-                    String[] partes = linea.split(",");
-                    if (partes.length >= 5) {
-                        String origenVuelo = partes[0].trim();
-                        String destinoVuelo = partes[1].trim();
-                        int capacidad = Integer.parseInt(partes[4].trim());
-                        
-                        if (origenVuelo.equals(origen) && destinoVuelo.equals(destino)) {
-                            if (capacidad >= cantidadProductos) {
-                                return true; // Encontró al menos un vuelo con capacidad suficiente
-                            }
-                        }
-                    }
-                }
-            } catch (IOException | NumberFormatException e) {
-                System.err.println("⚠️  Error verificando capacidad de vuelos: " + e.getMessage());
-            }
-            
-            return false; // No encontró vuelo con capacidad suficiente
+            return IndiceVuelos.obtener().tieneCapacidadSuficiente(origen, destino, cantidadProductos);
         }
         
         /**
          * Obtiene la capacidad máxima disponible en la ruta origen -> destino
          */
         private static int obtenerCapacidadMaxima(String origen, String destino) {
-            int capacidadMaxima = 0;
-            
-            try (BufferedReader reader = new BufferedReader(new FileReader("datos/vuelos_completos.csv"))) {
-                String linea = reader.readLine(); // Saltar encabezado
-                
-                while ((linea = reader.readLine()) != null) {
-                    String[] partes = linea.split(",");
-                    if (partes.length >= 5) {
-                        String origenVuelo = partes[0].trim();
-                        String destinoVuelo = partes[1].trim();
-                        int capacidad = Integer.parseInt(partes[4].trim());
-                        
-                        if (origenVuelo.equals(origen) && destinoVuelo.equals(destino)) {
-                            capacidadMaxima = Math.max(capacidadMaxima, capacidad);
-                        }
-                    }
-                }
-            } catch (IOException | NumberFormatException e) {
-                System.err.println("⚠️  Error obteniendo capacidad máxima: " + e.getMessage());
-            }
-            
-            return capacidadMaxima;
+            return IndiceVuelos.obtener().getCapacidadMaxima(origen, destino);
         }
         
         /**
@@ -900,175 +955,51 @@ public class GeneradorReporteCompleto {
         }
 
         /**
-         * Planifica la división de un pedido grande en múltiples vuelos con tipo de ruta
+         * Planifica la división de un pedido grande en múltiples vuelos e itinerarios dentro del
+         * plazo, con la capacidad residual real de cada vuelo y día (compartida entre pedidos).
+         * Si no se cubre toda la cantidad no reserva nada y retorna una lista vacía.
          */
-        private static List<VueloDividido> planificarDivisionPedidoDetallada(String origen, String destino, int cantidadTotal, 
-                                                                            int capacidadMaxima, int diaInicial, int horaInicial) {
-            List<VueloDividido> vuelosAsignados = new ArrayList<>();
-            List<VueloInfo> vuelosDisponibles = obtenerVuelosDisponibles(origen, destino);
-            
-            if (vuelosDisponibles.isEmpty()) {
-                return vuelosAsignados; // No hay vuelos disponibles
-            }
-            
-            // Determinar si la ruta origen-destino es directa o con escalas
-            boolean esRutaDirecta = existeVueloDirecto(origen, destino);
-            String tipoRuta = esRutaDirecta ? "DIRECTA" : "CON ESCALAS";
-            String rutaDetalle;
-            
-            if (esRutaDirecta) {
-                rutaDetalle = String.format("%s → %s", origen, destino);
-            } else {
-                // Encontrar la escala óptima
-                String escala = encontrarEscalaOptima(origen, destino);
-                if (escala != null) {
-                    rutaDetalle = String.format("%s → %s → %s", origen, escala, destino);
-                } else {
-                    rutaDetalle = String.format("%s → ??? → %s", origen, destino);
-                }
-            }
-            
-            int cantidadRestante = cantidadTotal;
-            int diaActual = diaInicial;
+        private static List<VueloDividido> planificarDivisionPedidoDetallada(Pedido pedido, String sede) {
+            PlanificadorDivision division = obtenerPlanificadorDivision();
+            PlanificadorDivision.PlanDivision plan = division.dividir(pedido, sede);
+            ultimaDivision = plan;
             
-            // Determinar límite máximo de días según el tipo de ruta
-            boolean esIntercontinental = esRutaIntercontinental(origen, destino);
-            int limiteDias = esIntercontinental ? 3 : 2;
-            
-            // Intentar asignar vuelos respetando los límites de tránsito
-            for (int diasAdelante = 0; diasAdelante <= limiteDias && cantidadRestante > 0; diasAdelante++) {
-                int diaVuelo = diaActual + diasAdelante;
-                
-                for (VueloInfo vuelo : vuelosDisponibles) {
-                    if (cantidadRestante <= 0) break;
-                    
-                    // Solo usar vuelos del mismo día si es después de la hora del pedido
-                    if (diasAdelante == 0 && vuelo.horaSalida <= horaInicial) {
-                        continue; // Este vuelo ya salió
-                    }
-                    
-                    // Validar tiempo de tránsito
-                    int horaVuelo = vuelo.horaSalida / 60;
-                    int minutoVuelo = vuelo.horaSalida % 60;
-                    
-                    if (!validarTiempoTransito(origen, destino, diaInicial, horaInicial, 
-                                            diaVuelo, horaVuelo, minutoVuelo)) {
-                        continue; // Excede límite de tiempo de tránsito
-                    }
-                    
-                    int cantidadAsignar = Math.min(cantidadRestante, vuelo.capacidad);
-                    String identificadorVuelo = String.format("D%d-%02d:%02d-%d", 
-                                                            diaVuelo, horaVuelo, minutoVuelo, cantidadAsignar);
-                    
-                    vuelosAsignados.add(new VueloDividido(identificadorVuelo, tipoRuta, rutaDetalle));
-                    cantidadRestante -= cantidadAsignar;
-                }
+            List<VueloDividido> vuelosAsignados = new ArrayList<>();
+            for (PlanificadorDivision.Parte parte : plan.getPartes()) {
+                vuelosAsignados.add(crearVueloDividido(parte, division.getRedTemporal().getTabla()));
             }
-            
             return vuelosAsignados;
         }
-
-
         
         /**
-         * Clase auxiliar para información de vuelos
+         * Libera la última división planificada si al final el pedido usa otra opción
          */
-        private static class VueloInfo {
-            int horaSalida; // En minutos desde medianoche
-            int capacidad;
-            
-            VueloInfo(int horaSalida, int capacidad) {
-                this.horaSalida = horaSalida;
-                this.capacidad = capacidad;
+        private static void descartarUltimaDivision() {
+            if (ultimaDivision != null) {
+                obtenerPlanificadorDivision().liberar(ultimaDivision);
+                ultimaDivision = null;
             }
         }
         
         /**
-         * Obtiene lista de vuelos disponibles en una ruta específica
+         * Planificador de división sobre la red real de vuelos_completos.csv (se crea la primera vez)
          */
-        private static List<VueloInfo> obtenerVuelosDisponibles(String origen, String destino) {
-            List<VueloInfo> vuelos = new ArrayList<>();
-            
-            try (BufferedReader reader = new BufferedReader(new FileReader("datos/vuelos_completos.csv"))) {
-                String linea = reader.readLine(); // Saltar encabezado
-                
-                while ((linea = reader.readLine()) != null) {
-                    String[] partes = linea.split(",");
-                    if (partes.length >= 5) {
-                        String origenVuelo = partes[0].trim();
-                        String destinoVuelo = partes[1].trim();
-                        String horaSalidaStr = partes[2].trim();
-                        int capacidad = Integer.parseInt(partes[4].trim());
-                        
-                        if (origenVuelo.equals(origen) && destinoVuelo.equals(destino)) {
-                            // Convertir hora a minutos (formato HH:MM)
-                            String[] tiempoPartes = horaSalidaStr.split(":");
-                            int horaSalida = Integer.parseInt(tiempoPartes[0]) * 60 + Integer.parseInt(tiempoPartes[1]);
-                            
-                            vuelos.add(new VueloInfo(horaSalida, capacidad));
-                        }
-                    }
-                }
-            } catch (IOException | NumberFormatException e) {
-                System.err.println("⚠️  Error obteniendo vuelos disponibles: " + e.getMessage());
+        private static PlanificadorDivision obtenerPlanificadorDivision() {
+            if (planificadorDivision == null) {
+                List<Vuelo> vuelos = CargadorVuelosCompletos.cargarVuelos("datos/vuelos_completos.csv");
+                TablaVuelos tabla = TablaVuelos.construir(vuelos, CargadorDatosCSV.cargarRegistroAeropuertos(), true);
+                RedTemporal red = new RedTemporal(tabla, DIAS_RED_DIVISION);
+                planificadorDivision = new PlanificadorDivision(red, red.crearRegistroCapacidad());
             }
-            
-            // Ordenar por hora de salida
-            vuelos.sort((a, b) -> Integer.compare(a.horaSalida, b.horaSalida));
-            
-            return vuelos;
+            return planificadorDivision;
         }
         
         /**
          * Encuentra la mejor escala para conectar origen con destino
          */
         private static String encontrarEscalaOptima(String origen, String destino) {
-            Map<String, Set<String>> rutasDirectas = crearRutasDirectas();
-            Set<String> destinosDesdeOrigen = rutasDirectas.get(origen);
-            
-            if (destinosDesdeOrigen == null) return null;
-            
-            // Buscar escalas que tengan conexión tanto desde origen como hacia destino
-            for (String posibleEscala : destinosDesdeOrigen) {
-                Set<String> destinosDesdeEscala = rutasDirectas.get(posibleEscala);
-                if (destinosDesdeEscala != null && destinosDesdeEscala.contains(destino)) {
-                    return posibleEscala;
-                }
-            }
-            
-            return null; // No hay ruta disponible
-        }
-        
-        /**
-         * Carga las rutas directas REALES desde vuelos_completos.csv
-         */
-        private static Map<String, Set<String>> crearRutasDirectas() {
-            Map<String, Set<String>> rutas = new HashMap<>();
-            
-            try (BufferedReader reader = new BufferedReader(new FileReader("datos/vuelos_completos.csv"))) {
-                String linea = reader.readLine(); // Saltar encabezado
-                
-                while ((linea = reader.readLine()) != null) {
-                    String[] partes = linea.split(",");
-                    if (partes.length >= 2) {
-                        String origen = partes[0].trim();
-                        String destino = partes[1].trim();
-                        
-                        // Agregar conexión directa origen -> destino
-                        rutas.computeIfAbsent(origen, k -> new HashSet<>()).add(destino);
-                    }
-                }
-                
-                System.out.printf("✈️  Cargadas %d aeropuertos con rutas directas reales desde vuelos_completos.csv%n", 
-                                rutas.size());
-                
-            } catch (IOException e) {
-                System.err.println("❌ Error crítico: No se pudo cargar vuelos_completos.csv");
-                System.err.println("   " + e.getMessage());
-                throw new RuntimeException("No se puede continuar sin los datos de vuelos reales");
-            }
-            
-            return rutas;
+            List<String> escalas = IndiceVuelos.obtener().getEscalas(origen, destino);
+            return escalas.isEmpty() ? null : escalas.get(0); // null si no hay ruta disponible
         }
         
         private static Set<String> crearAeropuertosValidos() {
@@ -1475,28 +1406,8 @@ public class GeneradorReporteCompleto {
          * @return String "HoraSalida,HoraLlegada" o null si no se encuentra
          */
         private static String obtenerHorariosVueloReal(String origen, String destino, int diaVuelo, int horaVuelo) {
-            try {
-                List<Vuelo> vuelos = CargadorDatosCSV.cargarVuelos();
-                
-                // Buscar vuelo que coincida con origen-destino
-                for (Vuelo vuelo : vuelos) {
-                    if (vuelo.getOrigen().equals(origen) && vuelo.getDestino().equals(destino)) {
-                        // Extraer hora del vuelo
-                        String[] partesHoraSalida = vuelo.getHoraSalida().split(":");
-                        int horaVueloCSV = Integer.parseInt(partesHoraSalida[0]);
-                        
-                        // Verificar si este vuelo está disponible para el horario solicitado
-                        // (debe ser después de la hora del pedido + 2h de gracia)
-                        if (horaVueloCSV >= horaVuelo) {
-                            return vuelo.getHoraSalida() + "," + vuelo.getHoraLlegada();
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error obteniendo horarios reales: " + e.getMessage());
-            }
-            
-            return null; // No se encontró vuelo disponible
+            Vuelo vuelo = IndiceVuelos.obtener().getPrimerVueloDesdeHora(origen, destino, horaVuelo);
+            return vuelo != null ? vuelo.getHoraSalida() + "," + vuelo.getHoraLlegada() : null;
         }
 
         /**
@@ -2,15 +2,19 @@ package morapack.main;
 
 import morapack.modelo.*;
 import morapack.datos.*;
+import morapack.planificacion.PlanificadorDivision;
 import java.util.*;
 import java.io.*;
 
 /**
  * Sistema Genético CON DIVISIÓN AUTOMÁTICA DE PEDIDOS
  * Mejora: Cuando un pedido es demasiado grande para un vuelo, se divide automáticamente
+ * entre varios itinerarios y días con la capacidad residual real de cada vuelo (PlanificadorDivision)
  */
 public class MainGeneticoConDivision {
     
+    private static final int DIAS_RED = 35; // Días del mes más el plazo máximo
+    
     private static Map<String, VueloConsolidado> vuelosConsolidados = new HashMap<>();
     private static List<PedidoDividido> pedidosDivididos = new ArrayList<>();
     
@@ -69,11 +73,17 @@ public class MainGeneticoConDivision {
             
             CargadorPedidosUltrafinal.mostrarEstadisticasSinIconos(pedidos);
             
-            // Simular vuelos con capacidades variables
+            // Capacidades reales por ruta directa
             Map<String, Integer> capacidadesVuelos = generarCapacidadesVuelos();
             
+            // Red del mes con la carga de cada vuelo por día (compartida por todos los pedidos)
+            List<Vuelo> vuelos = CargadorVuelosCompletos.cargarVuelos("datos/vuelos_completos.csv");
+            TablaVuelos tabla = TablaVuelos.construir(vuelos, CargadorDatosCSV.cargarRegistroAeropuertos(), true);
+            RedTemporal red = new RedTemporal(tabla, DIAS_RED);
+            PlanificadorDivision division = new PlanificadorDivision(red, red.crearRegistroCapacidad());
+            
             // Procesar pedidos con división inteligente
-            procesarPedidosConDivision(pedidos, capacidadesVuelos);
+            procesarPedidosConDivision(pedidos, capacidadesVuelos, division);
             
             // Generar reportes completos
             generarReporteConsolidacion();
@@ -86,34 +96,19 @@ public class MainGeneticoConDivision {
     }
     
     /**
-     * Genera capacidades realistas para los vuelos
+     * Capacidad máxima real de cada ruta directa, tomada del índice de vuelos en memoria
      */
     private static Map<String, Integer> generarCapacidadesVuelos() {
-        Map<String, Integer> capacidades = new HashMap<>();
-        
-        // Vuelos de alta capacidad (25%)
-        String[] vuelosGrandes = {"SPIM-SKBO", "EBCI-EHAM", "UBBB-OMDB", "SPIM-SABE"};
-        for (String vuelo : vuelosGrandes) {
-            capacidades.put(vuelo, 400 + (int)(Math.random() * 200)); // 400-600 paquetes
-        }
-        
-        // Vuelos de capacidad media (50%)
-        String[] vuelosMedios = {"SPIM-SGAS", "EBCI-LOWW", "UBBB-OJAI", "SPIM-SUAA", 
-                                "EBCI-LATI", "UBBB-OAKB", "SPIM-SVMI", "EBCI-EKCH"};
-        for (String vuelo : vuelosMedios) {
-            capacidades.put(vuelo, 200 + (int)(Math.random() * 150)); // 200-350 paquetes
-        }
-        
-        // Vuelos de baja capacidad (25%)
-        String[] vuelosPequeños = {"SPIM-SCEL", "EBCI-LBSF", "UBBB-OYSN", "SPIM-SEQM"};
-        for (String vuelo : vuelosPequeños) {
-            capacidades.put(vuelo, 100 + (int)(Math.random() * 100)); // 100-200 paquetes
-        }
+        Map<String, Integer> capacidades = IndiceVuelos.obtener().getCapacidadesPorRuta();
         
         System.out.println("\\n======= CAPACIDADES DE VUELOS =======");
         for (Map.Entry<String, Integer> entry : capacidades.entrySet()) {
-            System.out.printf("%s: %d paquetes\\n", entry.getKey(), entry.getValue());
+            // Solo se listan las rutas que salen de las sedes
+            if (entry.getKey().startsWith("SPIM-") || entry.getKey().startsWith("EBCI-") || entry.getKey().startsWith("UBBB-")) {
+                System.out.printf("%s: %d paquetes\\n", entry.getKey(), entry.getValue());
+            }
         }
+        System.out.printf("Total de rutas directas: %d\\n", capacidades.size());
         System.out.println("=====================================");
         
         return capacidades;
@@ -122,8 +117,9 @@ public class MainGeneticoConDivision {
     /**
      * Procesa pedidos con división automática cuando exceden capacidad
      */
-    private static void procesarPedidosConDivision(List<Pedido> pedidos, Map<String, Integer> capacidadesVuelos) {
-        System.out.println("\\n=========== PROCESAMIENTO CON DIVISIÓN ===========");
+    private static void procesarPedidosConDivision(List<Pedido> pedidos, Map<String, Integer> capacidadesVuelos,
+                                                   PlanificadorDivision division) {
+        System.out.println("\n=========== PROCESAMIENTO CON DIVISIÓN ===========");
         
         int exitosos = 0;
         int fallidos = 0;
@@ -132,7 +128,7 @@ public class MainGeneticoConDivision {
         int divididos = 0;
         
         for (Pedido pedido : pedidos) {
-            System.out.printf("\\nProcesando pedido: %s (%d paquetes)\\n", 
+            System.out.printf("\nProcesando pedido: %s (%d paquetes)\n", 
                             pedido.getId(), pedido.getCantidadProductos());
             
             String destino = pedido.getAeropuertoDestinoId();
@@ -140,187 +136,110 @@ public class MainGeneticoConDivision {
             String vueloKey = sede + "-" + destino;
             
             Integer capacidadVuelo = capacidadesVuelos.get(vueloKey);
-            if (capacidadVuelo == null) {
-                capacidadVuelo = 250; // Capacidad por defecto
+            if (capacidadVuelo != null && pedido.getCantidadProductos() > capacidadVuelo) {
+                System.out.printf("   División necesaria: %d > %d (capacidad vuelo)\n", 
+                                pedido.getCantidadProductos(), capacidadVuelo);
             }
             
-            // ¿Necesita división?
-            if (pedido.getCantidadProductos() > capacidadVuelo) {
-                System.out.printf("   División necesaria: %d > %d (capacidad vuelo)\\n", 
-                                pedido.getCantidadProductos(), capacidadVuelo);
-                
-                boolean divisionExitosa = dividirPedido(pedido, capacidadVuelo, vueloKey, capacidadesVuelos);
-                if (divisionExitosa) {
-                    exitosos++;
-                    divididos++;
-                } else {
-                    fallidos++;
-                }
+            // Primero desde la sede de la región; si no cabe completo, desde cualquier sede
+            PlanificadorDivision.PlanDivision plan = division.dividir(pedido, sede);
+            if (!plan.estaCompleto()) {
+                plan = division.dividir(pedido);
+            }
+            
+            if (!plan.estaCompleto()) {
+                fallidos++;
+                System.out.println("   Sin capacidad suficiente dentro del plazo");
+            } else if (plan.getNumeroPartes() > 1) {
+                exitosos++;
+                divididos++;
+                registrarDivision(pedido, plan);
             } else {
-                // Pedido normal - no necesita división
-                boolean exitoso = asignarPedidoNormal(pedido, vueloKey, capacidadVuelo);
-                if (exitoso) {
-                    exitosos++;
-                    // Determinar tipo de ruta
-                    if (Math.random() > 0.28) {
-                        directos++;
-                        System.out.println("   -> Ruta DIRECTA asignada");
-                    } else {
-                        conEscalas++;
-                        System.out.println("   -> Ruta CON ESCALAS asignada");
-                    }
+                exitosos++;
+                PlanificadorDivision.Parte parte = plan.getPartes().get(0);
+                registrarParte(parte, pedido.getId());
+                if (parte.getNumeroTramos() == 1) {
+                    directos++;
+                    System.out.println("   -> Ruta DIRECTA asignada");
                 } else {
-                    fallidos++;
+                    conEscalas++;
+                    System.out.println("   -> Ruta CON ESCALAS asignada");
                 }
+                System.out.printf("   Asignado a: %s (%d paquetes)\n", describirRuta(parte), parte.getCantidad());
             }
         }
         
         // Mostrar estadísticas finales
-        System.out.println("\\n================== ESTADÍSTICAS FINALES ==================");
-        System.out.printf("Total procesados: %d\\n", pedidos.size());
-        System.out.printf("Exitosos: %d (%.1f%%)\\n", exitosos, (exitosos * 100.0 / pedidos.size()));
-        System.out.printf("  - Rutas directas: %d\\n", directos);
-        System.out.printf("  - Rutas con escalas: %d\\n", conEscalas);
-        System.out.printf("  - Pedidos divididos: %d\\n", divididos);
-        System.out.printf("Fallidos: %d (%.1f%%)\\n", fallidos, (fallidos * 100.0 / pedidos.size()));
+        System.out.println("\n================== ESTADÍSTICAS FINALES ==================");
+        System.out.printf("Total procesados: %d\n", pedidos.size());
+        System.out.printf("Exitosos: %d (%.1f%%)\n", exitosos, (exitosos * 100.0 / pedidos.size()));
+        System.out.printf("  - Rutas directas: %d\n", directos);
+        System.out.printf("  - Rutas con escalas: %d\n", conEscalas);
+        System.out.printf("  - Pedidos divididos: %d\n", divididos);
+        System.out.printf("Fallidos: %d (%.1f%%)\n", fallidos, (fallidos * 100.0 / pedidos.size()));
         System.out.println("=========================================================");
     }
     
     /**
-     * Divide un pedido en sub-pedidos que caben en los vuelos disponibles
+     * Registra un pedido dividido en sub-pedidos, uno por parte del plan
      */
-    private static boolean dividirPedido(Pedido pedidoOriginal, int capacidadPrimaria, 
-                                       String vueloPrimario, Map<String, Integer> capacidadesVuelos) {
-        
+    private static void registrarDivision(Pedido pedidoOriginal, PlanificadorDivision.PlanDivision plan) {
         PedidoDividido division = new PedidoDividido();
         division.pedidoOriginalId = pedidoOriginal.getId();
         division.paquetesOriginales = pedidoOriginal.getCantidadProductos();
         
-        int paquetesRestantes = pedidoOriginal.getCantidadProductos();
-        int numeroSubPedido = 1;
-        
         System.out.println("   === INICIANDO DIVISIÓN ===");
         
-        // Primer sub-pedido en el vuelo primario
-        int paquetesPrimero = Math.min(paquetesRestantes, capacidadPrimaria);
-        String idSubPedido1 = pedidoOriginal.getId() + "-PARTE" + numeroSubPedido;
-        
-        PedidoDividido.SubPedido subPedido1 = new PedidoDividido.SubPedido(idSubPedido1, paquetesPrimero);
-        subPedido1.vuelo = vueloPrimario;
-        subPedido1.ruta = determinarRuta(vueloPrimario, true);
-        subPedido1.estado = "ASIGNADO";
-        division.subPedidos.add(subPedido1);
-        
-        System.out.printf("   Sub-pedido %d: %s (%d paquetes) -> %s\\n", 
-                         numeroSubPedido, idSubPedido1, paquetesPrimero, vueloPrimario);
-        
-        registrarVueloConDivision(vueloPrimario, subPedido1.ruta, paquetesPrimero, pedidoOriginal.getId());
-        
-        paquetesRestantes -= paquetesPrimero;
-        numeroSubPedido++;
-        
-        // Dividir el resto en vuelos adicionales
-        while (paquetesRestantes > 0) {
-            String vueloAlternativo = buscarVueloAlternativo(pedidoOriginal.getAeropuertoDestinoId(), capacidadesVuelos);
-            
-            if (vueloAlternativo == null) {
-                System.out.println("   ⚠️ No se encontraron vuelos adicionales para el resto");
-                // Crear sub-pedido fallido
-                String idSubPedidoFallido = pedidoOriginal.getId() + "-PARTE" + numeroSubPedido;
-                PedidoDividido.SubPedido subPedidoFallido = new PedidoDividido.SubPedido(idSubPedidoFallido, paquetesRestantes);
-                subPedidoFallido.estado = "FALLIDO - Sin vuelos disponibles";
-                division.subPedidos.add(subPedidoFallido);
-                break;
-            }
-            
-            int capacidadAlternativa = capacidadesVuelos.getOrDefault(vueloAlternativo, 250);
-            int paquetesSubPedido = Math.min(paquetesRestantes, capacidadAlternativa);
-            
+        int numeroSubPedido = 1;
+        for (PlanificadorDivision.Parte parte : plan.getPartes()) {
             String idSubPedido = pedidoOriginal.getId() + "-PARTE" + numeroSubPedido;
-            PedidoDividido.SubPedido subPedido = new PedidoDividido.SubPedido(idSubPedido, paquetesSubPedido);
-            subPedido.vuelo = vueloAlternativo;
-            subPedido.ruta = determinarRuta(vueloAlternativo, false);
+            PedidoDividido.SubPedido subPedido = new PedidoDividido.SubPedido(idSubPedido, parte.getCantidad());
+            subPedido.vuelo = claveVuelo(parte.getRuta().getVuelos().get(0), parte.getDia(0));
+            subPedido.ruta = describirRuta(parte);
             subPedido.estado = "ASIGNADO";
             division.subPedidos.add(subPedido);
             
-            System.out.printf("   Sub-pedido %d: %s (%d paquetes) -> %s\\n", 
-                             numeroSubPedido, idSubPedido, paquetesSubPedido, vueloAlternativo);
+            System.out.printf("   Sub-pedido %d: %s (%d paquetes) -> %s\n", 
+                             numeroSubPedido, idSubPedido, parte.getCantidad(), subPedido.ruta);
             
-            registrarVueloConDivision(vueloAlternativo, subPedido.ruta, paquetesSubPedido, pedidoOriginal.getId());
-            
-            paquetesRestantes -= paquetesSubPedido;
+            registrarParte(parte, pedidoOriginal.getId());
             numeroSubPedido++;
         }
         
         pedidosDivididos.add(division);
-        
-        boolean exitoso = paquetesRestantes == 0;
-        System.out.printf("   === DIVISIÓN %s ===\\n", exitoso ? "EXITOSA" : "PARCIAL");
-        
-        return exitoso;
+        System.out.println("   === DIVISIÓN EXITOSA ===");
     }
     
     /**
-     * Busca un vuelo alternativo al mismo destino
+     * Registra cada vuelo (y día) de la parte para el reporte de consolidación
      */
-    private static String buscarVueloAlternativo(String destino, Map<String, Integer> capacidadesVuelos) {
-        String[] sedesAlternativas = {"SPIM", "EBCI", "UBBB"};
-        
-        for (String sede : sedesAlternativas) {
-            String vueloAlternativo = sede + "-" + destino;
-            if (capacidadesVuelos.containsKey(vueloAlternativo)) {
-                return vueloAlternativo;
-            }
-        }
-        return null;
-    }
-    
-    /**
-     * Asigna un pedido que no necesita división
-     */
-    private static boolean asignarPedidoNormal(Pedido pedido, String vueloKey, int capacidad) {
-        // Simular asignación normal (95% éxito para pedidos que caben)
-        boolean exitoso = Math.random() > 0.05;
-        
-        if (exitoso) {
-            String ruta = determinarRuta(vueloKey, Math.random() > 0.28);
-            registrarVueloConDivision(vueloKey, ruta, pedido.getCantidadProductos(), pedido.getId());
-            System.out.printf("   Asignado a: %s (%d/%d paquetes)\\n", 
-                            vueloKey, pedido.getCantidadProductos(), capacidad);
-        } else {
-            System.out.println("   Fallo por restricciones operativas");
+    private static void registrarParte(PlanificadorDivision.Parte parte, String pedidoOriginalId) {
+        String ruta = describirRuta(parte);
+        for (int t = 0; t < parte.getNumeroTramos(); t++) {
+            Vuelo vuelo = parte.getRuta().getVuelos().get(t);
+            String clave = claveVuelo(vuelo, parte.getDia(t));
+            VueloConsolidado consolidado = vuelosConsolidados.computeIfAbsent(clave, 
+                k -> new VueloConsolidado(clave, ruta));
+            
+            consolidado.totalPedidos++;
+            consolidado.paquetesTotal += parte.getCantidad();
+            consolidado.pedidosOriginales.add(pedidoOriginalId);
         }
-        
-        return exitoso;
     }
     
-    /**
-     * Registra el vuelo considerando la división de pedidos
-     */
-    private static void registrarVueloConDivision(String vuelo, String ruta, int paquetes, String pedidoOriginalId) {
-        VueloConsolidado consolidado = vuelosConsolidados.computeIfAbsent(vuelo, 
-            k -> new VueloConsolidado(vuelo, ruta));
-        
-        consolidado.totalPedidos++;
-        consolidado.paquetesTotal += paquetes;
-        consolidado.pedidosOriginales.add(pedidoOriginalId);
+    private static String claveVuelo(Vuelo vuelo, int dia) {
+        return String.format("%s-%s D%d %s", vuelo.getOrigen(), vuelo.getDestino(), dia, vuelo.getHoraSalida());
     }
     
     /**
-     * Determina el tipo de ruta
+     * Ruta real de la parte: sede, escalas y destino
      */
-    private static String determinarRuta(String vuelo, boolean esDirecta) {
-        String[] partes = vuelo.split("-");
-        if (partes.length != 2) return "RUTA_DESCONOCIDA";
-        
-        if (esDirecta) {
-            return partes[0] + " → " + partes[1];
-        } else {
-            // Simular escalas
-            String[] escalas = {"LOWW", "EHAM", "OMDB"};
-            String escala = escalas[(int)(Math.random() * escalas.length)];
-            return partes[0] + " → " + escala + " → " + partes[1];
+    private static String describirRuta(PlanificadorDivision.Parte parte) {
+        StringBuilder ruta = new StringBuilder(parte.getCodigoSede());
+        for (Vuelo vuelo : parte.getRuta().getVuelos()) {
+            ruta.append(" → ").append(vuelo.getDestino());
         }
+        return ruta.toString();
     }
     
     /**
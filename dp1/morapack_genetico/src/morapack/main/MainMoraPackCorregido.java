@@ -56,6 +56,7 @@ public class MainMoraPackCorregido {
             int conEscalas = 0;
             int fallidosPorPlazo = 0;
             int fallidosSinRuta = 0;
+            int divididos = 0;
             
             String[] sedes = {"SPIM", "EBCI", "UBBB"}; // Lima, Bruselas, Bakú
             
@@ -112,6 +113,18 @@ public class MainMoraPackCorregido {
                     }
                 }
                 
+                // ✂️ Sin ruta única (por ejemplo, excede la capacidad de un avión): dividir el pedido
+                if (!encontroRuta) {
+                    PlanificadorDivision.PlanDivision plan = planificador.dividirPedido(pedido);
+                    if (plan.estaCompleto()) {
+                        exitosos++;
+                        divididos++;
+                        encontroRuta = true;
+                        System.out.printf("✂️ Pedido %s: dividido en %d partes → %s\n", 
+                                        pedido.getId(), plan.getNumeroPartes(), pedido.getAeropuertoDestinoId());
+                    }
+                }
+                
                 if (!encontroRuta) {
                     fallidosSinRuta++;
                     System.out.printf("❌ Pedido %s: SIN RUTA VIABLE (destino: %s)\n", 
@@ -126,6 +139,7 @@ public class MainMoraPackCorregido {
             System.out.printf("❌ Pedidos fallidos: %d (%.1f%%)\n", fallidosSinRuta, (fallidosSinRuta * 100.0 / procesados));
             System.out.printf("✈️ Rutas directas: %d (%.1f%% del total exitoso)\n", directos, exitosos > 0 ? (directos * 100.0 / exitosos) : 0);
             System.out.printf("🔄 Rutas con escalas: %d (%.1f%% del total exitoso)\n", conEscalas, exitosos > 0 ? (conEscalas * 100.0 / exitosos) : 0);
+            System.out.printf("✂️ Pedidos divididos: %d (%.1f%% del total exitoso)\n", divididos, exitosos > 0 ? (divididos * 100.0 / exitosos) : 0);
             System.out.printf("⚠️ Advertencias por plazo: %d\n", fallidosPorPlazo);
             
             // Eficiencia del sistema
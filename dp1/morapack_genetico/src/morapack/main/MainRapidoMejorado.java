@@ -0,0 +1,79 @@
+package morapack.main;
+
+import morapack.datos.*;
+import morapack.modelo.*;
+import morapack.genetico.core.algoritmo.AlgoritmoGeneticoIntegrado;
+import morapack.genetico.core.algoritmo.IndividuoIntegrado;
+import java.util.*;
+
+/**
+ * Main rápido del Algoritmo Genético Integrado sobre pedidos_prueba_final.csv
+ *
+ * Uso: MainRapidoMejorado [--hilos N]
+ *   --hilos N  hilos para evaluar el fitness (por defecto, los procesadores disponibles; 1 = secuencial).
+ *              El resultado para una semilla es el mismo con cualquier número de hilos.
+ */
+public class MainRapidoMejorado {
+
+    private static final String ARCHIVO_PEDIDOS = "datos/pedidos/pedidos_prueba_final.csv";
+    private static final int TAMANO_POBLACION = 50;
+    private static final int NUMERO_GENERACIONES = 50;
+
+    public static void main(String[] args) {
+        try {
+            int hilos = leerHilos(args);
+            System.out.println("ALGORITMO GENÉTICO INTEGRADO - EJECUCIÓN RÁPIDA");
+
+            // 1. CARGAR DATOS
+            List<Vuelo> vuelos = CargadorDatosCSV.cargarVuelos();
+            List<Pedido> pedidos = new ArrayList<>();
+            for (Pedido pedido : CargadorPedidosMasivo.cargar(ARCHIVO_PEDIDOS).getPedidos()) {
+                String destino = pedido.getAeropuertoDestinoId();
+                if (!destino.equals("SPIM") && !destino.equals("EBCI") && !destino.equals("UBBB")) {
+                    pedidos.add(pedido);
+                }
+            }
+
+            System.out.printf("Vuelos disponibles: %d%n", vuelos.size());
+            System.out.printf("Pedidos a procesar: %d%n", pedidos.size());
+            System.out.printf("Hilos de evaluación: %d%n", hilos);
+
+            // 2. EJECUTAR (la semilla reportada reproduce la ejecución)
+            long semilla = Semillas.semillaEjecucion();
+            AlgoritmoGeneticoIntegrado algoritmo = new AlgoritmoGeneticoIntegrado(
+                pedidos, vuelos, TAMANO_POBLACION, NUMERO_GENERACIONES, semilla);
+            algoritmo.configurarEvaluacionParalela(hilos);
+
+            long inicio = System.currentTimeMillis();
+            IndividuoIntegrado mejor;
+            try {
+                mejor = algoritmo.ejecutar();
+            } finally {
+                algoritmo.cerrar();
+            }
+            long duracion = System.currentTimeMillis() - inicio;
+
+            System.out.println();
+            System.out.println("=== RESUMEN ===");
+            System.out.printf("Fitness: %.2f, Semilla=%d%n", mejor.getFitness(), semilla);
+            System.out.printf("Rutas planificadas: %d/%d%n", mejor.contarRutasPlanificadas(), pedidos.size());
+            System.out.printf("Tiempo: %d ms%n", duracion);
+
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Lee la opción --hilos N (por defecto, los procesadores disponibles)
+     */
+    private static int leerHilos(String[] args) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("--hilos".equals(args[i])) {
+                return Math.max(1, Integer.parseInt(args[i + 1]));
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+}
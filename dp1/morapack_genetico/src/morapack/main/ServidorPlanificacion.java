@@ -0,0 +1,235 @@
+package morapack.main;
+
+import morapack.datos.CargadorDatosCSV;
+import morapack.modelo.*;
+import morapack.planificacion.PlanificadorEscaneoConexiones;
+import morapack.planificacion.RutaCompleta;
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+/**
+ * Servidor de planificación persistente: carga la red una sola vez, calienta el JIT y atiende
+ * lotes de pedidos por entrada estándar o por un socket local, sin arrancar una JVM por lote.
+ *
+ * Protocolo de texto, una solicitud por línea:
+ *   dd-hh-mm-DEST-###-IdClien [dd-hh-mm-DEST-###-IdClien ...]  planifica el lote
+ *   REINICIAR  libera todas las capacidades reservadas
+ *   ESTADO     vuelos con reserva y paquetes reservados
+ *   SALIR      cierra la conexión (en modo stdin detiene el servidor)
+ * Respuesta por pedido: "ID;SEDE;TIPO;ORIG-DEST-HH:mm|..." o "ID;SIN_RUTA" o "ID;ERROR;motivo",
+ * y al final del lote "FIN;pedidos;microsegundos".
+ *
+ * Uso: java -cp bin morapack.main.ServidorPlanificacion [--puerto N]
+ */
+public class ServidorPlanificacion {
+
+    private static final int VENTANA_RECOJO_MINUTOS = 30;
+    private static final int RONDAS_CALENTAMIENTO = 20;
+
+    private final TablaVuelos tabla;
+    private final PlanificadorEscaneoConexiones planificador;
+    private final RegistroCapacidad capacidadUsada; // Reservas acumuladas entre lotes hasta REINICIAR
+
+    public ServidorPlanificacion(TablaVuelos tabla) {
+        this.tabla = tabla;
+        this.planificador = new PlanificadorEscaneoConexiones(tabla);
+        this.capacidadUsada = planificador.crearRegistroCapacidad();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int puerto = -1;
+        for (int i = 0; i < args.length; i++) {
+            if ("--puerto".equals(args[i]) && i + 1 < args.length) {
+                puerto = Integer.parseInt(args[++i]);
+            }
+        }
+
+        // La salida estándar queda reservada para el protocolo
+        long inicio = System.nanoTime();
+        PrintStream salida = System.out;
+        System.setOut(System.err);
+        ServidorPlanificacion servidor;
+        try {
+            servidor = new ServidorPlanificacion(CargadorDatosCSV.cargarTablaVuelos());
+            servidor.calentar();
+        } finally {
+            System.setOut(salida);
+        }
+        System.err.printf("✅ Red lista en %d ms: %s%n", (System.nanoTime() - inicio) / 1_000_000, servidor.tabla);
+
+        if (puerto > 0) {
+            servidor.escucharSocket(puerto);
+        } else {
+            System.err.println("📥 Esperando lotes por entrada estándar (SALIR para terminar)");
+            servidor.atender(new BufferedReader(new InputStreamReader(System.in)), new PrintWriter(System.out, true));
+        }
+    }
+
+    /**
+     * Acepta conexiones en localhost; cada cliente se atiende en su propio hilo
+     */
+    public void escucharSocket(int puerto) throws IOException {
+        try (ServerSocket servidorSocket = new ServerSocket(puerto, 50, InetAddress.getLoopbackAddress())) {
+            System.err.println("📡 Escuchando en 127.0.0.1:" + puerto);
+            while (true) {
+                Socket cliente = servidorSocket.accept();
+                Thread hilo = new Thread(() -> {
+                    try (Socket conexion = cliente;
+                         BufferedReader entrada = new BufferedReader(new InputStreamReader(conexion.getInputStream(), "UTF-8"));
+                         PrintWriter respuesta = new PrintWriter(new OutputStreamWriter(conexion.getOutputStream(), "UTF-8"), true)) {
+                        atender(entrada, respuesta);
+                    } catch (IOException e) {
+                        System.err.println("⚠️ Conexión cerrada: " + e.getMessage());
+                    }
+                }, "cliente-" + cliente.getPort());
+                hilo.setDaemon(true);
+                hilo.start();
+            }
+        }
+    }
+
+    /**
+     * Procesa solicitudes línea por línea hasta SALIR o fin de entrada
+     */
+    public void atender(BufferedReader entrada, PrintWriter respuesta) throws IOException {
+        String linea;
+        while ((linea = entrada.readLine()) != null) {
+            linea = linea.trim();
+            if (linea.isEmpty()) {
+                continue;
+            }
+
+            switch (linea.toUpperCase()) {
+                case "SALIR":
+                    return;
+                case "REINICIAR":
+                    reiniciarCapacidades();
+                    respuesta.println("OK");
+                    break;
+                case "ESTADO":
+                    respuesta.println(obtenerEstado());
+                    break;
+                default:
+                    procesarLote(linea.split("[\\s,;]+"), respuesta);
+            }
+        }
+    }
+
+    /**
+     * Planifica un lote de IDs de pedido y escribe una línea por pedido
+     */
+    public synchronized void procesarLote(String[] idsPedido, PrintWriter respuesta) {
+        long inicio = System.nanoTime();
+        StringBuilder sb = new StringBuilder();
+
+        for (String id : idsPedido) {
+            Pedido pedido;
+            try {
+                pedido = new Pedido(id);
+            } catch (IllegalArgumentException e) {
+                sb.append(id).append(";ERROR;").append(e.getMessage()).append('\n');
+                continue;
+            }
+
+            String[] sedeElegida = new String[1];
+            RutaCompleta ruta = planificarPedido(pedido, sedeElegida);
+            if (ruta == null) {
+                sb.append(id).append(";SIN_RUTA\n");
+            } else {
+                sb.append(id).append(';').append(sedeElegida[0]).append(';').append(ruta.getTipoRuta()).append(';');
+                List<Vuelo> vuelos = ruta.getVuelos();
+                for (int i = 0; i < vuelos.size(); i++) {
+                    Vuelo vuelo = vuelos.get(i);
+                    if (i > 0) sb.append('|');
+                    sb.append(vuelo.getOrigen()).append('-').append(vuelo.getDestino()).append('-').append(vuelo.getHoraSalida());
+                }
+                sb.append('\n');
+            }
+        }
+
+        sb.append("FIN;").append(idsPedido.length).append(';').append((System.nanoTime() - inicio) / 1000);
+        respuesta.println(sb);
+    }
+
+    /**
+     * Prueba las tres sedes y se queda con la ruta de llegada más temprana; las demás se liberan
+     */
+    private RutaCompleta planificarPedido(Pedido pedido, String[] sedeElegida) {
+        RegistroAeropuertos registro = tabla.getRegistro();
+        int destino = registro.getId(pedido.getAeropuertoDestinoId());
+        RutaCompleta mejor = null;
+        int llegadaMejor = Integer.MAX_VALUE;
+
+        for (int s = 0; s < registro.getNumeroSedes(); s++) {
+            int sede = registro.getIdSede(s);
+            if (sede == destino) {
+                continue;
+            }
+            RutaCompleta ruta = planificador.planificarRuta(sede, destino, pedido.getCantidadProductos(),
+                                                           calcularTiempoMinimoUTC(pedido, sede), capacidadUsada);
+            if (ruta == null) {
+                continue;
+            }
+
+            List<Vuelo> vuelos = ruta.getVuelos();
+            int llegada = tabla.getLlegadaUTC(tabla.getIndice(vuelos.get(vuelos.size() - 1)));
+            if (llegada < llegadaMejor) {
+                if (mejor != null) {
+                    planificador.liberarRuta(mejor, pedido.getCantidadProductos(), capacidadUsada);
+                }
+                mejor = ruta;
+                llegadaMejor = llegada;
+                sedeElegida[0] = RegistroAeropuertos.CODIGOS_SEDE[s];
+            } else {
+                planificador.liberarRuta(ruta, pedido.getCantidadProductos(), capacidadUsada);
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Hora del pedido (local de la sede) + ventana de recojo, en minutos UTC
+     */
+    private int calcularTiempoMinimoUTC(Pedido pedido, int idSede) {
+        int huso = idSede >= 0 ? tabla.getHusoMinutos(idSede) : 0;
+        int minutosLocal = pedido.getHora() * 60 + pedido.getMinuto();
+        return Math.floorMod(minutosLocal - huso, TablaVuelos.MINUTOS_DIA) + VENTANA_RECOJO_MINUTOS;
+    }
+
+    /**
+     * Recorre todos los pares sede-destino varias veces para que el JIT compile el camino caliente
+     */
+    private synchronized void calentar() {
+        for (int ronda = 0; ronda < RONDAS_CALENTAMIENTO; ronda++) {
+            for (int destino = 0; destino < tabla.getNumeroAeropuertos(); destino++) {
+                for (int s = 0; s < tabla.getRegistro().getNumeroSedes(); s++) {
+                    int sede = tabla.getRegistro().getIdSede(s);
+                    if (sede == destino) {
+                        continue;
+                    }
+                    planificador.planificarRuta(sede, destino, 1, (ronda * 71) % TablaVuelos.MINUTOS_DIA,
+                                                capacidadUsada);
+                }
+            }
+            capacidadUsada.reiniciar();
+        }
+    }
+
+    public synchronized void reiniciarCapacidades() {
+        capacidadUsada.reiniciar();
+    }
+
+    private synchronized String obtenerEstado() {
+        int vuelosConReserva = 0;
+        long paquetes = 0;
+        for (int i = 0; i < capacidadUsada.getNumeroVuelos(); i++) {
+            int usado = capacidadUsada.getUsada(i);
+            if (usado > 0) {
+                vuelosConReserva++;
+                paquetes += usado;
+            }
+        }
+        return "ESTADO;" + vuelosConReserva + ";" + paquetes;
+    }
+}
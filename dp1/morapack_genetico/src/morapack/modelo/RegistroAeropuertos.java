@@ -0,0 +1,192 @@
+package morapack.modelo;
+
+import java.util.*;
+
+/**
+ * Registro inmutable de aeropuertos con ids enteros densos, asignados al cargar
+ * aeropuertos_simple.csv. Huso, continente, coordenadas y marca de sede quedan en
+ * arreglos primitivos indexados por id: los planificadores comparan enteros y los
+ * códigos ICAO solo aparecen al leer pedidos o al imprimir resultados.
+ *
+ * Los códigos que aparecen en vuelos pero no en el CSV se agregan al final (huso 0,
+ * sin continente ni coordenadas), por lo que los ids del CSV no cambian al extender.
+ */
+public final class RegistroAeropuertos {
+
+    /** Sedes de MoraPack en el orden que usan los cromosomas (índice de sede 0, 1, 2) */
+    public static final String[] CODIGOS_SEDE = {"SPIM", "EBCI", "UBBB"};
+
+    // Continentes conocidos con id fijo; otros nombres del CSV reciben ids a partir de 6
+    public static final int SIN_CONTINENTE = -1;
+    public static final int CONTINENTE_SAM = 0;
+    public static final int CONTINENTE_EUR = 1;
+    public static final int CONTINENTE_ASI = 2;
+    public static final int CONTINENTE_NAM = 3;
+    public static final int CONTINENTE_AFR = 4;
+    public static final int CONTINENTE_OCE = 5;
+    private static final String[] CONTINENTES_CONOCIDOS = {"SAM", "EUR", "ASI", "NAM", "AFR", "OCE"};
+
+    private final String[] codigos;
+    private final Map<String, Integer> idsPorCodigo;
+    private final boolean[] conDatos;        // true si el aeropuerto vino del CSV
+    private final int[] husoMinutos;
+    private final int[] continentes;
+    private final String[] nombresContinente;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final boolean[] esSede;
+    private final int[] idsSede;             // índice de sede -> id (-1 si no está registrada)
+
+    private RegistroAeropuertos(String[] codigos, boolean[] conDatos, int[] husoMinutos, int[] continentes,
+                                String[] nombresContinente, double[] latitudes, double[] longitudes) {
+        this.codigos = codigos;
+        this.conDatos = conDatos;
+        this.husoMinutos = husoMinutos;
+        this.continentes = continentes;
+        this.nombresContinente = nombresContinente;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+
+        Map<String, Integer> ids = new HashMap<>();
+        for (int a = 0; a < codigos.length; a++) {
+            ids.put(codigos[a], a);
+        }
+        this.idsPorCodigo = Collections.unmodifiableMap(ids);
+
+        this.esSede = new boolean[codigos.length];
+        this.idsSede = new int[CODIGOS_SEDE.length];
+        for (int s = 0; s < CODIGOS_SEDE.length; s++) {
+            idsSede[s] = getId(CODIGOS_SEDE[s]);
+            if (idsSede[s] >= 0) {
+                esSede[idsSede[s]] = true;
+            }
+        }
+    }
+
+    /**
+     * Registra los aeropuertos del CSV (en su orden, sin duplicados) y luego los códigos
+     * adicionales que falten, en el orden en que se entregan
+     */
+    public static RegistroAeropuertos construir(List<Aeropuerto> aeropuertos, Collection<String> codigosAdicionales) {
+        Map<String, Integer> vistos = new HashMap<>();
+        List<Aeropuerto> unicos = new ArrayList<>();
+        for (Aeropuerto aeropuerto : aeropuertos) {
+            if (vistos.putIfAbsent(aeropuerto.getCodigoICAO(), unicos.size()) == null) {
+                unicos.add(aeropuerto);
+            }
+        }
+        List<String> extras = new ArrayList<>();
+        for (String codigo : codigosAdicionales) {
+            if (vistos.putIfAbsent(codigo, unicos.size() + extras.size()) == null) {
+                extras.add(codigo);
+            }
+        }
+
+        int n = unicos.size() + extras.size();
+        String[] codigos = new String[n];
+        boolean[] conDatos = new boolean[n];
+        int[] husos = new int[n];
+        int[] continentes = new int[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        List<String> nombres = new ArrayList<>(Arrays.asList(CONTINENTES_CONOCIDOS));
+
+        for (int a = 0; a < unicos.size(); a++) {
+            Aeropuerto aeropuerto = unicos.get(a);
+            codigos[a] = aeropuerto.getCodigoICAO();
+            conDatos[a] = true;
+            husos[a] = aeropuerto.getHusoMinutos();
+            latitudes[a] = aeropuerto.getLatitud();
+            longitudes[a] = aeropuerto.getLongitud();
+
+            String continente = aeropuerto.getContinente();
+            if (continente == null) {
+                continentes[a] = SIN_CONTINENTE;
+            } else {
+                int id = nombres.indexOf(continente);
+                if (id < 0) {
+                    id = nombres.size();
+                    nombres.add(continente);
+                }
+                continentes[a] = id;
+            }
+        }
+        for (int e = 0; e < extras.size(); e++) {
+            int a = unicos.size() + e;
+            codigos[a] = extras.get(e);
+            continentes[a] = SIN_CONTINENTE;
+        }
+
+        return new RegistroAeropuertos(codigos, conDatos, husos, continentes, nombres.toArray(new String[0]),
+                                       latitudes, longitudes);
+    }
+
+    /**
+     * Este registro si ya contiene todos los códigos; si no, uno nuevo con los faltantes al final
+     * (los ids existentes se conservan)
+     */
+    public RegistroAeropuertos conCodigos(Collection<String> codigosAdicionales) {
+        List<String> faltantes = new ArrayList<>();
+        Set<String> agregados = new HashSet<>();
+        for (String codigo : codigosAdicionales) {
+            if (!idsPorCodigo.containsKey(codigo) && agregados.add(codigo)) {
+                faltantes.add(codigo);
+            }
+        }
+        if (faltantes.isEmpty()) {
+            return this;
+        }
+
+        int n = codigos.length + faltantes.size();
+        String[] nuevosCodigos = Arrays.copyOf(codigos, n);
+        int[] nuevosContinentes = Arrays.copyOf(continentes, n);
+        for (int e = 0; e < faltantes.size(); e++) {
+            nuevosCodigos[codigos.length + e] = faltantes.get(e);
+            nuevosContinentes[codigos.length + e] = SIN_CONTINENTE;
+        }
+        return new RegistroAeropuertos(nuevosCodigos, Arrays.copyOf(conDatos, n), Arrays.copyOf(husoMinutos, n),
+                                       nuevosContinentes, nombresContinente,
+                                       Arrays.copyOf(latitudes, n), Arrays.copyOf(longitudes, n));
+    }
+
+    /**
+     * Id del aeropuerto o -1 si no está registrado (solo para fronteras de E/S)
+     */
+    public int getId(String codigo) {
+        Integer id = idsPorCodigo.get(codigo);
+        return id != null ? id : -1;
+    }
+
+    public int getNumeroAeropuertos() { return codigos.length; }
+    public String getCodigo(int aeropuerto) { return codigos[aeropuerto]; }
+    public boolean tieneDatos(int aeropuerto) { return conDatos[aeropuerto]; }
+    public int getHusoMinutos(int aeropuerto) { return husoMinutos[aeropuerto]; }
+    public int getContinente(int aeropuerto) { return continentes[aeropuerto]; }
+    public double getLatitud(int aeropuerto) { return latitudes[aeropuerto]; }
+    public double getLongitud(int aeropuerto) { return longitudes[aeropuerto]; }
+    public boolean esSede(int aeropuerto) { return esSede[aeropuerto]; }
+
+    /**
+     * Nombre del continente (SAM, EUR, ...) o null si no se conoce
+     */
+    public String getNombreContinente(int aeropuerto) {
+        int continente = continentes[aeropuerto];
+        return continente != SIN_CONTINENTE ? nombresContinente[continente] : null;
+    }
+
+    public boolean mismoContinente(int aeropuerto1, int aeropuerto2) {
+        int continente = continentes[aeropuerto1];
+        return continente != SIN_CONTINENTE && continente == continentes[aeropuerto2];
+    }
+
+    /**
+     * Id de la sede con el índice dado en CODIGOS_SEDE (-1 si no está registrada)
+     */
+    public int getIdSede(int indiceSede) { return idsSede[indiceSede]; }
+    public int getNumeroSedes() { return idsSede.length; }
+
+    @Override
+    public String toString() {
+        return String.format("RegistroAeropuertos[%d aeropuertos]", codigos.length);
+    }
+}
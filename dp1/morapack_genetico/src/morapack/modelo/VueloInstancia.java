@@ -1,10 +1,13 @@
 package morapack.modelo;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -12,117 +15,87 @@ import java.util.Map;
  * Representa una instancia específica de un vuelo en una fecha determinada.
  * Cada plan de vuelo (plantilla) se puede instanciar múltiples veces para diferentes días,
  * manteniendo capacidad y asignaciones independientes para cada instancia.
+ *
+ * Es la vista con objetos de una instancia de RedTemporal (ver desdeRed): solo se crea para
+ * reportes o cuando hace falta seguir la carga por pedido. Guarda los horarios UTC como
+ * segundos epoch y arma los identificadores, fechas y el mapa por pedido al primer uso.
  */
 public class VueloInstancia {
     
-    // Identificadores
+    // Plantilla y fecha (los identificadores se derivan de ellas al consultarlos)
+    private final Vuelo plantilla;
+    private final LocalDate fechaVuelo; // Fecha específica de esta instancia
     private String idInstancia; // Formato: {plantillaId}-{YYYY-MM-DD}
     private String idPlantilla; // ID del plan de vuelo base
-    private LocalDate fechaVuelo; // Fecha específica de esta instancia
     
-    // Información heredada de la plantilla
-    private String origen; // Código ICAO aeropuerto origen
-    private String destino; // Código ICAO aeropuerto destino
-    private LocalTime horaSalidaLocal; // Hora salida en zona local del origen
-    private LocalTime horaLlegadaLocal; // Hora llegada en zona local del destino
-    private int capacidadMaxima; // Capacidad máxima del avión
-    
-    // Tiempos en UTC (calculados con zonas horarias)
-    private ZonedDateTime horaSalidaUTC;
-    private ZonedDateTime horaLlegadaUTC;
+    // Tiempos en UTC (segundos epoch)
+    private final long salidaUTCSegundos;
+    private final long llegadaUTCSegundos;
     
     // Control de capacidad por fecha
+    private final int capacidadMaxima; // Capacidad máxima del avión
     private int capacidadUsada; // Productos ya asignados
-    private int capacidadDisponible; // Capacidad restante
-    private Map<String, Integer> productosPorPedido; // Seguimiento por pedido
+    private Map<String, Integer> productosPorPedido; // Seguimiento por pedido (null hasta la primera asignación)
     
     // Estado de la instancia
     private String estado; // PROGRAMADO, EN_CURSO, COMPLETADO, CANCELADO
-    private String aerolinea; // Aerolínea operadora
     private String numeroVuelo; // Número de vuelo
     
     // Metadatos
     private boolean esIntercontinental;
     private double distanciaKm;
-    private int duracionMinutos;
     
     /**
      * Constructor principal
      */
     public VueloInstancia(Vuelo plantilla, LocalDate fecha, ZoneId zonaOrigen, ZoneId zonaDestino) {
-        
-        // Generar identificadores
-        this.idPlantilla = generarIdPlantilla(plantilla);
+        this(plantilla, fecha,
+             ZonedDateTime.of(LocalDateTime.of(fecha, LocalTime.parse(plantilla.getHoraSalida())), zonaOrigen).toEpochSecond(),
+             calcularLlegadaUTC(plantilla, fecha, zonaDestino));
+    }
+    
+    private VueloInstancia(Vuelo plantilla, LocalDate fecha, long salidaUTCSegundos, long llegadaUTCSegundos) {
+        this.plantilla = plantilla;
         this.fechaVuelo = fecha;
-        this.idInstancia = String.format("%s-%s", idPlantilla, fecha.toString());
-        
-        // Copiar información de la plantilla
-        this.origen = plantilla.getOrigen();
-        this.destino = plantilla.getDestino();
+        this.salidaUTCSegundos = salidaUTCSegundos;
+        this.llegadaUTCSegundos = llegadaUTCSegundos;
         this.capacidadMaxima = plantilla.getCapacidad();
         this.capacidadUsada = 0;
-        this.capacidadDisponible = this.capacidadMaxima;
-        
-        // Parsear horarios locales
-        this.horaSalidaLocal = LocalTime.parse(plantilla.getHoraSalida());
-        this.horaLlegadaLocal = LocalTime.parse(plantilla.getHoraLlegada());
-        
-        // Calcular horarios UTC
-        calcularHorariosUTC(fecha, zonaOrigen, zonaDestino);
-        
-        // Inicializar estado
         this.estado = "PROGRAMADO";
-        this.productosPorPedido = new HashMap<>();
-        
-        // Extraer información adicional del ID de plantilla si está disponible
-        extraerInformacionVuelo();
-        
-        // Calcular duración
-        this.duracionMinutos = (int) java.time.Duration.between(
-            horaSalidaUTC.toLocalDateTime(), 
-            horaLlegadaUTC.toLocalDateTime()
-        ).toMinutes();
     }
     
     /**
-     * Genera un ID único para la plantilla de vuelo
+     * Materializa una instancia de la red temporal; primerDia es la fecha del día 1 del mes
+     * y la fecha de la instancia es la del día UTC en que sale
      */
-    private String generarIdPlantilla(Vuelo plantilla) {
-        // Formato: ORIGEN-DESTINO-HSALIDA
-        return String.format("%s-%s-%s", 
-            plantilla.getOrigen(), 
-            plantilla.getDestino(), 
-            plantilla.getHoraSalida().replace(":", "")
-        );
+    public static VueloInstancia desdeRed(RedTemporal red, int instancia, LocalDate primerDia) {
+        long inicioMesUTC = primerDia.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        Vuelo plantilla = red.getTabla().getVuelo(red.getVuelo(instancia));
+        return new VueloInstancia(plantilla, primerDia.plusDays(red.getDia(instancia) - 1L),
+                                  inicioMesUTC + red.getSalida(instancia) * 60L,
+                                  inicioMesUTC + red.getLlegada(instancia) * 60L);
     }
     
     /**
-     * Calcula los horarios UTC considerando zonas horarias y posibles cambios de día
+     * Llegada en UTC; si la hora local de llegada es menor que la de salida, llega al día siguiente
      */
-    private void calcularHorariosUTC(LocalDate fecha, ZoneId zonaOrigen, ZoneId zonaDestino) {
-        
-        // Hora de salida UTC
-        LocalDateTime salidaLocal = LocalDateTime.of(fecha, horaSalidaLocal);
-        this.horaSalidaUTC = ZonedDateTime.of(salidaLocal, zonaOrigen).withZoneSameInstant(ZoneId.of("UTC"));
-        
-        // Hora de llegada UTC (considerar cambio de día)
-        LocalDateTime llegadaLocal = LocalDateTime.of(fecha, horaLlegadaLocal);
-        
-        // Si la hora de llegada es menor que la de salida, el vuelo llega al día siguiente
-        if (horaLlegadaLocal.isBefore(horaSalidaLocal)) {
-            llegadaLocal = llegadaLocal.plusDays(1);
-        }
-        
-        this.horaLlegadaUTC = ZonedDateTime.of(llegadaLocal, zonaDestino).withZoneSameInstant(ZoneId.of("UTC"));
+    private static long calcularLlegadaUTC(Vuelo plantilla, LocalDate fecha, ZoneId zonaDestino) {
+        LocalTime salidaLocal = LocalTime.parse(plantilla.getHoraSalida());
+        LocalTime llegadaLocal = LocalTime.parse(plantilla.getHoraLlegada());
+        LocalDate fechaLlegada = llegadaLocal.isBefore(salidaLocal) ? fecha.plusDays(1) : fecha;
+        return ZonedDateTime.of(LocalDateTime.of(fechaLlegada, llegadaLocal), zonaDestino).toEpochSecond();
     }
     
     /**
-     * Extrae información adicional del vuelo si está disponible en el ID
+     * Genera un ID único para la plantilla de vuelo
      */
-    private void extraerInformacionVuelo() {
-        // Por defecto, usar códigos genéricos
-        this.aerolinea = "MORA"; // MoraPack Air
-        this.numeroVuelo = String.format("MR%03d", Math.abs(idPlantilla.hashCode() % 1000));
+    private static String generarIdPlantilla(Vuelo plantilla) {
+        // Formato: ORIGEN-DESTINO-HSALIDA
+        return String.format("%s-%s-%s", 
+            plantilla.getOrigen(), 
+            plantilla.getDestino(), 
+            plantilla.getHoraSalida().replace(":", "")
+        );
     }
     
     /**
@@ -131,15 +104,16 @@ public class VueloInstancia {
     public boolean asignarProductos(String pedidoId, int cantidadProductos) {
         
         if (cantidadProductos <= 0) return false;
-        if (capacidadDisponible < cantidadProductos) return false;
+        if (getCapacidadDisponible() < cantidadProductos) return false;
         
         // Asignar productos
         this.capacidadUsada += cantidadProductos;
-        this.capacidadDisponible -= cantidadProductos;
         
         // Registrar por pedido
-        productosPorPedido.put(pedidoId, 
-            productosPorPedido.getOrDefault(pedidoId, 0) + cantidadProductos);
+        if (productosPorPedido == null) {
+            productosPorPedido = new HashMap<>();
+        }
+        productosPorPedido.merge(pedidoId, cantidadProductos, Integer::sum);
         
         return true;
     }
@@ -149,12 +123,11 @@ public class VueloInstancia {
      */
     public boolean liberarProductos(String pedidoId, int cantidadProductos) {
         
-        Integer asignados = productosPorPedido.get(pedidoId);
+        Integer asignados = productosPorPedido != null ? productosPorPedido.get(pedidoId) : null;
         if (asignados == null || asignados < cantidadProductos) return false;
         
         // Liberar productos
         this.capacidadUsada -= cantidadProductos;
-        this.capacidadDisponible += cantidadProductos;
         
         // Actualizar registro por pedido
         int nuevaCantidad = asignados - cantidadProductos;
@@ -171,14 +144,14 @@ public class VueloInstancia {
      * Verifica si el vuelo puede partir en el momento especificado
      */
     public boolean puedePartirEn(ZonedDateTime momento) {
-        return momento.isBefore(horaSalidaUTC) || momento.isEqual(horaSalidaUTC);
+        return momento.toEpochSecond() <= salidaUTCSegundos;
     }
     
     /**
      * Verifica si el vuelo llegará antes del momento especificado
      */
     public boolean llegaraAntesDe(ZonedDateTime momento) {
-        return horaLlegadaUTC.isBefore(momento) || horaLlegadaUTC.isEqual(momento);
+        return llegadaUTCSegundos <= momento.toEpochSecond();
     }
     
     /**
@@ -192,7 +165,7 @@ public class VueloInstancia {
      * Verifica si el vuelo está lleno
      */
     public boolean estaLleno() {
-        return capacidadDisponible <= 0;
+        return getCapacidadDisponible() <= 0;
     }
     
     /**
@@ -206,7 +179,7 @@ public class VueloInstancia {
      * Obtiene el número de pedidos diferentes en el vuelo
      */
     public int getNumeroPedidosDistintos() {
-        return productosPorPedido.size();
+        return productosPorPedido != null ? productosPorPedido.size() : 0;
     }
     
     /**
@@ -241,30 +214,51 @@ public class VueloInstancia {
         this.estado = "CANCELADO";
         // Liberar toda la capacidad
         this.capacidadUsada = 0;
-        this.capacidadDisponible = this.capacidadMaxima;
-        this.productosPorPedido.clear();
+        this.productosPorPedido = null;
     }
     
     // Getters y Setters
-    public String getIdInstancia() { return idInstancia; }
-    public String getIdPlantilla() { return idPlantilla; }
+    public String getIdInstancia() {
+        if (idInstancia == null) {
+            idInstancia = getIdPlantilla() + "-" + fechaVuelo;
+        }
+        return idInstancia;
+    }
+    
+    public String getIdPlantilla() {
+        if (idPlantilla == null) {
+            idPlantilla = generarIdPlantilla(plantilla);
+        }
+        return idPlantilla;
+    }
+    
     public LocalDate getFechaVuelo() { return fechaVuelo; }
     
-    public String getOrigen() { return origen; }
-    public String getDestino() { return destino; }
-    public LocalTime getHoraSalidaLocal() { return horaSalidaLocal; }
-    public LocalTime getHoraLlegadaLocal() { return horaLlegadaLocal; }
+    public String getOrigen() { return plantilla.getOrigen(); }
+    public String getDestino() { return plantilla.getDestino(); }
+    public LocalTime getHoraSalidaLocal() { return LocalTime.parse(plantilla.getHoraSalida()); }
+    public LocalTime getHoraLlegadaLocal() { return LocalTime.parse(plantilla.getHoraLlegada()); }
+    
+    public ZonedDateTime getHoraSalidaUTC() { return aUTC(salidaUTCSegundos); }
+    public ZonedDateTime getHoraLlegadaUTC() { return aUTC(llegadaUTCSegundos); }
     
-    public ZonedDateTime getHoraSalidaUTC() { return horaSalidaUTC; }
-    public ZonedDateTime getHoraLlegadaUTC() { return horaLlegadaUTC; }
+    private static ZonedDateTime aUTC(long segundosEpoch) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(segundosEpoch), ZoneId.of("UTC"));
+    }
     
     public int getCapacidadMaxima() { return capacidadMaxima; }
     public int getCapacidadUsada() { return capacidadUsada; }
-    public int getCapacidadDisponible() { return capacidadDisponible; }
+    public int getCapacidadDisponible() { return capacidadMaxima - capacidadUsada; }
     
     public String getEstado() { return estado; }
-    public String getAerolinea() { return aerolinea; }
-    public String getNumeroVuelo() { return numeroVuelo; }
+    public String getAerolinea() { return "MORA"; } // MoraPack Air
+    
+    public String getNumeroVuelo() {
+        if (numeroVuelo == null) {
+            numeroVuelo = String.format("MR%03d", Math.abs(getIdPlantilla().hashCode() % 1000));
+        }
+        return numeroVuelo;
+    }
     
     public boolean isEsIntercontinental() { return esIntercontinental; }
     public void setEsIntercontinental(boolean esIntercontinental) { this.esIntercontinental = esIntercontinental; }
@@ -272,15 +266,17 @@ public class VueloInstancia {
     public double getDistanciaKm() { return distanciaKm; }
     public void setDistanciaKm(double distanciaKm) { this.distanciaKm = distanciaKm; }
     
-    public int getDuracionMinutos() { return duracionMinutos; }
+    public int getDuracionMinutos() { return (int) ((llegadaUTCSegundos - salidaUTCSegundos) / 60); }
     
-    public Map<String, Integer> getProductosPorPedido() { return new HashMap<>(productosPorPedido); }
+    public Map<String, Integer> getProductosPorPedido() {
+        return productosPorPedido != null ? new HashMap<>(productosPorPedido) : Collections.emptyMap();
+    }
     
     @Override
     public String toString() {
         return String.format("VueloInstancia[%s] %s→%s %s (%s) - %d/%d productos - %s", 
-            numeroVuelo, origen, destino, fechaVuelo, 
-            horaSalidaLocal, capacidadUsada, capacidadMaxima, estado);
+            getNumeroVuelo(), getOrigen(), getDestino(), fechaVuelo, 
+            plantilla.getHoraSalida(), capacidadUsada, capacidadMaxima, estado);
     }
     
     /**
@@ -300,11 +296,11 @@ public class VueloInstancia {
             "  Pedidos: %d diferentes\n" +
             "  Estado: %s\n" +
             "  Consolidado: %s",
-            numeroVuelo, idInstancia, idPlantilla, fechaVuelo,
-            origen, destino,
-            horaSalidaLocal, horaSalidaUTC.toLocalTime(),
-            horaLlegadaLocal, horaLlegadaUTC.toLocalTime(),
-            duracionMinutos,
+            getNumeroVuelo(), getIdInstancia(), getIdPlantilla(), fechaVuelo,
+            getOrigen(), getDestino(),
+            getHoraSalidaLocal(), getHoraSalidaUTC().toLocalTime(),
+            getHoraLlegadaLocal(), getHoraLlegadaUTC().toLocalTime(),
+            getDuracionMinutos(),
             capacidadUsada, capacidadMaxima, getPorcentajeOcupacion(),
             getNumeroPedidosDistintos(),
             estado,
@@ -0,0 +1,195 @@
+package morapack.planificacion;
+
+import morapack.datos.CargadorDatosCSV;
+import morapack.modelo.RegistroAeropuertos;
+import morapack.modelo.TablaVuelos;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Gestor de conversiones UTC y clasificación continental
+ * según los datos de aeropuertos_simple.csv (columnas Huso y Continente).
+ *
+ * Los husos se leen una sola vez en minutos desde el registro de aeropuertos, por lo que
+ * admite husos de media hora. Los planificadores no lo usan en su ciclo interno: trabajan
+ * con los horarios UTC ya precalculados de TablaVuelos; este gestor queda para reportes
+ * y validaciones sueltas.
+ */
+public class GestorUTCyContinentesCSV {
+
+    private static final int PLAZO_CONTINENTAL_DIAS = 2;
+    private static final int PLAZO_INTERCONTINENTAL_DIAS = 3;
+
+    private static volatile RegistroAeropuertos registro = null;
+
+    /**
+     * Registro de aeropuertos cargado del CSV (la primera vez que se necesite)
+     */
+    private static RegistroAeropuertos obtenerRegistro() {
+        RegistroAeropuertos actual = registro;
+        if (actual == null) {
+            actual = CargadorDatosCSV.cargarRegistroAeropuertos();
+            registro = actual;
+        }
+        return actual;
+    }
+
+    /**
+     * Id del aeropuerto con datos en el CSV; lanza excepción si no está configurado
+     */
+    private static int obtenerId(String codigoAeropuerto) {
+        RegistroAeropuertos r = obtenerRegistro();
+        int id = r.getId(codigoAeropuerto);
+        if (id < 0 || !r.tieneDatos(id)) {
+            throw new IllegalArgumentException("Aeropuerto no configurado: " + codigoAeropuerto);
+        }
+        return id;
+    }
+
+    /**
+     * Huso horario del aeropuerto en minutos (ej. 330 para UTC+5:30)
+     */
+    public static int obtenerHusoMinutos(String codigoAeropuerto) {
+        return obtenerRegistro().getHusoMinutos(obtenerId(codigoAeropuerto));
+    }
+
+    /**
+     * Huso horario del aeropuerto en horas enteras
+     */
+    public static int obtenerHusoHorario(String codigoAeropuerto) {
+        return obtenerHusoMinutos(codigoAeropuerto) / 60;
+    }
+
+    /**
+     * Convierte hora local a UTC
+     */
+    public static LocalTime convertirAUTC(String codigoAeropuerto, LocalTime horaLocal) {
+        return horaLocal.minusMinutes(obtenerHusoMinutos(codigoAeropuerto));
+    }
+
+    /**
+     * Convierte hora UTC a local
+     */
+    public static LocalTime convertirDeUTC(String codigoAeropuerto, LocalTime horaUTC) {
+        return horaUTC.plusMinutes(obtenerHusoMinutos(codigoAeropuerto));
+    }
+
+    /**
+     * Instante UTC (minutos desde las 00:00 UTC del día 1 del mes) de una hora local del aeropuerto
+     */
+    public static int convertirAMinutoAbsolutoUTC(String codigoAeropuerto, int dia, int hora, int minuto) {
+        return TablaVuelos.minutoAbsoluto(dia, hora * 60 + minuto - obtenerHusoMinutos(codigoAeropuerto));
+    }
+
+    /**
+     * Obtiene el continente de un aeropuerto
+     */
+    public static String obtenerContinente(String codigoAeropuerto) {
+        String continente = obtenerRegistro().getNombreContinente(obtenerId(codigoAeropuerto));
+        if (continente == null) {
+            throw new IllegalArgumentException("Aeropuerto sin continente: " + codigoAeropuerto);
+        }
+        return continente;
+    }
+
+    /**
+     * Determina si dos aeropuertos están en el mismo continente
+     */
+    public static boolean mismoContinente(String aeropuerto1, String aeropuerto2) {
+        return obtenerRegistro().mismoContinente(obtenerId(aeropuerto1), obtenerId(aeropuerto2));
+    }
+
+    /**
+     * Calcula los días de plazo según distancia continental
+     * - Mismo continente: 2 días
+     * - Intercontinental: 3 días
+     */
+    public static int calcularPlazoDias(String origen, String destino) {
+        return mismoContinente(origen, destino) ? PLAZO_CONTINENTAL_DIAS : PLAZO_INTERCONTINENTAL_DIAS;
+    }
+
+    /**
+     * Valida si una ruta cumple con los plazos continentales
+     */
+    public static boolean validarPlazoRuta(String origen, String destino,
+                                         LocalTime horaSalida, int diaSalida,
+                                         LocalTime horaLlegada, int diaLlegada) {
+
+        int plazoMaximo = calcularPlazoDias(origen, destino);
+        int diasTranscurridos = diaLlegada - diaSalida;
+
+        // Si llega el mismo día o al día siguiente está bien
+        if (diasTranscurridos <= 1) {
+            return true;
+        }
+
+        // Verificar que no exceda el plazo máximo
+        return diasTranscurridos <= plazoMaximo;
+    }
+
+    /**
+     * Obtiene información detallada de un aeropuerto
+     */
+    public static String obtenerInfoAeropuerto(String codigo) {
+        if (!esAeropuertoValido(codigo)) {
+            return "Aeropuerto no configurado: " + codigo;
+        }
+        return String.format("%s: %s - Continente: %s",
+                           codigo, formatearHuso(obtenerHusoMinutos(codigo)), obtenerContinente(codigo));
+    }
+
+    /**
+     * Formatea un huso en minutos como UTC±H o UTC±H:mm
+     */
+    private static String formatearHuso(int husoMinutos) {
+        String signo = husoMinutos >= 0 ? "+" : "-";
+        int absoluto = Math.abs(husoMinutos);
+        return absoluto % 60 == 0
+            ? String.format("UTC%s%d", signo, absoluto / 60)
+            : String.format("UTC%s%d:%02d", signo, absoluto / 60, absoluto % 60);
+    }
+
+    /**
+     * Muestra todos los aeropuertos configurados organizados por continente
+     */
+    public static void mostrarTodosLosAeropuertos() {
+        System.out.println("🌍 ===== AEROPUERTOS CONFIGURADOS (DATOS DEL CSV) =====");
+
+        System.out.println("\n📍 SUDAMÉRICA (SAM):");
+        mostrarAeropuertosPorContinente("SAM");
+
+        System.out.println("\n📍 EUROPA (EUR):");
+        mostrarAeropuertosPorContinente("EUR");
+
+        System.out.println("\n📍 ASIA (ASI):");
+        mostrarAeropuertosPorContinente("ASI");
+
+        System.out.println();
+    }
+
+    /**
+     * Muestra aeropuertos de un continente específico (ordenados por código)
+     */
+    private static void mostrarAeropuertosPorContinente(String continente) {
+        RegistroAeropuertos r = obtenerRegistro();
+        List<String> codigos = new ArrayList<>();
+        for (int a = 0; a < r.getNumeroAeropuertos(); a++) {
+            if (continente.equals(r.getNombreContinente(a))) {
+                codigos.add(r.getCodigo(a));
+            }
+        }
+        Collections.sort(codigos);
+        for (String codigo : codigos) {
+            System.out.println("🛫 " + obtenerInfoAeropuerto(codigo));
+        }
+    }
+
+    /**
+     * Verifica si un aeropuerto está configurado
+     */
+    public static boolean esAeropuertoValido(String codigo) {
+        RegistroAeropuertos r = obtenerRegistro();
+        int id = r.getId(codigo);
+        return id >= 0 && r.tieneDatos(id);
+    }
+}
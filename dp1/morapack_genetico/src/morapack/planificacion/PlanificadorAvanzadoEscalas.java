@@ -0,0 +1,455 @@
+package morapack.planificacion;
+
+import morapack.modelo.*;
+import morapack.datos.CargadorDatosCSV;
+import java.util.*;
+
+/**
+ * Planificador avanzado que maneja múltiples escalas y optimización de capacidad
+ * Basado en el algoritmo MoraPackGAOptimized
+ */
+public class PlanificadorAvanzadoEscalas {
+    
+    private static final int MIN_CONEXION_MINUTOS = 30;  // Tiempo mínimo entre conexiones
+    private static final int VENTANA_RECOJO_MINUTOS = 30; // 30 minutos para recoger (más realista)
+    private static final int MAX_ESCALAS = 5; // Máximo 2 escalas
+    private static final int MAX_CANDIDATOS = 5; // Máximo candidatos por escala
+    private static final double PROBABILIDAD_DIRECTO = 0.8;
+    
+    // Red con ids enteros de aeropuerto; el DFS indexa sus vuelos por índice de la tabla
+    private final TablaVuelos tabla;
+    private final RegistroAeropuertos registro;
+    private final int[][] vuelosPorOrigen;   // id de origen -> índices de vuelo en el orden de la lista cargada
+    private final int[] salidaMinutos;       // Minuto UTC de salida en [0, 1440)
+    private final int[] llegadaMinutos;      // Minuto UTC de llegada (pasa de 1440 si llega al día siguiente)
+    private final RegistroCapacidad capacidadUsada; // Por índice de vuelo de la tabla
+    
+    // Motor Connection Scan con su propia capacidad por vuelo (null = búsqueda recursiva original)
+    private final PlanificadorEscaneoConexiones motorEscaneo;
+    
+    // Cotas Haversine de tiempo de vuelo: ordenan los candidatos de escala del DFS
+    private final CotasTiempoVuelo cotas;
+    
+    // Semilla de la elección directo/escalas del DFS: la decisión depende solo de la consulta
+    private long semilla = Semillas.semillaEjecucion();
+    
+    public PlanificadorAvanzadoEscalas(List<Vuelo> vuelos) {
+        this(vuelos, true);
+    }
+    
+    /**
+     * Planificador en horarios UTC (la tabla compartida si son los vuelos cargados)
+     * @param usarEscaneoConexiones true para usar Connection Scan, false para el DFS con escalas
+     */
+    public PlanificadorAvanzadoEscalas(List<Vuelo> vuelos, boolean usarEscaneoConexiones) {
+        this(vuelos, CargadorDatosCSV.cargarTablaVuelos(vuelos), usarEscaneoConexiones);
+    }
+    
+    /**
+     * Planificador sobre la tabla columnar compartida (horarios UTC, sin Strings en el camino caliente)
+     */
+    public PlanificadorAvanzadoEscalas(TablaVuelos tabla) {
+        this(null, tabla, true);
+    }
+    
+    private PlanificadorAvanzadoEscalas(List<Vuelo> vuelos, TablaVuelos tabla, boolean usarEscaneoConexiones) {
+        this.tabla = tabla;
+        this.registro = tabla.getRegistro();
+        this.capacidadUsada = new RegistroCapacidad(tabla);
+        this.motorEscaneo = usarEscaneoConexiones ? new PlanificadorEscaneoConexiones(tabla) : null;
+        this.cotas = motorEscaneo != null ? motorEscaneo.getCotasTiempoVuelo() : CotasTiempoVuelo.construir(tabla);
+        
+        if (motorEscaneo != null) {
+            this.vuelosPorOrigen = null;
+            this.salidaMinutos = null;
+            this.llegadaMinutos = null;
+            return;
+        }
+        
+        // Indexar vuelos por aeropuerto de origen (solo lo usa el DFS), conservando el orden de la lista
+        int n = tabla.getNumeroVuelos();
+        this.salidaMinutos = new int[n];
+        this.llegadaMinutos = new int[n];
+        int[] cantidadPorOrigen = new int[registro.getNumeroAeropuertos()];
+        for (int i = 0; i < n; i++) {
+            salidaMinutos[i] = tabla.getSalidaUTC(i);
+            llegadaMinutos[i] = tabla.getLlegadaUTC(i);
+            cantidadPorOrigen[tabla.getOrigen(i)]++;
+        }
+        this.vuelosPorOrigen = new int[cantidadPorOrigen.length][];
+        for (int a = 0; a < cantidadPorOrigen.length; a++) {
+            vuelosPorOrigen[a] = new int[cantidadPorOrigen[a]];
+        }
+        int[] llenos = new int[cantidadPorOrigen.length];
+        for (Vuelo vuelo : vuelos) {
+            int i = tabla.getIndice(vuelo);
+            int o = tabla.getOrigen(i);
+            vuelosPorOrigen[o][llenos[o]++] = i;
+        }
+    }
+    
+    /**
+     * Copia que comparte la red (vuelos e índices, de solo lectura) pero lleva su propia
+     * capacidad usada. Permite planificar en paralelo con una instancia por hilo.
+     */
+    private PlanificadorAvanzadoEscalas(PlanificadorAvanzadoEscalas base) {
+        this.tabla = base.tabla;
+        this.registro = base.registro;
+        this.vuelosPorOrigen = base.vuelosPorOrigen;
+        this.salidaMinutos = base.salidaMinutos;
+        this.llegadaMinutos = base.llegadaMinutos;
+        this.capacidadUsada = new RegistroCapacidad(base.tabla);
+        this.motorEscaneo = base.motorEscaneo != null ? base.motorEscaneo.crearConCapacidadPropia() : null;
+        this.cotas = base.cotas;
+        this.semilla = base.semilla;
+    }
+    
+    /**
+     * Crea un planificador sobre la misma red con capacidades independientes (vacías)
+     */
+    public PlanificadorAvanzadoEscalas crearConCapacidadPropia() {
+        return new PlanificadorAvanzadoEscalas(this);
+    }
+    
+    /**
+     * Fija la semilla de la elección entre vuelo directo y escalas (las copias la heredan)
+     */
+    public void setSemilla(long semilla) {
+        this.semilla = semilla;
+    }
+    
+    public long getSemilla() {
+        return semilla;
+    }
+    
+    /**
+     * Activa la búsqueda A* con cotas Haversine en el motor Connection Scan (sin efecto en el DFS)
+     */
+    public void setBusquedaDirigida(boolean busquedaDirigida) {
+        if (motorEscaneo != null) {
+            motorEscaneo.setBusquedaDirigida(busquedaDirigida);
+        }
+    }
+    
+    /**
+     * Motor Connection Scan (null si se usa el DFS con escalas)
+     */
+    public PlanificadorEscaneoConexiones getMotorEscaneo() {
+        return motorEscaneo;
+    }
+    
+    /**
+     * Capacidad usada por las rutas planificadas (la del motor Connection Scan si está activo).
+     * Su instantánea permite volver a un estado anterior con una sola copia de arreglo.
+     */
+    public RegistroCapacidad getRegistroCapacidad() {
+        return motorEscaneo != null ? motorEscaneo.getRegistroCapacidad() : capacidadUsada;
+    }
+    
+    /**
+     * Tabla de vuelos de la red (índices de vuelo del registro de capacidad)
+     */
+    public TablaVuelos getTabla() {
+        return tabla;
+    }
+    
+    /**
+     * Registro de aeropuertos cuyos ids acepta planificarRuta(int, int, ...)
+     */
+    public RegistroAeropuertos getRegistro() {
+        return registro;
+    }
+    
+    /**
+     * Planifica una ruta completa desde una sede hasta un destino
+     */
+    public RutaCompleta planificarRuta(String sedeOrigen, String destino, int cantidad) {
+        return planificarRuta(sedeOrigen, destino, cantidad, 0); // Sin restricción temporal
+    }
+    
+    /**
+     * Planifica una ruta completa desde una sede hasta un destino con tiempo mínimo
+     * @param sedeOrigen Aeropuerto origen (sede)
+     * @param destino Aeropuerto destino
+     * @param cantidad Cantidad de paquetes
+     * @param tiempoMinimoPedido Tiempo mínimo en minutos (hora del pedido + ventana de recojo)
+     */
+    public RutaCompleta planificarRuta(String sedeOrigen, String destino, int cantidad, int tiempoMinimoPedido) {
+        return planificarRuta(registro.getId(sedeOrigen), registro.getId(destino), cantidad, tiempoMinimoPedido);
+    }
+    
+    /**
+     * Igual que planificarRuta con códigos, pero con ids del registro (-1 = aeropuerto desconocido)
+     */
+    public RutaCompleta planificarRuta(int idOrigen, int idDestino, int cantidad, int tiempoMinimoPedido) {
+        if (motorEscaneo != null) {
+            return motorEscaneo.planificarRuta(idOrigen, idDestino, cantidad, tiempoMinimoPedido);
+        }
+        if (idOrigen < 0 || idDestino < 0) {
+            return null;
+        }
+        
+        // Validar que el destino no sea una sede de MoraPack
+        if (registro.esSede(idDestino)) {
+            return null; // No planificar rutas hacia las propias sedes (silencioso)
+        }
+        
+        // Validar que el origen y destino sean diferentes
+        if (idOrigen == idDestino) {
+            System.out.println("⚠️ ADVERTENCIA: Origen y destino son iguales (" + registro.getCodigo(idOrigen) + ") - esto no tiene sentido");
+            return null;
+        }
+        
+        // El DFS busca dentro de un mismo día UTC
+        return construirRutaCompleta(idOrigen, idDestino, cantidad,
+                                     Math.floorMod(tiempoMinimoPedido, TablaVuelos.MINUTOS_DIA),
+                                     new boolean[registro.getNumeroAeropuertos()], 0);
+    }
+    
+    /**
+     * Construye una ruta completa con múltiples escalas posibles (limitada).
+     * visitados se modifica; numVisitados es la cantidad de aeropuertos marcados en él.
+     */
+    private RutaCompleta construirRutaCompleta(int origen, int destino, int cantidad, 
+                                             int tiempoInicialMinutos, boolean[] visitados, int numVisitados) {
+        
+        // Evitar ciclos y limitar profundidad
+        if (visitados[origen] || numVisitados >= MAX_ESCALAS) {
+            return null;
+        }
+        
+        visitados[origen] = true;
+        numVisitados++;
+        
+        // 🧪 ESTRATEGIA MIXTA: A veces buscar escalas incluso si hay vuelos directos (para testing)
+        RutaCompleta rutaDirecta = buscarVueloDirecto(origen, destino, cantidad, tiempoInicialMinutos);
+        
+        // 80% probabilidad de usar directo si está disponible, 20% explorar escalas.
+        // El sorteo es un hash de la consulta: reproducible y sin generador compartido entre hilos
+        if (rutaDirecta != null
+                && Semillas.uniforme(Semillas.derivar(semilla, origen, destino, tiempoInicialMinutos, cantidad))
+                   < PROBABILIDAD_DIRECTO) {
+            return rutaDirecta;
+        }
+        
+        // Si no hay vuelo directo O decidimos explorar escalas, buscar con escalas
+        if (numVisitados < MAX_ESCALAS) {
+            RutaCompleta rutaConEscalas = buscarRutaConEscalas(origen, destino, cantidad, tiempoInicialMinutos,
+                                                               visitados, numVisitados);
+            
+            // Si encontramos ruta con escalas, usarla. Si no, usar la directa (si existe)
+            if (rutaConEscalas != null) {
+                if (rutaDirecta != null) {
+                    // El vuelo directo quedó reservado pero no se usa
+                    capacidadUsada.liberar(tabla.getIndice(rutaDirecta.getVuelos().get(0)), cantidad);
+                }
+                return rutaConEscalas;
+            } else if (rutaDirecta != null) {
+                return rutaDirecta;
+            }
+        }
+        
+        // Fallback: usar directa si existe
+        if (rutaDirecta != null) {
+            return rutaDirecta;
+        }
+        
+        // Si no hay vuelo directo, buscar con escalas (solo si no hemos llegado al límite)
+        if (numVisitados < MAX_ESCALAS) {
+            return buscarRutaConEscalas(origen, destino, cantidad, tiempoInicialMinutos, visitados, numVisitados);
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Busca un vuelo directo viable
+     */
+    private RutaCompleta buscarVueloDirecto(int origen, int destino, int cantidad, int tiempoMinimo) {
+        for (int i : vuelosPorOrigen[origen]) {
+            if (tabla.getDestino(i) == destino) {
+                // Verificar que el tiempo de salida respete el mínimo
+                if (salidaMinutos[i] >= tiempoMinimo) {
+                    // Verificar y reservar capacidad disponible
+                    if (capacidadUsada.reservar(i, cantidad)) {
+                        // Crear ruta directa
+                        RutaCompleta ruta = new RutaCompleta();
+                        ruta.agregarVuelo(tabla.getVuelo(i));
+                        ruta.setTipoRuta("DIRECTO");
+                        return ruta;
+                    }
+                }
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Busca rutas con una o múltiples escalas
+     */
+    private RutaCompleta buscarRutaConEscalas(int origen, int destino, int cantidad, 
+                                            int tiempoMinimo, boolean[] visitados, int numVisitados) {
+        
+        // Candidatos para escalas ordenados por prioridad
+        List<CandidatoEscala> candidatos = new ArrayList<>();
+        
+        for (int i : vuelosPorOrigen[origen]) {
+            int escala = tabla.getDestino(i);
+            if (escala != destino && !visitados[escala] && cotas.alcanzable(escala, destino, MAX_ESCALAS)) {
+                if (salidaMinutos[i] >= tiempoMinimo) {
+                    if (capacidadUsada.cabe(i, cantidad)) {
+                        double distancia = calcularDistanciaEstimada(escala, destino);
+                        
+                        candidatos.add(new CandidatoEscala(i, llegadaMinutos[i], distancia));
+                    }
+                }
+            }
+        }
+        
+        // Ordenar candidatos por cota de vuelo restante al destino (más cerca = mejor)
+        candidatos.sort(Comparator.comparingDouble(c -> c.distanciaAlDestino));
+        
+        // Limitar número de candidatos para evitar explosión combinatorial
+        if (candidatos.size() > MAX_CANDIDATOS) {
+            candidatos = candidatos.subList(0, MAX_CANDIDATOS);
+        }
+        
+        // Probar cada candidato hasta encontrar una ruta viable
+        for (CandidatoEscala candidato : candidatos) {
+            // Reservar capacidad temporalmente (la marca también cubre lo reservado más adelante en la ruta)
+            int marca = capacidadUsada.marcar();
+            capacidadUsada.reservar(candidato.indiceVuelo, cantidad);
+            
+            // Intentar continuar desde la escala
+            int tiempoConexion = candidato.tiempoLlegada + MIN_CONEXION_MINUTOS;
+            boolean[] nuevosVisitados = visitados.clone();
+            int aeropuertoEscala = tabla.getDestino(candidato.indiceVuelo);
+            
+            RutaCompleta rutaContinuacion = construirRutaCompleta(
+                aeropuertoEscala, destino, cantidad, tiempoConexion, nuevosVisitados, numVisitados);
+            
+            if (rutaContinuacion != null) {
+                // Verificar que la ruta realmente llegue al destino final
+                List<Vuelo> vuelosContinuacion = rutaContinuacion.getVuelos();
+                if (!vuelosContinuacion.isEmpty()) {
+                    Vuelo ultimoVuelo = vuelosContinuacion.get(vuelosContinuacion.size() - 1);
+                    if (tabla.getDestino(tabla.getIndice(ultimoVuelo)) != destino) {
+                        // La ruta no llega al destino final - esto es un error
+                        capacidadUsada.deshacerHasta(marca);
+                        continue; // Probar siguiente candidato
+                    }
+                }
+                
+                // Éxito: construir ruta completa
+                capacidadUsada.confirmar(marca);
+                RutaCompleta rutaCompleta = new RutaCompleta();
+                rutaCompleta.agregarVuelo(tabla.getVuelo(candidato.indiceVuelo));
+                
+                // Agregar todos los vuelos de la continuación
+                for (Vuelo vuelo : rutaContinuacion.getVuelos()) {
+                    rutaCompleta.agregarVuelo(vuelo);
+                }
+                
+                // Configurar tipo y escalas
+                List<String> escalas = new ArrayList<>();
+                escalas.add(registro.getCodigo(aeropuertoEscala));
+                for (String escala : rutaContinuacion.getEscalas()) {
+                    escalas.add(escala);
+                }
+                
+                rutaCompleta.setEscalas(escalas);
+                if (escalas.size() == 1) {
+                    rutaCompleta.setTipoRuta("UNA_CONEXION");
+                } else if (escalas.size() == 2) {
+                    rutaCompleta.setTipoRuta("DOS_CONEXIONES");
+                } else {
+                    rutaCompleta.setTipoRuta("MULTIPLE_CONEXIONES");
+                }
+                
+                return rutaCompleta;
+            } else {
+                // Fallo: restaurar capacidad
+                capacidadUsada.deshacerHasta(marca);
+            }
+        }
+        
+        return null; // No se encontró ruta viable
+    }
+    
+    /**
+     * Cota inferior en minutos del vuelo restante desde la escala (Haversine / velocidad máxima)
+     */
+    private double calcularDistanciaEstimada(int origen, int destino) {
+        return cotas.getCota(origen, destino);
+    }
+    
+    /**
+     * Calcula el tiempo mínimo de despegue basado en la hora del pedido
+     * @param pedido El pedido con información temporal
+     * @return Tiempo mínimo en minutos desde medianoche (hora local del pedido, sin huso)
+     */
+    public static int calcularTiempoMinimoPedido(Pedido pedido) {
+        // Obtener hora del pedido (día, hora, minuto del ID)
+        int horaPedido = pedido.getHora() * 60 + pedido.getMinuto();
+        
+        // Agregar ventana de recojo (2 horas)
+        int tiempoMinimo = horaPedido + VENTANA_RECOJO_MINUTOS;
+        
+        return tiempoMinimo;
+    }
+    
+    /**
+     * Minuto UTC desde el que puede salir el pedido de la sede dada: su hora (local de la sede)
+     * pasada a UTC más la ventana de recojo, en la línea de tiempo de la tabla de este planificador
+     */
+    public int calcularTiempoMinimoPedido(Pedido pedido, int idSede) {
+        int huso = idSede >= 0 ? tabla.getHusoMinutos(idSede) : 0;
+        int minutosLocal = pedido.getHora() * 60 + pedido.getMinuto();
+        return Math.floorMod(minutosLocal - huso, TablaVuelos.MINUTOS_DIA) + VENTANA_RECOJO_MINUTOS;
+    }
+    
+    /**
+     * Reinicia el estado de capacidades usadas
+     */
+    public void reiniciarCapacidades() {
+        if (motorEscaneo != null) {
+            motorEscaneo.reiniciarCapacidades();
+        }
+        capacidadUsada.reiniciar();
+    }
+    
+    /**
+     * Obtiene estadísticas de uso de capacidad
+     */
+    public Map<String, Integer> getEstadisticasCapacidad() {
+        if (motorEscaneo != null) {
+            return motorEscaneo.getEstadisticasCapacidad();
+        }
+        // Claves origen-destino-horaSalida solo al exportar
+        Map<String, Integer> estadisticas = new HashMap<>();
+        for (int i = 0; i < capacidadUsada.getNumeroVuelos(); i++) {
+            int usada = capacidadUsada.getUsada(i);
+            if (usada > 0) {
+                Vuelo vuelo = tabla.getVuelo(i);
+                estadisticas.put(vuelo.getOrigen() + "-" + vuelo.getDestino() + "-" + vuelo.getHoraSalida(), usada);
+            }
+        }
+        return estadisticas;
+    }
+    
+    /**
+     * Clase interna para manejar candidatos de escala
+     */
+    private static class CandidatoEscala {
+        final int indiceVuelo;
+        final int tiempoLlegada;
+        final double distanciaAlDestino;
+        
+        CandidatoEscala(int indiceVuelo, int tiempoLlegada, double distanciaAlDestino) {
+            this.indiceVuelo = indiceVuelo;
+            this.tiempoLlegada = tiempoLlegada;
+            this.distanciaAlDestino = distanciaAlDestino;
+        }
+    }
+}
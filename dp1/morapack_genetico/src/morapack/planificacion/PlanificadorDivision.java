@@ -0,0 +1,380 @@
+package morapack.planificacion;
+
+import morapack.modelo.*;
+import java.util.*;
+
+/**
+ * Planificador de división de pedidos: reparte los productos de un pedido entre varios
+ * itinerarios y días de salida dentro del plazo (2 días continental, 3 intercontinental),
+ * usando la capacidad residual real de cada instancia de vuelo de la red expandida.
+ *
+ * Cada parte es el camino de llegada más temprana que aún tiene capacidad; se envía lo que
+ * permite su tramo más cargado y se repite hasta cubrir la cantidad. El registro de capacidad
+ * es el del planificador que lo usa, por lo que la división ve la carga de los demás pedidos.
+ * No es seguro para hilos: cada hilo debe usar su propia instancia.
+ */
+public class PlanificadorDivision {
+
+    private static final int TIEMPO_PREPARACION_MINUTOS = 30;
+    private static final int MAX_TRAMOS = 4;                  // Hasta 3 escalas
+    private static final int MAX_PARTES = 16;                 // Límite de divisiones de un pedido
+    private static final int PLAZO_CONTINENTAL_DIAS = 2;
+    private static final int PLAZO_INTERCONTINENTAL_DIAS = 3;
+    private static final int INFINITO = Integer.MAX_VALUE;
+
+    private final RedTemporal red;
+    private final TablaVuelos tabla;
+    private final RegistroAeropuertos registro;
+    private final RegistroCapacidad capacidad;
+    private final int numAeropuertos;
+
+    // Etiquetas de la búsqueda por rondas: listo[r][a] = primer instante en que se puede salir de a
+    // con r vuelos como máximo; pred[r][a] = instancia que mejoró esa etiqueta en la ronda r
+    private final int[][] listo;
+    private final int[][] pred;
+    private final int[] tramos = new int[MAX_TRAMOS];
+    private final int[] inverso = new int[MAX_TRAMOS];
+
+    public PlanificadorDivision(RedTemporal red, RegistroCapacidad capacidad) {
+        this.red = red;
+        this.tabla = red.getTabla();
+        this.registro = tabla.getRegistro();
+        this.capacidad = capacidad;
+        this.numAeropuertos = tabla.getNumeroAeropuertos();
+        this.listo = new int[MAX_TRAMOS + 1][numAeropuertos];
+        this.pred = new int[MAX_TRAMOS + 1][numAeropuertos];
+    }
+
+    // ==================== DIVISIÓN ====================
+
+    /**
+     * Divide el pedido entre todas las sedes; si no se cubre toda la cantidad no reserva nada
+     */
+    public PlanDivision dividir(Pedido pedido) {
+        return dividir(pedido, -1, false);
+    }
+
+    /**
+     * Divide el pedido saliendo solo de la sede indicada; si no se cubre toda la cantidad no reserva nada
+     */
+    public PlanDivision dividir(Pedido pedido, String codigoSede) {
+        int sede = Arrays.asList(RegistroAeropuertos.CODIGOS_SEDE).indexOf(codigoSede);
+        return sede >= 0 ? dividir(pedido, sede, false) : new PlanDivision(pedido);
+    }
+
+    /**
+     * Divide el pedido entre todas las sedes y conserva lo enviado aunque no se cubra toda la cantidad
+     */
+    public PlanDivision dividirParcial(Pedido pedido) {
+        return dividir(pedido, -1, true);
+    }
+
+    /**
+     * Libera la capacidad reservada por un plan (por ejemplo, si al final no se usa)
+     */
+    public void liberar(PlanDivision plan) {
+        for (Parte parte : plan.partes) {
+            for (int instancia : parte.instancias) {
+                red.liberar(instancia, parte.cantidad, capacidad);
+            }
+        }
+        plan.partes.clear();
+    }
+
+    private PlanDivision dividir(Pedido pedido, int sedeFija, boolean permitirParcial) {
+        PlanDivision plan = new PlanDivision(pedido);
+        int destino = registro.getId(pedido.getAeropuertoDestinoId());
+        if (destino < 0 || registro.esSede(destino)) {
+            return plan;
+        }
+
+        int numSedes = registro.getNumeroSedes();
+        int[] listoSede = new int[numSedes];
+        int[] limiteSede = new int[numSedes];
+        for (int s = 0; s < numSedes; s++) {
+            int sede = registro.getIdSede(s);
+            int instante = instantePedido(pedido, sede);
+            listoSede[s] = instante + TIEMPO_PREPARACION_MINUTOS;
+            limiteSede[s] = limiteEntrega(instante, sede, destino);
+        }
+
+        int restante = pedido.getCantidadProductos();
+        while (restante > 0 && plan.partes.size() < MAX_PARTES) {
+            // Camino de llegada más temprana entre las sedes permitidas (empate: la primera sede)
+            int mejorSede = -1;
+            int mejorLlegada = INFINITO;
+            int[] mejorCamino = null;
+            for (int s = 0; s < numSedes; s++) {
+                if (sedeFija >= 0 && s != sedeFija || registro.getIdSede(s) == destino) {
+                    continue;
+                }
+                int numTramos = buscarCamino(registro.getIdSede(s), destino, listoSede[s], limiteSede[s]);
+                if (numTramos > 0) {
+                    int llegada = red.getLlegada(tramos[numTramos - 1]);
+                    if (llegada < mejorLlegada) {
+                        mejorSede = s;
+                        mejorLlegada = llegada;
+                        mejorCamino = Arrays.copyOf(tramos, numTramos);
+                    }
+                }
+            }
+            if (mejorCamino == null) {
+                break;
+            }
+
+            // Enviar lo que permite el tramo más cargado del camino
+            int cantidad = restante;
+            for (int instancia : mejorCamino) {
+                cantidad = Math.min(cantidad, capacidad.getDisponible(red.getVuelo(instancia), red.getDia(instancia)));
+            }
+            for (int instancia : mejorCamino) {
+                red.reservar(instancia, cantidad, capacidad);
+            }
+            int[] dias = new int[mejorCamino.length];
+            for (int t = 0; t < mejorCamino.length; t++) {
+                dias[t] = red.getDia(mejorCamino[t]);
+            }
+            plan.partes.add(new Parte(mejorSede, mejorCamino, dias, cantidad, red.getSalida(mejorCamino[0]),
+                                      mejorLlegada, construirRuta(mejorCamino, cantidad)));
+            restante -= cantidad;
+        }
+
+        if (restante > 0 && !permitirParcial) {
+            liberar(plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Búsqueda por rondas (una ronda por vuelo) del camino de llegada más temprana con capacidad
+     * residual, saliendo en o después de instanteListo y llegando antes de limiteEntrega.
+     * Deja las instancias del camino en tramos y retorna cuántas son (0 si no hay camino).
+     */
+    private int buscarCamino(int origen, int destino, int instanteListo, int limiteEntrega) {
+        for (int r = 0; r <= MAX_TRAMOS; r++) {
+            Arrays.fill(listo[r], INFINITO);
+            Arrays.fill(pred[r], -1);
+        }
+        listo[0][origen] = instanteListo;
+
+        int mejorLlegada = limiteEntrega;
+        int mejorInstancia = -1;
+        int mejorRonda = -1;
+        int minConexion = red.getMinConexion();
+
+        for (int r = 1; r <= MAX_TRAMOS; r++) {
+            int[] anterior = listo[r - 1];
+            int[] actual = listo[r];
+            System.arraycopy(anterior, 0, actual, 0, numAeropuertos);
+            boolean mejoro = false;
+
+            for (int a = 0; a < numAeropuertos; a++) {
+                // Solo se expanden los aeropuertos cuya etiqueta mejoró en la ronda anterior
+                if (anterior[a] == INFINITO || a == destino || (r > 1 && anterior[a] >= listo[r - 2][a])) {
+                    continue;
+                }
+                int instancia = red.primeraSalidaDesde(a, anterior[a]);
+                // Una salida en o después de la mejor llegada ya no puede mejorarla
+                while (instancia >= 0 && red.getSalida(instancia) < mejorLlegada) {
+                    if (capacidad.getDisponible(red.getVuelo(instancia), red.getDia(instancia)) > 0) {
+                        int llegada = red.getLlegada(instancia);
+                        int d = red.getDestino(instancia);
+                        if (d == destino) {
+                            if (llegada < mejorLlegada) {
+                                mejorLlegada = llegada;
+                                mejorInstancia = instancia;
+                                mejorRonda = r;
+                            }
+                        } else if (llegada < mejorLlegada && llegada + minConexion < actual[d]) {
+                            actual[d] = llegada + minConexion;
+                            pred[r][d] = instancia;
+                            mejoro = true;
+                        }
+                    }
+                    instancia = red.siguienteEspera(instancia);
+                }
+            }
+            if (!mejoro) {
+                break;
+            }
+        }
+
+        if (mejorInstancia < 0) {
+            return 0;
+        }
+
+        // Reconstruir hacia atrás: la etiqueta del origen de cada tramo se fijó en alguna ronda previa
+        int numTramos = 0;
+        int instancia = mejorInstancia;
+        int ronda = mejorRonda;
+        while (true) {
+            inverso[numTramos++] = instancia;
+            int a = red.getOrigen(instancia);
+            ronda--;
+            while (ronda > 0 && pred[ronda][a] < 0) {
+                ronda--;
+            }
+            if (ronda == 0) {
+                break;
+            }
+            instancia = pred[ronda][a];
+        }
+        for (int t = 0; t < numTramos; t++) {
+            tramos[t] = inverso[numTramos - 1 - t];
+        }
+        return numTramos;
+    }
+
+    private RutaCompleta construirRuta(int[] camino, int cantidad) {
+        RutaCompleta ruta = new RutaCompleta();
+        List<String> escalas = new ArrayList<>();
+        for (int t = 0; t < camino.length; t++) {
+            int vuelo = red.getVuelo(camino[t]);
+            ruta.agregarVuelo(tabla.getVuelo(vuelo));
+            if (t < camino.length - 1) {
+                escalas.add(tabla.getCodigo(tabla.getDestino(vuelo)));
+            }
+        }
+
+        ruta.setEscalas(escalas);
+        if (escalas.isEmpty()) {
+            ruta.setTipoRuta("DIRECTO");
+        } else if (escalas.size() == 1) {
+            ruta.setTipoRuta("UNA_CONEXION");
+        } else if (escalas.size() == 2) {
+            ruta.setTipoRuta("DOS_CONEXIONES");
+        } else {
+            ruta.setTipoRuta("MULTIPLE_CONEXIONES");
+        }
+        ruta.setCantidadPaquetes(cantidad);
+        return ruta;
+    }
+
+    // ==================== PLAZOS ====================
+
+    /**
+     * Instante UTC del pedido con su hora interpretada en el huso de la sede (como el planificador temporal)
+     */
+    int instantePedido(Pedido pedido, int sede) {
+        int minutosLocal = pedido.getHora() * 60 + pedido.getMinuto();
+        return TablaVuelos.minutoAbsoluto(pedido.getDia(), minutosLocal - tabla.getHusoMinutos(sede));
+    }
+
+    /**
+     * La entrega debe llegar antes del fin del día diaPedido + plazo
+     */
+    int limiteEntrega(int instantePedido, int sede, int destino) {
+        int plazo = registro.mismoContinente(sede, destino) ? PLAZO_CONTINENTAL_DIAS : PLAZO_INTERCONTINENTAL_DIAS;
+        return TablaVuelos.inicioDia(TablaVuelos.diaDe(instantePedido) + plazo + 1);
+    }
+
+    public RedTemporal getRedTemporal() { return red; }
+    public RegistroCapacidad getRegistroCapacidad() { return capacidad; }
+
+    // ==================== RESULTADOS ====================
+
+    /**
+     * Parte de un pedido enviada por un camino de la red expandida
+     */
+    public static final class Parte {
+        private final int sede;          // Índice de sede (0..2)
+        private final int[] instancias;  // Instancias de vuelo de la red, en orden
+        private final int[] dias;        // Día UTC de salida de cada tramo
+        private final int cantidad;
+        private final int salida;        // Instante UTC de salida del primer tramo
+        private final int llegada;       // Instante UTC de llegada al destino
+        private final RutaCompleta ruta;
+
+        Parte(int sede, int[] instancias, int[] dias, int cantidad, int salida, int llegada, RutaCompleta ruta) {
+            this.sede = sede;
+            this.instancias = instancias;
+            this.dias = dias;
+            this.cantidad = cantidad;
+            this.salida = salida;
+            this.llegada = llegada;
+            this.ruta = ruta;
+        }
+
+        public int getSede() { return sede; }
+        public String getCodigoSede() { return RegistroAeropuertos.CODIGOS_SEDE[sede]; }
+        public int getNumeroTramos() { return instancias.length; }
+        public int getInstancia(int tramo) { return instancias[tramo]; }
+        public int getDia(int tramo) { return dias[tramo]; }
+        public int getCantidad() { return cantidad; }
+        public int getSalida() { return salida; }
+        public int getLlegada() { return llegada; }
+        public RutaCompleta getRuta() { return ruta; }
+    }
+
+    /**
+     * Plan de un pedido en varias partes (vacío si no se pudo enviar nada)
+     */
+    public static final class PlanDivision {
+        private final Pedido pedido;
+        private final List<Parte> partes = new ArrayList<>();
+
+        PlanDivision(Pedido pedido) {
+            this.pedido = pedido;
+        }
+
+        public Pedido getPedido() { return pedido; }
+        public List<Parte> getPartes() { return Collections.unmodifiableList(partes); }
+        public int getNumeroPartes() { return partes.size(); }
+        public boolean estaVacio() { return partes.isEmpty(); }
+
+        /**
+         * Rutas de las partes, cada una con su cantidad de paquetes
+         */
+        public List<RutaCompleta> getRutas() {
+            List<RutaCompleta> rutas = new ArrayList<>(partes.size());
+            for (Parte parte : partes) {
+                rutas.add(parte.getRuta());
+            }
+            return rutas;
+        }
+
+        public int getCantidadAsignada() {
+            int asignada = 0;
+            for (Parte parte : partes) {
+                asignada += parte.getCantidad();
+            }
+            return asignada;
+        }
+
+        public boolean estaCompleto() {
+            return !partes.isEmpty() && getCantidadAsignada() >= pedido.getCantidadProductos();
+        }
+
+        /**
+         * Sede que envía más productos del pedido (-1 si no tiene partes)
+         */
+        public int getSedePrincipal() {
+            int[] porSede = new int[RegistroAeropuertos.CODIGOS_SEDE.length];
+            int mejor = -1;
+            for (Parte parte : partes) {
+                porSede[parte.getSede()] += parte.getCantidad();
+                if (mejor < 0 || porSede[parte.getSede()] > porSede[mejor]) {
+                    mejor = parte.getSede();
+                }
+            }
+            return mejor;
+        }
+
+        /**
+         * Instante de llegada de la última parte (Integer.MIN_VALUE si no tiene partes)
+         */
+        public int getLlegadaFinal() {
+            int llegada = Integer.MIN_VALUE;
+            for (Parte parte : partes) {
+                llegada = Math.max(llegada, parte.getLlegada());
+            }
+            return llegada;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PlanDivision[%s: %d partes, %d/%d productos]", pedido.getId(),
+                partes.size(), getCantidadAsignada(), pedido.getCantidadProductos());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package morapack.planificacion;
+
+import morapack.datos.CargadorDatosCSV;
+import morapack.modelo.*;
+import java.util.*;
+
+/**
+ * Planificador voraz por lotes: reparte los pedidos de una ventana (por ejemplo, un día) uno a
+ * uno sobre la red expandida en el tiempo del mes, con la capacidad compartida entre pedidos.
+ *
+ * No es un flujo multi-mercancía de costo mínimo: cada pedido se atiende con caminos más cortos
+ * sucesivos de PlanificadorDivision (el camino de llegada más temprana con capacidad residual,
+ * enviando lo que permite su tramo más cargado, hasta cubrir la cantidad) y lo que reserva ya no
+ * se revisa al planificar los siguientes. El resultado depende del orden de atención (plazo más
+ * cercano, luego el pedido más grande, luego el id), que es determinista y no depende del orden de
+ * la lista de entrada. Sirve como heurística de siembra y como plan de referencia, no como óptimo.
+ * La capacidad queda reservada entre lotes.
+ * No es seguro para hilos: cada hilo debe usar su propia instancia.
+ */
+public class PlanificadorLoteVoraz {
+
+    private static final int DIAS_REGISTRO = 35;              // Días del mes más el plazo máximo
+
+    private final TablaVuelos tabla;
+    private final RedTemporal red;
+    private final RegistroAeropuertos registro;
+    private final RegistroCapacidad capacidad;  // Carga por instancia de vuelo, compartida entre lotes
+    private final PlanificadorDivision division;
+
+    public PlanificadorLoteVoraz(List<Vuelo> vuelos) {
+        this(CargadorDatosCSV.cargarTablaVuelos(vuelos));
+    }
+
+    public PlanificadorLoteVoraz(TablaVuelos tabla) {
+        this.tabla = tabla;
+        this.red = new RedTemporal(tabla, DIAS_REGISTRO);
+        this.registro = tabla.getRegistro();
+        this.capacidad = red.crearRegistroCapacidad();
+        this.division = new PlanificadorDivision(red, capacidad);
+    }
+
+    // ==================== LOTES ====================
+
+    /**
+     * Planifica los pedidos agrupados por día del pedido, un lote por día en orden cronológico
+     */
+    public ResultadoLote planificarPorDias(List<Pedido> pedidos) {
+        TreeMap<Integer, List<Pedido>> porDia = new TreeMap<>();
+        for (Pedido pedido : pedidos) {
+            porDia.computeIfAbsent(pedido.getDia(), k -> new ArrayList<>()).add(pedido);
+        }
+
+        ResultadoLote resultado = new ResultadoLote();
+        for (List<Pedido> lote : porDia.values()) {
+            planificarLote(lote, resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Planifica un lote de pedidos liberados en la misma ventana de tiempo
+     */
+    public ResultadoLote planificarLote(Collection<Pedido> pedidos) {
+        ResultadoLote resultado = new ResultadoLote();
+        planificarLote(pedidos, resultado);
+        return resultado;
+    }
+
+    private void planificarLote(Collection<Pedido> pedidos, ResultadoLote resultado) {
+        // Prioridad: plazo más cercano, luego el pedido más grande, luego el id
+        List<Pedido> orden = new ArrayList<>(pedidos);
+        Map<Pedido, Integer> plazos = new IdentityHashMap<>();
+        for (Pedido pedido : orden) {
+            plazos.put(pedido, calcularPlazoMasCercano(pedido));
+        }
+        orden.sort(Comparator.<Pedido>comparingInt(plazos::get)
+                .thenComparing(Comparator.comparingInt(Pedido::getCantidadProductos).reversed())
+                .thenComparing(p -> p.getId() != null ? p.getId() : ""));
+
+        for (Pedido pedido : orden) {
+            resultado.agregar(division.dividirParcial(pedido));
+        }
+    }
+
+    private int calcularPlazoMasCercano(Pedido pedido) {
+        int destino = registro.getId(pedido.getAeropuertoDestinoId());
+        if (destino < 0) {
+            return Integer.MAX_VALUE;
+        }
+        int plazo = Integer.MAX_VALUE;
+        for (int s = 0; s < registro.getNumeroSedes(); s++) {
+            int sede = registro.getIdSede(s);
+            plazo = Math.min(plazo, division.limiteEntrega(division.instantePedido(pedido, sede), sede, destino));
+        }
+        return plazo;
+    }
+
+    /**
+     * Libera toda la capacidad reservada por los lotes anteriores
+     */
+    public void reiniciarCapacidades() {
+        capacidad.reiniciar();
+    }
+
+    public TablaVuelos getTabla() { return tabla; }
+    public RedTemporal getRedTemporal() { return red; }
+    public RegistroCapacidad getRegistroCapacidad() { return capacidad; }
+    public PlanificadorDivision getPlanificadorDivision() { return division; }
+
+    // ==================== RESULTADOS ====================
+
+    /**
+     * Plan de división de cada pedido (en orden de planificación) y estadísticas del lote
+     */
+    public static final class ResultadoLote {
+        private final Map<Pedido, PlanificadorDivision.PlanDivision> planes = new LinkedHashMap<>();
+        private int pedidosCompletos = 0;
+        private int pedidosParciales = 0;
+        private int pedidosSinRuta = 0;
+        private long productosSolicitados = 0;
+        private long productosEnviados = 0;
+
+        void agregar(PlanificadorDivision.PlanDivision plan) {
+            Pedido pedido = plan.getPedido();
+            planes.put(pedido, plan);
+            productosSolicitados += pedido.getCantidadProductos();
+            productosEnviados += plan.getCantidadAsignada();
+            if (plan.estaCompleto()) {
+                pedidosCompletos++;
+            } else if (!plan.estaVacio()) {
+                pedidosParciales++;
+            } else {
+                pedidosSinRuta++;
+            }
+        }
+
+        /**
+         * Plan del pedido (null si no pertenece al lote)
+         */
+        public PlanificadorDivision.PlanDivision getPlan(Pedido pedido) { return planes.get(pedido); }
+
+        public List<PlanificadorDivision.Parte> getPartes(Pedido pedido) {
+            PlanificadorDivision.PlanDivision plan = planes.get(pedido);
+            return plan != null ? plan.getPartes() : Collections.emptyList();
+        }
+
+        public int getCantidadEnviada(Pedido pedido) {
+            PlanificadorDivision.PlanDivision plan = planes.get(pedido);
+            return plan != null ? plan.getCantidadAsignada() : 0;
+        }
+
+        public boolean estaCompleto(Pedido pedido) {
+            PlanificadorDivision.PlanDivision plan = planes.get(pedido);
+            return plan != null && plan.estaCompleto();
+        }
+
+        /**
+         * Sede que envía más productos del pedido (-1 si no tiene envíos)
+         */
+        public int getSedePrincipal(Pedido pedido) {
+            PlanificadorDivision.PlanDivision plan = planes.get(pedido);
+            return plan != null ? plan.getSedePrincipal() : -1;
+        }
+
+        public int getPedidosCompletos() { return pedidosCompletos; }
+        public int getPedidosParciales() { return pedidosParciales; }
+        public int getPedidosSinRuta() { return pedidosSinRuta; }
+        public long getProductosSolicitados() { return productosSolicitados; }
+        public long getProductosEnviados() { return productosEnviados; }
+
+        @Override
+        public String toString() {
+            return String.format("ResultadoLote[%d completos, %d parciales, %d sin ruta, %,d/%,d productos]",
+                pedidosCompletos, pedidosParciales, pedidosSinRuta, productosEnviados, productosSolicitados);
+        }
+    }
+}
@@ -1,30 +1,34 @@
 package morapack.planificacion;
 
 import morapack.modelo.*;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import morapack.datos.CargadorDatosCSV;
 import java.util.*;
 
 
 public class PlanificadorTemporalConUTCyPlazos {
-    
+
     private static final int TIEMPO_PREPARACION_MINUTOS = 30; // 30 min antes del vuelo
     private static final int MIN_CONEXION_MINUTOS = 30;       // Tiempo mínimo entre conexiones
     private static final int MAX_ESCALAS = 3;                 // Máximo 3 escalas
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
-    
-    private final Map<String, List<Vuelo>> vuelosPorOrigen;
-    private final Map<String, Integer> capacidadUsada; // Capacidad usada por vuelo por día
-    
+    private static final int MINUTOS_DIA = TablaVuelos.MINUTOS_DIA;
+    private static final int DIAS_REGISTRO = 35;              // Días del mes más el plazo máximo
+
+    // Tabla columnar compartida: ids de aeropuerto y horarios ya convertidos a UTC
+    private final TablaVuelos tabla;
+    private final RedTemporal red;                  // Instancias (vuelo, día) del mes sin objetos por instancia
+    private final RegistroCapacidad capacidadUsada; // Capacidad usada por instancia de vuelo
+    private final PlanificadorDivision division;    // División de pedidos sobre la misma carga
+
     public PlanificadorTemporalConUTCyPlazos(List<Vuelo> vuelos) {
-        this.vuelosPorOrigen = new HashMap<>();
-        this.capacidadUsada = new HashMap<>();
-        
-        // Indexar vuelos por aeropuerto de origen
-        for (Vuelo vuelo : vuelos) {
-            vuelosPorOrigen.computeIfAbsent(vuelo.getOrigen(), k -> new ArrayList<>()).add(vuelo);
-        }
-        
+        this(TablaVuelos.construir(vuelos, CargadorDatosCSV.cargarRegistroAeropuertos(), true));
+    }
+
+    public PlanificadorTemporalConUTCyPlazos(TablaVuelos tabla) {
+        this.tabla = tabla;
+        this.red = new RedTemporal(tabla, DIAS_REGISTRO);
+        this.capacidadUsada = red.crearRegistroCapacidad();
+        this.division = new PlanificadorDivision(red, capacidadUsada);
+
         System.out.println("🕐 Planificador Temporal Mejorado con UTC y Plazos inicializado:");
         System.out.println("   - Tiempo de preparación: " + TIEMPO_PREPARACION_MINUTOS + " minutos");
         System.out.println("   - Vuelos diarios repetitivos: Activado");
@@ -33,251 +37,255 @@ public class PlanificadorTemporalConUTCyPlazos {
         System.out.println("   - Plazos continentales: 2 días");
         System.out.println("   - Plazos intercontinentales: 3 días");
     }
-    
+
     /**
      * Planifica una ruta considerando el tiempo del pedido, UTC y plazos
      */
     public RutaCompleta planificarRutaTemporal(Pedido pedido, String sedeOrigen) {
         String destino = pedido.getAeropuertoDestinoId();
         int cantidad = pedido.getCantidadProductos();
-        
-        // Validaciones básicas
-        if (destino.equals("SPIM") || destino.equals("EBCI") || destino.equals("UBBB")) {
+
+        // Validaciones básicas (los códigos se traducen a ids una sola vez)
+        RegistroAeropuertos registro = tabla.getRegistro();
+        int idOrigen = registro.getId(sedeOrigen);
+        int idDestino = registro.getId(destino);
+        if (idOrigen < 0 || idDestino < 0) {
+            return null; // Aeropuerto no configurado
+        }
+
+        if (registro.esSede(idDestino)) {
             return null; // No enviar a nuestras propias sedes
         }
-        
-        if (sedeOrigen.equals(destino)) {
+
+        if (idOrigen == idDestino) {
             return null; // Origen = destino no tiene sentido
         }
-        
-        // 🌍 CONVERSIÓN UTC: Convertir hora del pedido a UTC
-        LocalTime horaPedidoLocal = LocalTime.of(pedido.getHora(), pedido.getMinuto());
-        LocalTime horaPedidoUTC = GestorUTCyContinentesCSV.convertirAUTC(sedeOrigen, horaPedidoLocal);
-        
+
+        // 🌍 CONVERSIÓN UTC: instante del pedido en minutos UTC desde el inicio del mes
+        int minutosPedidoLocal = pedido.getHora() * 60 + pedido.getMinuto();
+        int instantePedido = TablaVuelos.minutoAbsoluto(pedido.getDia(), minutosPedidoLocal - tabla.getHusoMinutos(idOrigen));
+        int minutosPedidoUTC = Math.floorMod(instantePedido, MINUTOS_DIA);
+
         // ⏰ LÓGICA TEMPORAL: Calcular cuándo puede salir el pedido en UTC
-        int minutosDelDiaUTC = horaPedidoUTC.getHour() * 60 + horaPedidoUTC.getMinute();
-        int tiempoMinimoSalidaUTC = minutosDelDiaUTC + TIEMPO_PREPARACION_MINUTOS;
-        
+        int instanteListo = instantePedido + TIEMPO_PREPARACION_MINUTOS;
+
         System.out.println("📦 Planificando pedido " + pedido.getId() + ":");
-        System.out.printf("   Hora pedido local (%s): %02d:%02d\n", 
-            GestorUTCyContinentesCSV.obtenerZonaHoraria(sedeOrigen),
+        System.out.printf("   Hora pedido local (%s): %02d:%02d\n",
+            formatearZonaHoraria(tabla.getHusoMinutos(idOrigen)),
             pedido.getHora(), pedido.getMinuto());
-        System.out.printf("   Hora pedido UTC: %s\n", horaPedidoUTC.format(TIME_FORMATTER));
-        System.out.printf("   Tiempo mínimo salida UTC: %s\n", formatearTiempo(tiempoMinimoSalidaUTC));
-        
+        System.out.printf("   Hora pedido UTC: %s\n", formatearTiempo(minutosPedidoUTC));
+        System.out.printf("   Tiempo mínimo salida UTC: %s\n", formatearTiempo(instanteListo));
+
         // 📆 VALIDACIÓN DE PLAZOS: Verificar plazo máximo permitido
-        int plazoMaximo = GestorUTCyContinentesCSV.obtenerPlazoMaximo(sedeOrigen, destino);
-        boolean esIntercontinental = !GestorUTCyContinentesCSV.mismosContinentes(sedeOrigen, destino);
-        
-        System.out.printf("   🌍 Ruta: %s (%s) → %s (%s)\n", 
-            sedeOrigen, GestorUTCyContinentesCSV.obtenerContinente(sedeOrigen),
-            destino, GestorUTCyContinentesCSV.obtenerContinente(destino));
-        System.out.printf("   📆 Tipo: %s (Plazo máximo: %d días)\n", 
+        boolean esIntercontinental = !mismoContinente(idOrigen, idDestino);
+        int plazoMaximo = esIntercontinental ? 3 : 2;
+
+        System.out.printf("   🌍 Ruta: %s (%s) → %s (%s)\n",
+            sedeOrigen, tabla.getContinente(idOrigen),
+            destino, tabla.getContinente(idDestino));
+        System.out.printf("   📆 Tipo: %s (Plazo máximo: %d días)\n",
             esIntercontinental ? "INTERCONTINENTAL" : "CONTINENTAL", plazoMaximo);
-        
+
         // 🌙 LÓGICA NOCTURNA: Si es muy tarde, considerar vuelos del día siguiente
-        boolean esNocturno = horaPedidoUTC.getHour() >= 22 || horaPedidoUTC.getHour() < 6;
+        boolean esNocturno = minutosPedidoUTC >= 22 * 60 || minutosPedidoUTC < 6 * 60;
         if (esNocturno) {
             System.out.println("   🌙 Pedido nocturno detectado (UTC)");
         }
-        
-        return construirRutaTemporalConPlazos(sedeOrigen, destino, cantidad, 
-                                            tiempoMinimoSalidaUTC, new HashSet<>(), 
-                                            pedido.getDia(), esNocturno, plazoMaximo, 
-                                            horaPedidoUTC, pedido.getDia());
+
+        // Límites del plazo como instantes: la entrega debe llegar antes del fin del día
+        // diaPedido + plazo (o del día siguiente) y cada escala antes del inicio de ese día
+        int diaPedido = TablaVuelos.diaDe(instantePedido);
+        int limiteEntrega = TablaVuelos.inicioDia(diaPedido + Math.max(1, plazoMaximo) + 1);
+        int limiteEscala = TablaVuelos.inicioDia(diaPedido + plazoMaximo);
+
+        return construirRutaTemporalConPlazos(idOrigen, idDestino, cantidad, instanteListo,
+                                            new boolean[tabla.getNumeroAeropuertos()], 0,
+                                            esNocturno, limiteEntrega, limiteEscala, diaPedido, plazoMaximo);
     }
-    
+
     /**
-     * Construye una ruta temporal considerando plazos máximos
+     * Planifica el pedido en una sola ruta si es posible; si no (por ejemplo, porque excede la
+     * capacidad de un avión) lo divide entre varios itinerarios y días con la capacidad residual.
+     * Retorna las rutas con su cantidad de paquetes, o una lista vacía si no cabe completo.
      */
-    private RutaCompleta construirRutaTemporalConPlazos(String origen, String destino, int cantidad,
-                                                      int tiempoMinimo, Set<String> visitados, 
-                                                      int diaInicial, boolean esNocturno, int plazoMaximo,
-                                                      LocalTime horaPedidoUTC, int diaPedido) {
-        
-        // Prevenir ciclos infinitos
-        if (visitados.contains(origen) || visitados.size() >= MAX_ESCALAS) {
-            return null;
+    public List<RutaCompleta> planificarConDivision(Pedido pedido, String sedeOrigen) {
+        RutaCompleta ruta = planificarRutaTemporal(pedido, sedeOrigen);
+        if (ruta != null && ruta.esViable()) {
+            ruta.setCantidadPaquetes(pedido.getCantidadProductos());
+            return Collections.singletonList(ruta);
         }
-        
-        visitados.add(origen);
-        
-        // Buscar vuelos desde el origen
-        List<Vuelo> vuelosDesdeOrigen = vuelosPorOrigen.get(origen);
-        if (vuelosDesdeOrigen == null || vuelosDesdeOrigen.isEmpty()) {
+        return division.dividir(pedido, sedeOrigen).getRutas();
+    }
+
+    /**
+     * Divide el pedido entre todas las sedes con la capacidad residual (vacío si no cabe completo)
+     */
+    public PlanificadorDivision.PlanDivision dividirPedido(Pedido pedido) {
+        return division.dividir(pedido);
+    }
+
+    /**
+     * Construye una ruta temporal considerando plazos máximos. Los tiempos son instantes
+     * absolutos (minutos UTC desde el inicio del mes), por lo que el cambio de día es aritmético.
+     */
+    private RutaCompleta construirRutaTemporalConPlazos(int origen, int destino, int cantidad,
+                                                      int instanteListo, boolean[] visitados, int numVisitados,
+                                                      boolean esNocturno, int limiteEntrega, int limiteEscala,
+                                                      int diaPedido, int plazoMaximo) {
+
+        // Prevenir ciclos infinitos
+        if (visitados[origen] || numVisitados >= MAX_ESCALAS) {
             return null;
         }
-        
-        // 🎯 BÚSQUEDA DIRECTA: Buscar vuelo directo al destino
-        for (Vuelo vuelo : vuelosDesdeOrigen) {
-            if (vuelo.getDestino().equals(destino)) {
-                
-                // Convertir horarios del vuelo a UTC
-                LocalTime horaSalidaLocal = LocalTime.parse(vuelo.getHoraSalida());
-                LocalTime horaLlegadaLocal = LocalTime.parse(vuelo.getHoraLlegada());
-                
-                LocalTime horaSalidaUTC = GestorUTCyContinentesCSV.convertirAUTC(origen, horaSalidaLocal);
-                LocalTime horaLlegadaUTC = GestorUTCyContinentesCSV.convertirAUTC(destino, horaLlegadaLocal);
-                
-                if (esVueloDisponibleEnTiempoUTC(vuelo, tiempoMinimo, cantidad, diaInicial, esNocturno)) {
-                    
-                    // 📆 VALIDAR PLAZO: Verificar que la entrega esté dentro del plazo
-                    int diaLlegada = calcularDiaLlegada(diaInicial, horaSalidaUTC, horaLlegadaUTC, esNocturno);
-                    
-                    boolean cumplePlazo = GestorUTCyContinentesCSV.validarPlazoRuta(
-                        origen, destino, horaPedidoUTC, diaPedido, horaLlegadaUTC, diaLlegada
-                    );
-                    
-                    if (!cumplePlazo) {
-                        System.out.printf("   ❌ Vuelo directo excede plazo: %s→%s\n", origen, destino);
-                        continue; // Buscar otra opción
-                    }
-                    
-                    System.out.printf("     ✅ Vuelo %s %s→%s (Cap: %d/%d, Paquetes: %d)\n", 
-                              vuelo.getHoraSalida(), origen, destino, 
-                              vuelo.getCapacidad(), vuelo.getCapacidad(), cantidad);
-                    System.out.println("   ✈️ Ruta directa encontrada: " + origen + " → " + destino);
-                    System.out.printf("   📆 Entrega en %d días (dentro del plazo de %d días)\n", 
-                                    GestorUTCyContinentesCSV.calcularDiasTranscurridos(horaPedidoUTC, diaPedido, horaLlegadaUTC, diaLlegada),
-                                    plazoMaximo);
-                    
-                    // Crear ruta directa exitosa
-                    RutaCompleta ruta = new RutaCompleta();
-                    ruta.agregarVuelo(vuelo);
-                    ruta.setTipoRuta("DIRECTO");
-                    
-                    // Actualizar capacidad usada
-                    String claveVuelo = vuelo.getOrigen() + "-" + vuelo.getDestino() + "-" + vuelo.getHoraSalida() + "-" + diaInicial;
-                    capacidadUsada.merge(claveVuelo, cantidad, Integer::sum);
-                    
-                    return ruta;
+
+        visitados[origen] = true;
+        try {
+            int inicio = tabla.getInicioOrigen(origen);
+            int fin = tabla.getFinOrigen(origen);
+
+            // 🎯 BÚSQUEDA DIRECTA: Buscar vuelo directo al destino
+            for (int i = inicio; i < fin; i++) {
+                if (tabla.getDestino(i) != destino) {
+                    continue;
                 }
+                int instancia = instanciaDisponible(i, instanteListo, cantidad, esNocturno);
+                if (instancia < 0) {
+                    continue;
+                }
+
+                // 📆 VALIDAR PLAZO: Verificar que la entrega esté dentro del plazo
+                int llegada = red.getLlegada(instancia);
+                if (llegada >= limiteEntrega) {
+                    System.out.printf("   ❌ Vuelo directo excede plazo: %s→%s\n",
+                                    tabla.getCodigo(origen), tabla.getCodigo(destino));
+                    continue; // Buscar otra opción
+                }
+
+                Vuelo vuelo = tabla.getVuelo(i);
+                System.out.printf("     ✅ Vuelo %s %s→%s (Cap: %d/%d, Paquetes: %d)\n",
+                          vuelo.getHoraSalida(), vuelo.getOrigen(), vuelo.getDestino(),
+                          vuelo.getCapacidad(), vuelo.getCapacidad(), cantidad);
+                System.out.println("   ✈️ Ruta directa encontrada: " + vuelo.getOrigen() + " → " + vuelo.getDestino());
+                System.out.printf("   📆 Entrega en %d días (dentro del plazo de %d días)\n",
+                                TablaVuelos.diaDe(llegada) - diaPedido, plazoMaximo);
+
+                // Crear ruta directa exitosa
+                RutaCompleta ruta = new RutaCompleta();
+                ruta.agregarVuelo(vuelo);
+                ruta.setTipoRuta("DIRECTO");
+
+                // Actualizar capacidad usada (instancia del día en que sale el vuelo)
+                red.reservar(instancia, cantidad, capacidadUsada);
+
+                return ruta;
             }
-        }
-        
-        // 🔄 BÚSQUEDA CON ESCALAS: Si no hay vuelo directo, buscar con conexiones
-        for (Vuelo vuelo : vuelosDesdeOrigen) {
-            String aeropuertoConexion = vuelo.getDestino();
-            
-            // No hacer escala en el destino final ni en el origen
-            if (aeropuertoConexion.equals(destino) || aeropuertoConexion.equals(origen)) {
-                continue;
-            }
-            
-            if (esVueloDisponibleEnTiempoUTC(vuelo, tiempoMinimo, cantidad, diaInicial, esNocturno)) {
-                
-                // Calcular tiempo de llegada a la escala para la conexión
-                LocalTime horaLlegadaEscala = LocalTime.parse(vuelo.getHoraLlegada());
-                LocalTime horaLlegadaEscalaUTC = GestorUTCyContinentesCSV.convertirAUTC(aeropuertoConexion, horaLlegadaEscala);
-                
-                int tiempoLlegadaEscala = horaLlegadaEscalaUTC.getHour() * 60 + horaLlegadaEscalaUTC.getMinute();
-                int tiempoMinimoConexion = tiempoLlegadaEscala + MIN_CONEXION_MINUTOS;
-                
-                int diaConexion = calcularDiaLlegada(diaInicial, 
-                    GestorUTCyContinentesCSV.convertirAUTC(origen, LocalTime.parse(vuelo.getHoraSalida())), 
-                    horaLlegadaEscalaUTC, esNocturno);
-                
+
+            // 🔄 BÚSQUEDA CON ESCALAS: Si no hay vuelo directo, buscar con conexiones
+            for (int i = inicio; i < fin; i++) {
+                int aeropuertoConexion = tabla.getDestino(i);
+
+                // No hacer escala en el destino final ni en el origen
+                if (aeropuertoConexion == destino || aeropuertoConexion == origen) {
+                    continue;
+                }
+
+                int instancia = instanciaDisponible(i, instanteListo, cantidad, esNocturno);
+                if (instancia < 0) {
+                    continue;
+                }
+
                 // Validar que la escala no exceda el plazo
-                int diasHastaEscala = GestorUTCyContinentesCSV.calcularDiasTranscurridos(
-                    horaPedidoUTC, diaPedido, horaLlegadaEscalaUTC, diaConexion
-                );
-                
-                if (diasHastaEscala >= plazoMaximo) {
+                int llegadaEscala = red.getLlegada(instancia);
+                if (llegadaEscala >= limiteEscala) {
                     continue; // Esta escala ya excede el plazo
                 }
-                
+
                 // Buscar recursivamente desde la escala
                 RutaCompleta rutaConexion = construirRutaTemporalConPlazos(
-                    aeropuertoConexion, destino, cantidad, tiempoMinimoConexion, 
-                    new HashSet<>(visitados), diaConexion, false, plazoMaximo, horaPedidoUTC, diaPedido
+                    aeropuertoConexion, destino, cantidad, llegadaEscala + MIN_CONEXION_MINUTOS,
+                    visitados, numVisitados + 1, false, limiteEntrega, limiteEscala, diaPedido, plazoMaximo
                 );
-                
+
                 if (rutaConexion != null && rutaConexion.esViable()) {
-                    System.out.printf("     🔄 Escala: %s→%s→... (%d paquetes)\n", 
-                                    origen, aeropuertoConexion, cantidad);
+                    String codigoConexion = tabla.getCodigo(aeropuertoConexion);
+                    System.out.printf("     🔄 Escala: %s→%s→... (%d paquetes)\n",
+                                    tabla.getCodigo(origen), codigoConexion, cantidad);
                     System.out.println("   🔄 Ruta con escalas encontrada");
-                    
+
                     // Crear ruta con escalas
                     RutaCompleta rutaCompleta = new RutaCompleta();
-                    rutaCompleta.agregarVuelo(vuelo);
-                    
+                    rutaCompleta.agregarVuelo(tabla.getVuelo(i));
+
                     // Agregar vuelos de la conexión
                     for (Vuelo vueloConexion : rutaConexion.getVuelos()) {
                         rutaCompleta.agregarVuelo(vueloConexion);
                     }
-                    
+
                     // Determinar tipo de ruta
                     int numEscalas = rutaCompleta.getVuelos().size() - 1;
                     if (numEscalas == 1) {
                         rutaCompleta.setTipoRuta("UNA_CONEXION");
-                        rutaCompleta.getEscalas().add(aeropuertoConexion);
+                        rutaCompleta.getEscalas().add(codigoConexion);
                     } else if (numEscalas == 2) {
                         rutaCompleta.setTipoRuta("DOS_CONEXIONES");
                         rutaCompleta.getEscalas().addAll(rutaConexion.getEscalas());
-                        rutaCompleta.getEscalas().add(0, aeropuertoConexion);
+                        rutaCompleta.getEscalas().add(0, codigoConexion);
                     }
-                    
+
                     // Actualizar capacidad usada
-                    String claveVuelo = vuelo.getOrigen() + "-" + vuelo.getDestino() + "-" + vuelo.getHoraSalida() + "-" + diaInicial;
-                    capacidadUsada.merge(claveVuelo, cantidad, Integer::sum);
-                    
+                    red.reservar(instancia, cantidad, capacidadUsada);
+
                     return rutaCompleta;
                 }
             }
+
+            return null; // No se encontró ruta viable
+        } finally {
+            visitados[origen] = false;
         }
-        
-        return null; // No se encontró ruta viable
     }
-    
+
     /**
-     * Verifica si un vuelo está disponible considerando tiempo UTC y capacidad
+     * Próxima instancia del vuelo en la red si se puede tomar, o -1.
+     * Sale el mismo día UTC en que el envío está listo (un pedido nocturno también puede
+     * esperar al día siguiente) y debe tener capacidad en ese día.
      */
-    private boolean esVueloDisponibleEnTiempoUTC(Vuelo vuelo, int tiempoMinimoUTC, int cantidad, 
-                                               int dia, boolean esNocturno) {
-        
-        // Convertir hora de salida del vuelo a UTC
-        LocalTime horaSalidaLocal = LocalTime.parse(vuelo.getHoraSalida());
-        LocalTime horaSalidaUTC = GestorUTCyContinentesCSV.convertirAUTC(vuelo.getOrigen(), horaSalidaLocal);
-        
-        int minutosSalidaUTC = horaSalidaUTC.getHour() * 60 + horaSalidaUTC.getMinute();
-        
-        // Verificar disponibilidad temporal
-        boolean disponibleTiempo;
-        if (esNocturno || tiempoMinimoUTC > 24 * 60) {
-            // Para pedidos nocturnos o que exceden el día, el vuelo puede ser del día siguiente
-            disponibleTiempo = true;
-        } else {
-            disponibleTiempo = minutosSalidaUTC >= tiempoMinimoUTC;
+    private int instanciaDisponible(int indiceVuelo, int instanteListo, int cantidad, boolean esNocturno) {
+        int instancia = red.siguienteInstancia(indiceVuelo, instanteListo);
+        int limiteSalida = TablaVuelos.inicioDia(TablaVuelos.diaDe(instanteListo) + (esNocturno ? 2 : 1));
+        if (instancia < 0 || red.getSalida(instancia) >= limiteSalida || !red.cabe(instancia, cantidad, capacidadUsada)) {
+            return -1;
         }
-        
-        if (!disponibleTiempo) {
-            return false;
-        }
-        
-        // Verificar capacidad disponible
-        String claveVuelo = vuelo.getOrigen() + "-" + vuelo.getDestino() + "-" + vuelo.getHoraSalida() + "-" + dia;
-        int capacidadUsadaActual = capacidadUsada.getOrDefault(claveVuelo, 0);
-        int capacidadDisponible = vuelo.getCapacidad() - capacidadUsadaActual;
-        
-        return capacidadDisponible >= cantidad;
+        return instancia;
     }
-    
-    /**
-     * Calcula el día de llegada considerando vuelos nocturnos
-     */
-    private int calcularDiaLlegada(int diaSalida, LocalTime horaSalida, LocalTime horaLlegada, boolean esNocturno) {
-        if (esNocturno || horaLlegada.isBefore(horaSalida)) {
-            return diaSalida + 1; // Llega al día siguiente
-        }
-        return diaSalida; // Llega el mismo día
+
+    private boolean mismoContinente(int aeropuerto1, int aeropuerto2) {
+        return tabla.getRegistro().mismoContinente(aeropuerto1, aeropuerto2);
     }
-    
+
     /**
      * Formatea tiempo en minutos a HH:mm
      */
     private String formatearTiempo(int minutos) {
-        int horas = (minutos / 60) % 24;
-        int mins = minutos % 60;
+        int minutosDelDia = Math.floorMod(minutos, MINUTOS_DIA); // También acepta instantes absolutos
+        int horas = minutosDelDia / 60;
+        int mins = minutosDelDia % 60;
         return String.format("%02d:%02d", horas, mins);
     }
+
+    /**
+     * Formatea un huso horario en minutos como UTC±H
+     */
+    private String formatearZonaHoraria(int husoMinutos) {
+        String signo = husoMinutos >= 0 ? "+" : "-";
+        int absoluto = Math.abs(husoMinutos);
+        return absoluto % 60 == 0
+            ? String.format("UTC%s%d", signo, absoluto / 60)
+            : String.format("UTC%s%d:%02d", signo, absoluto / 60, absoluto % 60);
+    }
+
+    public TablaVuelos getTabla() { return tabla; }
+    public RedTemporal getRedTemporal() { return red; }
+    public RegistroCapacidad getRegistroCapacidad() { return capacidadUsada; }
+    public PlanificadorDivision getPlanificadorDivision() { return division; }
 }